@@ -9,7 +9,9 @@
  */
 package org.openmrs.module.radiology;
 
+import org.openmrs.api.context.Context;
 import org.openmrs.module.BaseModuleActivator;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,9 +31,24 @@ public class RadiologyActivator extends BaseModuleActivator {
     
     @Override
     public void started() {
+        cacheMrrtReportTemplateHtmlBodies();
         log.info("Radiology Module successfully started");
     }
     
+    /**
+     * Warms the cache of mrrt report template html bodies so the first report forms do not read the template files.
+     * A failure is only logged since the templates are read on demand anyway.
+     */
+    private void cacheMrrtReportTemplateHtmlBodies() {
+        try {
+            Context.getService(MrrtReportTemplateService.class)
+                    .cacheMrrtReportTemplateHtmlBodies();
+        }
+        catch (RuntimeException runtimeException) {
+            log.warn("Could not cache the mrrt report template html bodies", runtimeException);
+        }
+    }
+    
     @Override
     public void willStop() {
         log.info("Trying to shut down Radiology Module");
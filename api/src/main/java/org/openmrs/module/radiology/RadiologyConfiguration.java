@@ -0,0 +1,90 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openmrs.GlobalProperty;
+
+/**
+ * Snapshot of the {@code radiology.*} global properties, read with a single query and never changed afterwards, plus
+ * the metadata resolved from them.
+ * <p>
+ * Resolved metadata such as the ids of the care setting, order type, encounter type and role or the concept class
+ * names is kept under the name of the global property it was resolved from. {@code RadiologyProperties} replaces the
+ * whole snapshot when a {@code radiology.*} global property changes, so resolved values never outlive the global
+ * property values they were resolved from.
+ * </p>
+ *
+ * @see RadiologyProperties
+ */
+final class RadiologyConfiguration {
+    
+    
+    private final Map<String, String> globalProperties;
+    
+    private final Map<String, Object> resolved = new ConcurrentHashMap<String, Object>();
+    
+    /**
+     * @param globalProperties the global properties of this snapshot
+     */
+    RadiologyConfiguration(List<GlobalProperty> globalProperties) {
+        
+        final Map<String, String> values = new HashMap<String, String>(globalProperties.size() * 2);
+        for (GlobalProperty globalProperty : globalProperties) {
+            values.put(globalProperty.getProperty(), globalProperty.getPropertyValue());
+        }
+        this.globalProperties = Collections.unmodifiableMap(values);
+    }
+    
+    /**
+     * @param globalPropertyName the name of the global property
+     * @return the value of the global property or null if it is not configured
+     */
+    String getGlobalProperty(String globalPropertyName) {
+        return globalProperties.get(globalPropertyName);
+    }
+    
+    /**
+     * @param globalPropertyName the name of the global property the value was resolved from
+     * @return the value resolved from the global property or null if it was not resolved yet
+     */
+    Object getResolved(String globalPropertyName) {
+        return resolved.get(globalPropertyName);
+    }
+    
+    /**
+     * Keeps a value resolved from a global property unless another thread resolved it first.
+     *
+     * @param globalPropertyName the name of the global property the value was resolved from
+     * @param value the resolved value
+     * @return the resolved value kept by this snapshot
+     */
+    Object putResolved(String globalPropertyName, Object value) {
+        
+        final Object existing = resolved.putIfAbsent(globalPropertyName, value);
+        return existing == null ? value : existing;
+    }
+    
+    /**
+     * Forgets a value resolved from a global property, for example because it was resolved from metadata of a
+     * transaction that was rolled back.
+     *
+     * @param globalPropertyName the name of the global property the value was resolved from
+     * @param value the resolved value to forget
+     */
+    void removeResolved(String globalPropertyName, Object value) {
+        resolved.remove(globalPropertyName, value);
+    }
+}
@@ -93,6 +93,56 @@ public class RadiologyConstants {
      */
     public static final String GP_NEXT_ACCESSION_NUMBER_SEED = "radiology.nextAccessionNumberSeed";
     
+    /**
+     * {@code GlobalProperty} property for the number of accession number seeds reserved per database round-trip.
+     */
+    public static final String GP_ACCESSION_NUMBER_BLOCK_SIZE = "radiology.accessionNumberBlockSize";
+    
+    /**
+     * {@code GlobalProperty} property for the strategy used to generate {@code Order.accessionNumber}.
+     * Allowable values are the names of {@code AccessionNumberGeneratorStrategy}.
+     */
+    public static final String GP_ACCESSION_NUMBER_GENERATOR = "radiology.accessionNumberGenerator";
+    
+    /**
+     * {@code GlobalProperty} property for the id of this node used by the time based accession number and DICOM UID
+     * generators.
+     * Every node of a cluster needs its own node id.
+     */
+    public static final String GP_ACCESSION_NUMBER_NODE_ID = "radiology.accessionNumberNodeId";
+    
+    /**
+     * {@code GlobalProperty} property for the strategy used to generate DICOM UIDs such as the study instance UID.
+     * Allowable values are the names of {@code DicomUidGeneratorStrategy}.
+     */
+    public static final String GP_DICOM_UID_GENERATOR = "radiology.dicomUidGenerator";
+    
+    /**
+     * {@code GlobalProperty} property for whether radiology orders of the same patient are placed one after the other.
+     */
+    public static final String GP_LOCK_RADIOLOGY_ORDERS_PER_PATIENT = "radiology.lockRadiologyOrdersPerPatient";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum number of entries of a ZIP archive of report templates.
+     */
+    public static final String GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES = "radiology.maxMrrtReportTemplateArchiveEntries";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum number of bytes all report templates of a ZIP archive add up to
+     * once extracted.
+     */
+    public static final String GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE = "radiology.maxMrrtReportTemplateArchiveSize";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum number of bytes of a report template extracted from a ZIP archive.
+     */
+    public static final String GP_MAX_MRRT_REPORT_TEMPLATE_SIZE = "radiology.maxMrrtReportTemplateSize";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum number of radiology orders placed with one batch request.
+     */
+    public static final String GP_MAX_RADIOLOGY_ORDER_BATCH_SIZE = "radiology.maxRadiologyOrderBatchSize";
+    
     /**
      * {@code GlobalProperty} property for the directory where report templates are stored.
      * Allowable values are absolute and relative paths.
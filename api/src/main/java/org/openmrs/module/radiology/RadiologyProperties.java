@@ -12,30 +12,88 @@ package org.openmrs.module.radiology;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.CareSetting;
 import org.openmrs.ConceptClass;
 import org.openmrs.EncounterRole;
 import org.openmrs.EncounterType;
+import org.openmrs.GlobalProperty;
 import org.openmrs.OrderType;
 import org.openmrs.VisitType;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
+import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.VisitService;
+import org.openmrs.module.radiology.dicom.DicomUidGeneratorStrategy;
+import org.openmrs.module.radiology.order.AccessionNumberGeneratorStrategy;
 import org.openmrs.util.OpenmrsUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Properties, mostly configured via GPs for this module.
+ * <p>
+ * The {@code radiology.*} global properties are read with a single query into a {@link RadiologyConfiguration}
+ * snapshot which also keeps the metadata resolved from them, so that the getters do not hit the database on every
+ * call. The snapshot is discarded whenever a {@code radiology.*} global property is saved or purged through the
+ * {@code AdministrationService} and when the transaction it was read in is rolled back. Entities are kept as their ids
+ * and loaded by primary key on each call so that callers always get instances attached to their session.
+ * </p>
  */
 @Component
-public class RadiologyProperties {
+public class RadiologyProperties implements GlobalPropertyListener {
+    
+    
+    /**
+     * Number of accession number seeds reserved per database round-trip if the global property is not configured.
+     */
+    static final int DEFAULT_ACCESSION_NUMBER_BLOCK_SIZE = 20;
+    
+    /**
+     * Maximum number of radiology orders placed with one batch request if the global property is not configured.
+     */
+    static final int DEFAULT_MAX_RADIOLOGY_ORDER_BATCH_SIZE = 1000;
+    
+    /**
+     * Maximum number of entries of a ZIP archive of report templates if the global property is not configured.
+     */
+    static final int DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES = 1000;
+    
+    /**
+     * Maximum number of bytes of a report template extracted from a ZIP archive if the global property is not
+     * configured.
+     */
+    static final long DEFAULT_MAX_MRRT_REPORT_TEMPLATE_SIZE = 5L * 1024 * 1024;
+    
+    /**
+     * Maximum number of bytes all report templates of a ZIP archive add up to once extracted if the global property is
+     * not configured.
+     */
+    static final long DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE = 100L * 1024 * 1024;
+    
+    private static final String GLOBAL_PROPERTY_PREFIX = "radiology.";
     
+    private final Object configurationLock = new Object();
+    
+    private volatile RadiologyConfiguration configuration;
+    
+    /**
+     * Incremented whenever the configuration is discarded so that a snapshot read concurrently with a global property
+     * change is not kept.
+     */
+    private long configurationGeneration;
     
     @Autowired
     @Qualifier("adminService")
@@ -125,13 +183,17 @@ public class RadiologyProperties {
      * @should throw illegal state exception if radiology care setting cannot be found
      */
     public CareSetting getRadiologyCareSetting() {
-        final CareSetting result =
-                orderService.getCareSettingByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, true));
-        if (result == null) {
-            throw new IllegalStateException(
-                    "No existing care setting for uuid: " + RadiologyConstants.GP_RADIOLOGY_CARE_SETTING);
-        }
-        return result;
+        
+        final Integer careSettingId = resolve(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, () -> {
+            final CareSetting careSetting =
+                    orderService.getCareSettingByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, true));
+            if (careSetting == null) {
+                throw new IllegalStateException(
+                        "No existing care setting for uuid: " + RadiologyConstants.GP_RADIOLOGY_CARE_SETTING);
+            }
+            return careSetting.getCareSettingId();
+        });
+        return orderService.getCareSetting(careSettingId);
     }
     
     /**
@@ -142,7 +204,13 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology test order type
      */
     public OrderType getRadiologyTestOrderType() {
-        return orderService.getOrderTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, true));
+        
+        final Integer orderTypeId = resolve(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, () -> {
+            final OrderType orderType = orderService
+                    .getOrderTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, true));
+            return orderType == null ? null : orderType.getOrderTypeId();
+        });
+        return orderTypeId == null ? null : orderService.getOrderType(orderTypeId);
     }
     
     /**
@@ -153,8 +221,13 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology encounter type
      */
     public EncounterType getRadiologyOrderEncounterType() {
-        return encounterService
-                .getEncounterTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, true));
+        
+        final Integer encounterTypeId = resolve(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, () -> {
+            final EncounterType encounterType = encounterService
+                    .getEncounterTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, true));
+            return encounterType == null ? null : encounterType.getEncounterTypeId();
+        });
+        return encounterTypeId == null ? null : encounterService.getEncounterType(encounterTypeId);
     }
     
     /**
@@ -165,8 +238,13 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing ordering provider encounter role
      */
     public EncounterRole getRadiologyOrderingProviderEncounterRole() {
-        return encounterService.getEncounterRoleByUuid(
-            getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE, true));
+        
+        final Integer encounterRoleId = resolve(RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE, () -> {
+            final EncounterRole encounterRole = encounterService.getEncounterRoleByUuid(
+                getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE, true));
+            return encounterRole == null ? null : encounterRole.getEncounterRoleId();
+        });
+        return encounterRoleId == null ? null : encounterService.getEncounterRole(encounterRoleId);
     }
     
     /**
@@ -177,7 +255,13 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology visit type
      */
     public VisitType getRadiologyVisitType() {
-        return visitService.getVisitTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, true));
+        
+        final Integer visitTypeId = resolve(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, () -> {
+            final VisitType visitType =
+                    visitService.getVisitTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, true));
+            return visitType == null ? null : visitType.getVisitTypeId();
+        });
+        return visitTypeId == null ? null : visitService.getVisitType(visitTypeId);
     }
     
     /**
@@ -200,6 +284,10 @@ public class RadiologyProperties {
      *         in global property radiology concept classes
      */
     public String getRadiologyConceptClassNames() {
+        return resolve(RadiologyConstants.GP_RADIOLOGY_CONCEPT_CLASSES, this::resolveRadiologyConceptClassNames);
+    }
+    
+    private String resolveRadiologyConceptClassNames() {
         
         String radiologyConceptClassUuidSetting = getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CONCEPT_CLASSES, true);
         radiologyConceptClassUuidSetting = radiologyConceptClassUuidSetting.replace(" ", "");
@@ -210,7 +298,7 @@ public class RadiologyProperties {
         
         final String[] radiologyConceptClassUuids = radiologyConceptClassUuidSetting.split(",");
         
-        String result = "";
+        final StringBuilder result = new StringBuilder();
         for (final String radiologyConceptClassUuid : radiologyConceptClassUuids) {
             final ConceptClass fetchedConceptClass = conceptService.getConceptClassByUuid(radiologyConceptClassUuid);
             if (fetchedConceptClass == null) {
@@ -218,10 +306,12 @@ public class RadiologyProperties {
                         "Property " + RadiologyConstants.GP_RADIOLOGY_CONCEPT_CLASSES + " contains UUID "
                                 + radiologyConceptClassUuid + " which cannot be found as ConceptClass in the database.");
             }
-            result = result + fetchedConceptClass.getName() + ",";
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(fetchedConceptClass.getName());
         }
-        result = result.substring(0, result.length() - 1);
-        return result;
+        return result.toString();
     }
     
     /**
@@ -244,6 +334,11 @@ public class RadiologyProperties {
      *         radiology order reason concept classes
      */
     public String getRadiologyOrderReasonConceptClassNames() {
+        return resolve(RadiologyConstants.GP_RADIOLOGY_ORDER_REASON_CONCEPT_CLASSES,
+            this::resolveRadiologyOrderReasonConceptClassNames);
+    }
+    
+    private String resolveRadiologyOrderReasonConceptClassNames() {
         
         String radiologyReasonConceptClassUuidSetting =
                 getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_REASON_CONCEPT_CLASSES, false);
@@ -262,7 +357,7 @@ public class RadiologyProperties {
         }
         final String[] radiologyReasonConceptClassUuids = radiologyReasonConceptClassUuidSetting.split(",");
         
-        String result = "";
+        final StringBuilder result = new StringBuilder();
         for (final String radiologyReasonConceptClassUuid : radiologyReasonConceptClassUuids) {
             final ConceptClass fetchedConceptClass = conceptService.getConceptClassByUuid(radiologyReasonConceptClassUuid);
             if (fetchedConceptClass == null) {
@@ -270,9 +365,248 @@ public class RadiologyProperties {
                         + " contains UUID " + radiologyReasonConceptClassUuid
                         + " which cannot be found as ConceptClass in the database.");
             }
-            result = result + fetchedConceptClass.getName() + ",";
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(fetchedConceptClass.getName());
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Gets the number of accession number seeds reserved per database round-trip.
+     * 
+     * @return accession number block size or {@link #DEFAULT_ACCESSION_NUMBER_BLOCK_SIZE} if the global property is not
+     *         configured
+     * @throws IllegalStateException if global property for accession number block size is not a positive integer
+     * @should return accession number block size
+     * @should return default accession number block size if global property is not configured
+     * @should throw illegal state exception if global property for accession number block size is not a positive
+     *         integer
+     */
+    public int getAccessionNumberBlockSize() {
+        
+        final String blockSize = getGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, false);
+        if (StringUtils.isBlank(blockSize)) {
+            return DEFAULT_ACCESSION_NUMBER_BLOCK_SIZE;
+        }
+        final String message =
+                "Property " + RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE + " must be a positive integer";
+        final int result;
+        try {
+            result = Integer.parseInt(blockSize.trim());
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalStateException(message);
+        }
+        if (result < 1) {
+            throw new IllegalStateException(message);
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the strategy used to generate accession numbers.
+     * 
+     * @return accession number generator strategy or {@link AccessionNumberGeneratorStrategy#GLOBAL_PROPERTY} if the
+     *         global property is not configured
+     * @throws IllegalStateException if global property for accession number generator is not the name of an
+     *             accession number generator strategy
+     * @should return accession number generator strategy
+     * @should return global property strategy if global property is not configured
+     * @should throw illegal state exception if global property for accession number generator is not the name of an
+     *         accession number generator strategy
+     */
+    public AccessionNumberGeneratorStrategy getAccessionNumberGeneratorStrategy() {
+        
+        final String strategy = getGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, false);
+        if (StringUtils.isBlank(strategy)) {
+            return AccessionNumberGeneratorStrategy.GLOBAL_PROPERTY;
+        }
+        try {
+            return AccessionNumberGeneratorStrategy.valueOf(strategy.trim());
+        }
+        catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Property " + RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR
+                    + " must be one of " + Arrays.toString(AccessionNumberGeneratorStrategy.values()));
+        }
+    }
+    
+    /**
+     * Gets the strategy used to generate DICOM UIDs.
+     *
+     * @return DICOM UID generator strategy or {@link DicomUidGeneratorStrategy#UUID} if the global property is not
+     *         configured
+     * @throws IllegalStateException if global property for DICOM UID generator is not the name of a DICOM UID generator
+     *             strategy
+     * @should return dicom uid generator strategy
+     * @should return uuid strategy if global property is not configured
+     * @should throw illegal state exception if global property for dicom uid generator is not the name of a dicom uid
+     *         generator strategy
+     */
+    public DicomUidGeneratorStrategy getDicomUidGeneratorStrategy() {
+        
+        final String strategy = getGlobalProperty(RadiologyConstants.GP_DICOM_UID_GENERATOR, false);
+        if (StringUtils.isBlank(strategy)) {
+            return DicomUidGeneratorStrategy.UUID;
+        }
+        try {
+            return DicomUidGeneratorStrategy.valueOf(strategy.trim());
+        }
+        catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Property " + RadiologyConstants.GP_DICOM_UID_GENERATOR + " must be one of "
+                    + Arrays.toString(DicomUidGeneratorStrategy.values()));
+        }
+    }
+    
+    /**
+     * Gets the id of this node used by the time based accession number and DICOM UID generators.
+     *
+     * @return accession number node id
+     * @throws IllegalStateException if global property for accession number node id cannot be found
+     * @throws IllegalStateException if global property for accession number node id is not an integer between 0 and
+     *             1023
+     * @should return accession number node id
+     * @should throw illegal state exception if global property for accession number node id cannot be found
+     * @should throw illegal state exception if global property for accession number node id is not an integer between
+     *         0 and 1023
+     */
+    public int getAccessionNumberNodeId() {
+        
+        final String nodeId = getGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID, true);
+        final String message =
+                "Property " + RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID + " must be an integer between 0 and 1023";
+        final int result;
+        try {
+            result = Integer.parseInt(nodeId.trim());
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalStateException(message);
+        }
+        if (result < 0 || result > 1023) {
+            throw new IllegalStateException(message);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns whether radiology orders of the same patient are placed one after the other.
+     * 
+     * @return true if radiology orders are locked per patient and false otherwise or if the global property is not
+     *         configured
+     * @should return true if global property for lock radiology orders per patient is true
+     * @should return false if global property for lock radiology orders per patient is not configured
+     */
+    public boolean isLockRadiologyOrdersPerPatient() {
+        
+        return Boolean.parseBoolean(getGlobalProperty(RadiologyConstants.GP_LOCK_RADIOLOGY_ORDERS_PER_PATIENT, false));
+    }
+    
+    /**
+     * Gets the maximum number of radiology orders placed with one batch request.
+     *
+     * @return maximum radiology order batch size or {@link #DEFAULT_MAX_RADIOLOGY_ORDER_BATCH_SIZE} if the global
+     *         property is not configured
+     * @throws IllegalStateException if global property for maximum radiology order batch size is not a positive integer
+     * @should return maximum radiology order batch size
+     * @should return default maximum radiology order batch size if global property is not configured
+     * @should throw illegal state exception if global property for maximum radiology order batch size is not a positive
+     *         integer
+     */
+    public int getMaxRadiologyOrderBatchSize() {
+        
+        final String batchSize = getGlobalProperty(RadiologyConstants.GP_MAX_RADIOLOGY_ORDER_BATCH_SIZE, false);
+        if (StringUtils.isBlank(batchSize)) {
+            return DEFAULT_MAX_RADIOLOGY_ORDER_BATCH_SIZE;
+        }
+        final String message =
+                "Property " + RadiologyConstants.GP_MAX_RADIOLOGY_ORDER_BATCH_SIZE + " must be a positive integer";
+        final int result;
+        try {
+            result = Integer.parseInt(batchSize.trim());
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalStateException(message);
+        }
+        if (result < 1) {
+            throw new IllegalStateException(message);
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the maximum number of entries of a ZIP archive of report templates.
+     *
+     * @return maximum number of archive entries or {@link #DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES} if the
+     *         global property is not configured
+     * @throws IllegalStateException if global property for maximum number of archive entries is not a positive integer
+     * @should return maximum number of report template archive entries
+     * @should return default maximum number of report template archive entries if global property is not configured
+     */
+    public int getMaxMrrtReportTemplateArchiveEntries() {
+        
+        return (int) Math.min(getPositiveNumber(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES,
+            DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES), Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Gets the maximum number of bytes of a report template extracted from a ZIP archive.
+     *
+     * @return maximum report template size or {@link #DEFAULT_MAX_MRRT_REPORT_TEMPLATE_SIZE} if the global property is
+     *         not configured
+     * @throws IllegalStateException if global property for maximum report template size is not a positive integer
+     * @should return maximum report template size
+     * @should return default maximum report template size if global property is not configured
+     */
+    public long getMaxMrrtReportTemplateSize() {
+        
+        return getPositiveNumber(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_SIZE,
+            DEFAULT_MAX_MRRT_REPORT_TEMPLATE_SIZE);
+    }
+    
+    /**
+     * Gets the maximum number of bytes all report templates of a ZIP archive add up to once extracted.
+     *
+     * @return maximum report template archive size or {@link #DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE} if the
+     *         global property is not configured
+     * @throws IllegalStateException if global property for maximum report template archive size is not a positive
+     *         integer
+     * @should return maximum report template archive size
+     * @should return default maximum report template archive size if global property is not configured
+     * @should throw illegal state exception if global property for maximum report template archive size is not a
+     *         positive integer
+     */
+    public long getMaxMrrtReportTemplateArchiveSize() {
+        
+        return getPositiveNumber(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE,
+            DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE);
+    }
+    
+    /**
+     * Gets the positive number configured by the global property with given name.
+     *
+     * @param globalPropertyName the name of the global property
+     * @param defaultValue the value returned if the global property is not configured
+     * @return the configured number or given default value if the global property is not configured
+     * @throws IllegalStateException if the global property is not a positive integer
+     */
+    private long getPositiveNumber(String globalPropertyName, long defaultValue) {
+        
+        final String value = getGlobalProperty(globalPropertyName, false);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        final String message = "Property " + globalPropertyName + " must be a positive integer";
+        final long result;
+        try {
+            result = Long.parseLong(value.trim());
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalStateException(message);
+        }
+        if (result < 1) {
+            throw new IllegalStateException(message);
         }
-        result = result.substring(0, result.length() - 1);
         return result;
     }
     
@@ -288,13 +622,182 @@ public class RadiologyProperties {
      * @should throw illegal state exception given required non configured global property
      */
     private String getGlobalProperty(String globalPropertyName, boolean required) {
-        final String result = administrationService.getGlobalProperty(globalPropertyName);
+        final String result = globalPropertyName.startsWith(GLOBAL_PROPERTY_PREFIX)
+                ? getConfiguration().getGlobalProperty(globalPropertyName)
+                : administrationService.getGlobalProperty(globalPropertyName);
         if (required && StringUtils.isBlank(result)) {
             throw new IllegalStateException("Configuration required: " + globalPropertyName);
         }
         return result;
     }
     
+    /**
+     * Gets the value resolved from the global property with given name, resolving it on first use within the current
+     * configuration snapshot. A value resolved within a transaction that is rolled back is resolved again on next use
+     * since it might stem from metadata of that transaction.
+     *
+     * @param globalPropertyName the name of the global property the value is resolved from
+     * @param resolver resolves the value, returning null if it must not be kept
+     * @return the resolved value
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T resolve(String globalPropertyName, Supplier<T> resolver) {
+        
+        final RadiologyConfiguration currentConfiguration = getConfiguration();
+        final Object result = currentConfiguration.getResolved(globalPropertyName);
+        if (result != null) {
+            return (T) result;
+        }
+        final T value = resolver.get();
+        if (value == null) {
+            return null;
+        }
+        final Object kept = currentConfiguration.putResolved(globalPropertyName, value);
+        if (kept == value) {
+            afterRollback(() -> currentConfiguration.removeResolved(globalPropertyName, value));
+        }
+        return (T) kept;
+    }
+    
+    /**
+     * Gets the current configuration snapshot, reading the {@code radiology.*} global properties if there is none.
+     *
+     * @return the current configuration
+     */
+    private RadiologyConfiguration getConfiguration() {
+        
+        RadiologyConfiguration result = configuration;
+        if (result != null) {
+            return result;
+        }
+        final long generation;
+        synchronized (configurationLock) {
+            generation = configurationGeneration;
+        }
+        result = new RadiologyConfiguration(administrationService.getGlobalPropertiesByPrefix(GLOBAL_PROPERTY_PREFIX));
+        synchronized (configurationLock) {
+            if (generation == configurationGeneration && configuration == null) {
+                configuration = result;
+                final RadiologyConfiguration read = result;
+                afterRollback(() -> discardConfiguration(read));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Discards the cached configuration so that the global properties and the metadata resolved from them are read
+     * again on next use.
+     * <p>
+     * This is done automatically whenever a {@code radiology.*} global property is saved or purged through the
+     * {@code AdministrationService}. Call it after changing global properties or radiology metadata by other means
+     * such as SQL scripts.
+     * </p>
+     *
+     * @should read changed global properties again
+     */
+    public void clearConfigurationCache() {
+        discardConfiguration(null);
+    }
+    
+    /**
+     * Discards given configuration snapshot or any if given null.
+     *
+     * @param expected the configuration snapshot to discard or null to discard the current one
+     */
+    private void discardConfiguration(RadiologyConfiguration expected) {
+        
+        synchronized (configurationLock) {
+            if (expected == null || configuration == expected) {
+                configuration = null;
+                configurationGeneration++;
+            }
+        }
+    }
+    
+    /**
+     * Runs given action if the current transaction is rolled back.
+     *
+     * @param action the action to run after a rollback
+     */
+    private void afterRollback(Runnable action) {
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status != TransactionSynchronization.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Registers this as {@code GlobalPropertyListener} so that the configuration is read again after a
+     * {@code radiology.*} global property changed.
+     */
+    @PostConstruct
+    public void registerGlobalPropertyListener() {
+        administrationService.addGlobalPropertyListener(this);
+    }
+    
+    /**
+     * Unregisters this as {@code GlobalPropertyListener} when the module's application context is closed.
+     */
+    @PreDestroy
+    public void unregisterGlobalPropertyListener() {
+        administrationService.removeGlobalPropertyListener(this);
+    }
+    
+    /**
+     * @see GlobalPropertyListener#supportsPropertyName(String)
+     */
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return propertyName != null && propertyName.startsWith(GLOBAL_PROPERTY_PREFIX);
+    }
+    
+    /**
+     * Discards the configuration immediately and again once the current transaction completes, since other threads
+     * might read the former value until the change is committed.
+     *
+     * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+     * @should discard the configuration if a radiology global property is saved
+     */
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        discardConfigurationUntilTransactionCompletes();
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyDeleted(String)
+     * @should discard the configuration if a radiology global property is purged
+     */
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        discardConfigurationUntilTransactionCompletes();
+    }
+    
+    private void discardConfigurationUntilTransactionCompletes() {
+        
+        clearConfigurationCache();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                
+                
+                @Override
+                public void afterCompletion(int status) {
+                    clearConfigurationCache();
+                }
+            });
+        }
+    }
+    
     /**
      * Gets folder to store {@code MRRT} templates.
      * 
@@ -0,0 +1,32 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+/**
+ * The strategies available to generate DICOM UIDs such as the study instance UID of new {@code RadiologyStudy's},
+ * selected through the global property {@code radiology.dicomUidGenerator}.
+ *
+ * @see DicomUidGenerator
+ */
+public enum DicomUidGeneratorStrategy {
+    /**
+     * UIDs are decimal representations of random UUIDs.
+     *
+     * @see UuidDicomUidGenerator
+     */
+    UUID,
+    /**
+     * UIDs are generated from the node id configured in the global property {@code radiology.accessionNumberNodeId},
+     * a per thread slot, the current time and a counter, so that threads never wait for each other.
+     *
+     * @see TimeBasedDicomUidGenerator
+     */
+    TIME_BASED,
+}
@@ -9,9 +9,9 @@
  */
 package org.openmrs.module.radiology.dicom;
 
-import java.util.regex.Pattern;
-
-import org.apache.commons.lang3.StringUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Validates DICOM UIDs according to DICOM PS3.5 Chapter 9 Unique Identifiers (UIDs).
@@ -26,6 +26,10 @@ import org.apache.commons.lang3.StringUtils;
  * <li>does only contain 0, 1 or 2 as first component
  * </ul>
  * <p>
+ * UIDs are checked by a single scan over their characters without regular expressions or intermediate objects, since
+ * they are validated for every inbound message and imported study.
+ * </p>
+ * <p>
  * See DICOM PS3.5 Chapter 9.1 UID Encoding Rules.
  * http://dicom.nema.org/MEDICAL/Dicom/current/output/chtml/part05/chapter_9.html
  */
@@ -34,7 +38,7 @@ public class DicomUidValidator {
     
     private static final int MAX_LENGTH = 64;
     
-    private static final Pattern VALIDATION_PATTERN = Pattern.compile("^[012]((\\.0)|(\\.[1-9]\\d*))+$");
+    private static final char SEPARATOR = '.';
     
     /**
      * Validate {@code uid} according to the DICOM standard.
@@ -52,7 +56,7 @@ public class DicomUidValidator {
      */
     public static boolean isValid(String uid) {
         
-        return isLengthValid(uid) && isPatternValid(uid);
+        return uid != null && uid.length() <= MAX_LENGTH && isPatternValid(uid);
     }
     
     /**
@@ -67,16 +71,24 @@ public class DicomUidValidator {
      */
     public static boolean isLengthValid(String uid) {
         
-        if (StringUtils.isBlank(uid)) {
+        if (uid == null || uid.length() > MAX_LENGTH) {
             return false;
         }
-        
-        return uid.length() <= MAX_LENGTH;
+        for (int i = 0; i < uid.length(); i++) {
+            if (!Character.isWhitespace(uid.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
      * Validate {@code uid's} pattern according to the DICOM standard.
-     * 
+     * <p>
+     * The pattern is a first component of 0, 1 or 2 followed by at least one component of a dot and either 0 or digits
+     * not starting with 0.
+     * </p>
+     *
      * @param uid DICOM UID to be validated
      * @return true if uid pattern is valid and false otherwise
      * @should return false given null
@@ -85,15 +97,67 @@ public class DicomUidValidator {
      * @should return false for uid containing non-significant leading zeros
      * @should return false for uid with trailing dot character
      * @should return false for uid with characters other than 0-2 as first component
+     * @should return false for uid with only one component
      * @should return true for valid uid
      */
     public static boolean isPatternValid(String uid) {
         
-        if (StringUtils.isBlank(uid)) {
+        if (uid == null) {
+            return false;
+        }
+        final int length = uid.length();
+        if (length < 3) {
+            return false;
+        }
+        final char first = uid.charAt(0);
+        if (first < '0' || first > '2') {
             return false;
         }
+        int i = 1;
+        while (i < length) {
+            if (uid.charAt(i++) != SEPARATOR || i == length) {
+                return false;
+            }
+            final char leading = uid.charAt(i++);
+            if (leading == '0') {
+                continue;
+            }
+            if (leading < '1' || leading > '9') {
+                return false;
+            }
+            while (i < length && uid.charAt(i) != SEPARATOR) {
+                final char c = uid.charAt(i++);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Validate all given {@code uids} according to the DICOM standard.
+     *
+     * @param uids DICOM UIDs to be validated
+     * @return the uids which are not valid dicom uids in the iteration order of given uids or an empty list if all are
+     *         valid
+     * @throws IllegalArgumentException if given null
+     * @should return an empty list if all given uids are valid
+     * @should return the invalid uids in the iteration order of given uids
+     * @should return null entries as invalid
+     * @should throw illegal argument exception if given null
+     */
+    public static List<String> validateAll(Collection<String> uids) {
         
-        return VALIDATION_PATTERN.matcher(uid)
-                .matches();
+        if (uids == null) {
+            throw new IllegalArgumentException("uids cannot be null");
+        }
+        final List<String> result = new ArrayList<String>();
+        for (String uid : uids) {
+            if (!isValid(uid)) {
+                result.add(uid);
+            }
+        }
+        return result;
     }
 }
@@ -0,0 +1,149 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates DICOM UIDs from the node id of this server, a thread slot and the current time plus a counter so that no
+ * random numbers are needed.
+ * <p>
+ * A UID has the form {@code <root>.<node id>.<thread slot>.<timestamp and counter>}. Every thread calling
+ * {@link #getNewDicomUid(String)} is assigned a slot once, and keeps its own timestamp and counter, the milliseconds
+ * since {@link #EPOCH} shifted left by 12 bits plus a counter. Threads therefore share no state after their first UID,
+ * unlike {@link UuidDicomUidGenerator} which serializes all threads on the {@link java.security.SecureRandom} of
+ * {@link java.util.UUID#randomUUID()}.
+ * </p>
+ * <p>
+ * If more than 4096 UIDs are requested by a thread within a millisecond or the clock moves backwards the thread
+ * continues from its last timestamp, so UIDs stay unique as long as no two nodes share a node id and the clock is not
+ * set back across a restart.
+ * </p>
+ *
+ * @see DicomUidGeneratorStrategy#TIME_BASED
+ */
+public class TimeBasedDicomUidGenerator implements DicomUidGenerator {
+    
+    
+    /**
+     * 2016-01-01T00:00:00Z, the timestamp of UIDs is counted from here.
+     */
+    static final long EPOCH = 1451606400000L;
+    
+    static final int MAX_NODE_ID = 1023;
+    
+    private static final int MAX_ROOT_LENGTH = 24;
+    
+    private static final int COUNTER_BITS = 12;
+    
+    private static final char DICOM_UID_SEPARATOR = '.';
+    
+    /**
+     * Length of the UID suffix after the root, the separators, a node id of 4, a thread slot of 10 and a timestamp
+     * and counter of 16 digits.
+     */
+    private static final int MAX_SUFFIX_LENGTH = 1 + 4 + 1 + 10 + 1 + 16;
+    
+    private final int nodeId;
+    
+    private final LongSupplier clock;
+    
+    private final AtomicInteger nextThreadSlot = new AtomicInteger();
+    
+    private final ThreadLocal<ThreadState> threadState =
+            ThreadLocal.withInitial(() -> new ThreadState(nextThreadSlot.getAndIncrement()));
+    
+    /**
+     * @param nodeId the id of this node unique within the cluster
+     * @throws IllegalArgumentException if node id is not between 0 and {@link #MAX_NODE_ID}
+     */
+    public TimeBasedDicomUidGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+    
+    /**
+     * @param nodeId the id of this node unique within the cluster
+     * @param clock supplies the current time in milliseconds
+     * @throws IllegalArgumentException if node id is not between 0 and {@link #MAX_NODE_ID}
+     * @should throw illegal argument exception if node id is not between zero and max node id
+     */
+    TimeBasedDicomUidGenerator(int nodeId, LongSupplier clock) {
+        
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("clock cannot be null");
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getMaxRootLength()
+     */
+    @Override
+    public int getMaxRootLength() {
+        
+        return MAX_ROOT_LENGTH;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getNewDicomUid(String)
+     * @should never return the same uid twice when called concurrently
+     * @should return unique uids if more than counter allows are requested within a millisecond
+     * @should return unique uids if the clock moves backwards
+     * @should return different uids for different node ids at the same time
+     */
+    @Override
+    public String getNewDicomUid(String root) {
+        
+        if (root == null) {
+            throw new NullPointerException("root is required");
+        }
+        
+        if (!DicomUidValidator.isValid(root)) {
+            throw new IllegalArgumentException("root is an invalid DICOM UID");
+        }
+        
+        if (root.length() > MAX_ROOT_LENGTH) {
+            throw new IllegalArgumentException("root length is > " + MAX_ROOT_LENGTH);
+        }
+        
+        final ThreadState state = threadState.get();
+        final long now = (clock.getAsLong() - EPOCH) << COUNTER_BITS;
+        state.lastTimestampAndCounter = Math.max(state.lastTimestampAndCounter + 1, now);
+        
+        return new StringBuilder(root.length() + MAX_SUFFIX_LENGTH).append(root)
+                .append(DICOM_UID_SEPARATOR)
+                .append(nodeId)
+                .append(DICOM_UID_SEPARATOR)
+                .append(state.slot)
+                .append(DICOM_UID_SEPARATOR)
+                .append(state.lastTimestampAndCounter)
+                .toString();
+    }
+    
+    /**
+     * The slot and the last timestamp and counter of one thread, only ever accessed by that thread.
+     */
+    private static final class ThreadState {
+        
+        
+        private final int slot;
+        
+        private long lastTimestampAndCounter;
+        
+        private ThreadState(int slot) {
+            this.slot = slot;
+        }
+    }
+}
@@ -9,6 +9,8 @@
  */
 package org.openmrs.module.radiology.dicom;
 
+import java.util.UUID;
+
 import org.openmrs.module.radiology.util.DecimalUuid;
 
 /**
@@ -21,6 +23,14 @@ public class UuidDicomUidGenerator implements DicomUidGenerator {
     
     private static final char DICOM_UID_SEPARATOR = '.';
     
+    private static final int MAX_UID_LENGTH = MAX_ROOT_LENGTH + 1 + DecimalUuid.MAX_DECIMAL_LENGTH;
+    
+    /**
+     * Per thread buffer the UID is assembled in from the end, the decimal UUID first and then the separator and the
+     * root in front of it, so that the returned {@code String} is the only object created per UID.
+     */
+    private static final ThreadLocal<char[]> UID_BUFFER = ThreadLocal.withInitial(() -> new char[MAX_UID_LENGTH]);
+    
     /**
      * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getMaxRootLength()
      */
@@ -48,7 +58,13 @@ public class UuidDicomUidGenerator implements DicomUidGenerator {
             throw new IllegalArgumentException("root length is > " + MAX_ROOT_LENGTH);
         }
         
-        final String suffix = new DecimalUuid(java.util.UUID.randomUUID()).toString();
-        return root + DICOM_UID_SEPARATOR + suffix;
+        final UUID uuid = UUID.randomUUID();
+        final char[] buffer = UID_BUFFER.get();
+        final int suffixStart =
+                DecimalUuid.getChars(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), MAX_UID_LENGTH, buffer);
+        buffer[suffixStart - 1] = DICOM_UID_SEPARATOR;
+        final int rootStart = suffixStart - 1 - root.length();
+        root.getChars(0, root.length(), buffer, rootStart);
+        return new String(buffer, rootStart, MAX_UID_LENGTH - rootStart);
     }
 }
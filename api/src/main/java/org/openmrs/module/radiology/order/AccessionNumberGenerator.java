@@ -9,8 +9,13 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Generate new unique accession numbers.
+ *
+ * @see AccessionNumberGeneratorStrategy
  */
 public interface AccessionNumberGenerator {
     
@@ -23,4 +28,26 @@ public interface AccessionNumberGenerator {
      * @should always return a unique accession number when called multiple times
      */
     public String getNewAccessionNumber();
+    
+    /**
+     * Generates given number of new accession numbers at once. Implementations backed by a database should override
+     * this to reserve all of them in as few round-trips as possible.
+     *
+     * @param count the number of accession numbers to generate
+     * @return the new accession numbers
+     * @throws IllegalArgumentException if given count is negative
+     * @should return given number of unique accession numbers
+     * @should throw illegal argument exception if given count is negative
+     */
+    public default List<String> getNewAccessionNumbers(int count) {
+        
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        final List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(getNewAccessionNumber());
+        }
+        return result;
+    }
 }
@@ -0,0 +1,35 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+/**
+ * The strategies available to generate accession numbers for new {@code RadiologyOrder's}, selected through the
+ * global property {@code radiology.accessionNumberGenerator}.
+ *
+ * @see AccessionNumberGenerator
+ */
+public enum AccessionNumberGeneratorStrategy {
+    /**
+     * Accession numbers are seeds reserved in blocks from the global property
+     * {@code radiology.nextAccessionNumberSeed}.
+     */
+    GLOBAL_PROPERTY,
+    /**
+     * Accession numbers are the values of a native database sequence, emulated by a single row table on databases
+     * without sequences such as MySQL.
+     */
+    SEQUENCE,
+    /**
+     * Accession numbers are generated without database access from the node id configured in the global property
+     * {@code radiology.accessionNumberNodeId}, the current time and a counter, so that multiple nodes of a cluster can
+     * generate them independently.
+     */
+    TIME_BASED,
+}
@@ -0,0 +1,106 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Hands out accession number seeds from blocks reserved in the database (hi/lo allocation).
+ * <p>
+ * A block of consecutive seeds is reserved with a single round-trip and then handed out from an {@code AtomicLong}
+ * without any locking. Only the thread which finds the current block exhausted reserves the next one, so callers
+ * serialize once per block instead of once per seed. Seeds left in a block when the JVM stops are never handed out,
+ * so accession numbers can have gaps but are never duplicated.
+ * </p>
+ */
+class AccessionNumberSeedBlockAllocator {
+    
+    
+    private final IntSupplier blockSize;
+    
+    private final IntToLongFunction blockReserver;
+    
+    private volatile Block currentBlock;
+    
+    /**
+     * Creates an allocator which reserves its blocks through given function.
+     *
+     * @param blockSize supplies the number of seeds to reserve, asked once per block
+     * @param blockReserver function reserving the given number of consecutive seeds and returning the first one
+     */
+    AccessionNumberSeedBlockAllocator(IntSupplier blockSize, IntToLongFunction blockReserver) {
+        
+        if (blockSize == null) {
+            throw new IllegalArgumentException("blockSize cannot be null");
+        }
+        if (blockReserver == null) {
+            throw new IllegalArgumentException("blockReserver cannot be null");
+        }
+        this.blockSize = blockSize;
+        this.blockReserver = blockReserver;
+    }
+    
+    /**
+     * Gets the next accession number seed, reserving a new block if the current one is exhausted.
+     *
+     * @return the next accession number seed
+     * @throws IllegalArgumentException if the supplied block size is smaller than one
+     * @should return consecutive seeds of a reserved block
+     * @should reserve a new block once the current block is exhausted
+     * @should never return the same seed twice when called concurrently
+     * @should throw illegal argument exception if the supplied block size is smaller than one
+     */
+    long next() {
+        
+        while (true) {
+            final Block block = currentBlock;
+            if (block != null) {
+                final long seed = block.next.getAndIncrement();
+                if (seed < block.end) {
+                    return seed;
+                }
+            }
+            synchronized (this) {
+                // another thread might have reserved a new block while we were waiting for the lock
+                if (currentBlock == block) {
+                    currentBlock = reserveBlock();
+                }
+            }
+        }
+    }
+    
+    private Block reserveBlock() {
+        
+        final int size = blockSize.getAsInt();
+        if (size < 1) {
+            throw new IllegalArgumentException("blockSize must be greater than zero");
+        }
+        final long first = blockReserver.applyAsLong(size);
+        return new Block(first, first + size);
+    }
+    
+    /**
+     * A reserved range of seeds from {@code next} (inclusive) to {@code end} (exclusive).
+     */
+    private static final class Block {
+        
+        
+        private final AtomicLong next;
+        
+        private final long end;
+        
+        private Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Advances the accession number sequence when the global property {@code radiology.accessionNumberGenerator} is set to
+ * {@link AccessionNumberGeneratorStrategy#SEQUENCE}, so that the sequence continues after the accession numbers
+ * generated by the other strategies.
+ * <p>
+ * The sequence is advanced within the transaction saving the global property, so that the strategy is not switched if
+ * the sequence cannot be advanced.
+ * </p>
+ *
+ * @see RadiologyOrderService#advanceAccessionNumberSequence()
+ */
+@Component
+class AccessionNumberSequenceListener implements GlobalPropertyListener {
+    
+    
+    @Autowired
+    @Qualifier("adminService")
+    private AdministrationService administrationService;
+    
+    /**
+     * Registers this as {@code GlobalPropertyListener}.
+     */
+    @PostConstruct
+    public void registerGlobalPropertyListener() {
+        administrationService.addGlobalPropertyListener(this);
+    }
+    
+    /**
+     * Unregisters this as {@code GlobalPropertyListener} when the module's application context is closed.
+     */
+    @PreDestroy
+    public void unregisterGlobalPropertyListener() {
+        administrationService.removeGlobalPropertyListener(this);
+    }
+    
+    /**
+     * @see GlobalPropertyListener#supportsPropertyName(String)
+     */
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR.equals(propertyName);
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+     */
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        
+        if (AccessionNumberGeneratorStrategy.SEQUENCE.name()
+                .equals(StringUtils.trim(newValue.getPropertyValue()))) {
+            Context.getService(RadiologyOrderService.class)
+                    .advanceAccessionNumberSequence();
+        }
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyDeleted(String)
+     */
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        // the default strategy does not use the sequence
+    }
+}
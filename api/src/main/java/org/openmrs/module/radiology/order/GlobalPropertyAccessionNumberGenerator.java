@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Generates accession numbers from seeds reserved in blocks from the global property
+ * {@code radiology.nextAccessionNumberSeed}.
+ *
+ * @see AccessionNumberGeneratorStrategy#GLOBAL_PROPERTY
+ * @see AccessionNumberSeedBlockAllocator
+ */
+class GlobalPropertyAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    private final AccessionNumberSeedBlockAllocator accessionNumberSeedBlockAllocator;
+    
+    private final IntToLongFunction blockReserver;
+    
+    /**
+     * @param blockSize supplies the number of seeds to reserve, asked once per block
+     * @param blockReserver function reserving the given number of consecutive seeds and returning the first one
+     */
+    GlobalPropertyAccessionNumberGenerator(IntSupplier blockSize, IntToLongFunction blockReserver) {
+        this.accessionNumberSeedBlockAllocator = new AccessionNumberSeedBlockAllocator(blockSize, blockReserver);
+        this.blockReserver = blockReserver;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        return String.valueOf(accessionNumberSeedBlockAllocator.next());
+    }
+    
+    /**
+     * Reserves a dedicated block of exactly given count seeds in one round-trip, leaving the shared block of
+     * {@link #getNewAccessionNumber()} untouched.
+     *
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     * @should reserve one block of given count seeds
+     */
+    @Override
+    public List<String> getNewAccessionNumbers(int count) {
+        
+        if (count < 1) {
+            return AccessionNumberGenerator.super.getNewAccessionNumbers(count);
+        }
+        final long first = blockReserver.applyAsLong(count);
+        final List<String> result = new ArrayList<String>(count);
+        for (long seed = first; seed < first + count; seed++) {
+            result.add(String.valueOf(seed));
+        }
+        return result;
+    }
+}
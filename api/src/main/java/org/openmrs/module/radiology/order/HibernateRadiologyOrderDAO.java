@@ -9,19 +9,34 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.LockOptions;
+import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
-import org.hibernate.criterion.Disjunction;
+import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
 import org.openmrs.GlobalProperty;
-import org.openmrs.Order.Urgency;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
 import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.util.ContinuationToken;
 
 /**
  * Hibernate specific RadiologyOrder related functions. This class should not be used directly. All
@@ -33,6 +48,16 @@ import org.openmrs.module.radiology.RadiologyConstants;
 class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     
     
+    /**
+     * Name of the database sequence (or the table emulating it) accession numbers are taken from.
+     */
+    static final String ACCESSION_NUMBER_SEQUENCE = "radiology_accession_number_seq";
+    
+    /**
+     * Maximum number of digits of an accession number which always fits a {@code Long}.
+     */
+    private static final int MAX_NUMERIC_ACCESSION_NUMBER_LENGTH = 18;
+    
     private SessionFactory sessionFactory;
     
     /**
@@ -60,8 +85,61 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     @Override
     public Long getNextAccessionNumberSeedSequenceValue() {
         
+        return getNextAccessionNumberSeedSequenceBlock(1);
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSeedSequenceBlock(Integer)
+     * @throws APIException if global property radiology.nextAccessionNumberSeed is missing
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value is empty or only contains whitespaces
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value cannot be parsed to Long
+     * @should return the next accession number seed and increment the global property value by given block size
+     */
+    @Override
+    public Long getNextAccessionNumberSeedSequenceBlock(int blockSize) {
+        
         final GlobalProperty globalProperty = (GlobalProperty) sessionFactory.getCurrentSession()
                 .get(GlobalProperty.class, RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED, LockOptions.UPGRADE);
+        final Long globalPropertyValue = parseAccessionNumberSeed(globalProperty);
+        
+        globalProperty.setPropertyValue(String.valueOf(globalPropertyValue + blockSize));
+        
+        sessionFactory.getCurrentSession()
+                .save(globalProperty);
+        
+        return globalPropertyValue;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderDAO#getNextAccessionNumberSeed()
+     * @throws APIException if global property radiology.nextAccessionNumberSeed is missing
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value is empty or only contains whitespaces
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value cannot be parsed to Long
+     * @should return the next accession number seed without incrementing the global property value
+     */
+    @Override
+    public Long getNextAccessionNumberSeed() {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final GlobalProperty globalProperty = (GlobalProperty) session.get(GlobalProperty.class,
+            RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED, LockOptions.UPGRADE);
+        if (globalProperty != null) {
+            // the session might have read the global property before it was locked
+            session.refresh(globalProperty, LockOptions.UPGRADE);
+        }
+        return parseAccessionNumberSeed(globalProperty);
+    }
+    
+    /**
+     * Parses the accession number seed stored in given global property radiology.nextAccessionNumberSeed.
+     *
+     * @param globalProperty the global property radiology.nextAccessionNumberSeed or null if it is missing
+     * @return the accession number seed
+     * @throws APIException if given null
+     * @throws APIException if the value of given global property is empty or only contains whitespaces
+     * @throws APIException if the value of given global property cannot be parsed to Long
+     */
+    private Long parseAccessionNumberSeed(GlobalProperty globalProperty) {
         
         if (globalProperty == null) {
             throw new APIException("GlobalProperty.missing",
@@ -74,21 +152,113 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
                     new Object[] { RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED });
         }
         
-        Long globalPropertyValue = null;
         try {
-            globalPropertyValue = Long.parseLong(gpTextValue);
+            return Long.parseLong(gpTextValue);
         }
         catch (NumberFormatException ex) {
             throw new APIException("GlobalProperty.invalid.value",
                     new Object[] { RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED });
         }
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSequenceValue()
+     * @should return the next value of the accession number sequence
+     */
+    @Override
+    public Long getNextAccessionNumberSequenceValue() {
         
-        globalProperty.setPropertyValue(String.valueOf(globalPropertyValue + 1));
+        return getNextAccessionNumberSequenceValues(1).get(0);
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSequenceValues(Integer)
+     * @should return given number of consecutive values of the accession number sequence
+     */
+    @Override
+    public List<Long> getNextAccessionNumberSequenceValues(int count) {
         
-        sessionFactory.getCurrentSession()
-                .save(globalProperty);
+        final Session session = sessionFactory.getCurrentSession();
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
+        final List<Long> result = new ArrayList<Long>(count);
+        if (dialect.supportsSequences()) {
+            final SQLQuery nextValue = session.createSQLQuery(dialect.getSequenceNextValString(ACCESSION_NUMBER_SEQUENCE));
+            for (int i = 0; i < count; i++) {
+                result.add(((Number) nextValue.uniqueResult()).longValue());
+            }
+            return result;
+        }
         
-        return globalPropertyValue;
+        // the update locks the single row of the table emulating the sequence until the transaction commits, which is
+        // the new transaction of RadiologyOrderService.getNextAccessionNumberSequenceValues() and not the caller's
+        session.createSQLQuery("update " + ACCESSION_NUMBER_SEQUENCE + " set next_value = next_value + :count")
+                .setInteger("count", count)
+                .executeUpdate();
+        final long first = ((Number) session.createSQLQuery("select next_value from " + ACCESSION_NUMBER_SEQUENCE)
+                .uniqueResult()).longValue() - count;
+        for (long value = first; value < first + count; value++) {
+            result.add(value);
+        }
+        return result;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderDAO#advanceAccessionNumberSequence(long)
+     * @should advance the accession number sequence to given value
+     * @should not move the accession number sequence back
+     */
+    @Override
+    public void advanceAccessionNumberSequence(long nextValue) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
+        if (dialect.supportsSequences()) {
+            // a sequence cannot be read without taking its next value, which is lost if the sequence is restarted
+            final SQLQuery nextValue = session.createSQLQuery(dialect.getSequenceNextValString(ACCESSION_NUMBER_SEQUENCE));
+            final long currentValue = ((Number) nextValue.uniqueResult()).longValue();
+            if (currentValue < nextValue) {
+                session.createSQLQuery("alter sequence " + ACCESSION_NUMBER_SEQUENCE + " restart with " + nextValue)
+                        .executeUpdate();
+            }
+            return;
+        }
+        
+        session.createSQLQuery("update " + ACCESSION_NUMBER_SEQUENCE
+                + " set next_value = :nextValue where next_value < :nextValue")
+                .setLong("nextValue", nextValue)
+                .executeUpdate();
+    }
+    
+    /**
+     * Accession numbers are compared by their length first so that the numeric ones can be ordered by the database
+     * without a dialect specific cast. Accession numbers with leading zeros are therefore not supported, none of the
+     * accession number generators creates them.
+     *
+     * @see org.openmrs.module.radiology.order.RadiologyOrderDAO#getHighestNumericAccessionNumber()
+     * @should return the highest accession number which only consists of digits
+     * @should return null if no accession number only consists of digits
+     */
+    @Override
+    public Long getHighestNumericAccessionNumber() {
+        
+        final ScrollableResults accessionNumbers = sessionFactory.getCurrentSession()
+                .createQuery("select o.accessionNumber from RadiologyOrder o where o.accessionNumber is not null "
+                        + "order by length(o.accessionNumber) desc, o.accessionNumber desc")
+                .setFetchSize(100)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (accessionNumbers.next()) {
+                final String accessionNumber = accessionNumbers.getString(0);
+                if (accessionNumber.length() <= MAX_NUMERIC_ACCESSION_NUMBER_LENGTH
+                        && StringUtils.isNumeric(accessionNumber)) {
+                    return Long.parseLong(accessionNumber);
+                }
+            }
+            return null;
+        }
+        finally {
+            accessionNumbers.close();
+        }
     }
     
     /**
@@ -119,6 +289,135 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     @Override
     public List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria) {
         
+        final Criteria crit = createRadiologyOrderCriteria(searchCriteria);
+        
+        if (searchCriteria.getContinuationToken() != null) {
+            crit.add(createAfterContinuationTokenCriterion(searchCriteria.getContinuationToken()));
+        }
+        crit.addOrder(Order.asc("accessionNumber"));
+        crit.addOrder(Order.asc("orderId"));
+        if (searchCriteria.getOffset() != null) {
+            crit.setFirstResult(searchCriteria.getOffset());
+        }
+        if (searchCriteria.getLimit() != null) {
+            crit.setMaxResults(searchCriteria.getLimit());
+        }
+        crit.setFetchMode("study", FetchMode.JOIN);
+        
+        final List<RadiologyOrder> result = crit.list();
+        fetchAssociations(result);
+        return result;
+    }
+    
+    /**
+     * Load the associations of given {@code RadiologyOrder's} which are needed to display them with one query per
+     * association instead of one query per radiology order.
+     * <p>
+     * Concepts with their names, patients with their names and identifiers, providers with their person names and
+     * encounters with their encounter type are loaded into the session so that the lazy associations of the radiology
+     * orders are resolved from the session without hitting the database.
+     * </p>
+     *
+     * @param radiologyOrders the radiology orders which associations should be loaded
+     */
+    private void fetchAssociations(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders.isEmpty()) {
+            return;
+        }
+        
+        final Set<Integer> conceptIds = new HashSet<Integer>();
+        final Set<Integer> patientIds = new HashSet<Integer>();
+        final Set<Integer> providerIds = new HashSet<Integer>();
+        final Set<Integer> encounterIds = new HashSet<Integer>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            if (radiologyOrder.getConcept() != null) {
+                conceptIds.add(radiologyOrder.getConcept()
+                        .getConceptId());
+            }
+            if (radiologyOrder.getPatient() != null) {
+                patientIds.add(radiologyOrder.getPatient()
+                        .getPatientId());
+            }
+            if (radiologyOrder.getOrderer() != null) {
+                providerIds.add(radiologyOrder.getOrderer()
+                        .getProviderId());
+            }
+            if (radiologyOrder.getEncounter() != null) {
+                encounterIds.add(radiologyOrder.getEncounter()
+                        .getEncounterId());
+            }
+        }
+        
+        fetchByIds(Concept.class, "conceptId", conceptIds, "names");
+        fetchByIds(Patient.class, "patientId", patientIds, "names", "identifiers");
+        fetchByIds(Provider.class, "providerId", providerIds, "person", "person.names");
+        fetchByIds(Encounter.class, "encounterId", encounterIds, "encounterType");
+    }
+    
+    /**
+     * Load the entities of given class with given ids into the session, join fetching given associations.
+     *
+     * @param entityClass the class of the entities to load
+     * @param idProperty the name of the id property of the entity class
+     * @param ids the ids of the entities to load
+     * @param associationPaths the association paths to join fetch
+     */
+    private void fetchByIds(Class<?> entityClass, String idProperty, Set<Integer> ids, String... associationPaths) {
+        
+        if (ids.isEmpty()) {
+            return;
+        }
+        
+        final Criteria crit = sessionFactory.getCurrentSession()
+                .createCriteria(entityClass);
+        crit.add(Restrictions.in(idProperty, ids));
+        for (String associationPath : associationPaths) {
+            crit.setFetchMode(associationPath, FetchMode.JOIN);
+        }
+        crit.setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY);
+        crit.list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrderCount(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public Long getRadiologyOrderCount(RadiologyOrderSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyOrderCriteria(searchCriteria);
+        
+        crit.setProjection(Projections.rowCount());
+        return (Long) crit.uniqueResult();
+    }
+    
+    /**
+     * Create a {@code Criterion} restricting {@code RadiologyOrder's} to the ones sorting after the given continuation
+     * token in the order of accession number and order id. Orders without an accession number sort first.
+     *
+     * @param continuationToken the accession number and order id of the last radiology order seen
+     * @return the criterion matching radiology orders after given continuation token
+     */
+    private Criterion createAfterContinuationTokenCriterion(ContinuationToken continuationToken) {
+        
+        final Criterion afterOrderId = Restrictions.gt("orderId", continuationToken.getId());
+        if (continuationToken.getSortKey() == null) {
+            return Restrictions.or(Restrictions.isNotNull("accessionNumber"),
+                Restrictions.and(Restrictions.isNull("accessionNumber"), afterOrderId));
+        }
+        return Restrictions.or(Restrictions.gt("accessionNumber", continuationToken.getSortKey()),
+            Restrictions.and(Restrictions.eq("accessionNumber", continuationToken.getSortKey()), afterOrderId));
+    }
+    
+    /**
+     * Create a {@code Criteria} restricting {@code RadiologyOrder's} to the given search criteria without ordering or
+     * paging applied.
+     *
+     * @param searchCriteria the object containing search parameters
+     * @return the criteria matching given search criteria
+     */
+    private Criteria createRadiologyOrderCriteria(RadiologyOrderSearchCriteria searchCriteria) {
+        
         final Criteria crit = sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyOrder.class);
         
@@ -134,25 +433,10 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
             crit.add(Restrictions.eq("urgency", searchCriteria.getUrgency()));
         }
         if (searchCriteria.getFromEffectiveStartDate() != null) {
-            final Disjunction disjunction = Restrictions.disjunction();
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE))
-                    .add(Restrictions.ge("scheduledDate", searchCriteria.getFromEffectiveStartDate())));
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.not(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE)))
-                    .add(Restrictions.ge("dateActivated", searchCriteria.getFromEffectiveStartDate())));
-            crit.add(disjunction);
+            crit.add(Restrictions.ge("effectiveStartDate", searchCriteria.getFromEffectiveStartDate()));
         }
-        
         if (searchCriteria.getToEffectiveStartDate() != null) {
-            final Disjunction disjunction = Restrictions.disjunction();
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE))
-                    .add(Restrictions.le("scheduledDate", searchCriteria.getToEffectiveStartDate())));
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.not(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE)))
-                    .add(Restrictions.le("dateActivated", searchCriteria.getToEffectiveStartDate())));
-            crit.add(disjunction);
+            crit.add(Restrictions.le("effectiveStartDate", searchCriteria.getToEffectiveStartDate()));
         }
         
         if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
@@ -162,8 +446,6 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
         if (searchCriteria.getOrderer() != null) {
             crit.add(Restrictions.eq("orderer", searchCriteria.getOrderer()));
         }
-        
-        crit.addOrder(Order.asc("accessionNumber"));
-        return crit.list();
+        return crit;
     }
 }
@@ -0,0 +1,141 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openmrs.Patient;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A fixed number of locks shared by all patients (lock striping), used to serialize work on the same patient within
+ * this JVM without serializing work on different patients.
+ * <p>
+ * Patients are mapped to stripes by their patient id, so two patients can share a stripe but one patient always maps
+ * to the same stripe.
+ * </p>
+ */
+class PatientStripedLocks {
+    
+    
+    static final int DEFAULT_STRIPES = 64;
+    
+    private final Lock[] stripes;
+    
+    PatientStripedLocks() {
+        this(DEFAULT_STRIPES);
+    }
+    
+    /**
+     * @param numberOfStripes the number of locks shared by all patients
+     * @throws IllegalArgumentException if given number of stripes smaller than one
+     */
+    PatientStripedLocks(int numberOfStripes) {
+        
+        if (numberOfStripes < 1) {
+            throw new IllegalArgumentException("numberOfStripes must be greater than zero");
+        }
+        this.stripes = new Lock[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Get the lock of the stripe given patient maps to.
+     *
+     * @param patient the patient to get the lock for
+     * @return the lock of given patient
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given patient with patientId null
+     * @should return the same lock for the same patient
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given patient with patientId null
+     */
+    Lock getLock(Patient patient) {
+        
+        return stripes[getStripe(patient)];
+    }
+    
+    /**
+     * Get the index of the stripe given patient maps to.
+     *
+     * @param patient the patient to get the stripe for
+     * @return the stripe index of given patient
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given patient with patientId null
+     */
+    private int getStripe(Patient patient) {
+        
+        if (patient == null) {
+            throw new IllegalArgumentException("patient cannot be null");
+        }
+        if (patient.getPatientId() == null) {
+            throw new IllegalArgumentException("patient.patientId cannot be null");
+        }
+        return Math.floorMod(patient.getPatientId(), stripes.length);
+    }
+    
+    /**
+     * Lock given patient until the current transaction commits or rolls back, so that another transaction working on
+     * the same patient sees the changes of the current one.
+     *
+     * @param patient the patient to lock
+     * @throws IllegalStateException if there is no active transaction synchronization
+     * @should hold the lock of given patient until the transaction completes
+     * @should throw illegal state exception if there is no active transaction synchronization
+     */
+    void lockUntilTransactionCompletes(Patient patient) {
+        
+        lockUntilTransactionCompletes(Collections.singleton(patient));
+    }
+    
+    /**
+     * Lock given patients until the current transaction commits or rolls back.
+     * <p>
+     * The stripes are always locked in ascending order so that two transactions locking overlapping sets of patients
+     * cannot deadlock, and each stripe is locked once even if several of the patients map to it.
+     * </p>
+     *
+     * @param patients the patients to lock
+     * @throws IllegalStateException if there is no active transaction synchronization
+     * @throws IllegalArgumentException if given patients contain null or a patient with patientId null
+     * @should hold the locks of given patients until the transaction completes
+     * @should throw illegal argument exception if given patients contain a patient with patientId null
+     */
+    void lockUntilTransactionCompletes(Collection<Patient> patients) {
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("patient can only be locked within a transaction");
+        }
+        final SortedSet<Integer> stripesToLock = new TreeSet<Integer>();
+        for (Patient patient : patients) {
+            stripesToLock.add(getStripe(patient));
+        }
+        for (Integer stripe : stripesToLock) {
+            final Lock lock = stripes[stripe];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                
+                
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+}
@@ -9,6 +9,8 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.Date;
+
 import org.openmrs.TestOrder;
 import org.openmrs.module.radiology.study.RadiologyStudy;
 
@@ -40,6 +42,18 @@ public class RadiologyOrder extends TestOrder {
         this.study = radiologyStudy;
     }
     
+    /**
+     * Hibernate setter for the persisted copy of the effective start date. The effective start date is always derived
+     * from urgency, scheduled date and date activated as defined by {@link #getEffectiveStartDate()}, it is only written
+     * to the database so date range searches can be served by an index. The loaded value is therefore ignored.
+     *
+     * @param effectiveStartDate the effective start date as stored in the database
+     */
+    @SuppressWarnings("unused")
+    private void setEffectiveStartDate(Date effectiveStartDate) {
+        // the effective start date is derived and cannot be set
+    }
+    
     /**
      * Returns true if study is in progress and false otherwise.
      * 
@@ -25,6 +25,46 @@ interface RadiologyOrderDAO {
      */
     public Long getNextAccessionNumberSeedSequenceValue();
     
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSeedSequenceBlock(Integer)
+     */
+    public Long getNextAccessionNumberSeedSequenceBlock(int blockSize);
+    
+    /**
+     * Gets the next accession number seed without reserving it, locking it until the current transaction completes.
+     *
+     * @return the next accession number seed
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#advanceAccessionNumberSequence()
+     */
+    public Long getNextAccessionNumberSeed();
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSequenceValue()
+     */
+    public Long getNextAccessionNumberSequenceValue();
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSequenceValues(Integer)
+     */
+    public List<Long> getNextAccessionNumberSequenceValues(int count);
+    
+    /**
+     * Advances the accession number sequence so that its next value is at least given value. A sequence already
+     * beyond given value is left as it is.
+     *
+     * @param nextValue the lowest value the accession number sequence may return next
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#advanceAccessionNumberSequence()
+     */
+    public void advanceAccessionNumberSequence(long nextValue);
+    
+    /**
+     * Gets the highest accession number of all radiology orders including voided ones which only consists of digits.
+     *
+     * @return the highest numeric accession number or null if there is none
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#advanceAccessionNumberSequence()
+     */
+    public Long getHighestNumericAccessionNumber();
+    
     /**
      * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrder(Integer)
      */
@@ -39,4 +79,9 @@ interface RadiologyOrderDAO {
      * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
      */
     List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrderCount(RadiologyOrderSearchCriteria)
+     */
+    Long getRadiologyOrderCount(RadiologyOrderSearchCriteria searchCriteria);
 }
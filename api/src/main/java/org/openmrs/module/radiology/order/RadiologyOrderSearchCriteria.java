@@ -14,6 +14,7 @@ import java.util.Date;
 import org.openmrs.Order.Urgency;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
+import org.openmrs.module.radiology.util.ContinuationToken;
 
 /**
  * Search parameter object for {@link RadiologyOrder}'s.
@@ -23,7 +24,8 @@ import org.openmrs.Provider;
  * <li>Set the various search criteria parameters through the respective methods of the static builder class
  * ({@link Builder#withPatient(Patient)}, {@link Builder#includeVoided()}, {@link Builder#withUrgency(Urgency)}, 
  * {@link Builder#fromEffectiveStartDate(Date)}, {@link Builder#toEffectiveStartDate(Date)},
- * {@link Builder#withAccessionNumber(String)} and {@link Builder#withOrderer(Provider)}).</li>
+ * {@link Builder#withAccessionNumber(String)}, {@link Builder#withOrderer(Provider)}, {@link Builder#withOffset(Integer)},
+ * {@link Builder#withLimit(Integer)} and {@link Builder#withContinuationToken(ContinuationToken)}).</li>
  * <li>Build the {@link RadiolologyOrderSearchCriteria} instance with the {@link Builder#build()} method.</li>
  * <li>Get the search parameters through the getter methods (such as {@link #getPatient()} or {@link #getUrgency()}).</li>
  * </ol>
@@ -45,6 +47,12 @@ public class RadiologyOrderSearchCriteria {
     
     private final Provider orderer;
     
+    private final Integer offset;
+    
+    private final Integer limit;
+    
+    private final ContinuationToken continuationToken;
+    
     /**
      * @return the order patient
      */
@@ -101,6 +109,30 @@ public class RadiologyOrderSearchCriteria {
         return orderer;
     }
     
+    /**
+     * @return the index of the first radiology order to return
+     */
+    public Integer getOffset() {
+        
+        return offset;
+    }
+    
+    /**
+     * @return the maximum number of radiology orders to return
+     */
+    public Integer getLimit() {
+        
+        return limit;
+    }
+    
+    /**
+     * @return the position after which radiology orders are returned in keyset pagination
+     */
+    public ContinuationToken getContinuationToken() {
+        
+        return continuationToken;
+    }
+    
     public static class Builder {
         
         
@@ -118,6 +150,12 @@ public class RadiologyOrderSearchCriteria {
         
         private Provider orderer;
         
+        private Integer offset;
+        
+        private Integer limit;
+        
+        private ContinuationToken continuationToken;
+        
         /**
          * @param patient the order patient
          * @return this builder instance
@@ -189,6 +227,49 @@ public class RadiologyOrderSearchCriteria {
             return this;
         }
         
+        /**
+         * @param offset the index of the first radiology order to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if offset is negative
+         * @should throw illegal argument exception if offset is negative
+         */
+        public Builder withOffset(Integer offset) {
+            
+            if (offset != null && offset < 0) {
+                throw new IllegalArgumentException("offset cannot be negative");
+            }
+            this.offset = offset;
+            return this;
+        }
+        
+        /**
+         * @param limit the maximum number of radiology orders to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if limit is not positive
+         * @should throw illegal argument exception if limit is not positive
+         */
+        public Builder withLimit(Integer limit) {
+            
+            if (limit != null && limit < 1) {
+                throw new IllegalArgumentException("limit must be greater than zero");
+            }
+            this.limit = limit;
+            return this;
+        }
+        
+        /**
+         * Restricts the search to radiology orders sorting after the given position. The continuation token holds the
+         * accession number and order id of the last radiology order of the previous page.
+         * 
+         * @param continuationToken the position after which radiology orders are returned
+         * @return this builder instance
+         */
+        public Builder withContinuationToken(ContinuationToken continuationToken) {
+            
+            this.continuationToken = continuationToken;
+            return this;
+        }
+        
         /**
          * Create an {@link RadiologyOrderSearchCriteria} with the properties of this builder instance.
          * 
@@ -200,6 +281,8 @@ public class RadiologyOrderSearchCriteria {
          * @should create a new radiology order search criteria instance with to effective start date if to effective start date is set
          * @should create a new radiology order search criteria instance with accession number if accession number is set
          * @should create a new radiology order search criteria instance with orderer if orderer is set
+         * @should create a new radiology order search criteria instance with offset and limit if offset and limit are set
+         * @should create a new radiology order search criteria instance with continuation token if continuation token is set
          */
         public RadiologyOrderSearchCriteria build() {
             
@@ -216,5 +299,8 @@ public class RadiologyOrderSearchCriteria {
         this.toEffectiveStartDate = builder.toEffectiveStartDate;
         this.accessionNumber = builder.accessionNumber;
         this.orderer = builder.orderer;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+        this.continuationToken = builder.continuationToken;
     }
 }
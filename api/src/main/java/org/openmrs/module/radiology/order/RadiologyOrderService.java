@@ -32,12 +32,75 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @return the accession number seed
      * @throws APIException
      * @should return the next accession number seed
+     * @deprecated reserve the seed with {@link #getNextAccessionNumberSeedSequenceBlock(Integer)} with a block size of
+     *             one instead
      */
+    @Deprecated
     public Long getNextAccessionNumberSeedSequenceValue();
     
+    /**
+     * Reserves a block of consecutive accession number seeds in one round-trip to the database.
+     *
+     * @param blockSize the number of accession number seeds to reserve
+     * @return the first accession number seed of the reserved block
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given block size smaller than one
+     * @throws APIException
+     * @should return the first accession number seed of the block and reserve given number of seeds
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given block size smaller than one
+     */
+    public Long getNextAccessionNumberSeedSequenceBlock(Integer blockSize);
+    
+    /**
+     * Gets the next value of the accession number sequence. The sequence is a native database sequence or, on
+     * databases without sequences, a single row table.
+     *
+     * @return the next value of the accession number sequence
+     * @should return the next value of the accession number sequence
+     */
+    public Long getNextAccessionNumberSequenceValue();
+    
+    /**
+     * Gets given number of next values of the accession number sequence in a new transaction which commits before this
+     * method returns, so that the caller's transaction does not hold the lock of the sequence. On databases without
+     * sequences all of them are reserved with a single update.
+     *
+     * @param count the number of values to get
+     * @return the next values of the accession number sequence in ascending order
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given count smaller than one
+     * @should return given number of next values of the accession number sequence
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given count smaller than one
+     */
+    public List<Long> getNextAccessionNumberSequenceValues(Integer count);
+    
+    /**
+     * Advances the accession number sequence so that it does not return an accession number generated before. Its next
+     * value becomes at least the accession number seed stored in the global property
+     * {@code radiology.nextAccessionNumberSeed} and greater than the highest numeric accession number of all radiology
+     * orders. This is done whenever the global property {@code radiology.accessionNumberGenerator} is set to
+     * {@link AccessionNumberGeneratorStrategy#SEQUENCE}.
+     * <p>
+     * The accession number seed is locked until the current transaction completes, so that no accession numbers are
+     * reserved from it while the strategy is switched.
+     * </p>
+     *
+     * @throws APIException if global property radiology.nextAccessionNumberSeed is missing or not a number
+     * @should advance the accession number sequence to the accession number seed
+     * @should advance the accession number sequence beyond the highest numeric accession number
+     */
+    public void advanceAccessionNumberSequence();
+    
     /**
      * Saves a new {@code RadiologyOrder} and its {@code RadiologyStudy} to the
      * database.
+     * <p>
+     * Radiology orders are placed in parallel, the database rejects duplicate accession numbers and study instance
+     * uids. If the global property {@code radiology.lockRadiologyOrdersPerPatient} is true, radiology orders of the
+     * same patient are placed one after the other on this node.
+     * </p>
      *
      * @param radiologyOrder the radiology order to be created
      * @return the created radiology order
@@ -47,6 +110,10 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @should create new radiology order and study from given radiology order
      * @should create radiology order encounter
      * @should set the radiology order accession number
+     * @should persist the effective start date of the radiology order
+     * @should create radiology worklist item for radiology order
+     * @should place radiology orders in parallel
+     * @should place all radiology orders of the same patient if lock radiology orders per patient is enabled
      * @should throw illegal argument exception given null
      * @should throw illegal argument exception if given radiology order has no study
      * @should throw api exception on saving an existing radiology order
@@ -54,6 +121,32 @@ public interface RadiologyOrderService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_ORDERS)
     public RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder);
     
+    /**
+     * Saves given new {@code RadiologyOrder's} and their {@code RadiologyStudy's} to the database in one transaction.
+     * <p>
+     * Accession numbers and study instance uids are allocated for all radiology orders at once, and radiology orders
+     * of the same patient and orderer share one encounter. Either all radiology orders are placed or none.
+     * </p>
+     *
+     * @param radiologyOrders the radiology orders to be created
+     * @return the created radiology orders in the order given
+     * @throws IllegalArgumentException if radiologyOrders is null
+     * @throws IllegalArgumentException if radiologyOrders contains null
+     * @throws IllegalArgumentException if a radiology order has no study
+     * @throws APIException if a radiology order is an existing radiology order
+     * @should create new radiology orders and studies from given radiology orders
+     * @should set unique accession numbers and study instance uids
+     * @should create one radiology order encounter per patient and orderer
+     * @should create radiology worklist items for radiology orders
+     * @should return empty list if given empty list
+     * @should throw illegal argument exception given null
+     * @should throw illegal argument exception if given list containing null
+     * @should throw illegal argument exception if a given radiology order has no study
+     * @should throw api exception if a given radiology order is an existing radiology order
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_ORDERS)
+    public List<RadiologyOrder> placeRadiologyOrders(List<RadiologyOrder> radiologyOrders);
+    
     /**
      * Discontinues an existing {@code RadiologyOrder}.
      *
@@ -70,6 +163,7 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @throws APIException if radiology order is completed
      * @should create discontinuation order which discontinues given radiology order that is not in progress or completed
      * @should create radiology order encounter
+     * @should update the radiology worklist item of given radiology order
      * @should throw illegal argument exception if given radiology order is null
      * @should throw illegal argument exception if given radiology order with orderId null
      * @should throw illegal argument exception if given orderer is null
@@ -128,8 +222,24 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @should return all radiology orders for given accession number if accession number is specified
      * @should return all radiology orders for given orderer
      * @should return all radiology orders for given urgency and orderer
+     * @should return a page of radiology orders if offset and limit are specified
+     * @should return radiology orders after given continuation token if continuation token is specified
+     * @should fetch a page of radiology orders and their associations with a fixed number of sql statements
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
     public List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
+    
+    /**
+     * Get the number of {@code RadiologyOrder's} matching a variety of (nullable) criteria.
+     * Offset and limit of the search criteria are ignored.
+     *
+     * @param radiologyOrderSearchCriteria the object containing search parameters
+     * @return the number of radiology orders matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of radiology orders matching given criteria ignoring offset and limit
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public Long getRadiologyOrderCount(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
 }
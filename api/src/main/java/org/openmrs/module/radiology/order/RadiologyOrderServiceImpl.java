@@ -9,8 +9,15 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.openmrs.Encounter;
 import org.openmrs.Order;
@@ -23,7 +30,9 @@ import org.openmrs.api.OrderService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.study.RadiologyStudy;
 import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistService;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +50,23 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
     
     private RadiologyProperties radiologyProperties;
     
+    private RadiologyWorklistService radiologyWorklistService;
+    
+    private final AccessionNumberGenerator globalPropertyAccessionNumberGenerator =
+            new GlobalPropertyAccessionNumberGenerator(() -> radiologyProperties.getAccessionNumberBlockSize(),
+                    blockSize -> Context.getService(RadiologyOrderService.class)
+                            .getNextAccessionNumberSeedSequenceBlock(blockSize));
+    
+    private final AccessionNumberGenerator sequenceAccessionNumberGenerator =
+            new SequenceAccessionNumberGenerator(() -> Context.getService(RadiologyOrderService.class)
+                    .getNextAccessionNumberSequenceValue(),
+                    count -> Context.getService(RadiologyOrderService.class)
+                            .getNextAccessionNumberSequenceValues(count));
+    
+    private volatile AccessionNumberGenerator timeBasedAccessionNumberGenerator;
+    
+    private final PatientStripedLocks patientStripedLocks = new PatientStripedLocks();
+    
     public void setRadiologyOrderDAO(RadiologyOrderDAO radiologyOrderDAO) {
         this.radiologyOrderDAO = radiologyOrderDAO;
     }
@@ -61,12 +87,98 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         this.radiologyProperties = radiologyProperties;
     }
     
+    public void setRadiologyWorklistService(RadiologyWorklistService radiologyWorklistService) {
+        this.radiologyWorklistService = radiologyWorklistService;
+    }
+    
     /**
      * @see RadiologyOrderService#placeRadiologyOrder(RadiologyOrder)
      */
     @Override
     @Transactional
-    public synchronized RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder) {
+    public RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder) {
+        
+        validateNewRadiologyOrder(radiologyOrder);
+        
+        if (radiologyOrder.getPatient() != null && radiologyProperties.isLockRadiologyOrdersPerPatient()) {
+            patientStripedLocks.lockUntilTransactionCompletes(radiologyOrder.getPatient());
+        }
+        
+        radiologyOrder.setAccessionNumber(getNewAccessionNumber());
+        
+        final Encounter encounter =
+                saveRadiologyOrderEncounter(radiologyOrder.getPatient(), radiologyOrder.getOrderer(), new Date());
+        encounter.addOrder(radiologyOrder);
+        
+        final RadiologyOrder result = (RadiologyOrder) orderService.saveOrder(radiologyOrder, newRadiologyOrderContext());
+        // saving the study also creates the worklist item of the radiology order
+        this.radiologyStudyService.saveRadiologyStudy(result.getStudy());
+        return result;
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Override
+    @Transactional
+    public List<RadiologyOrder> placeRadiologyOrders(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders == null) {
+            throw new IllegalArgumentException("radiologyOrders cannot be null");
+        }
+        
+        final List<RadiologyOrder> result = new ArrayList<RadiologyOrder>(radiologyOrders.size());
+        if (radiologyOrders.isEmpty()) {
+            return result;
+        }
+        
+        final Set<Patient> patients = new HashSet<Patient>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            validateNewRadiologyOrder(radiologyOrder);
+            if (radiologyOrder.getPatient() != null) {
+                patients.add(radiologyOrder.getPatient());
+            }
+        }
+        
+        if (radiologyProperties.isLockRadiologyOrdersPerPatient()) {
+            patientStripedLocks.lockUntilTransactionCompletes(patients);
+        }
+        
+        final Iterator<String> accessionNumbers = getNewAccessionNumbers(radiologyOrders.size()).iterator();
+        final OrderContext orderContext = newRadiologyOrderContext();
+        final Date encounterDateTime = new Date();
+        final Map<List<Object>, Encounter> encounters = new HashMap<List<Object>, Encounter>();
+        final List<RadiologyStudy> radiologyStudies = new ArrayList<RadiologyStudy>(radiologyOrders.size());
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            radiologyOrder.setAccessionNumber(accessionNumbers.next());
+            
+            final List<Object> patientAndOrderer = Arrays.asList(radiologyOrder.getPatient(), radiologyOrder.getOrderer());
+            Encounter encounter = encounters.get(patientAndOrderer);
+            if (encounter == null) {
+                encounter = saveRadiologyOrderEncounter(radiologyOrder.getPatient(), radiologyOrder.getOrderer(),
+                    encounterDateTime);
+                encounters.put(patientAndOrderer, encounter);
+            }
+            encounter.addOrder(radiologyOrder);
+            
+            final RadiologyOrder savedRadiologyOrder = (RadiologyOrder) orderService.saveOrder(radiologyOrder, orderContext);
+            radiologyStudies.add(savedRadiologyOrder.getStudy());
+            result.add(savedRadiologyOrder);
+        }
+        // saving the studies also creates the worklist items of the radiology orders
+        this.radiologyStudyService.saveRadiologyStudies(radiologyStudies);
+        return result;
+    }
+    
+    /**
+     * Validate that given radiology order can be placed.
+     *
+     * @param radiologyOrder the radiology order to validate
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given radiology order has no study
+     * @throws APIException if given radiology order is an existing radiology order
+     */
+    private void validateNewRadiologyOrder(RadiologyOrder radiologyOrder) {
         
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
@@ -79,20 +191,19 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         if (radiologyOrder.getStudy() == null) {
             throw new IllegalArgumentException("radiologyOrder.study cannot be null");
         }
-        
-        radiologyOrder.setAccessionNumber(getNewAccessionNumber());
-        
-        final Encounter encounter =
-                saveRadiologyOrderEncounter(radiologyOrder.getPatient(), radiologyOrder.getOrderer(), new Date());
-        encounter.addOrder(radiologyOrder);
+    }
+    
+    /**
+     * Create the order context radiology orders are placed in.
+     *
+     * @return the order context with the radiology care setting and order type
+     */
+    private OrderContext newRadiologyOrderContext() {
         
         final OrderContext orderContext = new OrderContext();
         orderContext.setCareSetting(radiologyProperties.getRadiologyCareSetting());
         orderContext.setOrderType(radiologyProperties.getRadiologyTestOrderType());
-        
-        final RadiologyOrder result = (RadiologyOrder) orderService.saveOrder(radiologyOrder, orderContext);
-        this.radiologyStudyService.saveRadiologyStudy(result.getStudy());
-        return result;
+        return orderContext;
     }
     
     /**
@@ -144,7 +255,10 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         
         final Encounter encounter = this.saveRadiologyOrderEncounter(radiologyOrder.getPatient(), orderer, new Date());
         
-        return this.orderService.discontinueOrder(radiologyOrder, nonCodedDiscontinueReason, null, orderer, encounter);
+        final Order result =
+                this.orderService.discontinueOrder(radiologyOrder, nonCodedDiscontinueReason, null, orderer, encounter);
+        this.radiologyWorklistService.updateRadiologyWorklistItem(radiologyOrder);
+        return result;
     }
     
     /**
@@ -178,19 +292,123 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
      */
     @Override
     public String getNewAccessionNumber() {
-        return Context.getService(RadiologyOrderService.class)
-                .getNextAccessionNumberSeedSequenceValue()
-                .toString();
+        return getAccessionNumberGenerator().getNewAccessionNumber();
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Override
+    public List<String> getNewAccessionNumbers(int count) {
+        return getAccessionNumberGenerator().getNewAccessionNumbers(count);
+    }
+    
+    /**
+     * Get the accession number generator of the strategy configured in the global property
+     * {@code radiology.accessionNumberGenerator}.
+     *
+     * @return the configured accession number generator
+     */
+    private AccessionNumberGenerator getAccessionNumberGenerator() {
+        
+        switch (radiologyProperties.getAccessionNumberGeneratorStrategy()) {
+            case SEQUENCE:
+                return sequenceAccessionNumberGenerator;
+            case TIME_BASED:
+                return getTimeBasedAccessionNumberGenerator();
+            default:
+                return globalPropertyAccessionNumberGenerator;
+        }
+    }
+    
+    /**
+     * Get the time based accession number generator, creating it with the node id configured in the global property
+     * {@code radiology.accessionNumberNodeId} on first use. There must only ever be one instance per node since the
+     * instance holds the counter, so a changed node id takes effect after a restart.
+     *
+     * @return the time based accession number generator
+     */
+    private AccessionNumberGenerator getTimeBasedAccessionNumberGenerator() {
+        
+        AccessionNumberGenerator result = timeBasedAccessionNumberGenerator;
+        if (result == null) {
+            synchronized (this) {
+                result = timeBasedAccessionNumberGenerator;
+                if (result == null) {
+                    result = new TimeBasedAccessionNumberGenerator(radiologyProperties.getAccessionNumberNodeId());
+                    timeBasedAccessionNumberGenerator = result;
+                }
+            }
+        }
+        return result;
     }
     
     /**
      * @see RadiologyOrderService#getNextAccessionNumberSeedSequenceValue()
      */
+    @Deprecated
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public synchronized Long getNextAccessionNumberSeedSequenceValue() {
+    public Long getNextAccessionNumberSeedSequenceValue() {
         
-        return radiologyOrderDAO.getNextAccessionNumberSeedSequenceValue();
+        return radiologyOrderDAO.getNextAccessionNumberSeedSequenceBlock(1);
+    }
+    
+    /**
+     * @see RadiologyOrderService#getNextAccessionNumberSeedSequenceBlock(Integer)
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long getNextAccessionNumberSeedSequenceBlock(Integer blockSize) {
+        
+        if (blockSize == null) {
+            throw new IllegalArgumentException("blockSize cannot be null");
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be greater than zero");
+        }
+        return radiologyOrderDAO.getNextAccessionNumberSeedSequenceBlock(blockSize);
+    }
+    
+    /**
+     * @see RadiologyOrderService#getNextAccessionNumberSequenceValue()
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long getNextAccessionNumberSequenceValue() {
+        
+        return radiologyOrderDAO.getNextAccessionNumberSequenceValue();
+    }
+    
+    /**
+     * @see RadiologyOrderService#getNextAccessionNumberSequenceValues(Integer)
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> getNextAccessionNumberSequenceValues(Integer count) {
+        
+        if (count == null) {
+            throw new IllegalArgumentException("count cannot be null");
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be greater than zero");
+        }
+        return radiologyOrderDAO.getNextAccessionNumberSequenceValues(count);
+    }
+    
+    /**
+     * @see RadiologyOrderService#advanceAccessionNumberSequence()
+     */
+    @Override
+    @Transactional
+    public void advanceAccessionNumberSequence() {
+        
+        long nextValue = radiologyOrderDAO.getNextAccessionNumberSeed();
+        final Long highestNumericAccessionNumber = radiologyOrderDAO.getHighestNumericAccessionNumber();
+        if (highestNumericAccessionNumber != null) {
+            nextValue = Math.max(nextValue, highestNumericAccessionNumber + 1);
+        }
+        radiologyOrderDAO.advanceAccessionNumberSequence(nextValue);
     }
     
     /**
@@ -204,4 +422,16 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         }
         return radiologyOrderDAO.getRadiologyOrders(radiologyOrderSearchCriteria);
     }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderCount(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public Long getRadiologyOrderCount(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria) {
+        
+        if (radiologyOrderSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyOrderSearchCriteria cannot be null");
+        }
+        return radiologyOrderDAO.getRadiologyOrderCount(radiologyOrderSearchCriteria);
+    }
 }
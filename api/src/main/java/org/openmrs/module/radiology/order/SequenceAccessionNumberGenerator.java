@@ -0,0 +1,74 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates accession numbers from a database sequence.
+ *
+ * @see AccessionNumberGeneratorStrategy#SEQUENCE
+ * @see RadiologyOrderService#getNextAccessionNumberSequenceValue()
+ */
+class SequenceAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    private final LongSupplier sequence;
+    
+    private final IntFunction<List<Long>> sequenceValues;
+    
+    /**
+     * @param sequence supplies the next value of the accession number sequence
+     */
+    SequenceAccessionNumberGenerator(LongSupplier sequence) {
+        this(sequence, null);
+    }
+    
+    /**
+     * @param sequence supplies the next value of the accession number sequence
+     * @param sequenceValues function returning the given number of next values of the accession number sequence in
+     *            one call, or null to call {@code sequence} once per value
+     */
+    SequenceAccessionNumberGenerator(LongSupplier sequence, IntFunction<List<Long>> sequenceValues) {
+        
+        if (sequence == null) {
+            throw new IllegalArgumentException("sequence cannot be null");
+        }
+        this.sequence = sequence;
+        this.sequenceValues = sequenceValues;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        return String.valueOf(sequence.getAsLong());
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Override
+    public List<String> getNewAccessionNumbers(int count) {
+        
+        if (sequenceValues == null || count < 1) {
+            return AccessionNumberGenerator.super.getNewAccessionNumbers(count);
+        }
+        final List<String> result = new ArrayList<String>(count);
+        for (Long value : sequenceValues.apply(count)) {
+            result.add(String.valueOf(value));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Generates accession numbers without database access so that the nodes of a cluster can generate them independently.
+ * <p>
+ * An accession number packs the milliseconds since {@link #EPOCH} (41 bits), the node id (10 bits) and a counter
+ * (12 bits) into a positive {@code long} which is written in base 36, left padded with zeros to
+ * {@link #ACCESSION_NUMBER_LENGTH} characters. This fits the 16 characters DICOM allows for an accession number and
+ * sorts accession numbers of the same node by time of creation.
+ * </p>
+ * <p>
+ * Timestamp and counter are advanced together with a single compare-and-set. If more than 4096 accession numbers are
+ * requested within a millisecond or the clock moves backwards the generator continues from its last timestamp, so
+ * accession numbers stay unique as long as no two nodes share a node id.
+ * </p>
+ *
+ * @see AccessionNumberGeneratorStrategy#TIME_BASED
+ */
+class TimeBasedAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    /**
+     * 2016-01-01T00:00:00Z, the timestamp of accession numbers is counted from here.
+     */
+    static final long EPOCH = 1451606400000L;
+    
+    static final int ACCESSION_NUMBER_LENGTH = 13;
+    
+    private static final int NODE_ID_BITS = 10;
+    
+    private static final int COUNTER_BITS = 12;
+    
+    static final int MAX_NODE_ID = (1 << NODE_ID_BITS) - 1;
+    
+    private final long nodeId;
+    
+    private final LongSupplier clock;
+    
+    /**
+     * Milliseconds since {@link #EPOCH} shifted left by {@link #COUNTER_BITS} plus the counter of the last accession
+     * number.
+     */
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+    
+    /**
+     * @param nodeId the id of this node unique within the cluster
+     * @throws IllegalArgumentException if node id is not between 0 and {@link #MAX_NODE_ID}
+     */
+    TimeBasedAccessionNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+    
+    /**
+     * @param nodeId the id of this node unique within the cluster
+     * @param clock supplies the current time in milliseconds
+     * @throws IllegalArgumentException if node id is not between 0 and {@link #MAX_NODE_ID}
+     * @should throw illegal argument exception if node id is not between zero and max node id
+     */
+    TimeBasedAccessionNumberGenerator(int nodeId, LongSupplier clock) {
+        
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("clock cannot be null");
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @should return accession numbers of fixed length
+     * @should never return the same accession number twice when called concurrently
+     * @should return unique accession numbers if more than counter allows are requested within a millisecond
+     * @should return unique accession numbers if the clock moves backwards
+     * @should return different accession numbers for different node ids at the same time
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        
+        final long now = (clock.getAsLong() - EPOCH) << COUNTER_BITS;
+        final long timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(last + 1, now));
+        
+        final long timestamp = timestampAndCounter >>> COUNTER_BITS;
+        final long counter = timestampAndCounter & ((1L << COUNTER_BITS) - 1);
+        final long accessionNumber =
+                (timestamp << (NODE_ID_BITS + COUNTER_BITS)) | (nodeId << COUNTER_BITS) | counter;
+        return StringUtils.leftPad(Long.toString(accessionNumber, Character.MAX_RADIX)
+                .toUpperCase(),
+            ACCESSION_NUMBER_LENGTH, '0');
+    }
+}
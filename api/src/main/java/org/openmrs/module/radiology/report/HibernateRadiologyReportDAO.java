@@ -9,13 +9,33 @@
  */
 package org.openmrs.module.radiology.report;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
+import org.hibernate.PessimisticLockException;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.criterion.Criterion;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.LockAcquisitionException;
+import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.util.ContinuationToken;
 
 /**
  * Hibernate specific RadiologyReport related functions. This class should not be used directly. All
@@ -27,8 +47,20 @@ import org.openmrs.module.radiology.order.RadiologyOrder;
 class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     
     
+    /**
+     * Name of the unique constraint on {@code radiology_report.active_order_id} letting only one report claim an order.
+     */
+    static final String ACTIVE_ORDER_ID_UNIQUE_CONSTRAINT = "radiology_report_active_order_id_unique";
+    
+    /**
+     * Maximum number of radiology reports ranked by a text search.
+     */
+    static final int DEFAULT_MAX_RANKED_CANDIDATES = RadiologyReportSearchCriteria.MAX_TEXT_MATCHES;
+    
     private SessionFactory sessionFactory;
     
+    private int maxRankedCandidates = DEFAULT_MAX_RANKED_CANDIDATES;
+    
     /**
      * Set session factory that allows us to connect to the database that Hibernate knows about.
      *
@@ -38,6 +70,15 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
         this.sessionFactory = sessionFactory;
     }
     
+    /**
+     * Set the maximum number of radiology reports ranked by a text search.
+     *
+     * @param maxRankedCandidates the maximum number of candidates
+     */
+    void setMaxRankedCandidates(int maxRankedCandidates) {
+        this.maxRankedCandidates = maxRankedCandidates;
+    }
+    
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReport(Integer)
      */
@@ -60,54 +101,183 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#saveRadiologyReportDraft(RadiologyReport)
+     * @should throw api exception if the radiology order of given radiology report is already claimed
+     * @should rethrow the violation of any other constraint
+     * @should rethrow the violation of a constraint whose name is unknown
      */
     @Override
     public RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport) {
-        sessionFactory.getCurrentSession()
-                .saveOrUpdate(radiologyReport);
+        
+        final Session session = sessionFactory.getCurrentSession();
+        reuseStoredRadiologyReportBody(radiologyReport);
+        try {
+            session.saveOrUpdate(radiologyReport);
+            // flush so that losing the race against a concurrent claim or update fails here instead of on commit
+            session.flush();
+        }
+        catch (StaleObjectStateException | LockAcquisitionException | PessimisticLockException e) {
+            throw new APIException("radiology.RadiologyReport.cannot.save.concurrently.modified", e);
+        }
+        catch (ConstraintViolationException e) {
+            if (isActiveOrderIdUniqueConstraint(e.getConstraintName())) {
+                throw new APIException("radiology.RadiologyReport.cannot.create.already.claimed", e);
+            }
+            throw e;
+        }
         return radiologyReport;
     }
     
     /**
-     * @see org.openmrs.module.radiology.report.RadiologyReportService#hasRadiologyOrderCompletedRadiologyReport(RadiologyOrder)
-     *      (RadiologyReport)
+     * Check whether given constraint name, as extracted from the database error, is the unique constraint on the
+     * active order id. Databases report it in their own case and some with the name of its index appended.
+     *
+     * @param constraintName the name of the violated constraint or null if it could not be extracted
+     * @return true if given constraint name names the unique constraint on the active order id
+     */
+    private boolean isActiveOrderIdUniqueConstraint(String constraintName) {
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT)
+                .contains(ACTIVE_ORDER_ID_UNIQUE_CONSTRAINT);
+    }
+    
+    /**
+     * Let a detached radiology report, for example one bound from the report form, update the row of its stored body
+     * instead of inserting a new one.
+     *
+     * @param radiologyReport the radiology report about to be saved
+     */
+    private void reuseStoredRadiologyReportBody(RadiologyReport radiologyReport) {
+        
+        final RadiologyReportBody radiologyReportBody = radiologyReport.getReportBody();
+        if (radiologyReport.getReportId() == null || radiologyReportBody == null
+                || radiologyReportBody.getReportBodyId() != null) {
+            return;
+        }
+        final Integer storedReportBodyId = (Integer) sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyReport.class)
+                .add(Restrictions.idEq(radiologyReport.getReportId()))
+                .createAlias("reportBody", "reportBody")
+                .setProjection(Projections.property("reportBody.reportBodyId"))
+                .uniqueResult();
+        radiologyReportBody.setReportBodyId(storedReportBodyId);
+    }
+    
+    /**
+     * @see RadiologyReportDAO#updateRadiologyReportIndex(RadiologyReport)
+     */
+    @Override
+    public void updateRadiologyReportIndex(RadiologyReport radiologyReport) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        session.createQuery("delete from RadiologyReportIndexTerm where radiologyReport = :radiologyReport")
+                .setParameter("radiologyReport", radiologyReport)
+                .executeUpdate();
+        indexRadiologyReport(session, radiologyReport);
+    }
+    
+    /**
+     * @see RadiologyReportDAO#rebuildRadiologyReportIndex(int)
      */
     @SuppressWarnings("unchecked")
     @Override
-    public boolean hasRadiologyOrderCompletedRadiologyReport(RadiologyOrder radiologyOrder) {
-        final List<RadiologyReport> radiologyReports = sessionFactory.getCurrentSession()
-                .createCriteria(RadiologyReport.class)
-                .add(Restrictions.eq("radiologyOrder", radiologyOrder))
-                .add(Restrictions.eq("status", RadiologyReportStatus.COMPLETED))
-                .list();
-        return radiologyReports.size() == 1;
+    public int rebuildRadiologyReportIndex(int batchSize) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        session.createQuery("delete from RadiologyReportIndexTerm")
+                .executeUpdate();
+        int numberOfIndexedReports = 0;
+        Integer lastReportId = 0;
+        List<RadiologyReport> batch;
+        do {
+            batch = session.createCriteria(RadiologyReport.class)
+                    .add(Restrictions.gt("reportId", lastReportId))
+                    .setFetchMode("reportBody", FetchMode.JOIN)
+                    .addOrder(Order.asc("reportId"))
+                    .setMaxResults(batchSize)
+                    .list();
+            for (RadiologyReport radiologyReport : batch) {
+                indexRadiologyReport(session, radiologyReport);
+                lastReportId = radiologyReport.getReportId();
+            }
+            numberOfIndexedReports += batch.size();
+            // write out and release the batch so that memory use does not grow with the number of radiology reports
+            session.flush();
+            session.clear();
+        }
+        while (batch.size() == batchSize);
+        return numberOfIndexedReports;
+    }
+    
+    /**
+     * Save the index terms of the body of given radiology report.
+     *
+     * @param session the current session
+     * @param radiologyReport the radiology report to index
+     */
+    private void indexRadiologyReport(Session session, RadiologyReport radiologyReport) {
+        
+        final Map<String, Integer> termFrequencies =
+                RadiologyReportTextAnalyzer.getTermFrequencies(radiologyReport.getBody());
+        for (Map.Entry<String, Integer> termFrequency : termFrequencies.entrySet()) {
+            session.save(new RadiologyReportIndexTerm(radiologyReport, termFrequency.getKey(), termFrequency.getValue()));
+        }
     }
     
     /**
-     * @see org.openmrs.module.radiology.report.RadiologyReportService#hasRadiologyOrderClaimedRadiologyReport(RadiologyOrder)
+     * @see RadiologyReportDAO#getActiveRadiologyReportStatus(RadiologyOrder)
+     */
+    @Override
+    public RadiologyReportStatus getActiveRadiologyReportStatus(RadiologyOrder radiologyOrder) {
+        return (RadiologyReportStatus) createActiveRadiologyReportCriteria(radiologyOrder)
+                .setProjection(Projections.property("status"))
+                .uniqueResult();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getActiveRadiologyReportByRadiologyOrder(RadiologyOrder)
+     */
+    @Override
+    public RadiologyReport getActiveRadiologyReportByRadiologyOrder(RadiologyOrder radiologyOrder) {
+        return (RadiologyReport) createActiveRadiologyReportCriteria(radiologyOrder).uniqueResult();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getActiveRadiologyReportsByRadiologyOrders(List)
      */
     @SuppressWarnings("unchecked")
-    public boolean hasRadiologyOrderClaimedRadiologyReport(RadiologyOrder radiologyOrder) {
+    @Override
+    public Map<Integer, RadiologyReport> getActiveRadiologyReportsByRadiologyOrders(Collection<Integer> orderIds) {
+        
         final List<RadiologyReport> radiologyReports = sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyReport.class)
-                .add(Restrictions.eq("radiologyOrder", radiologyOrder))
-                .add(Restrictions.eq("status", RadiologyReportStatus.DRAFT))
+                .add(Restrictions.in("radiologyOrder.orderId", orderIds))
                 .add(Restrictions.eq("voided", false))
+                .addOrder(Order.asc("reportId"))
                 .list();
-        return radiologyReports.size() == 1;
+        // like getActiveRadiologyReportByRadiologyOrder the report with the highest id wins
+        final Map<Integer, RadiologyReport> result = new HashMap<Integer, RadiologyReport>();
+        for (RadiologyReport radiologyReport : radiologyReports) {
+            result.put(radiologyReport.getRadiologyOrder()
+                    .getOrderId(),
+                radiologyReport);
+        }
+        return result;
     }
     
     /**
-     * @see org.openmrs.module.radiology.report.RadiologyReportService#getActiveRadiologyReportByRadiologyOrder(RadiologyOrder)
+     * Create a {@code Criteria} matching the active (non-voided) {@code RadiologyReport} of given
+     * {@code RadiologyOrder}. The restrictions are covered by the index on order id, voided and report status. Should
+     * an order ever have more than one active report the one with the highest id is matched.
+     *
+     * @param radiologyOrder the radiology order which active report should be matched
+     * @return the criteria matching the active radiology report of given radiology order
      */
-    @Override
-    public RadiologyReport getActiveRadiologyReportByRadiologyOrder(RadiologyOrder radiologyOrder) {
-        return (RadiologyReport) sessionFactory.getCurrentSession()
+    private Criteria createActiveRadiologyReportCriteria(RadiologyOrder radiologyOrder) {
+        return sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyReport.class)
                 .add(Restrictions.eq("radiologyOrder", radiologyOrder))
                 .add(Restrictions.eq("voided", false))
-                .list()
-                .get(0);
+                .addOrder(Order.desc("reportId"))
+                .setMaxResults(1);
     }
     
     /**
@@ -117,26 +287,230 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     @Override
     public List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria searchCriteria) {
         
+        if (searchCriteria.getText() != null) {
+            return getRadiologyReportsRankedByText(searchCriteria);
+        }
+        final Criteria crit = createRadiologyReportCriteria(searchCriteria);
+        
+        if (searchCriteria.getContinuationToken() != null) {
+            crit.add(createAfterContinuationTokenCriterion(searchCriteria.getContinuationToken()));
+        }
+        
+        crit.addOrder(Order.asc("date"));
+        crit.addOrder(Order.asc("reportId"));
+        if (searchCriteria.getOffset() != null) {
+            crit.setFirstResult(searchCriteria.getOffset());
+        }
+        if (searchCriteria.getLimit() != null) {
+            crit.setMaxResults(searchCriteria.getLimit());
+        }
+        return crit.list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReportCount(RadiologyReportSearchCriteria)
+     * @should count only the maximum number of candidates if given text
+     */
+    @Override
+    public Long getRadiologyReportCount(RadiologyReportSearchCriteria searchCriteria) {
+        
+        if (searchCriteria.getText() != null) {
+            final Set<String> terms = RadiologyReportTextAnalyzer.getTerms(searchCriteria.getText());
+            if (terms.isEmpty()) {
+                return 0L;
+            }
+            return (long) getRankedCandidateReportIds(searchCriteria, terms).size();
+        }
+        final Criteria crit = createRadiologyReportCriteria(searchCriteria);
+        
+        crit.setProjection(Projections.rowCount());
+        return (Long) crit.uniqueResult();
+    }
+    
+    /**
+     * Get the {@code RadiologyReport's} matching given search criteria whose body contains at least one of the terms of
+     * the search criteria text. The radiology reports are ranked by the number of matched terms and then by the sum of
+     * their frequencies, both computed by the database from the index so that only the requested page of radiology
+     * reports is loaded.
+     * <p>
+     * Only the candidates found by {@link #getRankedCandidateReportIds(RadiologyReportSearchCriteria, Set)} are ranked,
+     * so that a text containing common terms does not rank every radiology report.
+     * </p>
+     *
+     * @param searchCriteria the object containing search parameters including the text
+     * @return the radiology reports matching given search criteria ranked by relevance
+     * @should rank only the maximum number of candidates starting from the rarest term
+     */
+    @SuppressWarnings("unchecked")
+    private List<RadiologyReport> getRadiologyReportsRankedByText(RadiologyReportSearchCriteria searchCriteria) {
+        
+        final Set<String> terms = RadiologyReportTextAnalyzer.getTerms(searchCriteria.getText());
+        if (terms.isEmpty()) {
+            return new ArrayList<RadiologyReport>();
+        }
+        final List<Integer> candidateReportIds = getRankedCandidateReportIds(searchCriteria, terms);
+        if (candidateReportIds.isEmpty()) {
+            return new ArrayList<RadiologyReport>();
+        }
+        final Criteria crit = createRadiologyReportIndexTermCriteria(searchCriteria, terms)
+                .add(Restrictions.in("radiologyReport.reportId", candidateReportIds))
+                .setProjection(Projections.projectionList()
+                        .add(Projections.groupProperty("radiologyReport.reportId"), "reportId")
+                        .add(Projections.count("term"), "matchedTerms")
+                        .add(Projections.sum("frequency"), "score"))
+                .addOrder(Order.desc("matchedTerms"))
+                .addOrder(Order.desc("score"))
+                .addOrder(Order.asc("reportId"));
+        if (searchCriteria.getOffset() != null) {
+            crit.setFirstResult(searchCriteria.getOffset());
+        }
+        if (searchCriteria.getLimit() != null) {
+            crit.setMaxResults(searchCriteria.getLimit());
+        }
+        final List<Integer> rankedReportIds = new ArrayList<Integer>();
+        for (Object[] row : (List<Object[]>) crit.list()) {
+            rankedReportIds.add((Integer) row[0]);
+        }
+        if (rankedReportIds.isEmpty()) {
+            return new ArrayList<RadiologyReport>();
+        }
+        
+        final Map<Integer, RadiologyReport> radiologyReportsById = new HashMap<Integer, RadiologyReport>();
+        for (RadiologyReport radiologyReport : (List<RadiologyReport>) sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyReport.class)
+                .add(Restrictions.in("reportId", rankedReportIds))
+                .list()) {
+            radiologyReportsById.put(radiologyReport.getReportId(), radiologyReport);
+        }
+        final List<RadiologyReport> result = new ArrayList<RadiologyReport>(rankedReportIds.size());
+        for (Integer reportId : rankedReportIds) {
+            result.add(radiologyReportsById.get(reportId));
+        }
+        return result;
+    }
+    
+    /**
+     * Get the ids of at most {@code maxRankedCandidates} {@code RadiologyReport's} matching given search criteria whose
+     * body contains at least one of given terms. Terms are visited from the rarest to the most common one, each
+     * contributing its reports until the maximum is reached. All matching radiology reports are candidates as long as
+     * there are no more of them than the maximum.
+     * <p>
+     * The reports of each term are read from the index at most up to one more than the maximum, so that a common term
+     * costs no more than a rare one and terms matching more reports than the maximum are only visited if the rarer
+     * terms leave room for candidates.
+     * </p>
+     *
+     * @param searchCriteria the object containing search parameters
+     * @param terms the terms of the search criteria text
+     * @return the ids of the radiology reports to rank
+     */
+    @SuppressWarnings("unchecked")
+    private List<Integer> getRankedCandidateReportIds(RadiologyReportSearchCriteria searchCriteria, Set<String> terms) {
+        
+        final List<List<Integer>> reportIdsByTerm = new ArrayList<List<Integer>>(terms.size());
+        for (String term : new TreeSet<String>(terms)) {
+            reportIdsByTerm.add(createRadiologyReportIndexTermCriteria(searchCriteria, Collections.singleton(term))
+                    .setProjection(Projections.property("radiologyReport.reportId"))
+                    .addOrder(Order.asc("radiologyReport.reportId"))
+                    .setMaxResults(maxRankedCandidates + 1)
+                    .list());
+        }
+        Collections.sort(reportIdsByTerm, (first, second) -> Integer.compare(first.size(), second.size()));
+        
+        final Set<Integer> result = new LinkedHashSet<Integer>();
+        for (List<Integer> reportIds : reportIdsByTerm) {
+            for (Integer reportId : reportIds) {
+                if (result.size() >= maxRankedCandidates) {
+                    return new ArrayList<Integer>(result);
+                }
+                result.add(reportId);
+            }
+        }
+        return new ArrayList<Integer>(result);
+    }
+    
+    /**
+     * Create a {@code Criteria} over the radiology report full-text index matching given terms of the
+     * {@code RadiologyReport's} which match given search criteria.
+     *
+     * @param searchCriteria the object containing search parameters
+     * @param terms the terms of the search criteria text
+     * @return the criteria matching the index terms of given terms of matching radiology reports
+     */
+    private Criteria createRadiologyReportIndexTermCriteria(RadiologyReportSearchCriteria searchCriteria,
+            Set<String> terms) {
+        
+        final Criteria crit = sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyReportIndexTerm.class)
+                .createAlias("radiologyReport", "radiologyReport")
+                .add(Restrictions.in("term", terms));
+        addRadiologyReportRestrictions(crit, "radiologyReport.", searchCriteria);
+        return crit;
+    }
+    
+    /**
+     * Create a {@code Criteria} restricting {@code RadiologyReport's} to the given search criteria without continuation
+     * token, ordering or paging applied.
+     *
+     * @param searchCriteria the object containing search parameters
+     * @return the criteria matching given search criteria
+     */
+    private Criteria createRadiologyReportCriteria(RadiologyReportSearchCriteria searchCriteria) {
+        
         final Criteria crit = sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyReport.class);
         
+        addRadiologyReportRestrictions(crit, "", searchCriteria);
+        return crit;
+    }
+    
+    /**
+     * Add the restrictions of given search criteria apart from text, continuation token and paging to given
+     * {@code Criteria} whose {@code RadiologyReport} properties are reached through given property prefix.
+     *
+     * @param crit the criteria to restrict
+     * @param propertyPrefix the path to the radiology report properties including the trailing dot or empty if the
+     *            criteria is over radiology reports
+     * @param searchCriteria the object containing search parameters
+     */
+    private void addRadiologyReportRestrictions(Criteria crit, String propertyPrefix,
+            RadiologyReportSearchCriteria searchCriteria) {
+        
         if (!searchCriteria.getIncludeVoided()) {
-            crit.add(Restrictions.eq("voided", false));
+            crit.add(Restrictions.eq(propertyPrefix + "voided", false));
         }
         if (searchCriteria.getFromDate() != null) {
-            crit.add(Restrictions.ge("date", searchCriteria.getFromDate()));
+            crit.add(Restrictions.ge(propertyPrefix + "date", searchCriteria.getFromDate()));
         }
         if (searchCriteria.getToDate() != null) {
-            crit.add(Restrictions.le("date", searchCriteria.getToDate()));
+            crit.add(Restrictions.le(propertyPrefix + "date", searchCriteria.getToDate()));
         }
         if (searchCriteria.getPrincipalResultsInterpreter() != null) {
-            crit.add(Restrictions.eq("principalResultsInterpreter", searchCriteria.getPrincipalResultsInterpreter()));
+            crit.add(Restrictions.eq(propertyPrefix + "principalResultsInterpreter",
+                searchCriteria.getPrincipalResultsInterpreter()));
         }
         if (searchCriteria.getStatus() != null) {
-            crit.add(Restrictions.eq("status", searchCriteria.getStatus()));
+            crit.add(Restrictions.eq(propertyPrefix + "status", searchCriteria.getStatus()));
         }
+    }
+    
+    /**
+     * Create a {@code Criterion} restricting {@code RadiologyReport's} to the ones sorting after the given continuation
+     * token in the order of report date and report id. Reports without a report date sort first.
+     * 
+     * @param continuationToken the report date in milliseconds and report id of the last radiology report seen
+     * @return the criterion matching radiology reports after given continuation token
+     * @throws IllegalArgumentException if the continuation token sort key is not a date in milliseconds
+     */
+    private Criterion createAfterContinuationTokenCriterion(ContinuationToken continuationToken) {
         
-        crit.addOrder(Order.asc("date"));
-        return crit.list();
+        final Criterion afterReportId = Restrictions.gt("reportId", continuationToken.getId());
+        if (continuationToken.getSortKey() == null) {
+            return Restrictions.or(Restrictions.isNotNull("date"),
+                Restrictions.and(Restrictions.isNull("date"), afterReportId));
+        }
+        final Date date = new Date(Long.parseLong(continuationToken.getSortKey()));
+        return Restrictions.or(Restrictions.gt("date", date),
+            Restrictions.and(Restrictions.eq("date", date), afterReportId));
     }
 }
@@ -24,6 +24,8 @@ public class RadiologyReport extends BaseOpenmrsData {
     
     private Integer reportId;
     
+    private Integer version;
+    
     private RadiologyOrder radiologyOrder;
     
     private Date date;
@@ -32,7 +34,7 @@ public class RadiologyReport extends BaseOpenmrsData {
     
     private RadiologyReportStatus status;
     
-    private String body;
+    private RadiologyReportBody reportBody;
     
     /**
      * Creates a new instance of {@link RadiologyReport}.
@@ -139,6 +141,50 @@ public class RadiologyReport extends BaseOpenmrsData {
         this.reportId = reportId;
     }
     
+    /**
+     * Get version of RadiologyReport which is incremented on every update and used to detect concurrent updates.
+     *
+     * @return version of RadiologyReport
+     */
+    public Integer getVersion() {
+        return version;
+    }
+    
+    /**
+     * Set version of RadiologyReport, for example from a form showing the radiology report so that saving it fails if
+     * it has been updated since the form was loaded.
+     *
+     * @param version version of RadiologyReport
+     */
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+    
+    /**
+     * Get the order id of the RadiologyOrder if this RadiologyReport is active (not voided), which is persisted in a
+     * column with a unique constraint so that the database rejects a second active report for the same order.
+     *
+     * @return order id of the radiology order if this radiology report is not voided and null otherwise
+     * @should return the order id of the radiology order if radiology report is not voided
+     * @should return null if radiology report is voided
+     */
+    Integer getActiveOrderId() {
+        if (Boolean.TRUE.equals(getVoided()) || radiologyOrder == null) {
+            return null;
+        }
+        return radiologyOrder.getOrderId();
+    }
+    
+    /**
+     * The active order id is derived from the radiology order and voided state of this RadiologyReport.
+     *
+     * @param activeOrderId ignored
+     */
+    @SuppressWarnings("unused")
+    private void setActiveOrderId(Integer activeOrderId) {
+        // derived from radiologyOrder and voided
+    }
+    
     /**
      * Get date of RadiologyReport.
      * 
@@ -177,19 +223,50 @@ public class RadiologyReport extends BaseOpenmrsData {
     
     /**
      * Get body of RadiologyReport.
+     * <p>
+     * The body is stored compressed in a table of its own and is only loaded from the database when this method is
+     * called.
+     * </p>
      * 
      * @return body of RadiologyReport
+     * @should return null if body was never set
+     * @should return body set on radiology report
      */
     public String getBody() {
-        return body;
+        return reportBody == null ? null : reportBody.getBody();
     }
     
     /**
      * Set body of RadiologyReport.
      * 
      * @param body body of RadiologyReport
+     * @should replace the body of the radiology report body if present
      */
     public void setBody(String body) {
-        this.body = body;
+        if (reportBody == null) {
+            if (body != null) {
+                reportBody = new RadiologyReportBody(body);
+            }
+        } else {
+            reportBody.setBody(body);
+        }
+    }
+    
+    /**
+     * Get the lazily loaded compressed body of RadiologyReport.
+     *
+     * @return the compressed body of RadiologyReport
+     */
+    RadiologyReportBody getReportBody() {
+        return reportBody;
+    }
+    
+    /**
+     * Set the compressed body of RadiologyReport.
+     *
+     * @param reportBody the compressed body of RadiologyReport
+     */
+    private void setReportBody(RadiologyReportBody reportBody) {
+        this.reportBody = reportBody;
     }
 }
@@ -0,0 +1,138 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The body of a {@code RadiologyReport} stored Deflate compressed in a table of its own.
+ * <p>
+ * Radiology reports reference their body as a lazy association so that searching and listing radiology reports never
+ * loads the report HTML. The body is only fetched and decompressed once {@link RadiologyReport#getBody()} is called.
+ * </p>
+ *
+ * @see RadiologyReport#getBody()
+ */
+public class RadiologyReportBody {
+    
+    
+    private static final int BUFFER_SIZE = 4096;
+    
+    private Integer reportBodyId;
+    
+    private byte[] content;
+    
+    protected RadiologyReportBody() {
+        // needed by hibernate
+    }
+    
+    /**
+     * Creates a new instance of {@link RadiologyReportBody} holding given body.
+     *
+     * @param body the body of the radiology report
+     */
+    public RadiologyReportBody(String body) {
+        setBody(body);
+    }
+    
+    public Integer getReportBodyId() {
+        return reportBodyId;
+    }
+    
+    protected void setReportBodyId(Integer reportBodyId) {
+        this.reportBodyId = reportBodyId;
+    }
+    
+    protected byte[] getContent() {
+        return content;
+    }
+    
+    protected void setContent(byte[] content) {
+        this.content = content;
+    }
+    
+    /**
+     * Get the decompressed body of the radiology report.
+     *
+     * @return the body of the radiology report
+     * @should return the body given on construction
+     * @should return null if body was set to null
+     */
+    public String getBody() {
+        return decompress(content);
+    }
+    
+    /**
+     * Set the body of the radiology report which is stored compressed.
+     *
+     * @param body the body of the radiology report
+     * @should compress given body
+     */
+    public void setBody(String body) {
+        this.content = compress(body);
+    }
+    
+    /**
+     * Compress given text with Deflate.
+     *
+     * @param text the text to compress
+     * @return the Deflate compressed UTF-8 bytes of given text or null if given null
+     */
+    static byte[] compress(String text) {
+        
+        if (text == null) {
+            return null;
+        }
+        final ByteArrayOutputStream result = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(result, deflater, BUFFER_SIZE)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("radiology report body could not be compressed", e);
+        }
+        finally {
+            deflater.end();
+        }
+        return result.toByteArray();
+    }
+    
+    /**
+     * Decompress given Deflate compressed bytes.
+     *
+     * @param compressed the bytes returned by {@link #compress(String)}
+     * @return the decompressed text or null if given null
+     */
+    static String decompress(byte[] compressed) {
+        
+        if (compressed == null) {
+            return null;
+        }
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(compressed.length * 4);
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                result.write(buffer, 0, read);
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("radiology report body could not be decompressed", e);
+        }
+        return new String(result.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Moves the bodies of existing radiology reports from column {@code radiology_report.report_body} into Deflate
+ * compressed rows of table {@code radiology_report_body}.
+ * <p>
+ * The compression cannot be expressed in SQL portably which is why this is done in a custom liquibase change.
+ * </p>
+ */
+public class RadiologyReportBodyChangeSet implements CustomTaskChange {
+    
+    
+    private int numberOfMovedReportBodies;
+    
+    /**
+     * @see liquibase.change.custom.CustomTaskChange#execute(Database)
+     */
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        
+        final Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (Statement select = connection.createStatement();
+                PreparedStatement insertReportBody = connection.prepareStatement(
+                    "INSERT INTO radiology_report_body (body_content) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement updateReport =
+                        connection.prepareStatement("UPDATE radiology_report SET report_body_id = ? WHERE report_id = ?");
+                ResultSet reports = select.executeQuery(
+                    "SELECT report_id, report_body FROM radiology_report WHERE report_body IS NOT NULL")) {
+            while (reports.next()) {
+                insertReportBody.setBytes(1, RadiologyReportBody.compress(reports.getString("report_body")));
+                insertReportBody.executeUpdate();
+                try (ResultSet generatedKeys = insertReportBody.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new CustomChangeException("no id was generated for the body of radiology report "
+                                + reports.getInt("report_id"));
+                    }
+                    updateReport.setInt(1, generatedKeys.getInt(1));
+                }
+                updateReport.setInt(2, reports.getInt("report_id"));
+                updateReport.executeUpdate();
+                numberOfMovedReportBodies++;
+            }
+        }
+        catch (SQLException e) {
+            throw new CustomChangeException("failed to move radiology report bodies", e);
+        }
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#getConfirmationMessage()
+     */
+    @Override
+    public String getConfirmationMessage() {
+        
+        return "Moved " + numberOfMovedReportBodies + " radiology report bodies into table radiology_report_body";
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#setUp()
+     */
+    @Override
+    public void setUp() throws SetupException {
+        // nothing to set up
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#setFileOpener(ResourceAccessor)
+     */
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resources needed
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#validate(Database)
+     */
+    @Override
+    public ValidationErrors validate(Database database) {
+        
+        return null;
+    }
+}
@@ -9,7 +9,9 @@
  */
 package org.openmrs.module.radiology.report;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.openmrs.module.radiology.order.RadiologyOrder;
 
@@ -27,6 +29,26 @@ interface RadiologyReportDAO {
      */
     RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport);
     
+    /**
+     * Replace the entries of given {@code RadiologyReport} in the radiology report full-text index with the terms of
+     * its current body.
+     *
+     * @param radiologyReport the saved radiology report to index
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#saveRadiologyReportDraft(RadiologyReport)
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#saveRadiologyReport(RadiologyReport)
+     */
+    void updateRadiologyReportIndex(RadiologyReport radiologyReport);
+    
+    /**
+     * Rebuild the radiology report full-text index from the bodies of all {@code RadiologyReport's} loading given
+     * number of radiology reports at a time. The current session is cleared after each batch.
+     *
+     * @param batchSize the number of radiology reports to load and index at a time
+     * @return the number of indexed radiology reports
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#rebuildRadiologyReportIndex()
+     */
+    int rebuildRadiologyReportIndex(int batchSize);
+    
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReport(Integer)
      */
@@ -38,22 +60,33 @@ interface RadiologyReportDAO {
     RadiologyReport getRadiologyReportByUuid(String radiologyReportUuid);
     
     /**
+     * Get the status of the active (non-voided) {@code RadiologyReport} of given {@code RadiologyOrder} by projecting
+     * the report status only.
+     *
+     * @param radiologyOrder the radiology order which active report status should be returned
+     * @return the status of the active radiology report or null if the radiology order has no active report
      * @see org.openmrs.module.radiology.report.RadiologyReportService#hasRadiologyOrderClaimedRadiologyReport(RadiologyOrder)
-     */
-    boolean hasRadiologyOrderClaimedRadiologyReport(RadiologyOrder radiologyOrder);
-    
-    /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#hasRadiologyOrderCompletedRadiologyReport(RadiologyOrder)
      */
-    boolean hasRadiologyOrderCompletedRadiologyReport(RadiologyOrder radiologyOrder);
+    RadiologyReportStatus getActiveRadiologyReportStatus(RadiologyOrder radiologyOrder);
     
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#getActiveRadiologyReportByRadiologyOrder(RadiologyOrder)
      */
     RadiologyReport getActiveRadiologyReportByRadiologyOrder(RadiologyOrder radiologyOrder);
     
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getActiveRadiologyReportsByRadiologyOrders(List)
+     */
+    Map<Integer, RadiologyReport> getActiveRadiologyReportsByRadiologyOrders(Collection<Integer> orderIds);
+    
     /**
      * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReports(RadiologyReportSearchCriteria)
      */
     List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReportCount(RadiologyReportSearchCriteria)
+     */
+    Long getRadiologyReportCount(RadiologyReportSearchCriteria searchCriteria);
 }
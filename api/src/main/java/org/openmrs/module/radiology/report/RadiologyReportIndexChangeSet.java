@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Builds the radiology report full-text index in table {@code radiology_report_index_term} from the bodies of the
+ * existing radiology reports.
+ * <p>
+ * The bodies are stored compressed and need to be split into terms by the {@link RadiologyReportTextAnalyzer} which is
+ * why this is done in a custom liquibase change.
+ * </p>
+ */
+public class RadiologyReportIndexChangeSet implements CustomTaskChange {
+    
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private int numberOfIndexedReports;
+    
+    /**
+     * @see liquibase.change.custom.CustomTaskChange#execute(Database)
+     */
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        
+        final Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (Statement select = connection.createStatement();
+                PreparedStatement insertIndexTerm = connection.prepareStatement(
+                    "INSERT INTO radiology_report_index_term (report_id, term, term_frequency) VALUES (?, ?, ?)");
+                ResultSet reports = select.executeQuery("SELECT r.report_id, b.body_content FROM radiology_report r"
+                        + " INNER JOIN radiology_report_body b ON b.report_body_id = r.report_body_id")) {
+            int batchedIndexTerms = 0;
+            while (reports.next()) {
+                final Map<String, Integer> termFrequencies = RadiologyReportTextAnalyzer
+                        .getTermFrequencies(RadiologyReportBody.decompress(reports.getBytes("body_content")));
+                for (Map.Entry<String, Integer> termFrequency : termFrequencies.entrySet()) {
+                    insertIndexTerm.setInt(1, reports.getInt("report_id"));
+                    insertIndexTerm.setString(2, termFrequency.getKey());
+                    insertIndexTerm.setInt(3, termFrequency.getValue());
+                    insertIndexTerm.addBatch();
+                    if (++batchedIndexTerms == BATCH_SIZE) {
+                        insertIndexTerm.executeBatch();
+                        batchedIndexTerms = 0;
+                    }
+                }
+                numberOfIndexedReports++;
+            }
+            if (batchedIndexTerms > 0) {
+                insertIndexTerm.executeBatch();
+            }
+        }
+        catch (SQLException e) {
+            throw new CustomChangeException("failed to index radiology report bodies", e);
+        }
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#getConfirmationMessage()
+     */
+    @Override
+    public String getConfirmationMessage() {
+        
+        return "Indexed the bodies of " + numberOfIndexedReports + " radiology reports";
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#setUp()
+     */
+    @Override
+    public void setUp() throws SetupException {
+        // nothing to set up
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#setFileOpener(ResourceAccessor)
+     */
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // no resources needed
+    }
+    
+    /**
+     * @see liquibase.change.custom.CustomChange#validate(Database)
+     */
+    @Override
+    public ValidationErrors validate(Database database) {
+        
+        return null;
+    }
+}
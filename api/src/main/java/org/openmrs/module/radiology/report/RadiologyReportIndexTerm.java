@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+/**
+ * An entry of the radiology report full-text index, a posting of a term in the body of a {@code RadiologyReport}
+ * together with the number of times the term occurs in it.
+ * <p>
+ * Index terms are written by the radiology report service whenever the body of a radiology report is saved and can be
+ * rebuilt from the stored radiology reports at any time.
+ * </p>
+ *
+ * @see RadiologyReportTextAnalyzer
+ * @see RadiologyReportService#rebuildRadiologyReportIndex()
+ */
+class RadiologyReportIndexTerm {
+    
+    
+    private Integer indexTermId;
+    
+    private RadiologyReport radiologyReport;
+    
+    private String term;
+    
+    private Integer frequency;
+    
+    protected RadiologyReportIndexTerm() {
+        // needed by hibernate
+    }
+    
+    /**
+     * Create a {@code RadiologyReportIndexTerm} for given term of given radiology report.
+     *
+     * @param radiologyReport the radiology report whose body contains the term
+     * @param term the term as returned by the radiology report text analyzer
+     * @param frequency the number of times the term occurs in the body of the radiology report
+     */
+    RadiologyReportIndexTerm(RadiologyReport radiologyReport, String term, Integer frequency) {
+        this.radiologyReport = radiologyReport;
+        this.term = term;
+        this.frequency = frequency;
+    }
+    
+    Integer getIndexTermId() {
+        return indexTermId;
+    }
+    
+    void setIndexTermId(Integer indexTermId) {
+        this.indexTermId = indexTermId;
+    }
+    
+    RadiologyReport getRadiologyReport() {
+        return radiologyReport;
+    }
+    
+    void setRadiologyReport(RadiologyReport radiologyReport) {
+        this.radiologyReport = radiologyReport;
+    }
+    
+    String getTerm() {
+        return term;
+    }
+    
+    void setTerm(String term) {
+        this.term = term;
+    }
+    
+    Integer getFrequency() {
+        return frequency;
+    }
+    
+    void setFrequency(Integer frequency) {
+        this.frequency = frequency;
+    }
+}
@@ -12,6 +12,7 @@ package org.openmrs.module.radiology.report;
 import java.util.Date;
 
 import org.openmrs.Provider;
+import org.openmrs.module.radiology.util.ContinuationToken;
 
 /**
  * Search parameter object for {@link RadiologyReport}'s.
@@ -20,7 +21,9 @@ import org.openmrs.Provider;
  * <ol>
  * <li>Set the various search criteria parameters through the respective methods of the static builder class
  * ({@link Builder#fromDate(Date)}, {@link Builder#toDate(Date)}, {@link Builder#withPrincipalResultsInterpreter(Provider)}, 
- * {@link Builder#includeVoided()} and {@link Builder#withStatus(RadiologyReportStatus)}).</li>
+ * {@link Builder#includeVoided()}, {@link Builder#withStatus(RadiologyReportStatus)}, {@link Builder#withOffset(Integer)},
+ * {@link Builder#withText(String)}, {@link Builder#withLimit(Integer)}
+ * and {@link Builder#withContinuationToken(ContinuationToken)}).</li>
  * <li>Build the {@link RadiolologyReportSearchCriteria} instance with the {@link Builder#build()} method.</li>
  * <li>Get the search parameters through the getter methods (such as {@link #getFromDate()} or {@link #getStatus()}).</li>
  * </ol>
@@ -28,6 +31,11 @@ import org.openmrs.Provider;
 public class RadiologyReportSearchCriteria {
     
     
+    /**
+     * Maximum number of radiology reports a text search ranks and counts.
+     */
+    public static final int MAX_TEXT_MATCHES = 1000;
+    
     private final Date fromDate;
     
     private final Date toDate;
@@ -38,6 +46,14 @@ public class RadiologyReportSearchCriteria {
     
     private final RadiologyReportStatus status;
     
+    private final String text;
+    
+    private final Integer offset;
+    
+    private final Integer limit;
+    
+    private final ContinuationToken continuationToken;
+    
     /**
      * @return the minimum date (inclusive) the report date
      */
@@ -78,6 +94,38 @@ public class RadiologyReportSearchCriteria {
         return status;
     }
     
+    /**
+     * @return the text the body of the report is searched for
+     */
+    public String getText() {
+        
+        return text;
+    }
+    
+    /**
+     * @return the index of the first radiology report to return
+     */
+    public Integer getOffset() {
+        
+        return offset;
+    }
+    
+    /**
+     * @return the maximum number of radiology reports to return
+     */
+    public Integer getLimit() {
+        
+        return limit;
+    }
+    
+    /**
+     * @return the position after which radiology reports are returned in keyset pagination
+     */
+    public ContinuationToken getContinuationToken() {
+        
+        return continuationToken;
+    }
+    
     public static class Builder {
         
         
@@ -91,6 +139,14 @@ public class RadiologyReportSearchCriteria {
         
         private RadiologyReportStatus status;
         
+        private String text;
+        
+        private Integer offset;
+        
+        private Integer limit;
+        
+        private ContinuationToken continuationToken;
+        
         /**
          * @param fromDate the minimum date (inclusive) the report date
          * @return this builder instance
@@ -144,17 +200,82 @@ public class RadiologyReportSearchCriteria {
             return this;
         }
         
+        /**
+         * Restricts the search to radiology reports whose body contains at least one of the terms of given text. The
+         * radiology reports are then ranked by the number of matched terms and how often they occur instead of being
+         * ordered by report date. At most {@link #MAX_TEXT_MATCHES} radiology reports are ranked, those matching the
+         * rarest terms first.
+         *
+         * @param text the text the body of the report is searched for
+         * @return this builder instance
+         */
+        public Builder withText(String text) {
+            
+            this.text = text;
+            return this;
+        }
+        
+        /**
+         * @param offset the index of the first radiology report to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if offset is negative
+         * @should throw illegal argument exception if offset is negative
+         */
+        public Builder withOffset(Integer offset) {
+            
+            if (offset != null && offset < 0) {
+                throw new IllegalArgumentException("offset cannot be negative");
+            }
+            this.offset = offset;
+            return this;
+        }
+        
+        /**
+         * @param limit the maximum number of radiology reports to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if limit is not positive
+         * @should throw illegal argument exception if limit is not positive
+         */
+        public Builder withLimit(Integer limit) {
+            
+            if (limit != null && limit < 1) {
+                throw new IllegalArgumentException("limit must be greater than zero");
+            }
+            this.limit = limit;
+            return this;
+        }
+        
+        /**
+         * Restricts the search to radiology reports sorting after the given position. The continuation token holds the
+         * report date in milliseconds and the report id of the last radiology report of the previous page.
+         * 
+         * @param continuationToken the position after which radiology reports are returned
+         * @return this builder instance
+         */
+        public Builder withContinuationToken(ContinuationToken continuationToken) {
+            
+            this.continuationToken = continuationToken;
+            return this;
+        }
+        
         /**
          * Create an {@link RadiologyReportSearchCriteria} with the properties of this builder instance.
          * 
          * @return a new search criteria instance
+         * @throws IllegalArgumentException if text and continuation token are set
          * @should create a new radiology report search criteria instance with from and to date specified if date from and date to are set
          * @should create a new radiology report search criteria instance with principal results interpreter specified if principal results interpreter is set
          * @should create a new radiology report search criteria instance with include voided set to true if voided reports should be included
          * @should create a new radiology report search criteria instance with report status specified if status is set to claimed or completed
+         * @should create a new radiology report search criteria instance with limit and continuation token if limit and continuation token are set
+         * @should create a new radiology report search criteria instance with text if text is set
+         * @should throw illegal argument exception if text and continuation token are set
          */
         public RadiologyReportSearchCriteria build() {
             
+            if (text != null && continuationToken != null) {
+                throw new IllegalArgumentException("continuationToken cannot be combined with text");
+            }
             return new RadiologyReportSearchCriteria(this);
         }
     }
@@ -166,5 +287,9 @@ public class RadiologyReportSearchCriteria {
         this.principalResultsInterpreter = builder.principalResultsInterpreter;
         this.includeVoided = builder.inludeVoided;
         this.status = builder.status;
+        this.text = builder.text;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+        this.continuationToken = builder.continuationToken;
     }
 }
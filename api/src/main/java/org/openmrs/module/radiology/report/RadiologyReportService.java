@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.report;
 
 import java.util.List;
+import java.util.Map;
 
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.APIException;
@@ -40,6 +41,10 @@ public interface RadiologyReportService extends OpenmrsService {
     
     /**
      * Saves a new {@code RadiologyReport} to the database and sets its status to claimed.
+     * <p>
+     * The database holds at most one non-voided radiology report per radiology order, so of concurrent calls for the
+     * same radiology order only one succeeds.
+     * </p>
      *
      * @param radiologyOrder the radiology order for which a radiology report will be created
      * @return the created radiology report
@@ -48,10 +53,12 @@ public interface RadiologyReportService extends OpenmrsService {
      * @throws APIException if given radiologyOrder has a claimed RadiologyReport
      * @throws APIException if given radiologyOrder has a completed RadiologyReport
      * @should create a radiology order with report status claimed given a completed radiology order
+     * @should update the radiology worklist item of given radiology order
      * @should throw illegal argument exception if given null
      * @should throw api exception if given radiology order is not completed
      * @should throw api exception if given order has a claimed radiology report
      * @should throw api exception if given order has a completed radiology report
+     * @should claim a radiology order only once if called concurrently
      */
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORTS)
     public RadiologyReport createRadiologyReport(RadiologyOrder radiologyOrder);
@@ -59,7 +66,8 @@ public interface RadiologyReportService extends OpenmrsService {
     /**
      * Saves an existing {@code RadiologyReport} which is in a draft state to the database.
      * <p>
-     * A {@code RadiologyReport} is considered a draft as long as its status is {@code DRAFT}.
+     * A {@code RadiologyReport} is considered a draft as long as its status is {@code DRAFT}. Saving fails if the
+     * radiology report has been saved since it was loaded, which is detected through its version.
      * </p>
      * @param radiologyReport the existing radiology report to be saved
      * @return the saved radiology report
@@ -68,12 +76,16 @@ public interface RadiologyReportService extends OpenmrsService {
      * @throws APIException if radiologyReport is completed
      * @throws APIException if radiologyReport is voided
      * @throws APIException if radiologyReport.radiologyOrder has a completed RadiologyReport
+     * @throws APIException if radiologyReport has been saved since it was loaded
      * @should save existing radiology report to the database and return it
+     * @should update the full-text index with the body of given radiology report
      * @should throw illegal argument exception if given null
      * @should throw illegal argument exception if given radiology report with reportId null
      * @should throw api exception if radiology report is completed
      * @should throw api exception if radiology report is voided
      * @should throw api exception if given radiology reports order has a completed radiology report
+     * @should throw api exception if radiology report has been saved since it was loaded
+     * @should save only one of concurrent updates of the same radiology report
      */
     @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
     public RadiologyReport saveRadiologyReportDraft(RadiologyReport radiologyReport);
@@ -120,6 +132,21 @@ public interface RadiologyReportService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
     public RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport);
     
+    /**
+     * Rebuilds the full-text index of the radiology report bodies from all {@code RadiologyReport's} in the database.
+     * <p>
+     * The index is kept up to date by {@link #saveRadiologyReportDraft(RadiologyReport)} and
+     * {@link #saveRadiologyReport(RadiologyReport)} so this is only needed if the index got out of sync, for example
+     * after radiology reports were changed directly in the database. The radiology reports are indexed in batches and
+     * the current session is cleared after each batch.
+     * </p>
+     *
+     * @return the number of indexed radiology reports
+     * @should index the bodies of all radiology reports
+     */
+    @Authorized(RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS)
+    public int rebuildRadiologyReportIndex();
+    
     /**
      * Get the {@code RadiologyReport} by its {@code reportId}.
      *
@@ -127,6 +154,7 @@ public interface RadiologyReportService extends OpenmrsService {
      * @return the radiology report matching given report id
      * @throws IllegalArgumentException if given null
      * @should return radiology report matching given report id
+     * @should return the decompressed body of the report matching given report id
      * @should return null if no match was found
      * @should throw illegal argument exception if given null
      */
@@ -186,12 +214,35 @@ public interface RadiologyReportService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
     public RadiologyReport getActiveRadiologyReportByRadiologyOrder(RadiologyOrder radiologyOrder);
     
+    /**
+     * Get the active (can be a non-voided draft or completed) {@code RadiologyReport's} of given
+     * {@code RadiologyOrder's} with one query, for example to show the report status in a list of radiology orders.
+     *
+     * @param radiologyOrders the radiology orders for which the active reports should be returned
+     * @return the active radiology reports keyed by the order id of their radiology order, radiology orders without an
+     *         active report have no entry
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given radiology orders contain null
+     * @should return the active radiology reports of given radiology orders keyed by order id
+     * @should not contain radiology orders without active radiology report
+     * @should return an empty map if given an empty list
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given radiology orders contain null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public Map<Integer, RadiologyReport> getActiveRadiologyReportsByRadiologyOrders(List<RadiologyOrder> radiologyOrders);
+    
     /**
      * Get all {@code RadiologyReport's} matching a variety of (nullable) criteria.
      * Each extra value for a parameter that is provided acts as an "and" and will reduce the number of results returned
+     * <p>
+     * If a text is given only radiology reports whose body contains at least one of its terms are returned, ranked by
+     * the number of matched terms and how often they occur in the body.
+     * </p>
      *
      * @param radiologyReportSearchCriteria the object containing search parameters
-     * @return the radiology reports matching given criteria ordered by increasing report date
+     * @return the radiology reports matching given criteria ordered by increasing report date or ranked by relevance
+     *         if a text is given
      * @throws IllegalArgumentException if given null
      * @should return all radiology reports (including voided) matching the search query if include voided is set
      * @should return all radiology reports within given date range if date to and date from are specified
@@ -203,8 +254,31 @@ public interface RadiologyReportService extends OpenmrsService {
      * @should return empty search result if no report exists for principal results interpreter
      * @should return all radiology reports with given status
      * @should return empty search result if no report exists for given status
+     * @should return radiology reports after given continuation token if continuation token is specified
+     * @should return a page of radiology reports if offset and limit are specified
+     * @should not load the bodies of the returned radiology reports
+     * @should return radiology reports whose body contains given text ranked by relevance
+     * @should return empty list if given text has no terms
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
     public List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Get the number of {@code RadiologyReport's} matching a variety of (nullable) criteria.
+     * Offset, limit and continuation token of the search criteria are ignored.
+     * <p>
+     * If a text is given the number of radiology reports ranked by {@link #getRadiologyReports} is returned, which is at
+     * most {@link RadiologyReportSearchCriteria#MAX_TEXT_MATCHES} even if more radiology reports contain its terms.
+     * </p>
+     *
+     * @param radiologyReportSearchCriteria the object containing search parameters
+     * @return the number of radiology reports matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of radiology reports matching given criteria ignoring offset and limit
+     * @should return the number of radiology reports whose body contains given text
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public Long getRadiologyReportCount(RadiologyReportSearchCriteria radiologyReportSearchCriteria);
 }
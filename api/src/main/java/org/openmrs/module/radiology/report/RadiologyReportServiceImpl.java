@@ -10,12 +10,17 @@
 package org.openmrs.module.radiology.report;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.APIException;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,18 +31,26 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
     
     private static final Logger log = LoggerFactory.getLogger(RadiologyReportServiceImpl.class);
     
+    private static final int REBUILD_INDEX_BATCH_SIZE = 100;
+    
     private RadiologyReportDAO radiologyReportDAO;
     
+    private RadiologyWorklistService radiologyWorklistService;
+    
     public void setRadiologyReportDAO(RadiologyReportDAO radiologyReportDAO) {
         this.radiologyReportDAO = radiologyReportDAO;
     }
     
+    public void setRadiologyWorklistService(RadiologyWorklistService radiologyWorklistService) {
+        this.radiologyWorklistService = radiologyWorklistService;
+    }
+    
     /**
      * @see RadiologyReportService#createRadiologyReport(RadiologyOrder)
      */
     @Override
     @Transactional
-    public synchronized RadiologyReport createRadiologyReport(RadiologyOrder radiologyOrder) {
+    public RadiologyReport createRadiologyReport(RadiologyOrder radiologyOrder) {
         
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
@@ -45,14 +58,16 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyOrder.isNotCompleted()) {
             throw new APIException("radiology.RadiologyReport.cannot.create.for.not.completed.order");
         }
-        if (radiologyReportDAO.hasRadiologyOrderClaimedRadiologyReport(radiologyOrder)) {
+        final RadiologyReportStatus activeRadiologyReportStatus =
+                radiologyReportDAO.getActiveRadiologyReportStatus(radiologyOrder);
+        if (activeRadiologyReportStatus == RadiologyReportStatus.DRAFT) {
             throw new APIException("radiology.RadiologyReport.cannot.create.already.claimed");
         }
-        if (radiologyReportDAO.hasRadiologyOrderCompletedRadiologyReport(radiologyOrder)) {
+        if (activeRadiologyReportStatus == RadiologyReportStatus.COMPLETED) {
             throw new APIException("radiology.RadiologyReport.cannot.create.already.completed");
         }
         final RadiologyReport radiologyReport = new RadiologyReport(radiologyOrder);
-        return radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        return saveRadiologyReportAndUpdateWorklist(radiologyReport);
     }
     
     /**
@@ -60,7 +75,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
      */
     @Override
     @Transactional
-    public synchronized RadiologyReport saveRadiologyReportDraft(RadiologyReport radiologyReport) {
+    public RadiologyReport saveRadiologyReportDraft(RadiologyReport radiologyReport) {
         
         if (radiologyReport == null) {
             throw new IllegalArgumentException("radiologyReport cannot be null");
@@ -74,10 +89,13 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyReport.getVoided()) {
             throw new APIException("radiology.RadiologyReport.cannot.saveDraft.already.voided");
         }
-        if (radiologyReportDAO.hasRadiologyOrderCompletedRadiologyReport(radiologyReport.getRadiologyOrder())) {
+        if (radiologyReportDAO.getActiveRadiologyReportStatus(
+            radiologyReport.getRadiologyOrder()) == RadiologyReportStatus.COMPLETED) {
             throw new APIException("radiology.RadiologyReport.cannot.saveDraft.already.reported");
         }
-        return radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        final RadiologyReport result = saveRadiologyReportAndUpdateWorklist(radiologyReport);
+        radiologyReportDAO.updateRadiologyReportIndex(result);
+        return result;
     }
     
     /**
@@ -99,7 +117,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyReport.getStatus() == RadiologyReportStatus.COMPLETED) {
             throw new APIException("radiology.RadiologyReport.cannot.void.completed");
         }
-        return radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        return saveRadiologyReportAndUpdateWorklist(radiologyReport);
     }
     
     /**
@@ -107,7 +125,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
      */
     @Override
     @Transactional
-    public synchronized RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport) {
+    public RadiologyReport saveRadiologyReport(RadiologyReport radiologyReport) {
         
         if (radiologyReport == null) {
             throw new IllegalArgumentException("radiologyReport cannot be null");
@@ -126,7 +144,34 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         }
         radiologyReport.setDate(new Date());
         radiologyReport.setStatus(RadiologyReportStatus.COMPLETED);
-        return radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        final RadiologyReport result = saveRadiologyReportAndUpdateWorklist(radiologyReport);
+        radiologyReportDAO.updateRadiologyReportIndex(result);
+        return result;
+    }
+    
+    /**
+     * @see RadiologyReportService#rebuildRadiologyReportIndex()
+     */
+    @Override
+    @Transactional
+    public int rebuildRadiologyReportIndex() {
+        
+        final int numberOfIndexedReports = radiologyReportDAO.rebuildRadiologyReportIndex(REBUILD_INDEX_BATCH_SIZE);
+        log.info("Rebuilt radiology report full-text index of {} radiology reports", numberOfIndexedReports);
+        return numberOfIndexedReports;
+    }
+    
+    /**
+     * Save given radiology report and update the radiology worklist item of its radiology order.
+     * 
+     * @param radiologyReport the radiology report to save
+     * @return the saved radiology report
+     */
+    private RadiologyReport saveRadiologyReportAndUpdateWorklist(RadiologyReport radiologyReport) {
+        
+        final RadiologyReport result = radiologyReportDAO.saveRadiologyReport(radiologyReport);
+        radiologyWorklistService.updateRadiologyWorklistItem(result.getRadiologyOrder());
+        return result;
     }
     
     /**
@@ -162,7 +207,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
         }
-        return radiologyReportDAO.hasRadiologyOrderClaimedRadiologyReport(radiologyOrder);
+        return radiologyReportDAO.getActiveRadiologyReportStatus(radiologyOrder) == RadiologyReportStatus.DRAFT;
     }
     
     /**
@@ -174,7 +219,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
         }
-        return radiologyReportDAO.hasRadiologyOrderCompletedRadiologyReport(radiologyOrder);
+        return radiologyReportDAO.getActiveRadiologyReportStatus(radiologyOrder) == RadiologyReportStatus.COMPLETED;
     }
     
     /**
@@ -186,13 +231,31 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
         }
-        if (hasRadiologyOrderCompletedRadiologyReport(radiologyOrder)) {
-            return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
+        return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
+    }
+    
+    /**
+     * @see RadiologyReportService#getActiveRadiologyReportsByRadiologyOrders(List)
+     */
+    @Override
+    public Map<Integer, RadiologyReport> getActiveRadiologyReportsByRadiologyOrders(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders == null) {
+            throw new IllegalArgumentException("radiologyOrders cannot be null");
         }
-        if (hasRadiologyOrderClaimedRadiologyReport(radiologyOrder)) {
-            return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
+        final Set<Integer> orderIds = new HashSet<Integer>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            if (radiologyOrder == null) {
+                throw new IllegalArgumentException("radiologyOrder cannot be null");
+            }
+            if (radiologyOrder.getOrderId() != null) {
+                orderIds.add(radiologyOrder.getOrderId());
+            }
         }
-        return null;
+        if (orderIds.isEmpty()) {
+            return new HashMap<Integer, RadiologyReport>();
+        }
+        return radiologyReportDAO.getActiveRadiologyReportsByRadiologyOrders(orderIds);
     }
     
     /**
@@ -206,4 +269,16 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         }
         return radiologyReportDAO.getRadiologyReports(radiologyReportSearchCriteria);
     }
+    
+    /**
+     * @see RadiologyReportService#getRadiologyReportCount(RadiologyReportSearchCriteria)
+     */
+    @Override
+    public Long getRadiologyReportCount(RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        
+        if (radiologyReportSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyReportSearchCriteria cannot be null");
+        }
+        return radiologyReportDAO.getRadiologyReportCount(radiologyReportSearchCriteria);
+    }
 }
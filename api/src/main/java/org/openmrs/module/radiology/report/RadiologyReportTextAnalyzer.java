@@ -0,0 +1,115 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits the HTML body of a {@code RadiologyReport} or a text query into the terms of the radiology report full-text
+ * index.
+ * <p>
+ * Markup and character references are skipped, terms are maximal runs of letters and digits lower cased and
+ * truncated to {@link #MAX_TERM_LENGTH} characters. Single character terms and {@link #STOP_WORDS} are dropped since
+ * they match too many radiology reports to be of use.
+ * </p>
+ */
+final class RadiologyReportTextAnalyzer {
+    
+    
+    /**
+     * The maximum length of a term, matching the size of column {@code radiology_report_index_term.term}.
+     */
+    static final int MAX_TERM_LENGTH = 50;
+    
+    private static final int MIN_TERM_LENGTH = 2;
+    
+    /**
+     * English function words occurring in nearly every radiology report. Negations like {@code no} and {@code not} are
+     * kept since they are part of findings like {@code no fracture}.
+     */
+    static final Set<String> STOP_WORDS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList("an", "and",
+        "are", "as", "at", "be", "been", "but", "by", "for", "from", "has", "have", "in", "is", "it", "its", "of", "on",
+        "or", "that", "the", "there", "these", "this", "those", "to", "was", "were", "which", "with")));
+    
+    private RadiologyReportTextAnalyzer() {
+        // not meant to be instantiated
+    }
+    
+    /**
+     * Get the terms of given text with the number of times each term occurs.
+     *
+     * @param text the text to analyze which may contain HTML
+     * @return the terms of given text mapped to their frequency or an empty map if given null
+     * @should return the lower cased terms of given text mapped to their frequency
+     * @should skip html tags and character references
+     * @should drop single character terms
+     * @should drop stop words
+     * @should truncate terms longer than max term length
+     * @should return an empty map if given null
+     */
+    static Map<String, Integer> getTermFrequencies(String text) {
+        
+        final Map<String, Integer> result = new HashMap<String, Integer>();
+        if (text == null) {
+            return result;
+        }
+        final StringBuilder term = new StringBuilder(MAX_TERM_LENGTH);
+        boolean inTag = false;
+        boolean inCharacterReference = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (inTag) {
+                inTag = c != '>';
+                continue;
+            }
+            if (inCharacterReference && (Character.isLetterOrDigit(c) || c == '#')) {
+                continue;
+            }
+            inCharacterReference = false;
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.append(Character.toLowerCase(c));
+                }
+                continue;
+            }
+            inTag = c == '<';
+            inCharacterReference = c == '&';
+            addTerm(result, term);
+        }
+        addTerm(result, term);
+        return result;
+    }
+    
+    /**
+     * Get the distinct terms of given text.
+     *
+     * @param text the text to analyze
+     * @return the distinct terms of given text or an empty set if given null
+     * @should return the distinct terms of given text
+     */
+    static Set<String> getTerms(String text) {
+        return getTermFrequencies(text).keySet();
+    }
+    
+    private static void addTerm(Map<String, Integer> termFrequencies, StringBuilder term) {
+        
+        final String key = term.toString();
+        if (key.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(key)) {
+            final Integer frequency = termFrequencies.get(key);
+            termFrequencies.put(key, frequency == null ? 1 : frequency + 1);
+        }
+        term.setLength(0);
+    }
+}
@@ -9,30 +9,22 @@
  */
 package org.openmrs.module.radiology.report.template;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.openmrs.ConceptReferenceTerm;
 import org.openmrs.ConceptSource;
-import org.openmrs.api.APIException;
 import org.openmrs.api.ConceptService;
 import org.openmrs.api.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 /**
  * A parser to parse MRRT report templates and and return an MrrtReportTemplate object.
@@ -64,36 +56,40 @@ class DefaultMrrtReportTemplateFileParser implements MrrtReportTemplateFileParse
     
     private MrrtReportTemplateValidator validator;
     
+    private MrrtReportTemplateDAO mrrtReportTemplateDAO;
+    
     public void setValidator(MrrtReportTemplateValidator validator) {
         this.validator = validator;
     }
     
+    public void setMrrtReportTemplateDAO(MrrtReportTemplateDAO mrrtReportTemplateDAO) {
+        this.mrrtReportTemplateDAO = mrrtReportTemplateDAO;
+    }
+    
     /**
      * @see MrrtReportTemplateFileParser#parse(String)
      */
     @Override
     public MrrtReportTemplate parse(String mrrtTemplate) throws IOException {
         
-        validator.validate(mrrtTemplate);
+        return parse(validator.validate(mrrtTemplate));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileParser#parse(ParsedMrrtReportTemplate)
+     */
+    @Override
+    public MrrtReportTemplate parse(ParsedMrrtReportTemplate parsedMrrtReportTemplate) {
         
-        final Document doc = Jsoup.parse(mrrtTemplate, "");
         final MrrtReportTemplate result = new MrrtReportTemplate();
-        initializeTemplate(result, doc);
-        try {
-            addTermsToTemplate(result, doc.getElementsByTag("script")
-                    .get(0)
-                    .toString());
-        }
-        catch (ParserConfigurationException | SAXException e) {
-            throw new APIException("radiology.report.template.parser.error", null, e);
-        }
+        initializeTemplate(result, parsedMrrtReportTemplate.getMetaTags());
+        addTermsToTemplate(result, parsedMrrtReportTemplate.getCodes());
         return result;
     }
     
-    private final void initializeTemplate(MrrtReportTemplate template, Document doc) {
-        final Elements metaTags = doc.getElementsByTag("meta");
+    private final void initializeTemplate(MrrtReportTemplate template, Elements metaTags) {
         
-        template.setPath(doc.baseUri());
+        template.setPath("");
         template.setCharset(metaTags.attr("charset"));
         for (Element metaTag : metaTags) {
             final String name = metaTag.attr("name");
@@ -136,48 +132,49 @@ class DefaultMrrtReportTemplateFileParser implements MrrtReportTemplateFileParse
         }
     }
     
-    private final void addTermsToTemplate(MrrtReportTemplate template, String script)
-            throws ParserConfigurationException, SAXException, IOException {
+    /**
+     * Add the concept reference terms matching the codes of the template's term elements to given template. The concept
+     * sources are looked up by name ignoring case and all codes are resolved in a single query.
+     */
+    private final void addTermsToTemplate(MrrtReportTemplate template, List<ParsedMrrtReportTemplate.Code> codes) {
         
-        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        final DocumentBuilder builder = factory.newDocumentBuilder();
-        try (InputStream in = new ByteArrayInputStream(script.getBytes())) {
-            final org.w3c.dom.Document scriptPartAsDocument = builder.parse(in);
-            scriptPartAsDocument.getDocumentElement()
-                    .normalize();
-            final NodeList terms = scriptPartAsDocument.getElementsByTagName("term");
-            final ConceptService conceptService = Context.getService(ConceptService.class);
-            final Set<ConceptReferenceTerm> referenceTerms = new HashSet<>();
-            
-            for (int i = 0; i < terms.getLength(); i++) {
-                final org.w3c.dom.Element termElement = (org.w3c.dom.Element) terms.item(i);
-                final org.w3c.dom.Element codeElement = (org.w3c.dom.Element) termElement.getElementsByTagName("code")
-                        .item(0);
-                final ConceptSource conceptSource =
-                        getConceptSourceByName(codeElement.getAttribute("scheme"), conceptService);
-                if (conceptSource != null) {
-                    final ConceptReferenceTerm referenceTerm =
-                            conceptService.getConceptReferenceTermByCode(codeElement.getAttribute("value"), conceptSource);
-                    if (referenceTerm != null) {
-                        referenceTerms.add(referenceTerm);
-                    }
+        if (codes.isEmpty()) {
+            return;
+        }
+        final Map<String, ConceptSource> conceptSourcesByName = getConceptSourcesByName();
+        final Map<ConceptSource, Set<String>> codesBySource = new HashMap<>();
+        for (ParsedMrrtReportTemplate.Code code : codes) {
+            final ConceptSource conceptSource = conceptSourcesByName.get(toConceptSourceKey(code.getScheme()));
+            if (conceptSource != null) {
+                Set<String> sourceCodes = codesBySource.get(conceptSource);
+                if (sourceCodes == null) {
+                    sourceCodes = new HashSet<>();
+                    codesBySource.put(conceptSource, sourceCodes);
                 }
+                sourceCodes.add(code.getValue());
             }
-            if (!referenceTerms.isEmpty()) {
-                template.setTerms(referenceTerms);
-            }
+        }
+        final Set<ConceptReferenceTerm> referenceTerms =
+                new HashSet<>(mrrtReportTemplateDAO.getConceptReferenceTermsByCodes(codesBySource));
+        if (!referenceTerms.isEmpty()) {
+            template.setTerms(referenceTerms);
         }
     }
     
-    private final ConceptSource getConceptSourceByName(String name, ConceptService conceptService) {
+    private final Map<String, ConceptSource> getConceptSourcesByName() {
         
-        final List<ConceptSource> conceptSources = conceptService.getAllConceptSources(false);
-        for (ConceptSource conceptSource : conceptSources) {
-            if (conceptSource.getName()
-                    .equalsIgnoreCase(name)) {
-                return conceptSource;
+        final Map<String, ConceptSource> result = new HashMap<>();
+        for (ConceptSource conceptSource : Context.getService(ConceptService.class)
+                .getAllConceptSources(false)) {
+            final String key = toConceptSourceKey(conceptSource.getName());
+            if (!result.containsKey(key)) {
+                result.put(key, conceptSource);
             }
         }
-        return null;
+        return result;
+    }
+    
+    private static String toConceptSourceKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ENGLISH);
     }
 }
@@ -11,12 +11,18 @@ package org.openmrs.module.radiology.report.template;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.Criteria;
 import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Disjunction;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
 
 /**
  * Hibernate specific MrrtReportTemplate related functions. This class should not be used directly. All
@@ -114,6 +120,38 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
                 .delete(template);
     }
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateDAO#getConceptReferenceTermsByCodes(Map)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<ConceptReferenceTerm> getConceptReferenceTermsByCodes(Map<ConceptSource, Set<String>> codesBySource) {
+        
+        if (codesBySource.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Disjunction codes = Restrictions.disjunction();
+        for (Map.Entry<ConceptSource, Set<String>> entry : codesBySource.entrySet()) {
+            codes.add(Restrictions.and(Restrictions.eq("conceptSource", entry.getKey()),
+                Restrictions.in("code", entry.getValue())));
+        }
+        return (List<ConceptReferenceTerm>) sessionFactory.getCurrentSession()
+                .createCriteria(ConceptReferenceTerm.class)
+                .add(codes)
+                .list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateDAO#getMrrtReportTemplateCountByPath(String)
+     */
+    @Override
+    public Long getMrrtReportTemplateCountByPath(String path) {
+        final Criteria criteria = createMrrtReportTemplateCriteria();
+        criteria.add(Restrictions.eq("path", path));
+        criteria.setProjection(Projections.rowCount());
+        return (Long) criteria.uniqueResult();
+    }
+    
     /**
      * A utility method creating a criteria for MrrtReportTemplate
      *
@@ -0,0 +1,140 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.openmrs.api.APIException;
+
+/**
+ * Stream over the entries of a ZIP archive of {@code MrrtReportTemplate} files which limits the number of entries and
+ * the number of bytes extracted, so that a small archive cannot expand into an unbounded amount of data.
+ * <p>
+ * Like {@link ZipInputStream} the stream reads the content of the current entry. Exceeding a limit throws an
+ * {@link APIException} from the call which exceeded it.
+ * </p>
+ */
+class MrrtReportTemplateArchiveInputStream extends FilterInputStream {
+    
+    
+    private final ZipInputStream zip;
+    
+    private final int maxEntries;
+    
+    private final long maxEntrySize;
+    
+    private final long maxSize;
+    
+    private ZipEntry entry;
+    
+    private int entries;
+    
+    private long entrySize;
+    
+    private long size;
+    
+    /**
+     * Creates a new instance of {@link MrrtReportTemplateArchiveInputStream}.
+     *
+     * @param in the stream of the ZIP archive
+     * @param maxEntries the maximum number of entries of the archive
+     * @param maxEntrySize the maximum number of bytes extracted from one entry
+     * @param maxSize the maximum number of bytes extracted from all entries
+     */
+    MrrtReportTemplateArchiveInputStream(InputStream in, int maxEntries, long maxEntrySize, long maxSize) {
+        super(new ZipInputStream(in, StandardCharsets.UTF_8));
+        this.zip = (ZipInputStream) this.in;
+        this.maxEntries = maxEntries;
+        this.maxEntrySize = maxEntrySize;
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * Move to the next entry of the archive.
+     *
+     * @return the next entry or null if there are no more entries
+     * @throws IOException if the archive cannot be read
+     * @throws APIException if the archive has more entries than the maximum
+     * @should return the entries of given archive
+     * @should throw api exception if given archive has more entries than the maximum
+     */
+    ZipEntry getNextEntry() throws IOException {
+        
+        entry = zip.getNextEntry();
+        if (entry == null) {
+            return null;
+        }
+        if (++entries > maxEntries) {
+            throw new APIException("radiology.MrrtReportTemplate.import.archive.too.many.entries",
+                    new Object[] { maxEntries });
+        }
+        entrySize = 0;
+        return entry;
+    }
+    
+    /**
+     * @see FilterInputStream#read()
+     */
+    @Override
+    public int read() throws IOException {
+        
+        final int result = super.read();
+        if (result != -1) {
+            count(1);
+        }
+        return result;
+    }
+    
+    /**
+     * @see FilterInputStream#read(byte[], int, int)
+     * @should throw api exception if an entry is larger than the maximum entry size
+     * @should throw api exception if all entries together are larger than the maximum size
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        
+        final int result = super.read(b, off, len);
+        if (result > 0) {
+            count(result);
+        }
+        return result;
+    }
+    
+    /**
+     * @see FilterInputStream#skip(long)
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        
+        final long result = super.skip(n);
+        if (result > 0) {
+            count(result);
+        }
+        return result;
+    }
+    
+    private void count(long bytes) {
+        
+        entrySize += bytes;
+        size += bytes;
+        if (entrySize > maxEntrySize) {
+            throw new APIException("radiology.MrrtReportTemplate.import.archive.entry.too.large",
+                    new Object[] { entry.getName(), maxEntrySize });
+        }
+        if (size > maxSize) {
+            throw new APIException("radiology.MrrtReportTemplate.import.archive.too.large", new Object[] { maxSize });
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jsoup.nodes.Attributes;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Tag;
+import org.jsoup.select.Elements;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * Reads the {@code <meta>} elements and the codes of the {@code <term>} elements of an mrrt report template from the
+ * SAX events passed on to the schema validator, so that validating a template and reading its content takes a single
+ * streaming parse.
+ *
+ * @see XsdMrrtReportTemplateValidator
+ */
+class MrrtReportTemplateContentFilter extends XMLFilterImpl {
+    
+    
+    private final Elements metaTags = new Elements();
+    
+    private final List<ParsedMrrtReportTemplate.Code> codes = new ArrayList<>();
+    
+    private int scriptDepth;
+    
+    private boolean inTerm;
+    
+    private boolean termHasCode;
+    
+    /**
+     * @see org.xml.sax.helpers.XMLFilterImpl#startElement(String, String, String, org.xml.sax.Attributes)
+     */
+    @Override
+    public void startElement(String uri, String localName, String qName, org.xml.sax.Attributes atts)
+            throws SAXException {
+        
+        switch (localName) {
+            case "meta":
+                metaTags.add(new Element(Tag.valueOf("meta"), "", toJsoupAttributes(atts)));
+                break;
+            case "script":
+                scriptDepth++;
+                break;
+            case "term":
+                inTerm = scriptDepth > 0;
+                termHasCode = false;
+                break;
+            case "code":
+                if (inTerm && !termHasCode) {
+                    codes.add(new ParsedMrrtReportTemplate.Code(atts.getValue("scheme"), atts.getValue("value")));
+                    termHasCode = true;
+                }
+                break;
+            default:
+                break;
+        }
+        super.startElement(uri, localName, qName, atts);
+    }
+    
+    /**
+     * @see org.xml.sax.helpers.XMLFilterImpl#endElement(String, String, String)
+     */
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        
+        if ("script".equals(localName)) {
+            scriptDepth--;
+        } else if ("term".equals(localName)) {
+            inTerm = false;
+        }
+        super.endElement(uri, localName, qName);
+    }
+    
+    /**
+     * Get what was read from the template so far.
+     *
+     * @return the meta elements and term codes read
+     */
+    ParsedMrrtReportTemplate getParsedMrrtReportTemplate() {
+        return new ParsedMrrtReportTemplate(metaTags, codes);
+    }
+    
+    private static Attributes toJsoupAttributes(org.xml.sax.Attributes atts) {
+        
+        final Attributes result = new Attributes();
+        for (int i = 0; i < atts.getLength(); i++) {
+            result.put(atts.getQName(i), atts.getValue(i));
+        }
+        return result;
+    }
+}
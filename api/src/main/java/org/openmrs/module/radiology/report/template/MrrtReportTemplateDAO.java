@@ -10,6 +10,11 @@
 package org.openmrs.module.radiology.report.template;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
 
 /**
  * {@code MrrTReportTemplate} related database methods.
@@ -49,4 +54,24 @@ interface MrrtReportTemplateDAO {
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#purgeMrrtReportTemplate(MrrtReportTemplate)
      */
     public void purgeMrrtReportTemplate(MrrtReportTemplate template);
+    
+    /**
+     * Get the concept reference terms with given codes in one query.
+     *
+     * @param codesBySource the codes to look up mapped to the concept source they belong to
+     * @return the concept reference terms matching any of given codes of their concept source
+     * @should return the concept reference terms matching given codes of their concept source
+     * @should return an empty list if given no codes
+     */
+    public List<ConceptReferenceTerm> getConceptReferenceTermsByCodes(Map<ConceptSource, Set<String>> codesBySource);
+    
+    /**
+     * Get the number of {@code MrrtReportTemplate's} whose template file is stored at given path.
+     *
+     * @param path the absolute path of a template file
+     * @return the number of mrrt report templates referencing given template file
+     * @should return the number of mrrt report templates referencing given path
+     * @should return zero if no mrrt report template references given path
+     */
+    public Long getMrrtReportTemplateCountByPath(String path);
 }
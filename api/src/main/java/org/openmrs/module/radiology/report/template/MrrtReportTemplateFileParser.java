@@ -29,4 +29,14 @@ public interface MrrtReportTemplateFileParser {
      * @should ignore case when searching for a matching concept source
      */
     public MrrtReportTemplate parse(String mrrtTemplate) throws IOException;
+    
+    /**
+     * Extract the metadata of an mrrt template already validated by the {@code MrrtReportTemplateValidator} into a
+     * {@code MrrtReportTemplate}.
+     *
+     * @param parsedMrrtReportTemplate what the validator read from the mrrt template
+     * @return the mrrt report template
+     * @should return an mrrt template object for given validated template
+     */
+    public MrrtReportTemplate parse(ParsedMrrtReportTemplate parsedMrrtReportTemplate);
 }
@@ -0,0 +1,281 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Deletes the template files of the {@code MrrtReportTemplateFileStore} once no {@code MrrtReportTemplate} references
+ * them, while templates with identical content are imported and purged concurrently within this JVM.
+ * <p>
+ * A transaction storing a template file holds the lock of the file shared until it completes, deleting a template file
+ * holds it exclusively and only then counts the committed templates referencing it. So a template file is never
+ * deleted between an identical template being stored and its transaction committing. Template files are mapped to a
+ * fixed number of locks by their file name (lock striping), so two template files can share a lock but one template
+ * file always maps to the same lock.
+ * </p>
+ */
+class MrrtReportTemplateFileReferences {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(MrrtReportTemplateFileReferences.class);
+    
+    static final int DEFAULT_STRIPES = 64;
+    
+    static final long DEFAULT_DELETE_TIMEOUT_SECONDS = 30;
+    
+    private final ReentrantReadWriteLock[] stripes;
+    
+    private final ToLongFunction<Path> committedReferenceCounter;
+    
+    private long deleteTimeoutSeconds = DEFAULT_DELETE_TIMEOUT_SECONDS;
+    
+    /**
+     * @param committedReferenceCounter counts the committed templates referencing a template file in a new transaction
+     * @throws IllegalArgumentException if given null
+     */
+    MrrtReportTemplateFileReferences(ToLongFunction<Path> committedReferenceCounter) {
+        this(DEFAULT_STRIPES, committedReferenceCounter);
+    }
+    
+    /**
+     * @param numberOfStripes the number of locks shared by all template files
+     * @param committedReferenceCounter counts the committed templates referencing a template file in a new transaction
+     * @throws IllegalArgumentException if given number of stripes smaller than one
+     * @throws IllegalArgumentException if given null
+     */
+    MrrtReportTemplateFileReferences(int numberOfStripes, ToLongFunction<Path> committedReferenceCounter) {
+        
+        if (numberOfStripes < 1) {
+            throw new IllegalArgumentException("numberOfStripes must be greater than zero");
+        }
+        if (committedReferenceCounter == null) {
+            throw new IllegalArgumentException("committedReferenceCounter cannot be null");
+        }
+        this.stripes = new ReentrantReadWriteLock[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+        this.committedReferenceCounter = committedReferenceCounter;
+    }
+    
+    /**
+     * Set the number of seconds a deletion waits for the transactions referencing a template file to complete before
+     * it keeps the template file.
+     *
+     * @param deleteTimeoutSeconds the number of seconds to wait
+     */
+    void setDeleteTimeoutSeconds(long deleteTimeoutSeconds) {
+        this.deleteTimeoutSeconds = deleteTimeoutSeconds;
+    }
+    
+    /**
+     * Get the lock of the stripe given template file maps to.
+     *
+     * @param templateFile the template file to get the lock for
+     * @return the lock of given template file
+     * @throws IllegalArgumentException if given null
+     * @should return the same lock for the same template file
+     * @should throw illegal argument exception if given null
+     */
+    ReentrantReadWriteLock getLock(Path templateFile) {
+        
+        if (templateFile == null) {
+            throw new IllegalArgumentException("templateFile cannot be null");
+        }
+        return stripes[Math.floorMod(templateFile.getFileName()
+                .toString()
+                .hashCode(), stripes.length)];
+    }
+    
+    /**
+     * Reference given template file from the current transaction, has to be called before the template file is stored.
+     * <p>
+     * The template file cannot be deleted until the current transaction completes. If the current transaction rolls
+     * back, the template file is deleted unless a committed template references it, so that an aborted import does not
+     * leave an orphaned template file behind.
+     * </p>
+     *
+     * @param templateFile the template file the current transaction stores
+     * @throws IllegalStateException if there is no active transaction synchronization
+     * @throws IllegalArgumentException if given null
+     * @should hold the lock of given template file shared until the transaction completes
+     * @should delete given template file if the transaction rolls back and no committed template references it
+     * @should not delete given template file if the transaction rolls back and a committed template references it
+     * @should not delete given template file if the transaction commits
+     * @should throw illegal state exception if there is no active transaction synchronization
+     */
+    void referenceUntilTransactionCompletes(Path templateFile) {
+        
+        final TemplateFileSynchronization synchronization = getTemplateFileSynchronization();
+        final Lock lock = getLock(templateFile).readLock();
+        lock.lock();
+        synchronization.heldLocks.add(lock);
+        synchronization.referencedFiles.add(templateFile);
+    }
+    
+    /**
+     * Delete given template file after the current transaction commits unless a committed template still references
+     * it.
+     *
+     * @param templateFile the template file no longer referenced by a template of the current transaction
+     * @throws IllegalStateException if there is no active transaction synchronization
+     * @throws IllegalArgumentException if given null
+     * @should delete given template file after the transaction commits if no committed template references it
+     * @should not delete given template file after the transaction commits if a committed template references it
+     * @should not delete given template file if the transaction rolls back
+     */
+    void deleteAfterCommitIfUnreferenced(Path templateFile) {
+        
+        if (templateFile == null) {
+            throw new IllegalArgumentException("templateFile cannot be null");
+        }
+        getTemplateFileSynchronization().unreferencedFiles.add(templateFile);
+    }
+    
+    /**
+     * Delete given template file unless a committed template references it, waiting for the transactions referencing it
+     * to complete before counting its references.
+     * <p>
+     * The template file is kept if the current thread itself holds the lock of the template file shared, or if the
+     * transactions referencing it do not complete within the delete timeout, since a kept template file is harmless
+     * while waiting could deadlock.
+     * </p>
+     *
+     * @param templateFile the template file to delete
+     * @return true if given template file was deleted
+     * @should wait for a transaction referencing given template file to complete before counting its references
+     * @should ignore a missing template file
+     */
+    boolean deleteIfUnreferenced(Path templateFile) {
+        
+        final ReentrantReadWriteLock lock = getLock(templateFile);
+        if (lock.getReadHoldCount() > 0) {
+            log.debug("Kept " + templateFile + " , the current thread references a template file sharing its lock.");
+            return false;
+        }
+        try {
+            if (!lock.writeLock()
+                    .tryLock(deleteTimeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("Kept " + templateFile + " , it is still referenced by a running transaction.");
+                return false;
+            }
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread()
+                    .interrupt();
+            return false;
+        }
+        try {
+            if (committedReferenceCounter.applyAsLong(templateFile) > 0) {
+                log.debug("Kept " + templateFile + " , it is still referenced by an mrrt report template.");
+                return false;
+            }
+            if (!Files.deleteIfExists(templateFile)) {
+                log.debug("Tried to delete " + templateFile + " , but wasnt found.");
+                return false;
+            }
+            return true;
+        }
+        catch (IOException | RuntimeException exception) {
+            log.error("Template file " + templateFile + " could not be deleted", exception);
+            return false;
+        }
+        finally {
+            lock.writeLock()
+                    .unlock();
+        }
+    }
+    
+    /**
+     * Get the synchronization of the current transaction, registering it on first use.
+     *
+     * @return the synchronization of the current transaction
+     * @throws IllegalStateException if there is no active transaction synchronization
+     */
+    private TemplateFileSynchronization getTemplateFileSynchronization() {
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("template file can only be referenced within a transaction");
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TemplateFileSynchronization
+                    && ((TemplateFileSynchronization) synchronization).getOwner() == this) {
+                return (TemplateFileSynchronization) synchronization;
+            }
+        }
+        final TemplateFileSynchronization result = new TemplateFileSynchronization();
+        TransactionSynchronizationManager.registerSynchronization(result);
+        return result;
+    }
+    
+    /**
+     * The template files referenced and no longer referenced by one transaction.
+     * <p>
+     * The shared locks are released before any template file is deleted, so that the transaction does not keep a
+     * template file only because it maps to the same lock as one the transaction stored itself.
+     * </p>
+     */
+    private class TemplateFileSynchronization extends TransactionSynchronizationAdapter {
+        
+        
+        private final List<Lock> heldLocks = new ArrayList<>();
+        
+        private final List<Path> referencedFiles = new ArrayList<>();
+        
+        private final List<Path> unreferencedFiles = new ArrayList<>();
+        
+        private MrrtReportTemplateFileReferences getOwner() {
+            return MrrtReportTemplateFileReferences.this;
+        }
+        
+        @Override
+        public void afterCommit() {
+            
+            releaseLocks();
+            for (Path templateFile : unreferencedFiles) {
+                deleteIfUnreferenced(templateFile);
+            }
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            
+            releaseLocks();
+            if (status == STATUS_ROLLED_BACK) {
+                for (Path templateFile : referencedFiles) {
+                    deleteIfUnreferenced(templateFile);
+                }
+            }
+        }
+        
+        private void releaseLocks() {
+            
+            for (Lock lock : heldLocks) {
+                lock.unlock();
+            }
+            heldLocks.clear();
+        }
+    }
+}
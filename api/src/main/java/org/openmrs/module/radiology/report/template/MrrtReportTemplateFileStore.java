@@ -0,0 +1,189 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content-addressed store of {@code MrrtReportTemplate} files in the report template directory.
+ * <p>
+ * A template file is stored under the hex encoded SHA-256 hash of its content in a two-level fan-out layout
+ * {@code <home>/ab/cd/abcd...} so that no directory holds more than a small fraction of the template files. Storing
+ * content which is already stored does not write anything, so templates with identical content share one file. Files
+ * are written to a temporary file in the report template directory first and then published by atomically renaming
+ * them, so that no partially written template file is ever visible under its hash.
+ * </p>
+ * <p>
+ * The store does not know which templates reference a file, template files are deleted through
+ * {@code MrrtReportTemplateFileReferences} once no template references them any longer.
+ * </p>
+ */
+class MrrtReportTemplateFileStore {
+    
+    
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    private final Path home;
+    
+    /**
+     * Creates a new instance of {@link MrrtReportTemplateFileStore}.
+     *
+     * @param home the report template directory
+     * @throws IllegalArgumentException if given null
+     */
+    MrrtReportTemplateFileStore(File home) {
+        if (home == null) {
+            throw new IllegalArgumentException("home cannot be null");
+        }
+        this.home = home.toPath()
+                .toAbsolutePath();
+    }
+    
+    /**
+     * Spool given stream to a temporary file in the report template directory computing the hash of its content on the
+     * way.
+     *
+     * @param in the stream of the template
+     * @return the spooled file which has to be closed to delete it unless it was stored
+     * @throws IOException if the stream cannot be read or the temporary file cannot be written
+     * @should spool given stream to a temporary file and compute the hash of its content
+     */
+    SpooledFile spool(InputStream in) throws IOException {
+        
+        final Path path = Files.createTempFile(home, "upload-", ".part");
+        try {
+            final DigestInputStream digestIn = new DigestInputStream(in, newMessageDigest());
+            Files.copy(digestIn, path, StandardCopyOption.REPLACE_EXISTING);
+            return new SpooledFile(path, toHex(digestIn.getMessageDigest()
+                    .digest()));
+        }
+        catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+    
+    /**
+     * Store given spooled file under the hash of its content by renaming it, or delete it if a file with the same
+     * content is already stored.
+     *
+     * @param spooledFile the spooled file to store
+     * @return the path of the stored template file
+     * @throws IOException if the spooled file cannot be renamed
+     * @should move given spooled file to the path of its hash
+     * @should delete given spooled file if its content is already stored
+     */
+    Path store(SpooledFile spooledFile) throws IOException {
+        
+        final Path destination = getPath(spooledFile.getHash());
+        publish(spooledFile.getPath(), destination);
+        return destination;
+    }
+    
+    /**
+     * Get the path a template file whose content has given hash is stored at.
+     *
+     * @param hash the hex encoded SHA-256 hash of the content of the template file
+     * @return the path of the template file
+     * @should return the path in the two level fan out directory of given hash
+     */
+    Path getPath(String hash) {
+        return home.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+    
+    private void publish(Path source, Path destination) throws IOException {
+        
+        if (Files.exists(destination)) {
+            Files.delete(source);
+            return;
+        }
+        Files.createDirectories(destination.getParent());
+        try {
+            Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (FileAlreadyExistsException fileAlreadyExistsException) {
+            // stored concurrently with the same content
+            Files.delete(source);
+        }
+    }
+    
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", noSuchAlgorithmException);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        
+        final char[] result = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            result[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            result[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(result);
+    }
+    
+    /**
+     * A template file spooled to a temporary file in the report template directory which is deleted on close unless
+     * it was stored.
+     */
+    static final class SpooledFile implements Closeable {
+        
+        
+        private final Path path;
+        
+        private final String hash;
+        
+        private SpooledFile(Path path, String hash) {
+            this.path = path;
+            this.hash = hash;
+        }
+        
+        /**
+         * Get the path of the temporary file.
+         *
+         * @return the path of the temporary file
+         */
+        Path getPath() {
+            return path;
+        }
+        
+        /**
+         * Get the hash of the content of the temporary file.
+         *
+         * @return the hex encoded SHA-256 hash
+         */
+        String getHash() {
+            return hash;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded in-memory cache of the HTML body content of {@code MrrtReportTemplate} files keyed by template uuid.
+ * <p>
+ * An entry is only served as long as the template file still has the path and modification time it had when its body
+ * was extracted, so replacing a template file invalidates its entry. The cache holds at most the configured number of
+ * characters of body content and evicts the least recently used entries beyond that. Bodies larger than the whole
+ * cache are never cached.
+ * </p>
+ */
+class MrrtReportTemplateHtmlBodyCache {
+    
+    
+    private final long maximumSize;
+    
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private long size;
+    
+    /**
+     * Creates a new instance of {@link MrrtReportTemplateHtmlBodyCache}.
+     *
+     * @param maximumSize the maximum number of characters of body content held by the cache
+     * @throws IllegalArgumentException if given maximum size is negative
+     */
+    MrrtReportTemplateHtmlBodyCache(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize cannot be negative");
+        }
+        this.maximumSize = maximumSize;
+    }
+    
+    /**
+     * Get the cached body content of the template with given uuid.
+     *
+     * @param uuid the uuid of the template
+     * @param path the absolute path of the template file
+     * @param lastModified the modification time of the template file
+     * @return the cached body content or null if none is cached for given template file and modification time
+     * @should return the body content put for given uuid path and modification time
+     * @should return null if the template file has a different path or modification time
+     * @should return null if no body content was put for given uuid
+     */
+    synchronized String get(String uuid, String path, long lastModified) {
+        
+        final Entry entry = entries.get(uuid);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.lastModified != lastModified || !entry.path.equals(path)) {
+            remove(uuid);
+            return null;
+        }
+        return entry.htmlBody;
+    }
+    
+    /**
+     * Put the body content of the template with given uuid in the cache, evicting the least recently used entries if the
+     * cache gets too large.
+     *
+     * @param uuid the uuid of the template
+     * @param path the absolute path of the template file
+     * @param lastModified the modification time of the template file the body content was extracted from
+     * @param htmlBody the body content of the template file
+     * @should evict the least recently used entries if the maximum size is exceeded
+     * @should not cache body content larger than the maximum size
+     */
+    synchronized void put(String uuid, String path, long lastModified, String htmlBody) {
+        
+        remove(uuid);
+        if (htmlBody.length() > maximumSize) {
+            return;
+        }
+        entries.put(uuid, new Entry(path, lastModified, htmlBody));
+        size += htmlBody.length();
+        final Iterator<Map.Entry<String, Entry>> leastRecentlyUsed = entries.entrySet()
+                .iterator();
+        while (size > maximumSize) {
+            size -= leastRecentlyUsed.next()
+                    .getValue().htmlBody.length();
+            leastRecentlyUsed.remove();
+        }
+    }
+    
+    /**
+     * Remove the body content of the template with given uuid from the cache.
+     *
+     * @param uuid the uuid of the template
+     */
+    synchronized void remove(String uuid) {
+        
+        final Entry entry = entries.remove(uuid);
+        if (entry != null) {
+            size -= entry.htmlBody.length();
+        }
+    }
+    
+    /**
+     * Get the number of characters of body content held by the cache.
+     *
+     * @return the size of the cache
+     */
+    synchronized long getSize() {
+        return size;
+    }
+    
+    private static final class Entry {
+        
+        
+        private final String path;
+        
+        private final long lastModified;
+        
+        private final String htmlBody;
+        
+        private Entry(String path, long lastModified, String htmlBody) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.htmlBody = htmlBody;
+        }
+    }
+}
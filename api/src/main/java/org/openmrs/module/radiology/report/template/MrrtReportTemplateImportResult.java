@@ -0,0 +1,110 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of importing one file of an archive of mrrt report templates.
+ *
+ * @see MrrtReportTemplateService#importMrrtReportTemplates(java.io.InputStream)
+ */
+public class MrrtReportTemplateImportResult {
+    
+    
+    private final String fileName;
+    
+    private final MrrtReportTemplate mrrtReportTemplate;
+    
+    private final String errorMessage;
+    
+    private final List<ValidationError> validationErrors;
+    
+    private MrrtReportTemplateImportResult(String fileName, MrrtReportTemplate mrrtReportTemplate, String errorMessage,
+            List<ValidationError> validationErrors) {
+        this.fileName = fileName;
+        this.mrrtReportTemplate = mrrtReportTemplate;
+        this.errorMessage = errorMessage;
+        this.validationErrors = Collections.unmodifiableList(new ArrayList<>(validationErrors));
+    }
+    
+    /**
+     * Create the result of a file imported as given mrrt report template.
+     *
+     * @param fileName the name of the file in the archive
+     * @param mrrtReportTemplate the imported mrrt report template
+     * @return the import result
+     */
+    static MrrtReportTemplateImportResult imported(String fileName, MrrtReportTemplate mrrtReportTemplate) {
+        return new MrrtReportTemplateImportResult(fileName, mrrtReportTemplate, null,
+                Collections.<ValidationError> emptyList());
+    }
+    
+    /**
+     * Create the result of a file which could not be imported.
+     *
+     * @param fileName the name of the file in the archive
+     * @param errorMessage the message code or message telling why the file could not be imported
+     * @param validationErrors the errors found validating the file or an empty list if it was not invalid
+     * @return the import result
+     */
+    static MrrtReportTemplateImportResult failed(String fileName, String errorMessage,
+            List<ValidationError> validationErrors) {
+        return new MrrtReportTemplateImportResult(fileName, null, errorMessage, validationErrors);
+    }
+    
+    /**
+     * Get the name of the file in the archive.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+    
+    /**
+     * Get the mrrt report template imported from the file.
+     *
+     * @return the imported mrrt report template or null if the file was not imported
+     */
+    public MrrtReportTemplate getMrrtReportTemplate() {
+        return mrrtReportTemplate;
+    }
+    
+    /**
+     * Get why the file could not be imported, either a message code or the message of the exception which prevented
+     * the import.
+     *
+     * @return the error message or null if the file was imported
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    /**
+     * Get the errors found validating the file.
+     *
+     * @return the validation errors or an empty list if the file was valid
+     */
+    public List<ValidationError> getValidationErrors() {
+        return validationErrors;
+    }
+    
+    /**
+     * Check whether the file was imported.
+     *
+     * @return true if the file was imported as mrrt report template
+     */
+    public boolean isImported() {
+        return mrrtReportTemplate != null;
+    }
+}
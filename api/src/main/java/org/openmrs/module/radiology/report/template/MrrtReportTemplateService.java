@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.report.template;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import org.openmrs.annotation.Authorized;
@@ -45,26 +46,92 @@ public interface MrrtReportTemplateService extends OpenmrsService {
      * <p>
      *     This means metadata like title, description, date, license, creator, ... is stored in an {@code MrrtReportTemplate} in the database with a link to the template file which is stored on the filesystem.
      * </p>
+     * <p>
+     * The template file is stored encoded in UTF-8 under the SHA-256 hash of its content in a two-level fan-out directory
+     * layout of the report template directory, so templates with identical content share one template file which is
+     * only written once.
+     * </p>
      * Calls {@link #saveMrrtReportTemplate(MrrtReportTemplate)} to store an {@code MrrtReportTemplate} in the database.
      * 
      * @param mrrtTemplate the mrrt template to be imported
      * @return the saved mrrt template
-     * @throws IOException if one is thrown during parsing, validation or if FileUtils.writeStringToFile throws one
+     * @throws IOException if one is thrown during parsing, validation or if the template file cannot be written
      * @throws APIException if importing an invalid template
      * @should create mrrt report template in the database and on the file system
      * @should not create an mrrt report template in the database and store the template as file if given template is invalid
+     * @should store the template file under the hash of its content
+     * @should not delete the template file shared with an existing template if the template already exists
      */
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
     public MrrtReportTemplate importMrrtReportTemplate(String mrrtTemplate) throws IOException;
     
+    /**
+     * Import an {@code MrrtReportTemplate} from a stream without holding the template in memory.
+     * <p>
+     * The stream is spooled to a temporary file in the report template directory once. That file is validated and
+     * parsed using the charset declared by the template and then published under the SHA-256 hash of its content by
+     * atomically renaming it, so that no partially written template file is ever visible in the report template
+     * directory. If a template file with the same content is already stored the spooled file is discarded instead. If
+     * the transaction rolls back, the stored template file is deleted unless another mrrt report template references it.
+     * </p>
+     *
+     * @param mrrtTemplate the stream of the mrrt template to be imported
+     * @return the saved mrrt template
+     * @throws IOException if the stream cannot be read or the template file cannot be written or renamed
+     * @throws APIException if importing an invalid template
+     * @throws IllegalArgumentException if given null
+     * @should create mrrt report template in the database and on the file system from given stream
+     * @should not leave a file in the report template directory if given template is invalid
+     * @should delete the stored template file if the import rolls back and no other template references it
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
+    public MrrtReportTemplate importMrrtReportTemplate(InputStream mrrtTemplate) throws IOException;
+    
+    /**
+     * Import all mrrt report templates of a ZIP archive.
+     * <p>
+     * The entries of the archive are streamed one after the other to the report template directory and validated
+     * there in parallel, all valid templates are saved in one transaction. A file which cannot be imported does not prevent
+     * importing the other files but is reported in its import result. The number of entries of the archive and the
+     * number of bytes extracted from it are limited by {@code RadiologyProperties}, exceeding a limit fails the whole
+     * import.
+     * </p>
+     *
+     * @param zipArchive the ZIP archive containing mrrt report templates
+     * @return the import result of each file of the archive in the order of the archive
+     * @throws IOException if the archive cannot be read or a template cannot be stored
+     * @throws APIException if the archive has too many entries or extracts to too many bytes
+     * @throws IllegalArgumentException if given null
+     * @should import all valid templates of given archive and return their import results
+     * @should report invalid templates with their validation errors without importing them
+     * @should report templates whose identifier already exists in the system or in the archive
+     * @should validate the templates of given archive concurrently
+     * @should throw api exception if given archive has more entries than the maximum
+     * @should throw api exception if a template of given archive is larger than the maximum template size
+     * @should throw api exception if the templates of given archive are larger than the maximum archive size
+     * @should not leave a spooled file in the report template directory if a limit is exceeded
+     * @should delete the template files stored before a limit is exceeded once the transaction rolls back
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(InputStream zipArchive) throws IOException;
+    
     /**
      * Delete an {@code MrrtReportTemplate} from the database.
+     * <p>
+     * The template file is deleted as well once the transaction commits, unless another committed mrrt report template
+     * still references it. A template file is not deleted while an identical template is being imported.
+     * </p>
      *
      * @param template the mrrt report template that is been deleted
      * @throws IllegalArgumentException if given null
      * @should delete report template from database and also delete template file from the system
      * @should throw illegal argument exception if given null
      * @should catch file not found exception when the file been deleted is missing
+     * @should not delete the template file if another template still references it
+     * @should not delete the template file before the transaction commits
+     * @should not delete the template file while an identical template is imported concurrently
      */
     @Authorized(RadiologyPrivileges.DELETE_RADIOLOGY_REPORT_TEMPLATES)
     public void purgeMrrtReportTemplate(MrrtReportTemplate template);
@@ -131,13 +198,27 @@ public interface MrrtReportTemplateService extends OpenmrsService {
     
     /**
      * Get the HTML body content of {@code MrrtReportTemplate's} file.
+     * <p>
+     * The body content is cached per template and served from the cache as long as the template file is not modified.
+     * </p>
      * 
      * @param mrrtReportTemplate the mrrt report template for which we want to get its html body content
      * @return the body content of the mrrt report template file
      * @throws IOException if one is thrown while reading the file
      * @should return the body content of the mrrt report template file
      * @should throw illegal argument exception if given null
+     * @should return the cached body content if the template file was not modified
+     * @should read the body content again if the template file was modified
      */
     @Authorized(RadiologyPrivileges.VIEW_RADIOLOGY_REPORT_TEMPLATES)
     public String getMrrtReportTemplateHtmlBody(MrrtReportTemplate mrrtReportTemplate) throws IOException;
+    
+    /**
+     * Read the HTML body content of all {@code MrrtReportTemplate's} into the cache used by
+     * {@link #getMrrtReportTemplateHtmlBody(MrrtReportTemplate)}, templates whose file cannot be read are skipped.
+     *
+     * @should cache the body content of all mrrt report templates
+     */
+    @Authorized(RadiologyPrivileges.VIEW_RADIOLOGY_REPORT_TEMPLATES)
+    public void cacheMrrtReportTemplateHtmlBodies();
 }
@@ -9,15 +9,26 @@
  */
 package org.openmrs.module.radiology.report.template;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.NoSuchFileException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.ZipEntry;
 
-import org.apache.commons.io.FileUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.openmrs.api.APIException;
@@ -25,7 +36,12 @@ import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Transactional(readOnly = true)
 class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtReportTemplateService {
@@ -33,12 +49,29 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
     
     private static final Logger log = LoggerFactory.getLogger(MrrtReportTemplateServiceImpl.class);
     
+    /**
+     * Maximum number of templates of one archive spooled and validated ahead of the template being saved, bounds the
+     * parsed templates and spooled files an import holds at a time.
+     */
+    static final int MAX_PENDING_VALIDATIONS = 32;
+    
     private MrrtReportTemplateFileParser parser;
     
+    private MrrtReportTemplateValidator validator;
+    
     private RadiologyProperties radiologyProperties;
     
     private MrrtReportTemplateDAO mrrtReportTemplateDAO;
     
+    private MrrtReportTemplateHtmlBodyCache htmlBodyCache;
+    
+    private PlatformTransactionManager transactionManager;
+    
+    private AsyncTaskExecutor validationExecutor;
+    
+    private final MrrtReportTemplateFileReferences templateFileReferences =
+            new MrrtReportTemplateFileReferences(this::countCommittedMrrtReportTemplates);
+    
     public void setMrrtReportTemplateDAO(MrrtReportTemplateDAO mrrtReportTemplateDAO) {
         this.mrrtReportTemplateDAO = mrrtReportTemplateDAO;
     }
@@ -47,10 +80,26 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         this.parser = parser;
     }
     
+    public void setValidator(MrrtReportTemplateValidator validator) {
+        this.validator = validator;
+    }
+    
     public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
         this.radiologyProperties = radiologyProperties;
     }
     
+    public void setHtmlBodyCache(MrrtReportTemplateHtmlBodyCache htmlBodyCache) {
+        this.htmlBodyCache = htmlBodyCache;
+    }
+    
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+    
+    public void setValidationExecutor(AsyncTaskExecutor validationExecutor) {
+        this.validationExecutor = validationExecutor;
+    }
+    
     /**
      * @see MrrtReportTemplateService#importMrrtReportTemplate(String)
      */
@@ -60,12 +109,187 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         
         final MrrtReportTemplate template = parser.parse(mrrtTemplate);
         
-        final File destination = new File(radiologyProperties.getReportTemplateHome(), java.util.UUID.randomUUID()
-                .toString());
-        FileUtils.writeStringToFile(destination, mrrtTemplate);
+        final MrrtReportTemplateFileStore fileStore = newFileStore();
+        try (MrrtReportTemplateFileStore.SpooledFile upload =
+                fileStore.spool(new ByteArrayInputStream(mrrtTemplate.getBytes(StandardCharsets.UTF_8)))) {
+            template.setPath(storeTemplateFile(fileStore, upload)
+                    .toString());
+            return saveMrrtReportTemplate(template);
+        }
+    }
+    
+    /**
+     * @see MrrtReportTemplateService#importMrrtReportTemplate(InputStream)
+     */
+    @Override
+    @Transactional
+    public MrrtReportTemplate importMrrtReportTemplate(InputStream mrrtTemplate) throws IOException {
+        if (mrrtTemplate == null) {
+            throw new IllegalArgumentException("mrrtTemplate cannot be null");
+        }
+        
+        final MrrtReportTemplateFileStore fileStore = newFileStore();
+        try (MrrtReportTemplateFileStore.SpooledFile upload = fileStore.spool(mrrtTemplate)) {
+            final MrrtReportTemplate template = parser.parse(validator.validate(upload.getPath()));
+            template.setPath(storeTemplateFile(fileStore, upload)
+                    .toString());
+            return saveMrrtReportTemplate(template);
+        }
+    }
+    
+    /**
+     * Store given spooled file referencing it from the current transaction, so that it is not deleted before the
+     * transaction completes and is deleted if the transaction rolls back and no committed template references it.
+     *
+     * @param fileStore the store of the template files
+     * @param spooledFile the spooled template file
+     * @return the path of the stored template file
+     * @throws IOException if the spooled file cannot be stored
+     */
+    private Path storeTemplateFile(MrrtReportTemplateFileStore fileStore,
+            MrrtReportTemplateFileStore.SpooledFile spooledFile) throws IOException {
         
-        template.setPath(destination.getAbsolutePath());
-        return saveMrrtReportTemplate(template);
+        templateFileReferences.referenceUntilTransactionCompletes(fileStore.getPath(spooledFile.getHash()));
+        return fileStore.store(spooledFile);
+    }
+    
+    /**
+     * @see MrrtReportTemplateService#importMrrtReportTemplates(InputStream)
+     */
+    @Override
+    @Transactional
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(InputStream zipArchive) throws IOException {
+        if (zipArchive == null) {
+            throw new IllegalArgumentException("zipArchive cannot be null");
+        }
+        
+        final MrrtReportTemplateFileStore fileStore = newFileStore();
+        final MrrtReportTemplateArchiveInputStream archive = new MrrtReportTemplateArchiveInputStream(zipArchive,
+                radiologyProperties.getMaxMrrtReportTemplateArchiveEntries(),
+                radiologyProperties.getMaxMrrtReportTemplateSize(),
+                radiologyProperties.getMaxMrrtReportTemplateArchiveSize());
+        final List<MrrtReportTemplateImportResult> result = new ArrayList<>();
+        final Set<String> identifiers = new HashSet<>();
+        final Deque<PendingImport> pendingImports = new ArrayDeque<>();
+        try {
+            ZipEntry entry;
+            while ((entry = archive.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                final MrrtReportTemplateFileStore.SpooledFile spooledFile = fileStore.spool(archive);
+                pendingImports.add(new PendingImport(entry.getName(), spooledFile, submitValidation(spooledFile)));
+                if (pendingImports.size() >= MAX_PENDING_VALIDATIONS) {
+                    result.add(importMrrtReportTemplate(fileStore, pendingImports.remove(), identifiers));
+                }
+            }
+            while (!pendingImports.isEmpty()) {
+                result.add(importMrrtReportTemplate(fileStore, pendingImports.remove(), identifiers));
+            }
+        }
+        finally {
+            for (PendingImport pendingImport : pendingImports) {
+                pendingImport.validation.cancel(true);
+                try {
+                    pendingImport.spooledFile.close();
+                }
+                catch (IOException ioException) {
+                    log.warn("Could not delete spooled template file " + pendingImport.spooledFile.getPath(), ioException);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Validate given spooled file on the validation executor, or on the current thread if the executor is saturated or
+     * shut down.
+     *
+     * @param spooledFile the spooled template file
+     * @return the validation of the template
+     */
+    private Future<ParsedMrrtReportTemplate> submitValidation(MrrtReportTemplateFileStore.SpooledFile spooledFile) {
+        
+        final Callable<ParsedMrrtReportTemplate> validation = () -> validator.validate(spooledFile.getPath());
+        try {
+            return validationExecutor.submit(validation);
+        }
+        catch (TaskRejectedException taskRejectedException) {
+            final FutureTask<ParsedMrrtReportTemplate> result = new FutureTask<>(validation);
+            result.run();
+            return result;
+        }
+    }
+    
+    /**
+     * Import one template of an archive once its validation is done, deleting its spooled file afterwards.
+     *
+     * @param fileStore the store of the template files
+     * @param pendingImport the spooled template and its validation
+     * @param identifiers the identifiers of the templates of the archive imported so far
+     * @return the import result of the template
+     * @throws IOException if the template cannot be stored
+     */
+    private MrrtReportTemplateImportResult importMrrtReportTemplate(MrrtReportTemplateFileStore fileStore,
+            PendingImport pendingImport, Set<String> identifiers) throws IOException {
+        
+        try (MrrtReportTemplateFileStore.SpooledFile spooledFile = pendingImport.spooledFile) {
+            final String fileName = pendingImport.fileName;
+            final ParsedMrrtReportTemplate parsedTemplate;
+            try {
+                parsedTemplate = pendingImport.validation.get();
+            }
+            catch (InterruptedException interruptedException) {
+                Thread.currentThread()
+                        .interrupt();
+                throw new APIException("radiology.MrrtReportTemplate.import.interrupted", null, interruptedException);
+            }
+            catch (ExecutionException executionException) {
+                final Throwable cause = executionException.getCause();
+                if (cause instanceof MrrtReportTemplateValidationException) {
+                    return MrrtReportTemplateImportResult.failed(fileName,
+                        "radiology.MrrtReportTemplate.not.imported.invalid",
+                        ((MrrtReportTemplateValidationException) cause).getValidationResult()
+                                .getErrors());
+                }
+                if (cause instanceof APIException || cause instanceof IOException) {
+                    return MrrtReportTemplateImportResult.failed(fileName, cause.getMessage(),
+                        Collections.<ValidationError> emptyList());
+                }
+                throw new APIException(cause.getMessage(), cause);
+            }
+            
+            final MrrtReportTemplate template = parser.parse(parsedTemplate);
+            if (!identifiers.add(template.getDcTermsIdentifier())
+                    || mrrtReportTemplateDAO.getMrrtReportTemplateByIdentifier(template.getDcTermsIdentifier()) != null) {
+                return MrrtReportTemplateImportResult.failed(fileName,
+                    "radiology.MrrtReportTemplate.not.imported.duplicate", Collections.<ValidationError> emptyList());
+            }
+            template.setPath(storeTemplateFile(fileStore, spooledFile)
+                    .toString());
+            return MrrtReportTemplateImportResult.imported(fileName,
+                mrrtReportTemplateDAO.saveMrrtReportTemplate(template));
+        }
+    }
+    
+    /**
+     * A template of an archive spooled to the report template directory whose validation may still be running.
+     */
+    private static final class PendingImport {
+        
+        
+        private final String fileName;
+        
+        private final MrrtReportTemplateFileStore.SpooledFile spooledFile;
+        
+        private final Future<ParsedMrrtReportTemplate> validation;
+        
+        private PendingImport(String fileName, MrrtReportTemplateFileStore.SpooledFile spooledFile,
+                Future<ParsedMrrtReportTemplate> validation) {
+            this.fileName = fileName;
+            this.spooledFile = spooledFile;
+            this.validation = validation;
+        }
     }
     
     /**
@@ -94,18 +318,34 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
             throw new IllegalArgumentException("template cannot be null");
         }
         mrrtReportTemplateDAO.purgeMrrtReportTemplate(template);
-        Path templatePath = Paths.get(template.getPath());
-        try {
-            Files.delete(templatePath);
+        if (template.getUuid() != null) {
+            htmlBodyCache.remove(template.getUuid());
         }
-        catch (NoSuchFileException noSuchFileException) {
-            log.debug("Tried to delete " + template.getPath() + " , but wasnt found.");
-        }
-        catch (IOException ioException) {
-            throw new APIException("radiology.MrrtReportTemplate.delete.error.fs", null, ioException);
+        if (template.getPath() != null) {
+            templateFileReferences.deleteAfterCommitIfUnreferenced(Paths.get(template.getPath()));
         }
     }
     
+    /**
+     * Count the committed mrrt report templates referencing given template file in a new read-only transaction, so
+     * that counting neither flushes nor sees the changes of the current transaction.
+     *
+     * @param templateFile the template file
+     * @return the number of committed templates referencing given template file
+     */
+    private long countCommittedMrrtReportTemplates(Path templateFile) {
+        
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate
+                .execute(status -> mrrtReportTemplateDAO.getMrrtReportTemplateCountByPath(templateFile.toString()));
+    }
+    
+    private MrrtReportTemplateFileStore newFileStore() {
+        return new MrrtReportTemplateFileStore(radiologyProperties.getReportTemplateHome());
+    }
+    
     /**
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#getMrrtReportTemplate(Integer)
      */
@@ -160,9 +400,38 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
             throw new IllegalArgumentException("mrrtReportTemplate cannot be null");
         }
         final File templateFile = new File(mrrtReportTemplate.getPath());
+        final String uuid = mrrtReportTemplate.getUuid();
+        final String path = templateFile.getAbsolutePath();
+        final long lastModified = templateFile.lastModified();
+        if (uuid != null) {
+            final String cachedHtmlBody = htmlBodyCache.get(uuid, path, lastModified);
+            if (cachedHtmlBody != null) {
+                return cachedHtmlBody;
+            }
+        }
         final Document doc = Jsoup.parse(templateFile, null);
-        
-        return doc.select("body")
+        final String result = doc.select("body")
                 .html();
+        if (uuid != null) {
+            htmlBodyCache.put(uuid, path, lastModified, result);
+        }
+        return result;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#cacheMrrtReportTemplateHtmlBodies()
+     */
+    @Override
+    public void cacheMrrtReportTemplateHtmlBodies() {
+        final List<MrrtReportTemplate> templates =
+                mrrtReportTemplateDAO.getMrrtReportTemplates(new MrrtReportTemplateSearchCriteria.Builder().build());
+        for (MrrtReportTemplate template : templates) {
+            try {
+                getMrrtReportTemplateHtmlBody(template);
+            }
+            catch (IOException ioException) {
+                log.warn("Could not cache the html body of mrrt report template " + template.getUuid(), ioException);
+            }
+        }
     }
 }
@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.report.template;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 import org.openmrs.api.APIException;
 
@@ -22,9 +23,10 @@ public interface MrrtReportTemplateValidator {
     
     
     /**
-     * Validate an mrrt template according to the IHE standard.
+     * Validate an mrrt template according to the IHE standard and return what was read from it while validating.
      *
      * @param mrrtTemplate the mrrt report template to be validated
+     * @return the meta elements and term codes of the valid mrrt template
      * @throws IOException
      * @throws APIException if the mrrt template fails validation
      * @should pass if template template follows mrrt standards
@@ -50,6 +52,24 @@ public interface MrrtReportTemplateValidator {
      * @should throw api exception if html element does not have a body element
      * @should throw api exception if html element has more than one body element 
      * @should catch all violation errors and throw an mrrt report template exception
+     * @should return the meta elements and term codes of given template
      */
-    public void validate(String mrrtTemplate) throws IOException;
+    public ParsedMrrtReportTemplate validate(String mrrtTemplate) throws IOException;
+    
+    /**
+     * Validate an mrrt template file according to the IHE standard and return what was read from it while validating.
+     * <p>
+     * The file is streamed through the validator. It is decoded using the charset declared by its {@code <meta charset>}
+     * element, if there is none the xml parser detects the encoding.
+     * </p>
+     *
+     * @param mrrtTemplateFile the mrrt report template file to be validated
+     * @return the meta elements and term codes of the valid mrrt template
+     * @throws IOException if the file cannot be read
+     * @throws APIException if the mrrt template fails validation
+     * @should return the meta elements and term codes of given template file
+     * @should decode given template file using the charset declared by its meta element
+     * @should throw api exception if given template file is invalid
+     */
+    public ParsedMrrtReportTemplate validate(Path mrrtTemplateFile) throws IOException;
 }
@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jsoup.select.Elements;
+
+/**
+ * What is read from an mrrt report template in the single pass validating it, which are its {@code <meta>} elements
+ * and the codes of the {@code <term>} elements of its template attributes.
+ *
+ * @see MrrtReportTemplateValidator#validate(String)
+ */
+public class ParsedMrrtReportTemplate {
+    
+    
+    private final Elements metaTags;
+    
+    private final List<Code> codes;
+    
+    /**
+     * Creates a new instance of {@link ParsedMrrtReportTemplate}.
+     *
+     * @param metaTags the meta elements of the template
+     * @param codes the codes of the term elements of the template in document order
+     */
+    ParsedMrrtReportTemplate(Elements metaTags, List<Code> codes) {
+        this.metaTags = metaTags;
+        this.codes = Collections.unmodifiableList(new ArrayList<>(codes));
+    }
+    
+    /**
+     * Get the meta elements of the template.
+     *
+     * @return the meta elements
+     */
+    public Elements getMetaTags() {
+        return metaTags;
+    }
+    
+    /**
+     * Get the codes of the term elements of the template, only the first code of each term element is read.
+     *
+     * @return the codes in document order
+     */
+    public List<Code> getCodes() {
+        return codes;
+    }
+    
+    /**
+     * The {@code <code>} element of a {@code <term>} of an mrrt report template identifying a concept reference term by
+     * its coding scheme and value.
+     */
+    public static class Code {
+        
+        
+        private final String scheme;
+        
+        private final String value;
+        
+        Code(String scheme, String value) {
+            this.scheme = scheme;
+            this.value = value;
+        }
+        
+        /**
+         * Get the name of the coding scheme.
+         *
+         * @return the coding scheme name
+         */
+        public String getScheme() {
+            return scheme;
+        }
+        
+        /**
+         * Get the code value within the coding scheme.
+         *
+         * @return the code value
+         */
+        public String getValue() {
+            return value;
+        }
+    }
+}
@@ -9,29 +9,48 @@
  */
 package org.openmrs.module.radiology.report.template;
 
-import java.io.File;
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.sax.SAXSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 
-import org.apache.commons.io.IOUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
 import org.openmrs.api.APIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
 
 /**
  * Uses xsd with schema to validate {@code MrrtReportTemplate} files.
+ * <p>
+ * The template is parsed once with a streaming SAX reader whose events feed the schema validator and at the same time
+ * the {@link MrrtReportTemplateContentFilter} reading the meta elements and term codes of the template.
+ * </p>
+ * <p>
+ * The schema is compiled once on first use and shared by all validations since compiling it costs more than validating
+ * a template. A {@code Schema} is thread-safe, only the {@code Validator} created from it for each validation is not.
+ * </p>
  */
 public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidator {
     
@@ -40,8 +59,22 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
     
     private static final String MRRT_REPORT_TEMPLATE_SCHEMA_FILE = "MrrtReportTemplateSchema.xsd";
     
+    private static final int CHARSET_PRESCAN_LENGTH = 1024;
+    
+    private static final Pattern META_CHARSET_PATTERN =
+            Pattern.compile("<meta\\s[^>]*charset\\s*=\\s*[\"']?([A-Za-z0-9._:-]+)", Pattern.CASE_INSENSITIVE);
+    
     MetaTagsValidationEngine metaTagsValidationEngine;
     
+    private volatile Schema schema;
+    
+    private final SAXParserFactory saxParserFactory;
+    
+    public XsdMrrtReportTemplateValidator() {
+        saxParserFactory = SAXParserFactory.newInstance();
+        saxParserFactory.setNamespaceAware(true);
+    }
+    
     public MetaTagsValidationEngine getMetaTagsValidationEngine() {
         return metaTagsValidationEngine;
     }
@@ -54,51 +87,159 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
      * @see MrrtReportTemplateValidator#validate(String)
      */
     @Override
-    public void validate(String mrrtTemplate) throws IOException {
+    public ParsedMrrtReportTemplate validate(String mrrtTemplate) throws IOException {
+        return validate(new InputSource(new StringReader(mrrtTemplate)));
+    }
+    
+    /**
+     * @see MrrtReportTemplateValidator#validate(Path)
+     */
+    @Override
+    public ParsedMrrtReportTemplate validate(Path mrrtTemplateFile) throws IOException {
         
-        final Document document = Jsoup.parse(mrrtTemplate, "");
-        final Elements metatags = document.getElementsByTag("meta");
-        ValidationResult validationResult = metaTagsValidationEngine.run(metatags);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(mrrtTemplateFile))) {
+            final InputSource inputSource = new InputSource(in);
+            final Charset charset = getDeclaredCharset(in);
+            if (charset != null) {
+                inputSource.setEncoding(charset.name());
+            }
+            return validate(inputSource);
+        }
+    }
+    
+    /**
+     * Get the charset declared by the {@code <meta charset>} element at the start of given template stream, looking at
+     * no more than the first {@link #CHARSET_PRESCAN_LENGTH} bytes like an HTML parser does. The stream is reset to its
+     * start afterwards.
+     *
+     * @param in the template stream supporting mark and reset
+     * @return the declared charset or null if none is declared or it is not supported so that the xml parser detects
+     *         the encoding itself
+     * @throws IOException if the stream cannot be read
+     */
+    static Charset getDeclaredCharset(InputStream in) throws IOException {
+        
+        in.mark(CHARSET_PRESCAN_LENGTH);
+        final byte[] prescan = new byte[CHARSET_PRESCAN_LENGTH];
+        int length = 0;
+        int read;
+        while (length < prescan.length && (read = in.read(prescan, length, prescan.length - length)) != -1) {
+            length += read;
+        }
+        in.reset();
+        
+        final Matcher matcher = META_CHARSET_PATTERN.matcher(new String(prescan, 0, length, StandardCharsets.ISO_8859_1));
+        if (!matcher.find()) {
+            return null;
+        }
+        try {
+            return Charset.forName(matcher.group(1));
+        }
+        catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            log.debug("Ignoring unsupported charset " + matcher.group(1), e);
+            return null;
+        }
+    }
+    
+    private ParsedMrrtReportTemplate validate(InputSource mrrtTemplate) throws IOException {
         
-        final SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        final Schema schema;
-        final Validator validator;
-        try (InputStream in = IOUtils.toInputStream(mrrtTemplate)) {
-            schema = factory.newSchema(getSchemaFile());
-            validator = schema.newValidator();
+        final ValidationResult schemaValidationResult = new ValidationResult();
+        final MrrtReportTemplateContentFilter contentFilter = new MrrtReportTemplateContentFilter();
+        try {
+            final Validator validator = getSchema().newValidator();
             validator.setErrorHandler(new ErrorHandler() {
                 
                 
                 @Override
                 public void warning(SAXParseException exception) throws SAXException {
                     log.debug(exception.getMessage(), exception);
-                    validationResult.addError(exception.getMessage(), "");
+                    schemaValidationResult.addError(exception.getMessage(), "");
                 }
                 
                 @Override
                 public void error(SAXParseException exception) throws SAXException {
                     log.debug(exception.getMessage(), exception);
-                    validationResult.addError(exception.getMessage(), "");
+                    schemaValidationResult.addError(exception.getMessage(), "");
                 }
                 
                 @Override
                 public void fatalError(SAXParseException exception) throws SAXException {
                     log.debug(exception.getMessage(), exception);
-                    validationResult.addError(exception.getMessage(), "");
+                    schemaValidationResult.addError(exception.getMessage(), "");
                 }
             });
-            validator.validate(new StreamSource(in));
-            validationResult.assertOk();
+            contentFilter.setParent(newXMLReader());
+            validator.validate(new SAXSource(contentFilter, mrrtTemplate));
         }
-        catch (SAXException e) {
+        catch (SAXException | ParserConfigurationException e) {
             log.error(e.getMessage(), e);
             throw new APIException("radiology.report.template.validation.error", null, e);
         }
+        
+        final ParsedMrrtReportTemplate result = contentFilter.getParsedMrrtReportTemplate();
+        final ValidationResult validationResult = metaTagsValidationEngine.run(result.getMetaTags());
+        for (ValidationError error : schemaValidationResult.getErrors()) {
+            validationResult.addError(error);
+        }
+        validationResult.assertOk();
+        return result;
+    }
+    
+    /**
+     * Create a namespace aware {@code XMLReader} reading the template for the schema validator.
+     *
+     * @return a new xml reader
+     * @throws ParserConfigurationException if no parser can be created
+     * @throws SAXException if no parser can be created
+     */
+    private XMLReader newXMLReader() throws ParserConfigurationException, SAXException {
+        
+        synchronized (saxParserFactory) {
+            return saxParserFactory.newSAXParser()
+                    .getXMLReader();
+        }
+    }
+    
+    /**
+     * Get the compiled MRRT report template schema, compiling it on first use.
+     *
+     * @return the compiled schema
+     * @throws IOException if the schema cannot be read from the classpath
+     * @throws SAXException if the schema cannot be compiled
+     */
+    private Schema getSchema() throws IOException, SAXException {
+        
+        Schema result = schema;
+        if (result == null) {
+            synchronized (this) {
+                result = schema;
+                if (result == null) {
+                    result = compileSchema();
+                    schema = result;
+                }
+            }
+        }
+        return result;
     }
     
-    private File getSchemaFile() {
-        return new File(getClass().getClassLoader()
-                .getResource(MRRT_REPORT_TEMPLATE_SCHEMA_FILE)
-                .getFile());
+    /**
+     * Compile the MRRT report template schema read as a stream from the classpath so that it can also be loaded from
+     * inside the module jar.
+     *
+     * @return the compiled schema
+     * @throws IOException if the schema cannot be found or read from the classpath
+     * @throws SAXException if the schema cannot be compiled
+     */
+    private Schema compileSchema() throws IOException, SAXException {
+        
+        final URL schemaUrl = getClass().getClassLoader()
+                .getResource(MRRT_REPORT_TEMPLATE_SCHEMA_FILE);
+        if (schemaUrl == null) {
+            throw new IOException(MRRT_REPORT_TEMPLATE_SCHEMA_FILE + " not found on the classpath");
+        }
+        try (InputStream in = schemaUrl.openStream()) {
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                    .newSchema(new StreamSource(in, schemaUrl.toExternalForm()));
+        }
     }
 }
@@ -9,6 +9,8 @@
  */
 package org.openmrs.module.radiology.study;
 
+import java.util.List;
+
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.APIException;
 import org.openmrs.api.OpenmrsService;
@@ -34,6 +36,7 @@ public interface RadiologyStudyService extends OpenmrsService {
      * @throws IllegalArgumentException if global property DICOM UID org root exceeds the maximum length
      * @throws APIException on saving an existing radiology study
      * @should create new radiology study from given radiology study
+     * @should create the radiology worklist item of the radiology order of given radiology study
      * @should set the study instance uid of given radiology study to a valid dicom uid if null
      * @should set the study instance uid of given radiology study to a valid dicom uid if only containing whitespaces
      * @should not set the study instance uid of given radiology study if contains non whitespace characters
@@ -43,6 +46,28 @@ public interface RadiologyStudyService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_STUDIES)
     public RadiologyStudy saveRadiologyStudy(RadiologyStudy radiologyStudy);
     
+    /**
+     * Saves given new {@code RadiologyStudy's} to the database, setting blank study instance uids from the DICOM UID
+     * org root which is read once for all of them.
+     *
+     * @param radiologyStudies the radiology studies to be created
+     * @return the created radiology studies
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given radiology studies contain null
+     * @throws IllegalArgumentException if global property DICOM UID org root cannot be found
+     * @throws IllegalArgumentException if global property DICOM UID org root is empty
+     * @throws IllegalArgumentException if global property DICOM UID org root is not a valid UID
+     * @throws IllegalArgumentException if global property DICOM UID org root exceeds the maximum length
+     * @throws APIException on saving an existing radiology study
+     * @should create new radiology studies with unique study instance uids
+     * @should create the radiology worklist items of the radiology orders of given radiology studies
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given list containing null
+     * @should throw api exception on saving an existing radiology study
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_STUDIES)
+    public List<RadiologyStudy> saveRadiologyStudies(List<RadiologyStudy> radiologyStudies);
+    
     /**
      * Get the {@code RadiologyStudy} by its {@code studyId}.
      *
@@ -9,11 +9,18 @@
  */
 package org.openmrs.module.radiology.study;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.APIException;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.dicom.DicomUidGenerator;
+import org.openmrs.module.radiology.dicom.DicomUidGeneratorStrategy;
+import org.openmrs.module.radiology.dicom.TimeBasedDicomUidGenerator;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +37,10 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
     
     private DicomUidGenerator dicomUidGenerator;
     
+    private RadiologyWorklistService radiologyWorklistService;
+    
+    private volatile DicomUidGenerator timeBasedDicomUidGenerator;
+    
     public void setRadiologyStudyDAO(RadiologyStudyDAO radiologyStudyDAO) {
         this.radiologyStudyDAO = radiologyStudyDAO;
     }
@@ -42,6 +53,10 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
         this.dicomUidGenerator = dicomUidGenerator;
     }
     
+    public void setRadiologyWorklistService(RadiologyWorklistService radiologyWorklistService) {
+        this.radiologyWorklistService = radiologyWorklistService;
+    }
+    
     /**
      * @see RadiologyStudyService#saveRadiologyStudy(RadiologyStudy)
      */
@@ -58,7 +73,61 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
         
         setStudyInstanceUidIfBlank(radiologyStudy);
         
-        return radiologyStudyDAO.saveRadiologyStudy(radiologyStudy);
+        final RadiologyStudy result = radiologyStudyDAO.saveRadiologyStudy(radiologyStudy);
+        if (isOfSavedRadiologyOrder(result)) {
+            radiologyWorklistService.updateRadiologyWorklistItem(result.getRadiologyOrder());
+        }
+        return result;
+    }
+    
+    /**
+     * @see RadiologyStudyService#saveRadiologyStudies(List)
+     */
+    @Override
+    @Transactional
+    public List<RadiologyStudy> saveRadiologyStudies(List<RadiologyStudy> radiologyStudies) {
+        
+        if (radiologyStudies == null) {
+            throw new IllegalArgumentException("radiologyStudies cannot be null");
+        }
+        for (RadiologyStudy radiologyStudy : radiologyStudies) {
+            if (radiologyStudy == null) {
+                throw new IllegalArgumentException("radiologyStudy cannot be null");
+            }
+            if (radiologyStudy.getStudyId() != null) {
+                throw new APIException("RadiologyStudy.cannot.edit.existing");
+            }
+        }
+        if (radiologyStudies.isEmpty()) {
+            return radiologyStudies;
+        }
+        
+        final String dicomUidOrgRoot = radiologyProperties.getDicomUIDOrgRoot();
+        final DicomUidGenerator dicomUidGenerator = getDicomUidGenerator();
+        final List<RadiologyOrder> radiologyOrders = new ArrayList<RadiologyOrder>(radiologyStudies.size());
+        for (RadiologyStudy radiologyStudy : radiologyStudies) {
+            setStudyInstanceUidIfBlank(radiologyStudy, dicomUidOrgRoot, dicomUidGenerator);
+            radiologyStudyDAO.saveRadiologyStudy(radiologyStudy);
+            if (isOfSavedRadiologyOrder(radiologyStudy)) {
+                radiologyOrders.add(radiologyStudy.getRadiologyOrder());
+            }
+        }
+        if (!radiologyOrders.isEmpty()) {
+            radiologyWorklistService.updateRadiologyWorklistItems(radiologyOrders);
+        }
+        return radiologyStudies;
+    }
+    
+    /**
+     * Check whether given radiology study belongs to a radiology order which is already saved and therefore has a
+     * worklist item to keep in sync.
+     *
+     * @param radiologyStudy the radiology study to check
+     * @return true if the radiology order of given radiology study has an order id
+     */
+    private boolean isOfSavedRadiologyOrder(RadiologyStudy radiologyStudy) {
+        return radiologyStudy.getRadiologyOrder() != null && radiologyStudy.getRadiologyOrder()
+                .getOrderId() != null;
     }
     
     /**
@@ -76,11 +145,62 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
     private void setStudyInstanceUidIfBlank(RadiologyStudy radiologyStudy) {
         
         if (StringUtils.isBlank(radiologyStudy.getStudyInstanceUid())) {
-            final String uuid = dicomUidGenerator.getNewDicomUid(radiologyProperties.getDicomUIDOrgRoot());
+            setStudyInstanceUidIfBlank(radiologyStudy, radiologyProperties.getDicomUIDOrgRoot(), getDicomUidGenerator());
+        }
+    }
+    
+    /**
+     * Sets {@code studyInstanceUid} of given {@code radiologyStudy} if blank.
+     *
+     * @param radiologyStudy RadiologyStudy of which studyInstanceUid shall be set
+     * @param dicomUidOrgRoot the DICOM UID org root the study instance uid is prefixed with
+     * @param dicomUidGenerator the DICOM UID generator creating the study instance uid
+     */
+    private void setStudyInstanceUidIfBlank(RadiologyStudy radiologyStudy, String dicomUidOrgRoot,
+            DicomUidGenerator dicomUidGenerator) {
+        
+        if (StringUtils.isBlank(radiologyStudy.getStudyInstanceUid())) {
+            final String uuid = dicomUidGenerator.getNewDicomUid(dicomUidOrgRoot);
             radiologyStudy.setStudyInstanceUid(uuid);
         }
     }
     
+    /**
+     * Get the DICOM UID generator of the strategy configured in the global property
+     * {@code radiology.dicomUidGenerator}.
+     *
+     * @return the time based DICOM UID generator if configured and the injected DICOM UID generator otherwise
+     */
+    private DicomUidGenerator getDicomUidGenerator() {
+        
+        if (radiologyProperties.getDicomUidGeneratorStrategy() == DicomUidGeneratorStrategy.TIME_BASED) {
+            return getTimeBasedDicomUidGenerator();
+        }
+        return dicomUidGenerator;
+    }
+    
+    /**
+     * Get the time based DICOM UID generator, creating it with the node id configured in the global property
+     * {@code radiology.accessionNumberNodeId} on first use. There must only ever be one instance per node since the
+     * instance holds the per thread counters, so a changed node id takes effect after a restart.
+     *
+     * @return the time based DICOM UID generator
+     */
+    private DicomUidGenerator getTimeBasedDicomUidGenerator() {
+        
+        DicomUidGenerator result = timeBasedDicomUidGenerator;
+        if (result == null) {
+            synchronized (this) {
+                result = timeBasedDicomUidGenerator;
+                if (result == null) {
+                    result = new TimeBasedDicomUidGenerator(radiologyProperties.getAccessionNumberNodeId());
+                    timeBasedDicomUidGenerator = result;
+                }
+            }
+        }
+        return result;
+    }
+    
     /**
      * @see RadiologyStudyService#getRadiologyStudy(Integer)
      */
@@ -0,0 +1,120 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Position of the last row of a page in a keyset (seek) paginated search.
+ * <p>
+ * A {@code ContinuationToken} holds the sort key and the id of the last row a client has seen. The next page is fetched
+ * by restricting the search to rows sorting after this position instead of skipping rows with an offset, so every page
+ * costs the same no matter how deep it is. Clients only see the token in its opaque encoded form as created by
+ * {@link #encode()}.
+ * </p>
+ */
+public class ContinuationToken {
+    
+    
+    private static final char SEPARATOR = ':';
+    
+    private final String sortKey;
+    
+    private final Integer id;
+    
+    /**
+     * Create a {@code ContinuationToken} for given sort key and id.
+     *
+     * @param sortKey the sort key of the last row seen or null if the last row has none
+     * @param id the id of the last row seen
+     * @throws IllegalArgumentException if given id is null
+     * @should throw illegal argument exception if given id is null
+     */
+    public ContinuationToken(String sortKey, Integer id) {
+        
+        if (id == null) {
+            throw new IllegalArgumentException("id cannot be null");
+        }
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+    
+    /**
+     * Get the sort key of the last row seen.
+     *
+     * @return the sort key or null if the last row has none
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+    
+    /**
+     * Get the id of the last row seen.
+     *
+     * @return the id
+     */
+    public Integer getId() {
+        return id;
+    }
+    
+    /**
+     * Encode this {@code ContinuationToken} into its opaque URL safe representation.
+     *
+     * @return the encoded continuation token
+     * @should encode continuation token which can be decoded again
+     * @should encode continuation token without sort key which can be decoded again
+     */
+    public String encode() {
+        
+        final String plain = sortKey == null ? String.valueOf(id) : String.valueOf(id) + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a {@code ContinuationToken} from its encoded representation.
+     *
+     * @param encodedToken the encoded continuation token as created by {@link #encode()}
+     * @return the decoded continuation token
+     * @throws IllegalArgumentException if given encoded token is blank or malformed
+     * @should throw illegal argument exception if given encoded token is blank
+     * @should throw illegal argument exception if given encoded token is malformed
+     */
+    public static ContinuationToken decode(String encodedToken) {
+        
+        if (StringUtils.isBlank(encodedToken)) {
+            throw new IllegalArgumentException("encodedToken cannot be null or empty");
+        }
+        
+        final String plain;
+        try {
+            plain = new String(Base64.getUrlDecoder()
+                    .decode(encodedToken),
+                    StandardCharsets.UTF_8);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("encodedToken is not a valid continuation token", e);
+        }
+        
+        final int separatorIndex = plain.indexOf(SEPARATOR);
+        final String idPart = separatorIndex < 0 ? plain : plain.substring(0, separatorIndex);
+        final String sortKeyPart = separatorIndex < 0 ? null : plain.substring(separatorIndex + 1);
+        try {
+            return new ContinuationToken(sortKeyPart, Integer.valueOf(idPart));
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("encodedToken is not a valid continuation token", e);
+        }
+    }
+}
@@ -14,12 +14,28 @@ import java.util.UUID;
 
 /**
  * Translates a {@link java.util.UUID} into its decimal representation using {@link java.math.BigInteger}.
+ * <p>
+ * Callers which only need the decimal digits should use {@link #getChars(long, long, int, char[])} or
+ * {@link #toDecimalString(UUID)} which compute them from the two longs of the UUID without creating intermediate
+ * {@code String's} or {@code BigInteger's}.
+ * </p>
  */
 public class DecimalUuid {
     
     
     private static final int RADIX_HEX = 16;
     
+    /**
+     * The maximum number of decimal digits of an unsigned 128-bit value.
+     */
+    public static final int MAX_DECIMAL_LENGTH = 39;
+    
+    private static final long LOWER_32_BITS = 0xFFFFFFFFL;
+    
+    private static final int DIGITS_PER_CHUNK = 9;
+    
+    private static final long CHUNK_DIVISOR = 1_000_000_000L;
+    
     /**
      * Holds the decimal representation of a {@link java.util.UUID}.
      */
@@ -65,4 +81,74 @@ public class DecimalUuid {
         
         return this.decimalUuid.toString();
     }
+    
+    /**
+     * Get the decimal representation of given {@code uuid}, equal to {@code new DecimalUuid(uuid).toString()}.
+     *
+     * @param uuid UUID to be translated into its decimal representation
+     * @return decimal representation of uuid
+     * @should return the same decimal representation as the big integer translation
+     */
+    public static String toDecimalString(UUID uuid) {
+        
+        final char[] buffer = new char[MAX_DECIMAL_LENGTH];
+        final int start =
+                getChars(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), MAX_DECIMAL_LENGTH, buffer);
+        return new String(buffer, start, MAX_DECIMAL_LENGTH - start);
+    }
+    
+    /**
+     * Write the decimal digits of the unsigned 128-bit value made of given {@code mostSigBits} and
+     * {@code leastSigBits} into given {@code buffer}, ending right before given {@code index}, like
+     * {@code Long.getChars} does for a long.
+     * <p>
+     * The value is split into four 32-bit limbs which are divided by 10^9 in place, each pass yielding nine digits, so
+     * no objects are created.
+     * </p>
+     *
+     * @param mostSigBits the most significant 64 bits of the value
+     * @param leastSigBits the least significant 64 bits of the value
+     * @param index the index after the last digit to write
+     * @param buffer the buffer to write the digits to, needs room for up to {@link #MAX_DECIMAL_LENGTH} digits before
+     *            index
+     * @return the index of the first digit written
+     * @should write the same digits as the big integer translation of the unsigned value
+     * @should write a single zero if given value is zero
+     * @should write the digits of the maximum unsigned 128-bit value
+     */
+    public static int getChars(long mostSigBits, long leastSigBits, int index, char[] buffer) {
+        
+        long limb3 = mostSigBits >>> 32;
+        long limb2 = mostSigBits & LOWER_32_BITS;
+        long limb1 = leastSigBits >>> 32;
+        long limb0 = leastSigBits & LOWER_32_BITS;
+        int position = index;
+        while (true) {
+            // remainders are below 10^9 < 2^30, so shifting them by 32 bits cannot overflow a long
+            long remainder = limb3 % CHUNK_DIVISOR;
+            limb3 /= CHUNK_DIVISOR;
+            long dividend = (remainder << 32) | limb2;
+            limb2 = dividend / CHUNK_DIVISOR;
+            remainder = dividend % CHUNK_DIVISOR;
+            dividend = (remainder << 32) | limb1;
+            limb1 = dividend / CHUNK_DIVISOR;
+            remainder = dividend % CHUNK_DIVISOR;
+            dividend = (remainder << 32) | limb0;
+            limb0 = dividend / CHUNK_DIVISOR;
+            int chunk = (int) (dividend % CHUNK_DIVISOR);
+            
+            if ((limb3 | limb2 | limb1 | limb0) == 0) {
+                // most significant chunk, written without leading zeros
+                do {
+                    buffer[--position] = (char) ('0' + chunk % 10);
+                    chunk /= 10;
+                } while (chunk != 0);
+                return position;
+            }
+            for (int i = 0; i < DIGITS_PER_CHUNK; i++) {
+                buffer[--position] = (char) ('0' + chunk % 10);
+                chunk /= 10;
+            }
+        }
+    }
 }
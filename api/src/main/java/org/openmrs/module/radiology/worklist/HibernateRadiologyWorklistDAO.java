@@ -0,0 +1,203 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Criteria;
+import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.report.RadiologyReport;
+
+/**
+ * Hibernate specific RadiologyWorklistItem related functions. This class should not be used directly. All
+ * calls should go through the {@link RadiologyWorklistService} methods.
+ *
+ * @see RadiologyWorklistDAO
+ * @see RadiologyWorklistService
+ */
+class HibernateRadiologyWorklistDAO implements RadiologyWorklistDAO {
+    
+    
+    private SessionFactory sessionFactory;
+    
+    /**
+     * Set session factory that allows us to connect to the database that Hibernate knows about.
+     *
+     * @param sessionFactory SessionFactory
+     */
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+    
+    /**
+     * @see RadiologyWorklistDAO#saveRadiologyWorklistItem(RadiologyWorklistItem)
+     */
+    @Override
+    public RadiologyWorklistItem saveRadiologyWorklistItem(RadiologyWorklistItem radiologyWorklistItem) {
+        sessionFactory.getCurrentSession()
+                .saveOrUpdate(radiologyWorklistItem);
+        return radiologyWorklistItem;
+    }
+    
+    /**
+     * @see RadiologyWorklistDAO#saveNewRadiologyWorklistItem(RadiologyWorklistItem)
+     */
+    @Override
+    public void saveNewRadiologyWorklistItem(RadiologyWorklistItem radiologyWorklistItem) {
+        sessionFactory.getCurrentSession()
+                .save(radiologyWorklistItem);
+    }
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItem(Integer)
+     */
+    @Override
+    public RadiologyWorklistItem getRadiologyWorklistItem(Integer orderId) {
+        return (RadiologyWorklistItem) sessionFactory.getCurrentSession()
+                .get(RadiologyWorklistItem.class, orderId);
+    }
+    
+    /**
+     * @see RadiologyWorklistDAO#getActiveRadiologyReport(RadiologyOrder)
+     */
+    @Override
+    public RadiologyReport getActiveRadiologyReport(RadiologyOrder radiologyOrder) {
+        return (RadiologyReport) sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyReport.class)
+                .add(Restrictions.eq("radiologyOrder", radiologyOrder))
+                .add(Restrictions.eq("voided", false))
+                .addOrder(Order.desc("reportId"))
+                .setMaxResults(1)
+                .uniqueResult();
+    }
+    
+    /**
+     * @see RadiologyWorklistDAO#getRadiologyWorklistItems(Collection)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<Integer, RadiologyWorklistItem> getRadiologyWorklistItems(Collection<Integer> orderIds) {
+        
+        final List<RadiologyWorklistItem> radiologyWorklistItems = sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyWorklistItem.class)
+                .add(Restrictions.in("orderId", orderIds))
+                .list();
+        final Map<Integer, RadiologyWorklistItem> result = new HashMap<Integer, RadiologyWorklistItem>();
+        for (RadiologyWorklistItem radiologyWorklistItem : radiologyWorklistItems) {
+            result.put(radiologyWorklistItem.getOrderId(), radiologyWorklistItem);
+        }
+        return result;
+    }
+    
+    /**
+     * @see RadiologyWorklistDAO#getActiveRadiologyReports(Collection)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<Integer, RadiologyReport> getActiveRadiologyReports(Collection<Integer> orderIds) {
+        
+        final List<RadiologyReport> radiologyReports = sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyReport.class)
+                .add(Restrictions.in("radiologyOrder.orderId", orderIds))
+                .add(Restrictions.eq("voided", false))
+                .addOrder(Order.asc("reportId"))
+                .list();
+        // like getActiveRadiologyReport the report with the highest id wins
+        final Map<Integer, RadiologyReport> result = new HashMap<Integer, RadiologyReport>();
+        for (RadiologyReport radiologyReport : radiologyReports) {
+            result.put(radiologyReport.getRadiologyOrder()
+                    .getOrderId(),
+                radiologyReport);
+        }
+        return result;
+    }
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItems(RadiologyWorklistSearchCriteria)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyWorklistItem> getRadiologyWorklistItems(RadiologyWorklistSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyWorklistItemCriteria(searchCriteria);
+        
+        crit.addOrder(Order.asc("effectiveStartDate"));
+        crit.addOrder(Order.asc("orderId"));
+        if (searchCriteria.getOffset() != null) {
+            crit.setFirstResult(searchCriteria.getOffset());
+        }
+        if (searchCriteria.getLimit() != null) {
+            crit.setMaxResults(searchCriteria.getLimit());
+        }
+        return crit.list();
+    }
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItemCount(RadiologyWorklistSearchCriteria)
+     */
+    @Override
+    public Long getRadiologyWorklistItemCount(RadiologyWorklistSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyWorklistItemCriteria(searchCriteria);
+        
+        crit.setProjection(Projections.rowCount());
+        return (Long) crit.uniqueResult();
+    }
+    
+    /**
+     * Create a {@code Criteria} restricting {@code RadiologyWorklistItem's} to the given search criteria without
+     * ordering or paging applied.
+     *
+     * @param searchCriteria the object containing search parameters
+     * @return the criteria matching given search criteria
+     */
+    private Criteria createRadiologyWorklistItemCriteria(RadiologyWorklistSearchCriteria searchCriteria) {
+        
+        final Criteria crit = sessionFactory.getCurrentSession()
+                .createCriteria(RadiologyWorklistItem.class);
+        
+        if (!searchCriteria.getIncludeVoided()) {
+            crit.add(Restrictions.eq("voided", false));
+        }
+        if (searchCriteria.getFromEffectiveStartDate() != null) {
+            crit.add(Restrictions.ge("effectiveStartDate", searchCriteria.getFromEffectiveStartDate()));
+        }
+        if (searchCriteria.getToEffectiveStartDate() != null) {
+            crit.add(Restrictions.le("effectiveStartDate", searchCriteria.getToEffectiveStartDate()));
+        }
+        if (searchCriteria.getPatient() != null) {
+            crit.add(Restrictions.eq("patient", searchCriteria.getPatient()));
+        }
+        if (searchCriteria.getUrgency() != null) {
+            crit.add(Restrictions.eq("urgency", searchCriteria.getUrgency()));
+        }
+        if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
+            crit.add(Restrictions.eq("accessionNumber", searchCriteria.getAccessionNumber()));
+        }
+        if (searchCriteria.getPerformedStatus() != null) {
+            crit.add(Restrictions.eq("performedStatus", searchCriteria.getPerformedStatus()));
+        }
+        if (searchCriteria.getReportStatus() != null) {
+            crit.add(Restrictions.eq("reportStatus", searchCriteria.getReportStatus()));
+        }
+        if (searchCriteria.getPrincipalResultsInterpreter() != null) {
+            crit.add(Restrictions.eq("principalResultsInterpreter", searchCriteria.getPrincipalResultsInterpreter()));
+        }
+        return crit;
+    }
+}
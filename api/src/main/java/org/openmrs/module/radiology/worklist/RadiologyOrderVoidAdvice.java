@@ -0,0 +1,49 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.springframework.aop.AfterReturningAdvice;
+
+/**
+ * Advice on the {@code OrderService} keeping the {@code RadiologyWorklistItem} of a {@code RadiologyOrder} in sync when
+ * the radiology order is voided or unvoided.
+ * <p>
+ * Radiology orders are voided and unvoided through the {@code OrderService} only, so the radiology worklist cannot be
+ * updated by a radiology service as it is for all other writes of radiology orders.
+ * </p>
+ */
+public class RadiologyOrderVoidAdvice implements AfterReturningAdvice {
+    
+    
+    private static final Set<String> VOID_METHOD_NAMES = new HashSet<String>(Arrays.asList("voidOrder", "unvoidOrder"));
+    
+    /**
+     * @see AfterReturningAdvice#afterReturning(Object, Method, Object[], Object)
+     * @should update the radiology worklist item of a voided radiology order
+     * @should update the radiology worklist item of an unvoided radiology order
+     * @should not create a radiology worklist item for an order which is not a radiology order
+     * @should ignore other order service methods
+     */
+    @Override
+    public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+        
+        if (VOID_METHOD_NAMES.contains(method.getName()) && returnValue instanceof RadiologyOrder) {
+            Context.getService(RadiologyWorklistService.class)
+                    .updateRadiologyWorklistItem((RadiologyOrder) returnValue);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.report.RadiologyReport;
+
+/**
+ * {@code RadiologyWorklistItem} related database methods.
+ *
+ * @see RadiologyWorklistService
+ * @see RadiologyWorklistItem
+ */
+interface RadiologyWorklistDAO {
+    
+    
+    /**
+     * Save given radiology worklist item.
+     *
+     * @param radiologyWorklistItem the radiology worklist item to save
+     * @return the saved radiology worklist item
+     */
+    RadiologyWorklistItem saveRadiologyWorklistItem(RadiologyWorklistItem radiologyWorklistItem);
+    
+    /**
+     * Save given radiology worklist item which is not yet persistent, without checking the database for an existing
+     * worklist item of its radiology order first.
+     *
+     * @param radiologyWorklistItem the new radiology worklist item to save
+     */
+    void saveNewRadiologyWorklistItem(RadiologyWorklistItem radiologyWorklistItem);
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItem(Integer)
+     */
+    RadiologyWorklistItem getRadiologyWorklistItem(Integer orderId);
+    
+    /**
+     * Get the claimed or completed radiology report of given radiology order.
+     *
+     * @param radiologyOrder the radiology order
+     * @return the not voided radiology report of given radiology order or null if there is none
+     */
+    RadiologyReport getActiveRadiologyReport(RadiologyOrder radiologyOrder);
+    
+    /**
+     * Get the radiology worklist items of the radiology orders with given order ids.
+     *
+     * @param orderIds the order ids of the radiology orders
+     * @return the existing radiology worklist items by order id
+     */
+    Map<Integer, RadiologyWorklistItem> getRadiologyWorklistItems(Collection<Integer> orderIds);
+    
+    /**
+     * Get the claimed or completed radiology reports of the radiology orders with given order ids.
+     *
+     * @param orderIds the order ids of the radiology orders
+     * @return the not voided radiology report by order id for each radiology order that has one
+     */
+    Map<Integer, RadiologyReport> getActiveRadiologyReports(Collection<Integer> orderIds);
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItems(RadiologyWorklistSearchCriteria)
+     */
+    List<RadiologyWorklistItem> getRadiologyWorklistItems(RadiologyWorklistSearchCriteria searchCriteria);
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItemCount(RadiologyWorklistSearchCriteria)
+     */
+    Long getRadiologyWorklistItemCount(RadiologyWorklistSearchCriteria searchCriteria);
+}
@@ -0,0 +1,148 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import java.util.Date;
+
+import org.openmrs.Concept;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+
+/**
+ * A row of the radiology worklist, a flat read model holding what dashboards show of a {@code RadiologyOrder}, its
+ * {@code RadiologyStudy} and its active {@code RadiologyReport}. The date stopped tells discontinued radiology orders
+ * apart from active ones.
+ * <p>
+ * There is exactly one worklist item per radiology order and it shares the order id. Worklist items are written by the
+ * radiology order, study and report services and when an order is voided or unvoided whenever one of the underlying
+ * objects changes so that dashboard queries can be answered from a single table without joining the order hierarchy,
+ * studies and reports.
+ * </p>
+ *
+ * @see RadiologyWorklistService
+ */
+public class RadiologyWorklistItem {
+    
+    
+    private Integer orderId;
+    
+    private String accessionNumber;
+    
+    private Patient patient;
+    
+    private Concept concept;
+    
+    private Urgency urgency;
+    
+    private Date effectiveStartDate;
+    
+    private Date dateStopped;
+    
+    private PerformedProcedureStepStatus performedStatus;
+    
+    private RadiologyReportStatus reportStatus;
+    
+    private Provider principalResultsInterpreter;
+    
+    private Boolean voided = false;
+    
+    protected RadiologyWorklistItem() {
+        // needed by hibernate
+    }
+    
+    /**
+     * Create a {@code RadiologyWorklistItem} for given radiology order.
+     *
+     * @param orderId the order id of the radiology order this worklist item represents
+     */
+    public RadiologyWorklistItem(Integer orderId) {
+        this.orderId = orderId;
+    }
+    
+    /**
+     * Copy the state of given radiology order, its study and given active radiology report onto this worklist item.
+     *
+     * @param radiologyOrder the radiology order this worklist item represents
+     * @param activeRadiologyReport the claimed or completed radiology report of the radiology order or null if it has
+     *            none
+     * @should copy order properties and performed status of the study of given radiology order
+     * @should set performed status to null if given radiology order has no study
+     * @should copy report status and principal results interpreter of given radiology report
+     * @should set report status and principal results interpreter to null if given radiology report is null
+     */
+    public void update(RadiologyOrder radiologyOrder, RadiologyReport activeRadiologyReport) {
+        
+        this.accessionNumber = radiologyOrder.getAccessionNumber();
+        this.patient = radiologyOrder.getPatient();
+        this.concept = radiologyOrder.getConcept();
+        this.urgency = radiologyOrder.getUrgency();
+        this.effectiveStartDate = radiologyOrder.getEffectiveStartDate();
+        this.dateStopped = radiologyOrder.getDateStopped();
+        this.voided = radiologyOrder.getVoided();
+        this.performedStatus = radiologyOrder.getStudy() == null ? null : radiologyOrder.getStudy()
+                .getPerformedStatus();
+        if (activeRadiologyReport == null) {
+            this.reportStatus = null;
+            this.principalResultsInterpreter = null;
+        } else {
+            this.reportStatus = activeRadiologyReport.getStatus();
+            this.principalResultsInterpreter = activeRadiologyReport.getPrincipalResultsInterpreter();
+        }
+    }
+    
+    public Integer getOrderId() {
+        return orderId;
+    }
+    
+    public String getAccessionNumber() {
+        return accessionNumber;
+    }
+    
+    public Patient getPatient() {
+        return patient;
+    }
+    
+    public Concept getConcept() {
+        return concept;
+    }
+    
+    public Urgency getUrgency() {
+        return urgency;
+    }
+    
+    public Date getEffectiveStartDate() {
+        return effectiveStartDate;
+    }
+    
+    public Date getDateStopped() {
+        return dateStopped;
+    }
+    
+    public PerformedProcedureStepStatus getPerformedStatus() {
+        return performedStatus;
+    }
+    
+    public RadiologyReportStatus getReportStatus() {
+        return reportStatus;
+    }
+    
+    public Provider getPrincipalResultsInterpreter() {
+        return principalResultsInterpreter;
+    }
+    
+    public Boolean getVoided() {
+        return voided;
+    }
+}
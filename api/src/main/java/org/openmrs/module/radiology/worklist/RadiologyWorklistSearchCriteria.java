@@ -0,0 +1,323 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import java.util.Date;
+
+import org.openmrs.Order.Urgency;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+
+/**
+ * Search parameter object for {@link RadiologyWorklistItem}'s.
+ *
+ * <p>Typical usage involves:
+ * <ol>
+ * <li>Set the various search criteria parameters through the respective methods of the static builder class
+ * ({@link Builder#withPatient(Patient)}, {@link Builder#includeVoided()}, {@link Builder#withUrgency(Urgency)},
+ * {@link Builder#fromEffectiveStartDate(Date)}, {@link Builder#toEffectiveStartDate(Date)},
+ * {@link Builder#withAccessionNumber(String)},
+ * {@link Builder#withPerformedStatus(PerformedProcedureStepStatus)},
+ * {@link Builder#withReportStatus(RadiologyReportStatus)},
+ * {@link Builder#withPrincipalResultsInterpreter(Provider)}, {@link Builder#withOffset(Integer)} and
+ * {@link Builder#withLimit(Integer)}).</li>
+ * <li>Build the {@link RadiologyWorklistSearchCriteria} instance with the {@link Builder#build()} method.</li>
+ * <li>Get the search parameters through the getter methods (such as {@link #getPatient()} or
+ * {@link #getReportStatus()}).</li>
+ * </ol>
+ */
+public class RadiologyWorklistSearchCriteria {
+    
+    
+    private final Patient patient;
+    
+    private final Boolean includeVoided;
+    
+    private final Urgency urgency;
+    
+    private final Date fromEffectiveStartDate;
+    
+    private final Date toEffectiveStartDate;
+    
+    private final String accessionNumber;
+    
+    private final PerformedProcedureStepStatus performedStatus;
+    
+    private final RadiologyReportStatus reportStatus;
+    
+    private final Provider principalResultsInterpreter;
+    
+    private final Integer offset;
+    
+    private final Integer limit;
+    
+    /**
+     * @return the order patient
+     */
+    public Patient getPatient() {
+        
+        return patient;
+    }
+    
+    /**
+     * @return the {@code Boolean} specifying whether or not to include worklist items of voided radiology orders
+     */
+    public Boolean getIncludeVoided() {
+        
+        return includeVoided;
+    }
+    
+    /**
+     * @return the order urgency
+     */
+    public Urgency getUrgency() {
+        
+        return urgency;
+    }
+    
+    /**
+     * @return the minimum effective start date
+     */
+    public Date getFromEffectiveStartDate() {
+        
+        return fromEffectiveStartDate;
+    }
+    
+    /**
+     * @return the maximum effective start date
+     */
+    public Date getToEffectiveStartDate() {
+        
+        return toEffectiveStartDate;
+    }
+    
+    /**
+     * @return the order accession number
+     */
+    public String getAccessionNumber() {
+        
+        return accessionNumber;
+    }
+    
+    /**
+     * @return the performed status of the study
+     */
+    public PerformedProcedureStepStatus getPerformedStatus() {
+        
+        return performedStatus;
+    }
+    
+    /**
+     * @return the status of the active report
+     */
+    public RadiologyReportStatus getReportStatus() {
+        
+        return reportStatus;
+    }
+    
+    /**
+     * @return the principal results interpreter of the active report
+     */
+    public Provider getPrincipalResultsInterpreter() {
+        
+        return principalResultsInterpreter;
+    }
+    
+    /**
+     * @return the index of the first worklist item to return
+     */
+    public Integer getOffset() {
+        
+        return offset;
+    }
+    
+    /**
+     * @return the maximum number of worklist items to return
+     */
+    public Integer getLimit() {
+        
+        return limit;
+    }
+    
+    public static class Builder {
+        
+        
+        private Patient patient;
+        
+        private Boolean includeVoided = false;
+        
+        private Urgency urgency;
+        
+        private Date fromEffectiveStartDate;
+        
+        private Date toEffectiveStartDate;
+        
+        private String accessionNumber;
+        
+        private PerformedProcedureStepStatus performedStatus;
+        
+        private RadiologyReportStatus reportStatus;
+        
+        private Provider principalResultsInterpreter;
+        
+        private Integer offset;
+        
+        private Integer limit;
+        
+        /**
+         * @param patient the order patient
+         * @return this builder instance
+         */
+        public Builder withPatient(Patient patient) {
+            
+            this.patient = patient;
+            return this;
+        }
+        
+        /**
+         * Includes worklist items of voided radiology orders.
+         *
+         * @return this builder instance
+         */
+        public Builder includeVoided() {
+            
+            this.includeVoided = true;
+            return this;
+        }
+        
+        /**
+         * @param urgency the order urgency
+         * @return this builder instance
+         */
+        public Builder withUrgency(Urgency urgency) {
+            
+            this.urgency = urgency;
+            return this;
+        }
+        
+        /**
+         * @param fromEffectiveStartDate the minimum effective start date
+         * @return this builder instance
+         */
+        public Builder fromEffectiveStartDate(Date fromEffectiveStartDate) {
+            
+            this.fromEffectiveStartDate = fromEffectiveStartDate;
+            return this;
+        }
+        
+        /**
+         * @param toEffectiveStartDate the maximum effective start date
+         * @return this builder instance
+         */
+        public Builder toEffectiveStartDate(Date toEffectiveStartDate) {
+            
+            this.toEffectiveStartDate = toEffectiveStartDate;
+            return this;
+        }
+        
+        /**
+         * @param accessionNumber the order accession number
+         * @return this builder instance
+         */
+        public Builder withAccessionNumber(String accessionNumber) {
+            
+            this.accessionNumber = accessionNumber;
+            return this;
+        }
+        
+        /**
+         * @param performedStatus the performed status of the study
+         * @return this builder instance
+         */
+        public Builder withPerformedStatus(PerformedProcedureStepStatus performedStatus) {
+            
+            this.performedStatus = performedStatus;
+            return this;
+        }
+        
+        /**
+         * @param reportStatus the status of the active report
+         * @return this builder instance
+         */
+        public Builder withReportStatus(RadiologyReportStatus reportStatus) {
+            
+            this.reportStatus = reportStatus;
+            return this;
+        }
+        
+        /**
+         * @param principalResultsInterpreter the principal results interpreter of the active report
+         * @return this builder instance
+         */
+        public Builder withPrincipalResultsInterpreter(Provider principalResultsInterpreter) {
+            
+            this.principalResultsInterpreter = principalResultsInterpreter;
+            return this;
+        }
+        
+        /**
+         * @param offset the index of the first worklist item to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if offset is negative
+         * @should throw illegal argument exception if offset is negative
+         */
+        public Builder withOffset(Integer offset) {
+            
+            if (offset != null && offset < 0) {
+                throw new IllegalArgumentException("offset cannot be negative");
+            }
+            this.offset = offset;
+            return this;
+        }
+        
+        /**
+         * @param limit the maximum number of worklist items to return
+         * @return this builder instance
+         * @throws IllegalArgumentException if limit is not positive
+         * @should throw illegal argument exception if limit is not positive
+         */
+        public Builder withLimit(Integer limit) {
+            
+            if (limit != null && limit < 1) {
+                throw new IllegalArgumentException("limit must be greater than zero");
+            }
+            this.limit = limit;
+            return this;
+        }
+        
+        /**
+         * Create an {@link RadiologyWorklistSearchCriteria} with the properties of this builder instance.
+         *
+         * @return a new search criteria instance
+         * @should create a new radiology worklist search criteria instance with all properties set on the builder
+         */
+        public RadiologyWorklistSearchCriteria build() {
+            
+            return new RadiologyWorklistSearchCriteria(this);
+        }
+    }
+    
+    private RadiologyWorklistSearchCriteria(Builder builder) {
+        
+        this.patient = builder.patient;
+        this.includeVoided = builder.includeVoided;
+        this.urgency = builder.urgency;
+        this.fromEffectiveStartDate = builder.fromEffectiveStartDate;
+        this.toEffectiveStartDate = builder.toEffectiveStartDate;
+        this.accessionNumber = builder.accessionNumber;
+        this.performedStatus = builder.performedStatus;
+        this.reportStatus = builder.reportStatus;
+        this.principalResultsInterpreter = builder.principalResultsInterpreter;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+    }
+}
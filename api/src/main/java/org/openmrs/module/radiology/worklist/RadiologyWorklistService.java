@@ -0,0 +1,111 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import java.util.List;
+
+import org.openmrs.annotation.Authorized;
+import org.openmrs.api.OpenmrsService;
+import org.openmrs.module.radiology.RadiologyPrivileges;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+
+/**
+ * Service layer for the radiology worklist, a denormalized read model with one {@code RadiologyWorklistItem} per
+ * {@code RadiologyOrder} answering dashboard queries from a single table.
+ *
+ * @see RadiologyWorklistItem
+ */
+public interface RadiologyWorklistService extends OpenmrsService {
+    
+    
+    /**
+     * Creates or updates the {@code RadiologyWorklistItem} of given {@code RadiologyOrder} from the current state of
+     * the radiology order, its study and its active report.
+     * <p>
+     * This is called by the radiology order and report services within their transaction whenever they write one of
+     * these objects.
+     * </p>
+     *
+     * @param radiologyOrder the radiology order which worklist item should be updated
+     * @return the updated radiology worklist item
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given radiology order with orderId null
+     * @should create radiology worklist item for given radiology order
+     * @should update existing radiology worklist item of given radiology order
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given radiology order with orderId null
+     */
+    @Authorized({ RadiologyPrivileges.ADD_RADIOLOGY_ORDERS, RadiologyPrivileges.ADD_RADIOLOGY_REPORTS,
+            RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS, RadiologyPrivileges.DELETE_RADIOLOGY_REPORTS })
+    public RadiologyWorklistItem updateRadiologyWorklistItem(RadiologyOrder radiologyOrder);
+    
+    /**
+     * Creates or updates the {@code RadiologyWorklistItem's} of given {@code RadiologyOrder's} like
+     * {@link #updateRadiologyWorklistItem(RadiologyOrder)}, loading the existing worklist items and active reports of
+     * all radiology orders with one query each.
+     *
+     * @param radiologyOrders the radiology orders which worklist items should be updated
+     * @return the updated radiology worklist items in the order of given radiology orders
+     * @throws IllegalArgumentException if given null
+     * @throws IllegalArgumentException if given radiology orders contain null or a radiology order with orderId null
+     * @should create and update radiology worklist items for given radiology orders
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given radiology order with orderId null
+     */
+    @Authorized({ RadiologyPrivileges.ADD_RADIOLOGY_ORDERS, RadiologyPrivileges.ADD_RADIOLOGY_REPORTS,
+            RadiologyPrivileges.EDIT_RADIOLOGY_REPORTS, RadiologyPrivileges.DELETE_RADIOLOGY_REPORTS })
+    public List<RadiologyWorklistItem> updateRadiologyWorklistItems(List<RadiologyOrder> radiologyOrders);
+    
+    /**
+     * Get the {@code RadiologyWorklistItem} of the {@code RadiologyOrder} with given order id.
+     *
+     * @param orderId the order id of the radiology order
+     * @return the radiology worklist item of the radiology order with given order id or null if there is none
+     * @throws IllegalArgumentException if given null
+     * @should return radiology worklist item matching given order id
+     * @should return null if no match was found
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public RadiologyWorklistItem getRadiologyWorklistItem(Integer orderId);
+    
+    /**
+     * Get all {@code RadiologyWorklistItem's} matching a variety of (nullable) criteria ordered by effective start date.
+     * Each extra value for a parameter that is provided acts as an "and" and will reduce the number of results returned.
+     *
+     * @param radiologyWorklistSearchCriteria the object containing search parameters
+     * @return the radiology worklist items matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return all radiology worklist items for given patient
+     * @should return all radiology worklist items (including voided) if include voided is set
+     * @should return all radiology worklist items with effective start date in given date range
+     * @should return all radiology worklist items with given performed status
+     * @should return all radiology worklist items with given report status
+     * @should return all radiology worklist items for given principal results interpreter
+     * @should return a page of radiology worklist items if offset and limit are specified
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public List<RadiologyWorklistItem>
+            getRadiologyWorklistItems(RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria);
+    
+    /**
+     * Get the number of {@code RadiologyWorklistItem's} matching a variety of (nullable) criteria.
+     * Offset and limit of the search criteria are ignored.
+     *
+     * @param radiologyWorklistSearchCriteria the object containing search parameters
+     * @return the number of radiology worklist items matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of radiology worklist items matching given criteria ignoring offset and limit
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public Long getRadiologyWorklistItemCount(RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria);
+}
@@ -0,0 +1,136 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openmrs.api.impl.BaseOpenmrsService;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+class RadiologyWorklistServiceImpl extends BaseOpenmrsService implements RadiologyWorklistService {
+    
+    
+    private RadiologyWorklistDAO radiologyWorklistDAO;
+    
+    public void setRadiologyWorklistDAO(RadiologyWorklistDAO radiologyWorklistDAO) {
+        this.radiologyWorklistDAO = radiologyWorklistDAO;
+    }
+    
+    /**
+     * @see RadiologyWorklistService#updateRadiologyWorklistItem(RadiologyOrder)
+     */
+    @Override
+    @Transactional
+    public RadiologyWorklistItem updateRadiologyWorklistItem(RadiologyOrder radiologyOrder) {
+        
+        if (radiologyOrder == null) {
+            throw new IllegalArgumentException("radiologyOrder cannot be null");
+        }
+        if (radiologyOrder.getOrderId() == null) {
+            throw new IllegalArgumentException("radiologyOrder.orderId cannot be null");
+        }
+        
+        RadiologyWorklistItem radiologyWorklistItem =
+                radiologyWorklistDAO.getRadiologyWorklistItem(radiologyOrder.getOrderId());
+        if (radiologyWorklistItem == null) {
+            radiologyWorklistItem = new RadiologyWorklistItem(radiologyOrder.getOrderId());
+        }
+        radiologyWorklistItem.update(radiologyOrder, radiologyWorklistDAO.getActiveRadiologyReport(radiologyOrder));
+        return radiologyWorklistDAO.saveRadiologyWorklistItem(radiologyWorklistItem);
+    }
+    
+    /**
+     * @see RadiologyWorklistService#updateRadiologyWorklistItems(List)
+     */
+    @Override
+    @Transactional
+    public List<RadiologyWorklistItem> updateRadiologyWorklistItems(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders == null) {
+            throw new IllegalArgumentException("radiologyOrders cannot be null");
+        }
+        final Set<Integer> orderIds = new HashSet<Integer>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            if (radiologyOrder == null) {
+                throw new IllegalArgumentException("radiologyOrder cannot be null");
+            }
+            if (radiologyOrder.getOrderId() == null) {
+                throw new IllegalArgumentException("radiologyOrder.orderId cannot be null");
+            }
+            orderIds.add(radiologyOrder.getOrderId());
+        }
+        final List<RadiologyWorklistItem> result = new ArrayList<RadiologyWorklistItem>(radiologyOrders.size());
+        if (orderIds.isEmpty()) {
+            return result;
+        }
+        
+        final Map<Integer, RadiologyWorklistItem> existingRadiologyWorklistItems =
+                radiologyWorklistDAO.getRadiologyWorklistItems(orderIds);
+        final Map<Integer, RadiologyReport> activeRadiologyReports =
+                radiologyWorklistDAO.getActiveRadiologyReports(orderIds);
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            RadiologyWorklistItem radiologyWorklistItem = existingRadiologyWorklistItems.get(radiologyOrder.getOrderId());
+            if (radiologyWorklistItem == null) {
+                radiologyWorklistItem = new RadiologyWorklistItem(radiologyOrder.getOrderId());
+                radiologyWorklistItem.update(radiologyOrder, activeRadiologyReports.get(radiologyOrder.getOrderId()));
+                radiologyWorklistDAO.saveNewRadiologyWorklistItem(radiologyWorklistItem);
+                existingRadiologyWorklistItems.put(radiologyOrder.getOrderId(), radiologyWorklistItem);
+            } else {
+                radiologyWorklistItem.update(radiologyOrder, activeRadiologyReports.get(radiologyOrder.getOrderId()));
+            }
+            result.add(radiologyWorklistItem);
+        }
+        return result;
+    }
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItem(Integer)
+     */
+    @Override
+    public RadiologyWorklistItem getRadiologyWorklistItem(Integer orderId) {
+        
+        if (orderId == null) {
+            throw new IllegalArgumentException("orderId cannot be null");
+        }
+        return radiologyWorklistDAO.getRadiologyWorklistItem(orderId);
+    }
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItems(RadiologyWorklistSearchCriteria)
+     */
+    @Override
+    public List<RadiologyWorklistItem>
+            getRadiologyWorklistItems(RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria) {
+        
+        if (radiologyWorklistSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyWorklistSearchCriteria cannot be null");
+        }
+        return radiologyWorklistDAO.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyWorklistService#getRadiologyWorklistItemCount(RadiologyWorklistSearchCriteria)
+     */
+    @Override
+    public Long getRadiologyWorklistItemCount(RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria) {
+        
+        if (radiologyWorklistSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyWorklistSearchCriteria cannot be null");
+        }
+        return radiologyWorklistDAO.getRadiologyWorklistItemCount(radiologyWorklistSearchCriteria);
+    }
+}
@@ -17,6 +17,7 @@ import static org.junit.Assert.assertThat;
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.sql.Statement;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -36,6 +37,9 @@ import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.dicom.DicomUidGeneratorStrategy;
+import org.openmrs.module.radiology.order.AccessionNumberGeneratorStrategy;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.openmrs.util.OpenmrsUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -82,6 +86,300 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
         getGlobalPropertyMethod.setAccessible(true);
     }
     
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldReturnAccessionNumberBlockSize() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, "100"));
+        
+        assertThat(radiologyProperties.getAccessionNumberBlockSize(), is(100));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldReturnDefaultAccessionNumberBlockSizeIfGlobalPropertyIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getAccessionNumberBlockSize(),
+            is(RadiologyProperties.DEFAULT_ACCESSION_NUMBER_BLOCK_SIZE));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForAccessionNumberBlockSizeIsNotAPositiveInteger() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, "0"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(
+            "Property " + RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE + " must be a positive integer");
+        
+        radiologyProperties.getAccessionNumberBlockSize();
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberGeneratorStrategy()
+     */
+    @Test
+    public void shouldReturnAccessionNumberGeneratorStrategy() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, "TIME_BASED"));
+        
+        assertThat(radiologyProperties.getAccessionNumberGeneratorStrategy(),
+            is(AccessionNumberGeneratorStrategy.TIME_BASED));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberGeneratorStrategy()
+     */
+    @Test
+    public void shouldReturnGlobalPropertyStrategyIfGlobalPropertyIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getAccessionNumberGeneratorStrategy(),
+            is(AccessionNumberGeneratorStrategy.GLOBAL_PROPERTY));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberGeneratorStrategy()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForAccessionNumberGeneratorIsNotTheNameOfAnAccessionNumberGeneratorStrategy()
+            throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, "UUID"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Property " + RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR + " must be one of");
+        
+        radiologyProperties.getAccessionNumberGeneratorStrategy();
+    }
+    
+    /**
+     * @see RadiologyProperties#getDicomUidGeneratorStrategy()
+     */
+    @Test
+    public void shouldReturnDicomUidGeneratorStrategy() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_DICOM_UID_GENERATOR, "TIME_BASED"));
+        
+        assertThat(radiologyProperties.getDicomUidGeneratorStrategy(), is(DicomUidGeneratorStrategy.TIME_BASED));
+    }
+    
+    /**
+     * @see RadiologyProperties#getDicomUidGeneratorStrategy()
+     */
+    @Test
+    public void shouldReturnUuidStrategyIfGlobalPropertyIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getDicomUidGeneratorStrategy(), is(DicomUidGeneratorStrategy.UUID));
+    }
+    
+    /**
+     * @see RadiologyProperties#getDicomUidGeneratorStrategy()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForDicomUidGeneratorIsNotTheNameOfADicomUidGeneratorStrategy() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_DICOM_UID_GENERATOR, "SEQUENCE"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Property " + RadiologyConstants.GP_DICOM_UID_GENERATOR + " must be one of");
+        
+        radiologyProperties.getDicomUidGeneratorStrategy();
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberNodeId()
+     */
+    @Test
+    public void shouldReturnAccessionNumberNodeId() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID, "7"));
+        
+        assertThat(radiologyProperties.getAccessionNumberNodeId(), is(7));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberNodeId()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForAccessionNumberNodeIdCannotBeFound() throws Exception {
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Configuration required: " + RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID);
+        
+        radiologyProperties.getAccessionNumberNodeId();
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberNodeId()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForAccessionNumberNodeIdIsNotAnIntegerBetween0And1023() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID, "1024"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(
+            "Property " + RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID + " must be an integer between 0 and 1023");
+        
+        radiologyProperties.getAccessionNumberNodeId();
+    }
+    
+    /**
+     * @see RadiologyProperties#isLockRadiologyOrdersPerPatient()
+     */
+    @Test
+    public void shouldReturnTrueIfGlobalPropertyForLockRadiologyOrdersPerPatientIsTrue() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_LOCK_RADIOLOGY_ORDERS_PER_PATIENT, "true"));
+        
+        assertThat(radiologyProperties.isLockRadiologyOrdersPerPatient(), is(true));
+    }
+    
+    /**
+     * @see RadiologyProperties#isLockRadiologyOrdersPerPatient()
+     */
+    @Test
+    public void shouldReturnFalseIfGlobalPropertyForLockRadiologyOrdersPerPatientIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.isLockRadiologyOrdersPerPatient(), is(false));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxRadiologyOrderBatchSize()
+     */
+    @Test
+    public void shouldReturnMaximumRadiologyOrderBatchSize() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MAX_RADIOLOGY_ORDER_BATCH_SIZE, "500"));
+        
+        assertThat(radiologyProperties.getMaxRadiologyOrderBatchSize(), is(500));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxRadiologyOrderBatchSize()
+     */
+    @Test
+    public void shouldReturnDefaultMaximumRadiologyOrderBatchSizeIfGlobalPropertyIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMaxRadiologyOrderBatchSize(),
+            is(RadiologyProperties.DEFAULT_MAX_RADIOLOGY_ORDER_BATCH_SIZE));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxRadiologyOrderBatchSize()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForMaximumRadiologyOrderBatchSizeIsNotAPositiveInteger() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MAX_RADIOLOGY_ORDER_BATCH_SIZE, "0"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(
+            "Property " + RadiologyConstants.GP_MAX_RADIOLOGY_ORDER_BATCH_SIZE + " must be a positive integer");
+        
+        radiologyProperties.getMaxRadiologyOrderBatchSize();
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxMrrtReportTemplateArchiveEntries()
+     */
+    @Test
+    public void shouldReturnMaximumNumberOfReportTemplateArchiveEntries() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES, "50"));
+        
+        assertThat(radiologyProperties.getMaxMrrtReportTemplateArchiveEntries(), is(50));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxMrrtReportTemplateArchiveEntries()
+     */
+    @Test
+    public void shouldReturnDefaultMaximumNumberOfReportTemplateArchiveEntriesIfGlobalPropertyIsNotConfigured()
+            throws Exception {
+        
+        assertThat(radiologyProperties.getMaxMrrtReportTemplateArchiveEntries(),
+            is(RadiologyProperties.DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxMrrtReportTemplateSize()
+     */
+    @Test
+    public void shouldReturnMaximumReportTemplateSize() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_SIZE, "1024"));
+        
+        assertThat(radiologyProperties.getMaxMrrtReportTemplateSize(), is(1024L));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxMrrtReportTemplateSize()
+     */
+    @Test
+    public void shouldReturnDefaultMaximumReportTemplateSizeIfGlobalPropertyIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMaxMrrtReportTemplateSize(),
+            is(RadiologyProperties.DEFAULT_MAX_MRRT_REPORT_TEMPLATE_SIZE));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxMrrtReportTemplateArchiveSize()
+     */
+    @Test
+    public void shouldReturnMaximumReportTemplateArchiveSize() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE, "10737418240"));
+        
+        assertThat(radiologyProperties.getMaxMrrtReportTemplateArchiveSize(), is(10737418240L));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxMrrtReportTemplateArchiveSize()
+     */
+    @Test
+    public void shouldReturnDefaultMaximumReportTemplateArchiveSizeIfGlobalPropertyIsNotConfigured() throws Exception {
+        
+        assertThat(radiologyProperties.getMaxMrrtReportTemplateArchiveSize(),
+            is(RadiologyProperties.DEFAULT_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxMrrtReportTemplateArchiveSize()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForMaximumReportTemplateArchiveSizeIsNotAPositiveInteger() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE, "-1"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(
+            "Property " + RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE + " must be a positive integer");
+        
+        radiologyProperties.getMaxMrrtReportTemplateArchiveSize();
+    }
+    
     /**
      * @see RadiologyProperties#getDicomUIDOrgRoot()
      */
@@ -580,6 +878,57 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
         getGlobalPropertyMethod.invoke(radiologyProperties, new Object[] { RadiologyConstants.GP_DICOM_UID_ORG_ROOT, true });
     }
     
+    /**
+     * @see RadiologyProperties#clearConfigurationCache()
+     */
+    @Test
+    public void shouldReadChangedGlobalPropertiesAgain() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.3"));
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.3"));
+        Context.flushSession();
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate("update global_property set property_value = '1.2.4' where property = '"
+                    + RadiologyConstants.GP_DICOM_UID_ORG_ROOT + "'");
+        }
+        Context.clearSession();
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.3"));
+        
+        radiologyProperties.clearConfigurationCache();
+        
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.4"));
+    }
+    
+    /**
+     * @see RadiologyProperties#globalPropertyChanged(GlobalProperty)
+     */
+    @Test
+    public void shouldDiscardTheConfigurationIfARadiologyGlobalPropertyIsSaved() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.3"));
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.3"));
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, "1.2.4"));
+        
+        assertThat(radiologyProperties.getDicomUIDOrgRoot(), is("1.2.4"));
+    }
+    
+    /**
+     * @see RadiologyProperties#globalPropertyDeleted(String)
+     */
+    @Test
+    public void shouldDiscardTheConfigurationIfARadiologyGlobalPropertyIsPurged() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_DICOM_WEB_VIEWER_LOCAL_SERVER_NAME, "oviyamlocal"));
+        assertThat(radiologyProperties.getDicomWebViewerLocalServerName(), is("oviyamlocal"));
+        
+        administrationService.purgeGlobalProperty(
+            administrationService.getGlobalPropertyObject(RadiologyConstants.GP_DICOM_WEB_VIEWER_LOCAL_SERVER_NAME));
+        
+        assertThat(radiologyProperties.getDicomWebViewerLocalServerName(), is(nullValue()));
+    }
+    
     /**
      * @see RadiologyProperties#getReportTemplateHome()
      */
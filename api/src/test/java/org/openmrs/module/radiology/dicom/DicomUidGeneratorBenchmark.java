@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks the {@link DicomUidGeneratorStrategy}'s with 32 threads sharing one generator the way the radiology
+ * study service does.
+ * <p>
+ * The {@link UuidDicomUidGenerator} contends on the {@link java.security.SecureRandom} behind
+ * {@link java.util.UUID#randomUUID()}, while the {@link TimeBasedDicomUidGenerator} only touches per thread state. Run
+ * {@link #main(String[])} with the test classpath of the api module.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class DicomUidGeneratorBenchmark {
+    
+    
+    private static final String ROOT = "1.2.5.6.7.1220";
+    
+    private final DicomUidGenerator uuidDicomUidGenerator = new UuidDicomUidGenerator();
+    
+    private final DicomUidGenerator timeBasedDicomUidGenerator = new TimeBasedDicomUidGenerator(1);
+    
+    @Benchmark
+    public String uuid() {
+        return uuidDicomUidGenerator.getNewDicomUid(ROOT);
+    }
+    
+    @Benchmark
+    public String timeBased() {
+        return timeBasedDicomUidGenerator.getNewDicomUid(ROOT);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        
+        new Runner(new OptionsBuilder().include(DicomUidGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks {@link DicomUidValidator#isValid(String)} against the regular expression it replaced.
+ * <p>
+ * Every invocation validates the same mix of valid study instance UIDs and typical invalid ones. Run
+ * {@link #main(String[])} with the test classpath of the api module.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class DicomUidValidatorBenchmark {
+    
+    
+    private static final Pattern REGEX_VALIDATION_PATTERN = Pattern.compile("^[012]((\\.0)|(\\.[1-9]\\d*))+$");
+    
+    private final List<String> uids = Arrays.asList("1.2.826.0.1.3680043.8.2186.1.1476700000000",
+        "2.25.269814478620541716264069155416637516097", "1.2.840.10008.5.1.4.1.1.2", "1.2.840.10008.1.2.1.99",
+        "1.2.826.0.1.3680043.8.2186.04", "1.2.826.0.1.3680043.8.2186.", "1.2.A.1", StringUtils.repeat("1.2", 22));
+    
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        
+        for (String uid : uids) {
+            blackhole.consume(isValidByRegex(uid));
+        }
+    }
+    
+    /**
+     * The former {@link DicomUidValidator#isValid(String)}, checking for blank uids in both the length and the pattern
+     * check.
+     */
+    private static boolean isValidByRegex(String uid) {
+        
+        final boolean lengthValid = !StringUtils.isBlank(uid) && uid.length() <= 64;
+        return lengthValid && !StringUtils.isBlank(uid) && REGEX_VALIDATION_PATTERN.matcher(uid)
+                .matches();
+    }
+    
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        
+        for (String uid : uids) {
+            blackhole.consume(DicomUidValidator.isValid(uid));
+        }
+    }
+    
+    @Benchmark
+    public List<String> validateAll() {
+        return DicomUidValidator.validateAll(uids);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        
+        new Runner(new OptionsBuilder().include(DicomUidValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
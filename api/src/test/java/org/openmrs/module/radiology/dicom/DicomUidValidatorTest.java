@@ -9,6 +9,8 @@
  */
 package org.openmrs.module.radiology.dicom;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -17,10 +19,13 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 /**
  * Tests {@see DicomUidValidator}.
@@ -28,6 +33,9 @@ import org.junit.Test;
 public class DicomUidValidatorTest {
     
     
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
     /**
      * @see DicomUidValidator#isValid(String)
      */
@@ -257,4 +265,56 @@ public class DicomUidValidatorTest {
             assertTrue(DicomUidValidator.isValid(uid));
         }
     }
+    
+    /**
+     * @see DicomUidValidator#isPatternValid(String)
+     */
+    @Test
+    public void isPatternValid_shouldReturnFalseForUidWithOnlyOneComponent() throws Exception {
+        
+        assertFalse(DicomUidValidator.isPatternValid("1"));
+        assertFalse(DicomUidValidator.isPatternValid("12"));
+        assertFalse(DicomUidValidator.isPatternValid("1."));
+    }
+    
+    /**
+     * @see DicomUidValidator#validateAll(java.util.Collection)
+     */
+    @Test
+    public void validateAll_shouldReturnAnEmptyListIfAllGivenUidsAreValid() throws Exception {
+        
+        assertThat(DicomUidValidator.validateAll(Arrays.asList("1.2.840.10008.1.2", "0.0", "2.25.1")), is(empty()));
+    }
+    
+    /**
+     * @see DicomUidValidator#validateAll(java.util.Collection)
+     */
+    @Test
+    public void validateAll_shouldReturnTheInvalidUidsInTheIterationOrderOfGivenUids() throws Exception {
+        
+        String tooLong = StringUtils.repeat("1.2", 22);
+        
+        assertThat(DicomUidValidator.validateAll(Arrays.asList("1.2.04", "1.2.840", tooLong, "1.2.", "3.1", "1.2.3")),
+            contains("1.2.04", tooLong, "1.2.", "3.1"));
+    }
+    
+    /**
+     * @see DicomUidValidator#validateAll(java.util.Collection)
+     */
+    @Test
+    public void validateAll_shouldReturnNullEntriesAsInvalid() throws Exception {
+        
+        assertThat(DicomUidValidator.validateAll(Arrays.asList("1.2", null, "  ")), contains(null, "  "));
+    }
+    
+    /**
+     * @see DicomUidValidator#validateAll(java.util.Collection)
+     */
+    @Test
+    public void validateAll_shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("uids cannot be null");
+        DicomUidValidator.validateAll(null);
+    }
 }
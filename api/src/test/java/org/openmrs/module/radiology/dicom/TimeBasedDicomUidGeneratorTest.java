@@ -0,0 +1,239 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link TimeBasedDicomUidGenerator}.
+ */
+public class TimeBasedDicomUidGeneratorTest {
+    
+    
+    private static final long NOW = 1476700000000L;
+    
+    private static final String ROOT = "1.2.5.6.7.1220";
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    TimeBasedDicomUidGenerator dicomUidGenerator = new TimeBasedDicomUidGenerator(1);
+    
+    /**
+     * @see TimeBasedDicomUidGenerator#TimeBasedDicomUidGenerator(int, java.util.function.LongSupplier)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfNodeIdIsNotBetweenZeroAndMaxNodeId() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("nodeId must be between 0 and " + TimeBasedDicomUidGenerator.MAX_NODE_ID);
+        new TimeBasedDicomUidGenerator(TimeBasedDicomUidGenerator.MAX_NODE_ID + 1, () -> NOW);
+    }
+    
+    @Test
+    public void shouldReturnMaximumAllowedRootLength() throws Exception {
+        
+        assertThat(dicomUidGenerator.getMaxRootLength(), is(24));
+    }
+    
+    @Test
+    public void shouldReturnAValidUidPrefixedWithRoot() throws Exception {
+        
+        String uid = dicomUidGenerator.getNewDicomUid(ROOT);
+        
+        assertThat(uid, startsWith(ROOT + ".1."));
+        assertTrue(DicomUidValidator.isValid(uid));
+    }
+    
+    @Test
+    public void shouldAlwaysReturnUniqueUidsWhenCalledMultipleTimes() throws Exception {
+        
+        int N = 1000;
+        final Set<String> uniqueStudyInstanceUids = new HashSet<String>(N);
+        for (int i = 0; i < N; i++) {
+            uniqueStudyInstanceUids.add(dicomUidGenerator.getNewDicomUid(ROOT));
+        }
+        
+        assertThat(uniqueStudyInstanceUids.size(), is(N));
+    }
+    
+    @Test
+    public void shouldReturnAUidNotExceeding64Characters() throws Exception {
+        
+        String root = "1.2.3.4.5.6.7.8.9.10.111";
+        assertThat(root.length(), is(dicomUidGenerator.getMaxRootLength()));
+        TimeBasedDicomUidGenerator generator = new TimeBasedDicomUidGenerator(TimeBasedDicomUidGenerator.MAX_NODE_ID,
+                () -> TimeBasedDicomUidGenerator.EPOCH + (1L << 41) - 1);
+        
+        String uid = generator.getNewDicomUid(root);
+        
+        assertThat(uid.length(), is(not(greaterThan(64))));
+    }
+    
+    @Test
+    public void shouldReturnAUidComposedOnlyOfCharacters09SeparatedByADot() throws Exception {
+        
+        String uid = new TimeBasedDicomUidGenerator(0, () -> TimeBasedDicomUidGenerator.EPOCH).getNewDicomUid(ROOT);
+        
+        assertTrue(DicomUidValidator.isPatternValid(uid));
+    }
+    
+    @Test
+    public void shouldReturnAUidWithNoNonsignificantLeadingZeros() throws Exception {
+        
+        String uid = new TimeBasedDicomUidGenerator(0, () -> TimeBasedDicomUidGenerator.EPOCH).getNewDicomUid(ROOT);
+        
+        assertThat(uid, is(ROOT + ".0.0.1"));
+        assertTrue(DicomUidValidator.isPatternValid(uid));
+    }
+    
+    @Test
+    public void shouldFailIfRootIsNull() throws Exception {
+        
+        expectedException.expect(NullPointerException.class);
+        expectedException.expectMessage("root is required");
+        dicomUidGenerator.getNewDicomUid(null);
+    }
+    
+    @Test
+    public void shouldFailIfRootIsEmpty() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("root is an invalid DICOM UID");
+        dicomUidGenerator.getNewDicomUid("  ");
+    }
+    
+    @Test
+    public void shouldFailIfRootIsNotAValidUID() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("root is an invalid DICOM UID");
+        dicomUidGenerator.getNewDicomUid("1.2.A.1");
+    }
+    
+    @Test
+    public void shouldFailIfRootExceedsTheMaximumLength() throws Exception {
+        
+        String root = StringUtils.repeat("1.2", 10);
+        
+        assertThat(root.length(), is(greaterThan(dicomUidGenerator.getMaxRootLength())));
+        assertTrue(DicomUidValidator.isPatternValid(root));
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("root length is > " + dicomUidGenerator.getMaxRootLength());
+        dicomUidGenerator.getNewDicomUid(root);
+    }
+    
+    /**
+     * @see TimeBasedDicomUidGenerator#getNewDicomUid(String)
+     */
+    @Test
+    public void shouldNeverReturnTheSameUidTwiceWhenCalledConcurrently() throws Exception {
+        
+        int threads = 32;
+        int uidsPerThread = 10000;
+        TimeBasedDicomUidGenerator generator = new TimeBasedDicomUidGenerator(1, () -> NOW);
+        
+        Set<String> uids = ConcurrentHashMap.newKeySet();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    
+                    
+                    @Override
+                    public Void call() throws Exception {
+                        startSignal.await();
+                        for (int j = 0; j < uidsPerThread; j++) {
+                            uids.add(generator.getNewDicomUid(ROOT));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            startSignal.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(uids.size(), is(threads * uidsPerThread));
+    }
+    
+    /**
+     * @see TimeBasedDicomUidGenerator#getNewDicomUid(String)
+     */
+    @Test
+    public void shouldReturnUniqueUidsIfMoreThanCounterAllowsAreRequestedWithinAMillisecond() throws Exception {
+        
+        TimeBasedDicomUidGenerator generator = new TimeBasedDicomUidGenerator(1, () -> NOW);
+        
+        Set<String> uids = new HashSet<String>();
+        for (int i = 0; i < 10000; i++) {
+            uids.add(generator.getNewDicomUid(ROOT));
+        }
+        assertThat(uids.size(), is(10000));
+    }
+    
+    /**
+     * @see TimeBasedDicomUidGenerator#getNewDicomUid(String)
+     */
+    @Test
+    public void shouldReturnUniqueUidsIfTheClockMovesBackwards() throws Exception {
+        
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeBasedDicomUidGenerator generator = new TimeBasedDicomUidGenerator(1, clock::get);
+        
+        String first = generator.getNewDicomUid(ROOT);
+        clock.set(NOW - 1000);
+        String second = generator.getNewDicomUid(ROOT);
+        
+        assertThat(second, is(not(first)));
+    }
+    
+    /**
+     * @see TimeBasedDicomUidGenerator#getNewDicomUid(String)
+     */
+    @Test
+    public void shouldReturnDifferentUidsForDifferentNodeIdsAtTheSameTime() throws Exception {
+        
+        TimeBasedDicomUidGenerator node1 = new TimeBasedDicomUidGenerator(1, () -> NOW);
+        TimeBasedDicomUidGenerator node2 = new TimeBasedDicomUidGenerator(2, () -> NOW);
+        
+        assertThat(node1.getNewDicomUid(ROOT), is(not(node2.getNewDicomUid(ROOT))));
+    }
+}
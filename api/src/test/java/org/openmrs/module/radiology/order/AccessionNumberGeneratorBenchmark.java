@@ -0,0 +1,182 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks the {@link AccessionNumberGeneratorStrategy}'s with 32 threads generating accession numbers.
+ * <p>
+ * The database backed strategies issue the same statements as {@link HibernateRadiologyOrderDAO} against an in-memory
+ * H2 database, so their numbers are a lower bound for a database reached over the network. Run {@link #main(String[])}
+ * with the test classpath of the api module.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AccessionNumberGeneratorBenchmark {
+    
+    
+    private static final String DATABASE_URL = "jdbc:h2:mem:accessionNumberBenchmark;MVCC=TRUE;DB_CLOSE_DELAY=-1";
+    
+    @State(Scope.Benchmark)
+    public static class GlobalPropertyStrategy {
+        
+        
+        @Param({ "1", "20", "100" })
+        int blockSize;
+        
+        Connection connection;
+        
+        AccessionNumberGenerator generator;
+        
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            
+            connection = DriverManager.getConnection(DATABASE_URL);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table if not exists global_property (property varchar(255) primary key, "
+                        + "property_value varchar(255))");
+                statement.execute("merge into global_property values ('radiology.nextAccessionNumberSeed', '1')");
+            }
+            connection.setAutoCommit(false);
+            generator = new GlobalPropertyAccessionNumberGenerator(() -> blockSize, this::reserveBlock);
+        }
+        
+        /**
+         * Reserves a block the way {@link HibernateRadiologyOrderDAO#getNextAccessionNumberSeedSequenceBlock(int)} does
+         * in its own transaction.
+         */
+        private long reserveBlock(int size) {
+            
+            try (PreparedStatement select = connection.prepareStatement(
+                "select property_value from global_property where property = 'radiology.nextAccessionNumberSeed' "
+                        + "for update");
+                    PreparedStatement update = connection.prepareStatement(
+                        "update global_property set property_value = ? "
+                                + "where property = 'radiology.nextAccessionNumberSeed'")) {
+                final long result;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    resultSet.next();
+                    result = Long.parseLong(resultSet.getString(1));
+                }
+                update.setString(1, String.valueOf(result + size));
+                update.executeUpdate();
+                connection.commit();
+                return result;
+            }
+            catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop table global_property");
+            }
+            connection.close();
+        }
+    }
+    
+    /**
+     * Every thread has its own connection since sequence values are taken concurrently.
+     */
+    @State(Scope.Thread)
+    public static class SequenceStrategy {
+        
+        
+        Connection connection;
+        
+        AccessionNumberGenerator generator;
+        
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            
+            connection = DriverManager.getConnection(DATABASE_URL);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE);
+            }
+            final PreparedStatement nextValue = connection
+                    .prepareStatement("call next value for " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE);
+            generator = new SequenceAccessionNumberGenerator(() -> {
+                try (ResultSet resultSet = nextValue.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                }
+                catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class TimeBasedStrategy {
+        
+        
+        AccessionNumberGenerator generator = new TimeBasedAccessionNumberGenerator(1);
+    }
+    
+    @Benchmark
+    public String globalProperty(GlobalPropertyStrategy strategy) {
+        return strategy.generator.getNewAccessionNumber();
+    }
+    
+    @Benchmark
+    public String sequence(SequenceStrategy strategy) {
+        return strategy.generator.getNewAccessionNumber();
+    }
+    
+    @Benchmark
+    public String timeBased(TimeBasedStrategy strategy) {
+        return strategy.generator.getNewAccessionNumber();
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        
+        new Runner(new OptionsBuilder().include(AccessionNumberGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntToLongFunction;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests {@link AccessionNumberSeedBlockAllocator}.
+ */
+public class AccessionNumberSeedBlockAllocatorTest {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(AccessionNumberSeedBlockAllocatorTest.class);
+    
+    private static final int THREADS = 32;
+    
+    private static final int SEEDS_PER_THREAD = 100;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * @see AccessionNumberSeedBlockAllocator#next()
+     */
+    @Test
+    public void shouldReturnConsecutiveSeedsOfAReservedBlock() throws Exception {
+        
+        FakeSequence sequence = new FakeSequence(15, 0);
+        AccessionNumberSeedBlockAllocator allocator = new AccessionNumberSeedBlockAllocator(() -> 5, sequence);
+        
+        for (long expected = 15; expected < 20; expected++) {
+            assertThat(allocator.next(), is(expected));
+        }
+        assertThat(sequence.getRoundTrips(), is(1));
+    }
+    
+    /**
+     * @see AccessionNumberSeedBlockAllocator#next()
+     */
+    @Test
+    public void shouldReserveANewBlockOnceTheCurrentBlockIsExhausted() throws Exception {
+        
+        FakeSequence sequence = new FakeSequence(1, 0);
+        AccessionNumberSeedBlockAllocator allocator = new AccessionNumberSeedBlockAllocator(() -> 2, sequence);
+        
+        allocator.next();
+        allocator.next();
+        assertThat(allocator.next(), is(3L));
+        assertThat(sequence.getRoundTrips(), is(2));
+    }
+    
+    /**
+     * @see AccessionNumberSeedBlockAllocator#next()
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfTheSuppliedBlockSizeIsSmallerThanOne() throws Exception {
+        
+        AccessionNumberSeedBlockAllocator allocator =
+                new AccessionNumberSeedBlockAllocator(() -> 0, new FakeSequence(1, 0));
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("blockSize must be greater than zero");
+        allocator.next();
+    }
+    
+    /**
+     * @see AccessionNumberSeedBlockAllocator#next()
+     */
+    @Test
+    public void shouldNeverReturnTheSameSeedTwiceWhenCalledConcurrently() throws Exception {
+        
+        int blockSize = 100;
+        FakeSequence sequence = new FakeSequence(1, 200);
+        AccessionNumberSeedBlockAllocator allocator = new AccessionNumberSeedBlockAllocator(() -> blockSize, sequence);
+        
+        Set<Long> seeds = allocateConcurrently(allocator);
+        
+        assertThat(seeds.size(), is(THREADS * SEEDS_PER_THREAD));
+        // every block is used up before the next one is reserved
+        assertThat(sequence.getRoundTrips(), is(THREADS * SEEDS_PER_THREAD / blockSize));
+    }
+    
+    /**
+     * Compares a block size of one, which is a database round-trip per seed as before hi/lo allocation, against
+     * reserving blocks of 100 with 32 threads competing for seeds and a simulated round-trip latency of 200 microseconds.
+     *
+     * @see AccessionNumberSeedBlockAllocator#next()
+     */
+    @Test
+    public void shouldReduceDatabaseRoundTripsByTheBlockSizeUnderContention() throws Exception {
+        
+        FakeSequence sequencePerSeed = new FakeSequence(1, 200);
+        long nanosPerSeed = time(new AccessionNumberSeedBlockAllocator(() -> 1, sequencePerSeed));
+        
+        FakeSequence sequencePerBlock = new FakeSequence(1, 200);
+        long nanosPerBlock = time(new AccessionNumberSeedBlockAllocator(() -> 100, sequencePerBlock));
+        
+        log.info("{} threads allocating {} seeds: block size 1 {} seeds/s, block size 100 {} seeds/s", THREADS,
+            THREADS * SEEDS_PER_THREAD, throughput(nanosPerSeed), throughput(nanosPerBlock));
+        
+        assertThat(sequencePerSeed.getRoundTrips(), is(THREADS * SEEDS_PER_THREAD));
+        assertThat(sequencePerBlock.getRoundTrips() * 100, lessThanOrEqualTo(THREADS * SEEDS_PER_THREAD));
+        assertThat(nanosPerBlock, lessThanOrEqualTo(nanosPerSeed));
+    }
+    
+    private long time(AccessionNumberSeedBlockAllocator allocator) throws Exception {
+        
+        long start = System.nanoTime();
+        allocateConcurrently(allocator);
+        return System.nanoTime() - start;
+    }
+    
+    private long throughput(long nanos) {
+        
+        return THREADS * SEEDS_PER_THREAD * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+    }
+    
+    private Set<Long> allocateConcurrently(AccessionNumberSeedBlockAllocator allocator) throws Exception {
+        
+        Set<Long> result = ConcurrentHashMap.newKeySet();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    
+                    
+                    @Override
+                    public Void call() throws Exception {
+                        startSignal.await();
+                        for (int j = 0; j < SEEDS_PER_THREAD; j++) {
+                            result.add(allocator.next());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            startSignal.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+    
+    /**
+     * Stands in for the global property row holding the next accession number seed, simulating the round-trip latency.
+     */
+    private static class FakeSequence implements IntToLongFunction {
+        
+        
+        private final long latencyMicros;
+        
+        private final AtomicInteger roundTrips = new AtomicInteger();
+        
+        private long nextSeed;
+        
+        FakeSequence(long firstSeed, long latencyMicros) {
+            this.nextSeed = firstSeed;
+            this.latencyMicros = latencyMicros;
+        }
+        
+        @Override
+        public synchronized long applyAsLong(int blockSize) {
+            
+            roundTrips.incrementAndGet();
+            if (latencyMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(latencyMicros));
+            }
+            long result = nextSeed;
+            nextSeed += blockSize;
+            return result;
+        }
+        
+        int getRoundTrips() {
+            return roundTrips.get();
+        }
+    }
+}
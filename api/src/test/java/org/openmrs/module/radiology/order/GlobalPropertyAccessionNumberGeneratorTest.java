@@ -0,0 +1,84 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link GlobalPropertyAccessionNumberGenerator}.
+ */
+public class GlobalPropertyAccessionNumberGeneratorTest {
+    
+    
+    private final List<Integer> reservedBlockSizes = new ArrayList<Integer>();
+    
+    private long nextSeed = 1;
+    
+    private final GlobalPropertyAccessionNumberGenerator generator =
+            new GlobalPropertyAccessionNumberGenerator(() -> 10, this::reserveBlock);
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    private long reserveBlock(int blockSize) {
+        
+        reservedBlockSizes.add(blockSize);
+        final long first = nextSeed;
+        nextSeed += blockSize;
+        return first;
+    }
+    
+    /**
+     * @see GlobalPropertyAccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Test
+    public void shouldReserveOneBlockOfGivenCountSeeds() throws Exception {
+        
+        assertThat(generator.getNewAccessionNumber(), is("1"));
+        
+        List<String> accessionNumbers = generator.getNewAccessionNumbers(3);
+        
+        assertThat(accessionNumbers, contains("11", "12", "13"));
+        assertThat(reservedBlockSizes, contains(10, 3));
+        assertThat(generator.getNewAccessionNumber(), is("2"));
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Test
+    public void shouldReturnEmptyListIfGivenCountIsZero() throws Exception {
+        
+        assertThat(generator.getNewAccessionNumbers(0)
+                .isEmpty(),
+            is(true));
+        assertThat(reservedBlockSizes.isEmpty(), is(true));
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenCountIsNegative() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("count cannot be negative");
+        generator.getNewAccessionNumbers(-1);
+    }
+}
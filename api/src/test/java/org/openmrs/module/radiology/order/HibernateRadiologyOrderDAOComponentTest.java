@@ -10,6 +10,8 @@
 package org.openmrs.module.radiology.order;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertThat;
 
 import org.hibernate.SessionFactory;
@@ -43,6 +45,9 @@ public class HibernateRadiologyOrderDAOComponentTest extends BaseModuleContextSe
     
     private HibernateRadiologyOrderDAO hibernateRadiologyOrderDAO;
     
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/RadiologyOrderServiceComponentTestDataset.xml";
+    
     private String globalPropertyMissing =
             "Missing global property named: " + RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED;
     
@@ -74,6 +79,99 @@ public class HibernateRadiologyOrderDAOComponentTest extends BaseModuleContextSe
         }
     }
     
+    @Test
+    public void shouldReturnTheNextAccessionNumberSeedAndIncrementTheGlobalPropertyValueByGivenBlockSize()
+            throws Exception {
+        
+        GlobalProperty nextAccessionNumberGlobalProperty =
+                new GlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED);
+        nextAccessionNumberGlobalProperty.setPropertyValue("1");
+        administrationService.saveGlobalProperty(nextAccessionNumberGlobalProperty);
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSeedSequenceBlock(20), is(1L));
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSeedSequenceBlock(20), is(21L));
+        assertThat(administrationService.getGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED), is("41"));
+    }
+    
+    @Test
+    public void shouldReturnTheNextAccessionNumberSeedWithoutIncrementingTheGlobalPropertyValue() throws Exception {
+        
+        GlobalProperty nextAccessionNumberGlobalProperty =
+                new GlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED);
+        nextAccessionNumberGlobalProperty.setPropertyValue("1");
+        administrationService.saveGlobalProperty(nextAccessionNumberGlobalProperty);
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSeed(), is(1L));
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSeed(), is(1L));
+        assertThat(administrationService.getGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED), is("1"));
+    }
+    
+    @Test
+    public void shouldReturnTheNextValueOfTheAccessionNumberSequence() throws Exception {
+        
+        // the sequence is created by liquibase which does not run for the in-memory test database
+        sessionFactory.getCurrentSession()
+                .createSQLQuery(
+                    "create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE)
+                .executeUpdate();
+        
+        Long value = hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue();
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue(), is(value + 1));
+    }
+    
+    @Test
+    public void shouldAdvanceTheAccessionNumberSequenceToGivenValue() throws Exception {
+        
+        createAccessionNumberSequence();
+        Long value = hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue();
+        
+        hibernateRadiologyOrderDAO.advanceAccessionNumberSequence(value + 100);
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue(), is(value + 100));
+    }
+    
+    @Test
+    public void shouldNotMoveTheAccessionNumberSequenceBack() throws Exception {
+        
+        createAccessionNumberSequence();
+        Long value = hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue();
+        
+        hibernateRadiologyOrderDAO.advanceAccessionNumberSequence(1);
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSequenceValue(), is(greaterThan(value)));
+    }
+    
+    @Test
+    public void shouldReturnTheHighestAccessionNumberWhichOnlyConsistsOfDigits() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        // a time based accession number is longer than the numeric ones
+        sessionFactory.getCurrentSession()
+                .createSQLQuery("update orders set accession_number = '0ICZ5PUH1001A' where order_id = 2001")
+                .executeUpdate();
+        
+        assertThat(hibernateRadiologyOrderDAO.getHighestNumericAccessionNumber(), is(14L));
+    }
+    
+    @Test
+    public void shouldReturnNullIfNoAccessionNumberOnlyConsistsOfDigits() throws Exception {
+        
+        assertThat(hibernateRadiologyOrderDAO.getHighestNumericAccessionNumber(), is(nullValue()));
+    }
+    
+    /**
+     * Creates the accession number sequence which is created by liquibase which does not run for the in-memory test
+     * database.
+     */
+    private void createAccessionNumberSequence() {
+        
+        sessionFactory.getCurrentSession()
+                .createSQLQuery(
+                    "create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE)
+                .executeUpdate();
+    }
+    
     @Test
     public void shouldFailIfGlobalPropertyRadiologyNextAccessionNumberSeedIsMissing() throws Exception {
         
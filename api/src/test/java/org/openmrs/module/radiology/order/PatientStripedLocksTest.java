@@ -0,0 +1,173 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.Patient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests {@link PatientStripedLocks}.
+ */
+public class PatientStripedLocksTest {
+    
+    
+    private PatientStripedLocks patientStripedLocks = new PatientStripedLocks(4);
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @After
+    public void tearDown() {
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    /**
+     * @see PatientStripedLocks#getLock(Patient)
+     */
+    @Test
+    public void shouldReturnTheSameLockForTheSamePatient() throws Exception {
+        
+        Lock lock = patientStripedLocks.getLock(new Patient(1));
+        
+        assertThat(patientStripedLocks.getLock(new Patient(1)), is(sameInstance(lock)));
+    }
+    
+    /**
+     * @see PatientStripedLocks#getLock(Patient)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("patient cannot be null");
+        patientStripedLocks.getLock(null);
+    }
+    
+    /**
+     * @see PatientStripedLocks#getLock(Patient)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenPatientWithPatientIdNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("patient.patientId cannot be null");
+        patientStripedLocks.getLock(new Patient());
+    }
+    
+    /**
+     * @see PatientStripedLocks#lockUntilTransactionCompletes(Patient)
+     */
+    @Test
+    public void shouldHoldTheLockOfGivenPatientUntilTheTransactionCompletes() throws Exception {
+        
+        Patient patient = new Patient(1);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        patientStripedLocks.lockUntilTransactionCompletes(patient);
+        assertThat(isLockAvailableToOtherThread(patientStripedLocks.getLock(patient)), is(false));
+        
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertThat(isLockAvailableToOtherThread(patientStripedLocks.getLock(patient)), is(true));
+    }
+    
+    /**
+     * @see PatientStripedLocks#lockUntilTransactionCompletes(Patient)
+     */
+    @Test
+    public void shouldThrowIllegalStateExceptionIfThereIsNoActiveTransactionSynchronization() throws Exception {
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("patient can only be locked within a transaction");
+        patientStripedLocks.lockUntilTransactionCompletes(new Patient(1));
+    }
+    
+    /**
+     * @see PatientStripedLocks#lockUntilTransactionCompletes(Collection)
+     */
+    @Test
+    public void shouldHoldTheLocksOfGivenPatientsUntilTheTransactionCompletes() throws Exception {
+        
+        Patient patient1 = new Patient(1);
+        Patient patient2 = new Patient(2);
+        Patient patient5 = new Patient(5);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        patientStripedLocks.lockUntilTransactionCompletes(Arrays.asList(patient2, patient5, patient1));
+        assertThat(isLockAvailableToOtherThread(patientStripedLocks.getLock(patient1)), is(false));
+        assertThat(isLockAvailableToOtherThread(patientStripedLocks.getLock(patient2)), is(false));
+        assertThat(TransactionSynchronizationManager.getSynchronizations()
+                .size(),
+            is(2));
+        
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertThat(isLockAvailableToOtherThread(patientStripedLocks.getLock(patient1)), is(true));
+        assertThat(isLockAvailableToOtherThread(patientStripedLocks.getLock(patient2)), is(true));
+    }
+    
+    /**
+     * @see PatientStripedLocks#lockUntilTransactionCompletes(Collection)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenPatientsContainAPatientWithPatientIdNull() throws Exception {
+        
+        Patient patient = new Patient(1);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        try {
+            patientStripedLocks.lockUntilTransactionCompletes(Arrays.asList(patient, new Patient()));
+            fail("expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("patient.patientId cannot be null"));
+        }
+        assertThat(isLockAvailableToOtherThread(patientStripedLocks.getLock(patient)), is(true));
+    }
+    
+    private boolean isLockAvailableToOtherThread(Lock lock) throws Exception {
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> {
+                if (lock.tryLock()) {
+                    lock.unlock();
+                    return true;
+                }
+                return false;
+            })
+                    .get();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
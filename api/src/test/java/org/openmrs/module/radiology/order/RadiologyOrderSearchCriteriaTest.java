@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.openmrs.Order.Urgency;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
+import org.openmrs.module.radiology.util.ContinuationToken;
 
 /**
  * Tests {@link RadiologyOrderSearchCriteria}.
@@ -155,4 +156,50 @@ public class RadiologyOrderSearchCriteriaTest {
         assertNull(radiologyOrderSearchCriteria.getToEffectiveStartDate());
         assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
     }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithOffsetAndLimitIfOffsetAndLimitAreSet() throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().withOffset(20)
+                .withLimit(10)
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getOffset(), is(20));
+        assertThat(radiologyOrderSearchCriteria.getLimit(), is(10));
+        assertNull(radiologyOrderSearchCriteria.getPatient());
+        assertFalse(radiologyOrderSearchCriteria.getIncludeVoided());
+        assertNull(radiologyOrderSearchCriteria.getUrgency());
+        assertNull(radiologyOrderSearchCriteria.getFromEffectiveStartDate());
+        assertNull(radiologyOrderSearchCriteria.getToEffectiveStartDate());
+        assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
+        assertNull(radiologyOrderSearchCriteria.getOrderer());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionIfOffsetIsNegative() throws Exception {
+        
+        new RadiologyOrderSearchCriteria.Builder().withOffset(-1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionIfLimitIsNotPositive() throws Exception {
+        
+        new RadiologyOrderSearchCriteria.Builder().withLimit(0);
+    }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithContinuationTokenIfContinuationTokenIsSet()
+            throws Exception {
+        
+        ContinuationToken continuationToken = new ContinuationToken("1", 2001);
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().withContinuationToken(continuationToken)
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getContinuationToken(), is(continuationToken));
+        assertNull(radiologyOrderSearchCriteria.getOffset());
+        assertNull(radiologyOrderSearchCriteria.getLimit());
+        assertNull(radiologyOrderSearchCriteria.getPatient());
+        assertFalse(radiologyOrderSearchCriteria.getIncludeVoided());
+    }
 }
@@ -19,27 +19,43 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.sql.Statement;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Environment;
+import org.hibernate.stat.Statistics;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.ConceptDescription;
+import org.openmrs.ConceptName;
 import org.openmrs.Encounter;
+import org.openmrs.GlobalProperty;
+import org.openmrs.Location;
 import org.openmrs.Order;
 import org.openmrs.Order.Urgency;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.PatientIdentifierType;
+import org.openmrs.Person;
+import org.openmrs.PersonName;
 import org.openmrs.Provider;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.ConceptService;
@@ -47,9 +63,17 @@ import org.openmrs.api.EncounterService;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.ProviderService;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.util.ContinuationToken;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistItem;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistService;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
+import org.openmrs.patient.impl.LuhnIdentifierValidator;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
@@ -59,6 +83,8 @@ import org.springframework.beans.factory.annotation.Qualifier;
 public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensitiveTest {
     
     
+    private static final Logger log = LoggerFactory.getLogger(RadiologyOrderServiceComponentTest.class);
+    
     private static final String TEST_DATASET =
             "org/openmrs/module/radiology/include/RadiologyOrderServiceComponentTestDataset.xml";
     
@@ -103,6 +129,15 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
     @Autowired
     private RadiologyOrderService radiologyOrderService;
     
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    @Autowired
+    private RadiologyWorklistService radiologyWorklistService;
+    
+    @Autowired
+    private SessionFactory sessionFactory;
+    
     /**
      * Overriding following method is necessary to enable MVCC which is disabled by default in DB h2
      * used for the component tests. This prevents following exception:
@@ -124,7 +159,7 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
     @Before
     public void setUp() throws Exception {
         // We need to commit the global property nextAccessionNumberSeed otherwise it will not be visible in the
-        // HibernateRadiologyOrderDAO since the RadiologyOrderServiceImpl.getNextAccessionNumberSeedSequenceValue() opens a
+        // HibernateRadiologyOrderDAO since the RadiologyOrderServiceImpl.getNextAccessionNumberSeedSequenceBlock() opens a
         // new transaction.
         if (!Context.isSessionOpen()) {
             Context.openSession();
@@ -138,6 +173,8 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
     public void tearDown() throws Exception {
         // We need to delete all data we committed otherwise this will influence other test classes and break isolation.
         this.deleteAllData();
+        // The configuration read by the threads placing orders concurrently was committed and would outlive the data.
+        radiologyProperties.clearConfigurationCache();
     }
     
     @Test
@@ -215,13 +252,352 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
         assertNotNull(radiologyOrder.getAccessionNumber());
     }
     
+    @Test
+    public void shouldCreateRadiologyWorklistItemForRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = getUnsavedRadiologyOrder();
+        
+        radiologyOrder = radiologyOrderService.placeRadiologyOrder(radiologyOrder);
+        
+        RadiologyWorklistItem radiologyWorklistItem =
+                radiologyWorklistService.getRadiologyWorklistItem(radiologyOrder.getOrderId());
+        assertNotNull(radiologyWorklistItem);
+        assertThat(radiologyWorklistItem.getAccessionNumber(), is(radiologyOrder.getAccessionNumber()));
+        assertThat(radiologyWorklistItem.getPatient(), is(radiologyOrder.getPatient()));
+        assertThat(radiologyWorklistItem.getEffectiveStartDate(), is(radiologyOrder.getEffectiveStartDate()));
+        assertNull(radiologyWorklistItem.getReportStatus());
+    }
+    
+    @Test
+    public void shouldPersistTheEffectiveStartDateOfTheRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = getUnsavedRadiologyOrder();
+        
+        radiologyOrder = radiologyOrderService.placeRadiologyOrder(radiologyOrder);
+        Context.flushSession();
+        Context.clearSession();
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(radiologyOrder.getPatient())
+                        .fromEffectiveStartDate(radiologyOrder.getScheduledDate())
+                        .toEffectiveStartDate(radiologyOrder.getScheduledDate())
+                        .build();
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders.size(), is(1));
+        assertThat(radiologyOrders.get(0)
+                .getUuid(),
+            is(radiologyOrder.getUuid()));
+    }
+    
+    @Test
+    public void shouldCreateNewRadiologyOrdersAndStudiesFromGivenRadiologyOrders() throws Exception {
+        
+        List<RadiologyOrder> radiologyOrders =
+                Arrays.asList(getUnsavedRadiologyOrder(), getUnsavedRadiologyOrder(), getUnsavedRadiologyOrder());
+        
+        List<RadiologyOrder> placedRadiologyOrders = radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+        
+        assertThat(placedRadiologyOrders, is(radiologyOrders));
+        Set<String> accessionNumbers = new HashSet<String>();
+        Set<String> studyInstanceUids = new HashSet<String>();
+        for (RadiologyOrder radiologyOrder : placedRadiologyOrders) {
+            assertNotNull(radiologyOrder.getOrderId());
+            assertNotNull(radiologyOrder.getStudy()
+                    .getStudyId());
+            accessionNumbers.add(radiologyOrder.getAccessionNumber());
+            studyInstanceUids.add(radiologyOrder.getStudy()
+                    .getStudyInstanceUid());
+        }
+        assertThat(accessionNumbers.size(), is(3));
+        assertThat(studyInstanceUids.size(), is(3));
+    }
+    
+    @Test
+    public void shouldCreateOneRadiologyOrderEncounterPerPatientAndOrderer() throws Exception {
+        
+        RadiologyOrder radiologyOrderOfOrderer1 = getUnsavedRadiologyOrder();
+        RadiologyOrder otherRadiologyOrderOfOrderer1 = getUnsavedRadiologyOrder();
+        RadiologyOrder radiologyOrderOfOrderer2 = getUnsavedRadiologyOrder();
+        radiologyOrderOfOrderer2.setOrderer(providerService.getProviderByIdentifier("2"));
+        
+        radiologyOrderService.placeRadiologyOrders(
+            Arrays.asList(radiologyOrderOfOrderer1, radiologyOrderOfOrderer2, otherRadiologyOrderOfOrderer1));
+        
+        assertThat(otherRadiologyOrderOfOrderer1.getEncounter(), is(radiologyOrderOfOrderer1.getEncounter()));
+        assertThat(radiologyOrderOfOrderer2.getEncounter(), is(not(radiologyOrderOfOrderer1.getEncounter())));
+        assertThat(radiologyOrderOfOrderer1.getEncounter()
+                .getOrders()
+                .size(),
+            is(2));
+    }
+    
+    @Test
+    public void shouldReserveTheAccessionNumbersOfAllGivenRadiologyOrdersInOneBlock() throws Exception {
+        
+        int numberOfRadiologyOrders = 100;
+        List<RadiologyOrder> radiologyOrders = new ArrayList<RadiologyOrder>();
+        for (int i = 0; i < numberOfRadiologyOrders; i++) {
+            radiologyOrders.add(getUnsavedRadiologyOrder());
+        }
+        Long seed = radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(1);
+        
+        radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+        
+        assertThat(radiologyOrders.get(0)
+                .getAccessionNumber(),
+            is(String.valueOf(seed + 1)));
+        assertThat(radiologyOrders.get(numberOfRadiologyOrders - 1)
+                .getAccessionNumber(),
+            is(String.valueOf(seed + numberOfRadiologyOrders)));
+        assertThat(radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(1),
+            is(seed + 1 + numberOfRadiologyOrders));
+        assertThat(radiologyOrders.get(0)
+                .getEncounter()
+                .getOrders()
+                .size(),
+            is(numberOfRadiologyOrders));
+    }
+    
+    @Test
+    public void shouldCreateRadiologyWorklistItemsForRadiologyOrders() throws Exception {
+        
+        List<RadiologyOrder> radiologyOrders =
+                radiologyOrderService.placeRadiologyOrders(Arrays.asList(getUnsavedRadiologyOrder(),
+                    getUnsavedRadiologyOrder()));
+        
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            RadiologyWorklistItem radiologyWorklistItem =
+                    radiologyWorklistService.getRadiologyWorklistItem(radiologyOrder.getOrderId());
+            assertNotNull(radiologyWorklistItem);
+            assertThat(radiologyWorklistItem.getAccessionNumber(), is(radiologyOrder.getAccessionNumber()));
+        }
+    }
+    
+    @Test
+    public void shouldReturnEmptyListIfGivenEmptyList() throws Exception {
+        
+        assertThat(radiologyOrderService.placeRadiologyOrders(new ArrayList<RadiologyOrder>()), is(empty()));
+    }
+    
+    @Test
+    public void shouldReturnGivenNumberOfNextValuesOfTheAccessionNumberSequence() throws Exception {
+        
+        // the sequence is created by liquibase which does not run for the in-memory test database
+        try (Statement statement = getConnection().createStatement()) {
+            statement.execute("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE);
+        }
+        
+        List<Long> values = radiologyOrderService.getNextAccessionNumberSequenceValues(3);
+        
+        assertThat(values.size(), is(3));
+        assertThat(values.get(1), is(values.get(0) + 1));
+        assertThat(values.get(2), is(values.get(0) + 2));
+    }
+    
+    @Test
+    public void shouldAdvanceTheAccessionNumberSequenceToTheAccessionNumberSeed() throws Exception {
+        
+        // the sequence is created by liquibase which does not run for the in-memory test database
+        try (Statement statement = getConnection().createStatement()) {
+            statement.execute("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE);
+        }
+        commitAccessionNumberSeed("5000");
+        radiologyOrderService.placeRadiologyOrders(Arrays.asList(getUnsavedRadiologyOrder(), getUnsavedRadiologyOrder()));
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR,
+                AccessionNumberGeneratorStrategy.SEQUENCE.name()));
+        
+        assertThat(Long.valueOf(((AccessionNumberGenerator) radiologyOrderService).getNewAccessionNumber()),
+            is(Matchers.greaterThanOrEqualTo(5002L)));
+    }
+    
+    @Test
+    public void shouldAdvanceTheAccessionNumberSequenceBeyondTheHighestNumericAccessionNumber() throws Exception {
+        
+        // the sequence is created by liquibase which does not run for the in-memory test database
+        try (Statement statement = getConnection().createStatement()) {
+            statement.execute("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE);
+        }
+        commitAccessionNumberSeed("5000");
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService
+                .placeRadiologyOrders(Arrays.asList(getUnsavedRadiologyOrder(), getUnsavedRadiologyOrder()));
+        // the seed is out of step with the accession numbers placed, for example after it was reset by hand
+        commitAccessionNumberSeed("100");
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR,
+                AccessionNumberGeneratorStrategy.SEQUENCE.name()));
+        
+        Long accessionNumber = Long.valueOf(((AccessionNumberGenerator) radiologyOrderService).getNewAccessionNumber());
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            assertThat(accessionNumber, is(Matchers.greaterThan(Long.valueOf(radiologyOrder.getAccessionNumber()))));
+        }
+    }
+    
+    @Test
+    public void shouldReturnTheFirstAccessionNumberSeedOfTheBlockAndReserveGivenNumberOfSeeds() throws Exception {
+        
+        Long seed = radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(10);
+        
+        assertThat(radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(10), is(seed + 10));
+    }
+    
+    @Test
+    @SuppressWarnings("deprecation")
+    public void shouldReturnTheNextAccessionNumberSeed() throws Exception {
+        
+        Long seed = radiologyOrderService.getNextAccessionNumberSeedSequenceValue();
+        
+        assertThat(radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(1), is(seed + 1));
+    }
+    
     @Test
     public void shouldAlwaysReturnAUniqueAccessionNumberWhenCalledMultipleTimes() throws Exception {
         
         int N = 50;
-        final Set<String> uniqueAccessionNumbers = new HashSet<String>(N);
+        // since we used a set we should have the size as N indicating that there were no duplicates
+        Assert.assertEquals(N, getNewAccessionNumbersConcurrently(N).size());
+    }
+    
+    @Test
+    public void shouldAlwaysReturnAUniqueAccessionNumberWhenCalledConcurrentlyWithSequenceStrategy() throws Exception {
+        
+        // the sequence is created by liquibase which does not run for the in-memory test database
+        try (Statement statement = getConnection().createStatement()) {
+            statement.execute("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE);
+        }
+        commitGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR,
+            AccessionNumberGeneratorStrategy.SEQUENCE.name());
+        
+        Assert.assertEquals(32, getNewAccessionNumbersConcurrently(32).size());
+    }
+    
+    @Test
+    public void shouldAlwaysReturnAUniqueAccessionNumberWhenCalledConcurrentlyWithTimeBasedStrategy() throws Exception {
+        
+        commitGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID, "1");
+        commitGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR,
+            AccessionNumberGeneratorStrategy.TIME_BASED.name());
+        
+        Set<String> accessionNumbers = getNewAccessionNumbersConcurrently(32);
+        
+        Assert.assertEquals(32, accessionNumbers.size());
+        for (String accessionNumber : accessionNumbers) {
+            assertThat(accessionNumber.length(), is(TimeBasedAccessionNumberGenerator.ACCESSION_NUMBER_LENGTH));
+        }
+    }
+    
+    @Test
+    public void shouldPlaceRadiologyOrdersInParallel() throws Exception {
+        
+        int cores = Runtime.getRuntime()
+                .availableProcessors();
+        int ordersPerThread = 5;
+        
+        long nanosSequential = placeRadiologyOrdersConcurrently(1, cores * ordersPerThread).elapsedNanos;
+        PlacedRadiologyOrders parallel = placeRadiologyOrdersConcurrently(cores, ordersPerThread);
+        
+        log.info("placing {} radiology orders took {}ms on 1 thread and {}ms on {} threads", cores * ordersPerThread,
+            TimeUnit.NANOSECONDS.toMillis(nanosSequential), TimeUnit.NANOSECONDS.toMillis(parallel.elapsedNanos), cores);
+        assertThat(parallel.failures, is(empty()));
+        assertThat(parallel.accessionNumbers.size(), is(cores * ordersPerThread));
+    }
+    
+    @Test
+    public void shouldPlaceAllRadiologyOrdersOfTheSamePatientIfLockRadiologyOrdersPerPatientIsEnabled() throws Exception {
+        
+        commitGlobalProperty(RadiologyConstants.GP_LOCK_RADIOLOGY_ORDERS_PER_PATIENT, "true");
+        
+        PlacedRadiologyOrders placed = placeRadiologyOrdersConcurrently(8, 2);
+        
+        assertThat(placed.failures, is(empty()));
+        assertThat(placed.accessionNumbers.size(), is(16));
+    }
+    
+    /**
+     * Places radiology orders for the same patient from given number of threads started at the same time, each
+     * authenticated in its own session.
+     */
+    private PlacedRadiologyOrders placeRadiologyOrdersConcurrently(int numberOfThreads, final int ordersPerThread)
+            throws Exception {
+        
+        final PlacedRadiologyOrders result = new PlacedRadiologyOrders();
+        final CountDownLatch startSignal = new CountDownLatch(1);
         List<Thread> threads = new ArrayList<Thread>();
-        for (int i = 0; i < N; i++) {
+        for (int i = 0; i < numberOfThreads; i++) {
+            threads.add(new Thread(new Runnable() {
+                
+                
+                @Override
+                public void run() {
+                    try {
+                        Context.openSession();
+                        Context.authenticate("admin", "test");
+                        startSignal.await();
+                        for (int j = 0; j < ordersPerThread; j++) {
+                            result.accessionNumbers.add(radiologyOrderService.placeRadiologyOrder(getUnsavedRadiologyOrder())
+                                    .getAccessionNumber());
+                        }
+                    }
+                    catch (Exception e) {
+                        result.failures.add(e);
+                    }
+                    finally {
+                        Context.closeSession();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        long start = System.nanoTime();
+        startSignal.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+    
+    private static class PlacedRadiologyOrders {
+        
+        
+        private final Set<String> accessionNumbers = Collections.synchronizedSet(new HashSet<String>());
+        
+        private final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+        
+        private long elapsedNanos;
+    }
+    
+    /**
+     * Saves and commits given global property so it is visible to the sessions opened by other threads.
+     */
+    private void commitGlobalProperty(String property, String value) throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(property, value));
+        Context.flushSession();
+        getConnection().commit();
+    }
+    
+    /**
+     * Updates and commits the accession number seed so it is visible to the transactions reserving accession numbers.
+     */
+    private void commitAccessionNumberSeed(String seed) throws Exception {
+        
+        administrationService.updateGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED, seed);
+        Context.flushSession();
+        getConnection().commit();
+    }
+    
+    /**
+     * Gets a new accession number from each of given number of threads started at the same time.
+     */
+    private Set<String> getNewAccessionNumbersConcurrently(int numberOfThreads) throws Exception {
+        
+        final Set<String> uniqueAccessionNumbers = Collections.synchronizedSet(new HashSet<String>(numberOfThreads));
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < numberOfThreads; i++) {
             threads.add(new Thread(new Runnable() {
                 
                 
@@ -238,16 +614,15 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
                 }
             }));
         }
-        for (int i = 0; i < N; ++i) {
+        for (int i = 0; i < numberOfThreads; ++i) {
             threads.get(i)
                     .start();
         }
-        for (int i = 0; i < N; ++i) {
+        for (int i = 0; i < numberOfThreads; ++i) {
             threads.get(i)
                     .join();
         }
-        // since we used a set we should have the size as N indicating that there were no duplicates
-        Assert.assertEquals(N, uniqueAccessionNumbers.size());
+        return uniqueAccessionNumbers;
     }
     
     @Test
@@ -269,6 +644,22 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
         assertThat(radiologyOrder.isActive(), is(false));
     }
     
+    @Test
+    public void shouldUpdateTheRadiologyWorklistItemOfGivenRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        radiologyOrder.getStudy()
+                .setPerformedStatus(null);
+        
+        radiologyOrderService.discontinueRadiologyOrder(radiologyOrder, radiologyOrder.getOrderer(), "Wrong Procedure");
+        
+        RadiologyWorklistItem radiologyWorklistItem =
+                radiologyWorklistService.getRadiologyWorklistItem(EXISTING_RADIOLOGY_ORDER_ID);
+        assertNotNull(radiologyWorklistItem);
+        assertThat(radiologyWorklistItem.getDateStopped(), is(radiologyOrder.getDateStopped()));
+        assertNotNull(radiologyWorklistItem.getDateStopped());
+    }
+    
     @Test
     public void shouldCreateRadiologyOrderEncounter() throws Exception {
         
@@ -563,4 +954,172 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
                 .getOrderId(),
             is(2006));
     }
+    
+    @Test
+    public void shouldReturnAPageOfRadiologyOrdersIfOffsetAndLimitAreSpecified() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        List<RadiologyOrder> allRadiologyOrders = radiologyOrderService
+                .getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .build());
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .withOffset(2)
+                        .withLimit(3)
+                        .build();
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders.size(), is(3));
+        assertThat(radiologyOrders, is(allRadiologyOrders.subList(2, 5)));
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfRadiologyOrdersMatchingGivenCriteriaIgnoringOffsetAndLimit() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        List<RadiologyOrder> allRadiologyOrders = radiologyOrderService
+                .getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .build());
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .withOffset(2)
+                        .withLimit(3)
+                        .build();
+        
+        assertThat(radiologyOrderService.getRadiologyOrderCount(radiologyOrderSearchCriteria),
+            is((long) allRadiologyOrders.size()));
+    }
+    
+    @Test
+    public void shouldReturnRadiologyOrdersAfterGivenContinuationTokenIfContinuationTokenIsSpecified() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        List<RadiologyOrder> allRadiologyOrders = radiologyOrderService
+                .getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .build());
+        RadiologyOrder lastRadiologyOrderSeen = allRadiologyOrders.get(2);
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .withContinuationToken(new ContinuationToken(lastRadiologyOrderSeen.getAccessionNumber(),
+                                lastRadiologyOrderSeen.getOrderId()))
+                        .withLimit(3)
+                        .build();
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders, is(allRadiologyOrders.subList(3, 6)));
+    }
+    
+    @Test
+    public void shouldFetchAPageOfRadiologyOrdersAndTheirAssociationsWithAFixedNumberOfSqlStatements() throws Exception {
+        
+        final Concept fracture = conceptService.getConcept(CONCEPT_ID_FOR_FRACTURE);
+        final PatientIdentifierType identifierType = patientService.getPatientIdentifierType(1);
+        final Location location = Context.getLocationService()
+                .getLocation(1);
+        for (int i = 0; i < 50; i++) {
+            final RadiologyOrder radiologyOrder = getUnsavedRadiologyOrder();
+            radiologyOrder.setPatient(saveNewPatient(i, identifierType, location));
+            radiologyOrder.setConcept(saveNewConcept(i, fracture));
+            radiologyOrder.setOrderer(saveNewProvider(i));
+            radiologyOrderService.placeRadiologyOrder(radiologyOrder);
+        }
+        
+        // one for the radiology orders with their studies and one each for the concepts, patients, providers and
+        // encounters of the page
+        assertThat(countSqlStatementsToFetchPageOfRadiologyOrders(50), is(5L));
+    }
+        
+    private Patient saveNewPatient(int index, PatientIdentifierType identifierType, Location location) {
+        
+        final Patient patient = new Patient();
+        patient.setGender("F");
+        patient.addName(new PersonName("Given" + index, null, "Family" + index));
+        final PatientIdentifier identifier = new PatientIdentifier(
+                new LuhnIdentifierValidator().getValidIdentifier("7100" + index), identifierType, location);
+        identifier.setPreferred(true);
+        patient.addIdentifier(identifier);
+        return patientService.savePatient(patient);
+    }
+    
+    private Concept saveNewConcept(int index, Concept template) {
+        
+        final Concept concept = new Concept();
+        concept.setDatatype(template.getDatatype());
+        concept.setConceptClass(template.getConceptClass());
+        concept.setFullySpecifiedName(new ConceptName("RADIOLOGY EXAM " + index, Locale.ENGLISH));
+        concept.addDescription(new ConceptDescription("Radiology exam " + index, Locale.ENGLISH));
+        return conceptService.saveConcept(concept);
+    }
+    
+    private Provider saveNewProvider(int index) {
+        
+        final Person person = new Person();
+        person.setGender("M");
+        person.addName(new PersonName("Radiologist" + index, null, "Family" + index));
+        final Provider provider = new Provider();
+        provider.setIdentifier("radiologist" + index);
+        provider.setPerson(Context.getPersonService()
+                .savePerson(person));
+        return providerService.saveProvider(provider);
+    }
+    
+    /**
+     * Count the SQL statements needed to fetch a page of radiology orders and to access the associations the REST
+     * representation of a radiology order displays.
+     *
+     * @param limit the number of radiology orders to fetch
+     * @return the number of prepared SQL statements
+     */
+    private long countSqlStatementsToFetchPageOfRadiologyOrders(int limit) {
+        
+        Context.flushSession();
+        Context.clearSession();
+        sessionFactory.getCache()
+                .evictEntityRegions();
+        sessionFactory.getCache()
+                .evictCollectionRegions();
+        final Statistics statistics = sessionFactory.getStatistics();
+        final boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+        
+            final List<RadiologyOrder> radiologyOrders = radiologyOrderService
+                    .getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().withLimit(limit)
+                            .build());
+            assertThat(radiologyOrders.size(), is(limit));
+            for (RadiologyOrder radiologyOrder : radiologyOrders) {
+                if (radiologyOrder.getStudy() != null) {
+                    radiologyOrder.getStudy()
+                            .getStudyInstanceUid();
+                }
+                radiologyOrder.getConcept()
+                        .getNames()
+                        .size();
+                radiologyOrder.getPatient()
+                        .getNames()
+                        .size();
+                radiologyOrder.getPatient()
+                        .getIdentifiers()
+                        .size();
+                if (radiologyOrder.getOrderer()
+                        .getPerson() != null) {
+                    radiologyOrder.getOrderer()
+                            .getPerson()
+                            .getNames()
+                            .size();
+                }
+                radiologyOrder.getEncounter()
+                        .getEncounterType()
+                        .getName();
+            }
+            return statistics.getPrepareStatementCount();
+        }
+        finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
 }
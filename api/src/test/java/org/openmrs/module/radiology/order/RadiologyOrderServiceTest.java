@@ -11,6 +11,8 @@ package org.openmrs.module.radiology.order;
 
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -68,6 +70,58 @@ public class RadiologyOrderServiceTest extends BaseContextMockTest {
         radiologyOrderService.placeRadiologyOrder(radiologyOrder);
     }
     
+    @Test
+    public void shouldFailToPlaceRadiologyOrdersGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders cannot be null");
+        radiologyOrderService.placeRadiologyOrders(null);
+    }
+    
+    @Test
+    public void shouldFailToPlaceRadiologyOrdersIfGivenListContainingNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder cannot be null");
+        radiologyOrderService.placeRadiologyOrders(Arrays.asList((RadiologyOrder) null));
+    }
+    
+    @Test
+    public void shouldFailToPlaceRadiologyOrdersIfAGivenRadiologyOrderHasNoStudy() {
+        
+        when(radiologyOrder.getOrderId()).thenReturn(null);
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder.study cannot be null");
+        radiologyOrderService.placeRadiologyOrders(Arrays.asList(radiologyOrder));
+    }
+    
+    @Test
+    public void shouldFailToPlaceRadiologyOrdersIfAGivenRadiologyOrderIsAnExistingOne() {
+        
+        when(radiologyOrder.getOrderId()).thenReturn(EXISTING_RADIOLOGY_ORDER_ID);
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("Order.cannot.edit.existing");
+        radiologyOrderService.placeRadiologyOrders(Arrays.asList(radiologyOrder));
+    }
+    
+    @Test
+    public void shouldFailToGetNextAccessionNumberSequenceValuesGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("count cannot be null");
+        radiologyOrderService.getNextAccessionNumberSequenceValues(null);
+    }
+    
+    @Test
+    public void shouldFailToGetNextAccessionNumberSequenceValuesGivenCountSmallerThanOne() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("count must be greater than zero");
+        radiologyOrderService.getNextAccessionNumberSequenceValues(0);
+    }
+    
     @Test
     public void shouldFailToDiscontinueRadiologyOrderIfGivenNull() throws Exception {
         
@@ -150,4 +204,28 @@ public class RadiologyOrderServiceTest extends BaseContextMockTest {
         expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
         radiologyOrderService.getRadiologyOrders(null);
     }
+    
+    @Test
+    public void shouldFailToGetRadiologyOrderCountIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
+        radiologyOrderService.getRadiologyOrderCount(null);
+    }
+    
+    @Test
+    public void shouldFailToGetNextAccessionNumberSeedSequenceBlockIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("blockSize cannot be null");
+        radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(null);
+    }
+    
+    @Test
+    public void shouldFailToGetNextAccessionNumberSeedSequenceBlockIfGivenBlockSizeSmallerThanOne() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("blockSize must be greater than zero");
+        radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(0);
+    }
 }
@@ -0,0 +1,161 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link TimeBasedAccessionNumberGenerator}.
+ */
+public class TimeBasedAccessionNumberGeneratorTest {
+    
+    
+    private static final long NOW = 1476700000000L;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * @see TimeBasedAccessionNumberGenerator#TimeBasedAccessionNumberGenerator(int, java.util.function.LongSupplier)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfNodeIdIsNotBetweenZeroAndMaxNodeId() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("nodeId must be between 0 and " + TimeBasedAccessionNumberGenerator.MAX_NODE_ID);
+        new TimeBasedAccessionNumberGenerator(TimeBasedAccessionNumberGenerator.MAX_NODE_ID + 1, () -> NOW);
+    }
+    
+    /**
+     * @see TimeBasedAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnAccessionNumbersOfFixedLength() throws Exception {
+        
+        TimeBasedAccessionNumberGenerator generator =
+                new TimeBasedAccessionNumberGenerator(0, () -> TimeBasedAccessionNumberGenerator.EPOCH);
+        
+        assertThat(generator.getNewAccessionNumber()
+                .length(),
+            is(TimeBasedAccessionNumberGenerator.ACCESSION_NUMBER_LENGTH));
+        assertThat(new TimeBasedAccessionNumberGenerator(TimeBasedAccessionNumberGenerator.MAX_NODE_ID, () -> NOW)
+                .getNewAccessionNumber()
+                .length(),
+            is(TimeBasedAccessionNumberGenerator.ACCESSION_NUMBER_LENGTH));
+    }
+    
+    /**
+     * @see TimeBasedAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldNeverReturnTheSameAccessionNumberTwiceWhenCalledConcurrently() throws Exception {
+        
+        int threads = 32;
+        int accessionNumbersPerThread = 10000;
+        TimeBasedAccessionNumberGenerator generator = new TimeBasedAccessionNumberGenerator(1);
+        
+        Set<String> accessionNumbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    
+                    
+                    @Override
+                    public Void call() throws Exception {
+                        startSignal.await();
+                        for (int j = 0; j < accessionNumbersPerThread; j++) {
+                            accessionNumbers.add(generator.getNewAccessionNumber());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            startSignal.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(accessionNumbers.size(), is(threads * accessionNumbersPerThread));
+    }
+    
+    /**
+     * @see TimeBasedAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnUniqueAccessionNumbersIfMoreThanCounterAllowsAreRequestedWithinAMillisecond()
+            throws Exception {
+        
+        TimeBasedAccessionNumberGenerator generator = new TimeBasedAccessionNumberGenerator(1, () -> NOW);
+        
+        Set<String> accessionNumbers = new HashSet<String>();
+        String previous = "";
+        for (int i = 0; i < 10000; i++) {
+            String accessionNumber = generator.getNewAccessionNumber();
+            assertThat(accessionNumber.compareTo(previous), is(greaterThan(0)));
+            accessionNumbers.add(accessionNumber);
+            previous = accessionNumber;
+        }
+        assertThat(accessionNumbers.size(), is(10000));
+    }
+    
+    /**
+     * @see TimeBasedAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnUniqueAccessionNumbersIfTheClockMovesBackwards() throws Exception {
+        
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeBasedAccessionNumberGenerator generator = new TimeBasedAccessionNumberGenerator(1, clock::get);
+        
+        String first = generator.getNewAccessionNumber();
+        clock.set(NOW - 1000);
+        String second = generator.getNewAccessionNumber();
+        
+        assertThat(second.compareTo(first), is(greaterThan(0)));
+    }
+    
+    /**
+     * @see TimeBasedAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnDifferentAccessionNumbersForDifferentNodeIdsAtTheSameTime() throws Exception {
+        
+        TimeBasedAccessionNumberGenerator node1 = new TimeBasedAccessionNumberGenerator(1, () -> NOW);
+        TimeBasedAccessionNumberGenerator node2 = new TimeBasedAccessionNumberGenerator(2, () -> NOW);
+        
+        assertThat(node1.getNewAccessionNumber(), is(not(node2.getNewAccessionNumber())));
+    }
+}
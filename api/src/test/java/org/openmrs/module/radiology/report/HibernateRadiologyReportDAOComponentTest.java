@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests {@link HibernateRadiologyReportDAO}.
+ */
+public class HibernateRadiologyReportDAOComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/RadiologyReportServiceComponentTestDataset.xml";
+    
+    private static final int EXISTING_RADIOLOGY_REPORT_ID = 1;
+    
+    @Autowired
+    private SessionFactory sessionFactory;
+    
+    @Autowired
+    private RadiologyReportService radiologyReportService;
+    
+    private HibernateRadiologyReportDAO hibernateRadiologyReportDAO;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        hibernateRadiologyReportDAO = new HibernateRadiologyReportDAO();
+        hibernateRadiologyReportDAO.setSessionFactory(sessionFactory);
+        
+        radiologyReportService.rebuildRadiologyReportIndex();
+        RadiologyReport existingRadiologyReport = radiologyReportService.getRadiologyReport(EXISTING_RADIOLOGY_REPORT_ID);
+        existingRadiologyReport.setBody("Some pulmonary nodule, no nodule growth.");
+        radiologyReportService.saveRadiologyReportDraft(existingRadiologyReport);
+    }
+    
+    /**
+     * @see HibernateRadiologyReportDAO#getRadiologyReports(RadiologyReportSearchCriteria)
+     */
+    @Test
+    public void shouldRankOnlyTheMaximumNumberOfCandidatesStartingFromTheRarestTerm() throws Exception {
+        
+        hibernateRadiologyReportDAO.setMaxRankedCandidates(2);
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withText("some nodule")
+                        .build();
+        
+        List<Integer> reportIds = new ArrayList<Integer>();
+        for (RadiologyReport radiologyReport : hibernateRadiologyReportDAO
+                .getRadiologyReports(radiologyReportSearchCriteria)) {
+            reportIds.add(radiologyReport.getReportId());
+        }
+        
+        // the only report containing the rare term nodule is a candidate before the reports containing some
+        assertThat(reportIds, contains(EXISTING_RADIOLOGY_REPORT_ID, 2));
+    }
+    
+    /**
+     * @see HibernateRadiologyReportDAO#getRadiologyReportCount(RadiologyReportSearchCriteria)
+     */
+    @Test
+    public void shouldCountOnlyTheMaximumNumberOfCandidatesIfGivenText() throws Exception {
+        
+        hibernateRadiologyReportDAO.setMaxRankedCandidates(2);
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withText("some nodule")
+                        .build();
+        
+        assertThat(hibernateRadiologyReportDAO.getRadiologyReportCount(radiologyReportSearchCriteria), is(2L));
+    }
+}
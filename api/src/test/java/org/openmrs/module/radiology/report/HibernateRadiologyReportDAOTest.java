@@ -0,0 +1,104 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
+import org.openmrs.api.APIException;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests {@link HibernateRadiologyReportDAO}.
+ */
+public class HibernateRadiologyReportDAOTest extends BaseContextMockTest {
+    
+    
+    @Mock
+    private SessionFactory sessionFactory;
+    
+    @Mock
+    private Session session;
+    
+    @Mock
+    private RadiologyReport radiologyReport;
+    
+    private HibernateRadiologyReportDAO hibernateRadiologyReportDAO = new HibernateRadiologyReportDAO();
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        when(sessionFactory.getCurrentSession()).thenReturn(session);
+        hibernateRadiologyReportDAO.setSessionFactory(sessionFactory);
+    }
+    
+    /**
+     * @see HibernateRadiologyReportDAO#saveRadiologyReport(RadiologyReport)
+     */
+    @Test
+    public void shouldThrowApiExceptionIfTheRadiologyOrderOfGivenRadiologyReportIsAlreadyClaimed() throws Exception {
+        
+        doThrow(newConstraintViolationException(
+            "RADIOLOGY_REPORT_ACTIVE_ORDER_ID_UNIQUE_INDEX_4 ON PUBLIC.RADIOLOGY_REPORT(ACTIVE_ORDER_ID)")).when(session)
+                    .flush();
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.RadiologyReport.cannot.create.already.claimed");
+        hibernateRadiologyReportDAO.saveRadiologyReport(radiologyReport);
+    }
+    
+    /**
+     * @see HibernateRadiologyReportDAO#saveRadiologyReport(RadiologyReport)
+     */
+    @Test
+    public void shouldRethrowTheViolationOfAnyOtherConstraint() throws Exception {
+        
+        ConstraintViolationException constraintViolationException =
+                newConstraintViolationException("radiology_report_report_body_id_fk");
+        doThrow(constraintViolationException).when(session)
+                .flush();
+        
+        expectedException.expect(sameInstance(constraintViolationException));
+        hibernateRadiologyReportDAO.saveRadiologyReport(radiologyReport);
+    }
+    
+    /**
+     * @see HibernateRadiologyReportDAO#saveRadiologyReport(RadiologyReport)
+     */
+    @Test
+    public void shouldRethrowTheViolationOfAConstraintWhoseNameIsUnknown() throws Exception {
+        
+        ConstraintViolationException constraintViolationException = newConstraintViolationException(null);
+        doThrow(constraintViolationException).when(session)
+                .flush();
+        
+        expectedException.expect(sameInstance(constraintViolationException));
+        hibernateRadiologyReportDAO.saveRadiologyReport(radiologyReport);
+    }
+    
+    private ConstraintViolationException newConstraintViolationException(String constraintName) {
+        return new ConstraintViolationException("could not execute statement", new SQLException("constraint violation"),
+                constraintName);
+    }
+}
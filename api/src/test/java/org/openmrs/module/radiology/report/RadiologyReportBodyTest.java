@@ -0,0 +1,62 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RadiologyReportBody}.
+ */
+public class RadiologyReportBodyTest {
+    
+    
+    private static final String REPORT_BODY =
+            "<p>Fracture of around 5mm visible in right tibia. \u00c4 \u00d6 \u00dc \u00e9</p><p>No other findings.</p>";
+    
+    @Test
+    public void shouldReturnTheBodyGivenOnConstruction() throws Exception {
+        
+        RadiologyReportBody radiologyReportBody = new RadiologyReportBody(REPORT_BODY);
+        
+        assertThat(radiologyReportBody.getBody(), is(REPORT_BODY));
+    }
+    
+    @Test
+    public void shouldReturnNullIfBodyWasSetToNull() throws Exception {
+        
+        RadiologyReportBody radiologyReportBody = new RadiologyReportBody(REPORT_BODY);
+        radiologyReportBody.setBody(null);
+        
+        assertNull(radiologyReportBody.getBody());
+        assertNull(radiologyReportBody.getContent());
+    }
+    
+    @Test
+    public void shouldCompressGivenBody() throws Exception {
+        
+        StringBuilder reportBody = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            reportBody.append(REPORT_BODY);
+        }
+        
+        RadiologyReportBody radiologyReportBody = new RadiologyReportBody(reportBody.toString());
+        
+        assertThat(radiologyReportBody.getContent().length, is(lessThan(reportBody.toString()
+                .getBytes(StandardCharsets.UTF_8).length / 10)));
+        assertThat(radiologyReportBody.getBody(), is(reportBody.toString()));
+    }
+}
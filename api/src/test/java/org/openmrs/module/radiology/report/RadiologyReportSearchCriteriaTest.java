@@ -22,6 +22,7 @@ import java.util.Date;
 
 import org.junit.Test;
 import org.openmrs.Provider;
+import org.openmrs.module.radiology.util.ContinuationToken;
 
 /**
  * Tests {@link RadiologyReportSearchCriteria}.
@@ -109,4 +110,65 @@ public class RadiologyReportSearchCriteriaTest {
         assertNull(radiologyReportSearchCriteria.getFromDate());
         assertNull(radiologyReportSearchCriteria.getPrincipalResultsInterpreter());
     }
+    
+    @Test
+    public void
+            build_createANewRadiologyReportSearchCriteriaInstanceWithLimitAndContinuationTokenIfLimitAndContinuationTokenAreSet()
+                    throws Exception {
+        
+        ContinuationToken continuationToken = new ContinuationToken("1464386400000", 1);
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().withLimit(10)
+                .withContinuationToken(continuationToken)
+                .build();
+        
+        assertThat(radiologyReportSearchCriteria.getLimit(), is(10));
+        assertThat(radiologyReportSearchCriteria.getContinuationToken(), is(continuationToken));
+        assertFalse(radiologyReportSearchCriteria.getIncludeVoided());
+        assertNull(radiologyReportSearchCriteria.getToDate());
+        assertNull(radiologyReportSearchCriteria.getFromDate());
+        assertNull(radiologyReportSearchCriteria.getPrincipalResultsInterpreter());
+        assertNull(radiologyReportSearchCriteria.getStatus());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void withLimit_shouldThrowIllegalArgumentExceptionIfLimitIsNotPositive() throws Exception {
+        
+        new RadiologyReportSearchCriteria.Builder().withLimit(0);
+    }
+    
+    @Test
+    public void build_createANewRadiologyReportSearchCriteriaInstanceWithOffsetIfOffsetIsSet() throws Exception {
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().withOffset(5)
+                .withLimit(10)
+                .build();
+        
+        assertThat(radiologyReportSearchCriteria.getOffset(), is(5));
+        assertThat(radiologyReportSearchCriteria.getLimit(), is(10));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void withOffset_shouldThrowIllegalArgumentExceptionIfOffsetIsNegative() throws Exception {
+        
+        new RadiologyReportSearchCriteria.Builder().withOffset(-1);
+    }
+    
+    @Test
+    public void build_shouldCreateANewRadiologyReportSearchCriteriaInstanceWithTextIfTextIsSet() throws Exception {
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().withText("pulmonary nodule")
+                .build();
+        
+        assertThat(radiologyReportSearchCriteria.getText(), is("pulmonary nodule"));
+        assertNull(radiologyReportSearchCriteria.getContinuationToken());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void build_shouldThrowIllegalArgumentExceptionIfTextAndContinuationTokenAreSet() throws Exception {
+        
+        new RadiologyReportSearchCriteria.Builder().withText("pulmonary nodule")
+                .withContinuationToken(new ContinuationToken("1464386400000", 1))
+                .build();
+    }
 }
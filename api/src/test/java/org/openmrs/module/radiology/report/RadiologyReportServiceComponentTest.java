@@ -18,14 +18,25 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 
 import org.hamcrest.Matchers;
+import org.hibernate.Hibernate;
 import org.hibernate.cfg.Environment;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,9 +44,13 @@ import org.junit.rules.ExpectedException;
 import org.openmrs.Provider;
 import org.openmrs.api.APIException;
 import org.openmrs.api.ProviderService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.util.ContinuationToken;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistItem;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistService;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -50,6 +65,8 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
     
     private static final int EXISTING_RADIOLOGY_ORDER_ID = 2001;
     
+    private static final int RADIOLOGY_ORDER_WITH_COMPLETED_STUDY_AND_NO_RADIOLOGY_REPORT = 2005;
+    
     private static final int EXISTING_RADIOLOGY_REPORT_ID = 1;
     
     private static final int NON_EXISTING_RADIOLOGY_REPORT_ID = 999999;
@@ -81,6 +98,9 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
     @Autowired
     private RadiologyReportService radiologyReportService;
     
+    @Autowired
+    private RadiologyWorklistService radiologyWorklistService;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -104,7 +124,20 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
     
     @Before
     public void setUp() throws Exception {
+        // We need to commit the test data otherwise it will not be visible to the sessions opened by the threads
+        // creating and saving radiology reports concurrently.
+        if (!Context.isSessionOpen()) {
+            Context.openSession();
+        }
         executeDataSet(TEST_DATASET);
+        getConnection().commit();
+        Context.clearSession();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        // We need to delete all data we committed otherwise this will influence other test classes and break isolation.
+        this.deleteAllData();
     }
     
     @Test
@@ -121,6 +154,22 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
         assertThat(radiologyReport.getStatus(), is(RadiologyReportStatus.DRAFT));
     }
     
+    @Test
+    public void shouldUpdateTheRadiologyWorklistItemOfGivenRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        radiologyOrder.getStudy()
+                .setPerformedStatus(PerformedProcedureStepStatus.COMPLETED);
+        
+        radiologyReportService.createRadiologyReport(radiologyOrder);
+        
+        RadiologyWorklistItem radiologyWorklistItem =
+                radiologyWorklistService.getRadiologyWorklistItem(EXISTING_RADIOLOGY_ORDER_ID);
+        assertThat(radiologyWorklistItem.getReportStatus(), is(RadiologyReportStatus.DRAFT));
+        assertThat(radiologyWorklistItem.getPerformedStatus(), is(PerformedProcedureStepStatus.COMPLETED));
+        assertThat(radiologyWorklistItem.getAccessionNumber(), is(radiologyOrder.getAccessionNumber()));
+    }
+    
     @Test
     public void shouldSaveAReportDraftGivenAnExistingReport() throws Exception {
         
@@ -204,6 +253,14 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
         assertThat(radiologyReport.getId(), is(EXISTING_RADIOLOGY_REPORT_ID));
     }
     
+    @Test
+    public void shouldReturnTheDecompressedBodyOfTheReportMatchingGivenReportId() throws Exception {
+        
+        RadiologyReport radiologyReport = radiologyReportService.getRadiologyReport(EXISTING_RADIOLOGY_REPORT_ID);
+        
+        assertThat(radiologyReport.getBody(), is("some diagnosis"));
+    }
+    
     @Test
     public void shouldReturnNullIfNoMatchWasFoundForGivenReportId() throws Exception {
         
@@ -476,4 +533,325 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
         
         assertTrue(radiologyReports.isEmpty());
     }
+    
+    @Test
+    public void shouldReturnRadiologyReportsAfterGivenContinuationTokenIfContinuationTokenIsSpecified() throws Exception {
+        
+        RadiologyReportSearchCriteria firstPageSearchCriteria = new RadiologyReportSearchCriteria.Builder().withLimit(2)
+                .build();
+        List<RadiologyReport> firstPage = radiologyReportService.getRadiologyReports(firstPageSearchCriteria);
+        
+        assertThat(firstPage.size(), is(2));
+        assertThat(firstPage.get(0)
+                .getReportId(),
+            is(1));
+        assertThat(firstPage.get(1)
+                .getReportId(),
+            is(2));
+        
+        RadiologyReport lastRadiologyReport = firstPage.get(1);
+        RadiologyReportSearchCriteria nextPageSearchCriteria = new RadiologyReportSearchCriteria.Builder().withLimit(2)
+                .withContinuationToken(new ContinuationToken(String.valueOf(lastRadiologyReport.getDate()
+                        .getTime()), lastRadiologyReport.getReportId()))
+                .build();
+        List<RadiologyReport> nextPage = radiologyReportService.getRadiologyReports(nextPageSearchCriteria);
+        
+        assertThat(nextPage.size(), is(1));
+        assertThat(nextPage.get(0)
+                .getReportId(),
+            is(4));
+    }
+    
+    @Test
+    public void shouldReturnTheActiveRadiologyReportsOfGivenRadiologyOrdersKeyedByOrderId() throws Exception {
+        
+        List<RadiologyOrder> radiologyOrders = Arrays.asList(
+            radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_DRAFT_RADIOLOGY_REPORT),
+            radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_COMPLETED_RADIOLOGY_REPORT));
+        
+        Map<Integer, RadiologyReport> activeRadiologyReports =
+                radiologyReportService.getActiveRadiologyReportsByRadiologyOrders(radiologyOrders);
+        
+        assertThat(activeRadiologyReports.size(), is(2));
+        assertThat(activeRadiologyReports.get(RADIOLOGY_ORDER_WITH_STUDY_AND_DRAFT_RADIOLOGY_REPORT)
+                .getStatus(),
+            is(RadiologyReportStatus.DRAFT));
+        assertThat(activeRadiologyReports.get(RADIOLOGY_ORDER_WITH_STUDY_AND_COMPLETED_RADIOLOGY_REPORT)
+                .getStatus(),
+            is(RadiologyReportStatus.COMPLETED));
+    }
+    
+    @Test
+    public void shouldNotContainRadiologyOrdersWithoutActiveRadiologyReport() throws Exception {
+        
+        List<RadiologyOrder> radiologyOrders = Arrays.asList(
+            radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_VOIDED_RADIOLOGY_REPORT),
+            radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID));
+        
+        assertTrue(radiologyReportService.getActiveRadiologyReportsByRadiologyOrders(radiologyOrders)
+                .isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyMapIfGivenAnEmptyList() throws Exception {
+        
+        assertTrue(radiologyReportService
+                .getActiveRadiologyReportsByRadiologyOrders(new ArrayList<RadiologyOrder>())
+                .isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnAPageOfRadiologyReportsIfOffsetAndLimitAreSpecified() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withOffset(1)
+                        .withLimit(1)
+                        .build();
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReports.size(), is(1));
+        assertThat(radiologyReports.get(0)
+                .getReportId(),
+            is(2));
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfRadiologyReportsMatchingGivenCriteriaIgnoringOffsetAndLimit() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withOffset(1)
+                        .withLimit(1)
+                        .build();
+        
+        assertThat(radiologyReportService.getRadiologyReportCount(radiologyReportSearchCriteria), is(3L));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNullToGetRadiologyReportCount() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReportSearchCriteria cannot be null");
+        radiologyReportService.getRadiologyReportCount(null);
+    }
+    
+    @Test
+    public void shouldNotLoadTheBodiesOfTheReturnedRadiologyReports() throws Exception {
+        
+        List<RadiologyReport> radiologyReports =
+                radiologyReportService.getRadiologyReports(new RadiologyReportSearchCriteria.Builder().build());
+        
+        assertThat(radiologyReports.size(), is(3));
+        Field reportBodyField = RadiologyReport.class.getDeclaredField("reportBody");
+        reportBodyField.setAccessible(true);
+        for (RadiologyReport radiologyReport : radiologyReports) {
+            assertFalse(Hibernate.isInitialized(reportBodyField.get(radiologyReport)));
+        }
+    }
+    
+    @Test
+    public void shouldUpdateTheFullTextIndexWithTheBodyOfGivenRadiologyReport() throws Exception {
+        
+        RadiologyReport existingRadiologyReport = radiologyReportService.getRadiologyReport(EXISTING_RADIOLOGY_REPORT_ID);
+        existingRadiologyReport.setBody("<p>Pulmonary nodule in the right upper lobe.</p>");
+        radiologyReportService.saveRadiologyReportDraft(existingRadiologyReport);
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService
+                .getRadiologyReports(new RadiologyReportSearchCriteria.Builder().withText("nodule")
+                        .build());
+        
+        assertThat(radiologyReports.size(), is(1));
+        assertThat(radiologyReports.get(0)
+                .getReportId(),
+            is(EXISTING_RADIOLOGY_REPORT_ID));
+    }
+    
+    @Test
+    public void shouldIndexTheBodiesOfAllRadiologyReports() throws Exception {
+        
+        assertThat(radiologyReportService.rebuildRadiologyReportIndex(), is(4));
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService
+                .getRadiologyReports(new RadiologyReportSearchCriteria.Builder().withText("Diagnosis")
+                        .includeVoided()
+                        .build());
+        assertThat(radiologyReports.size(), is(4));
+    }
+    
+    @Test
+    public void shouldReturnRadiologyReportsWhoseBodyContainsGivenTextRankedByRelevance() throws Exception {
+        
+        radiologyReportService.rebuildRadiologyReportIndex();
+        RadiologyReport existingRadiologyReport = radiologyReportService.getRadiologyReport(EXISTING_RADIOLOGY_REPORT_ID);
+        existingRadiologyReport.setBody("Some pulmonary nodule, no nodule growth.");
+        radiologyReportService.saveRadiologyReportDraft(existingRadiologyReport);
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService
+                .getRadiologyReports(new RadiologyReportSearchCriteria.Builder().withText("some nodule")
+                        .build());
+        
+        List<Integer> reportIds = new ArrayList<Integer>();
+        for (RadiologyReport radiologyReport : radiologyReports) {
+            reportIds.add(radiologyReport.getReportId());
+        }
+        assertThat(reportIds, Matchers.contains(EXISTING_RADIOLOGY_REPORT_ID, 2, 4));
+    }
+    
+    @Test
+    public void shouldReturnEmptyListIfGivenTextHasNoTerms() throws Exception {
+        
+        radiologyReportService.rebuildRadiologyReportIndex();
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService
+                .getRadiologyReports(new RadiologyReportSearchCriteria.Builder().withText("a ?")
+                        .build());
+        
+        assertTrue(radiologyReports.isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfRadiologyReportsWhoseBodyContainsGivenText() throws Exception {
+        
+        radiologyReportService.rebuildRadiologyReportIndex();
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withText("some diagnosis")
+                        .withLimit(1)
+                        .build();
+        
+        assertThat(radiologyReportService.getRadiologyReportCount(radiologyReportSearchCriteria), is(3L));
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfRadiologyReportHasBeenSavedSinceItWasLoaded() throws Exception {
+        
+        RadiologyReport existingRadiologyReport = radiologyReportService.getRadiologyReport(EXISTING_RADIOLOGY_REPORT_ID);
+        existingRadiologyReport.setBody("saved first");
+        radiologyReportService.saveRadiologyReportDraft(existingRadiologyReport);
+        assertThat(existingRadiologyReport.getVersion(), is(1));
+        Context.evictFromSession(existingRadiologyReport);
+        existingRadiologyReport.setVersion(0);
+        existingRadiologyReport.setBody("saved second based on stale version");
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.RadiologyReport.cannot.save.concurrently.modified");
+        radiologyReportService.saveRadiologyReportDraft(existingRadiologyReport);
+    }
+    
+    @Test
+    public void shouldClaimARadiologyOrderOnlyOnceIfCalledConcurrently() throws Exception {
+        
+        final int numberOfThreads = 8;
+        final ConcurrentRadiologyReportCalls calls = new ConcurrentRadiologyReportCalls();
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            threads.add(new Thread(new Runnable() {
+                
+                
+                @Override
+                public void run() {
+                    try {
+                        Context.openSession();
+                        Context.authenticate("admin", "test");
+                        RadiologyOrder radiologyOrder = radiologyOrderService
+                                .getRadiologyOrder(RADIOLOGY_ORDER_WITH_COMPLETED_STUDY_AND_NO_RADIOLOGY_REPORT);
+                        startSignal.await();
+                        calls.successes.add(radiologyReportService.createRadiologyReport(radiologyOrder)
+                                .getReportId());
+                    }
+                    catch (Exception e) {
+                        calls.failures.add(e);
+                    }
+                    finally {
+                        Context.closeSession();
+                    }
+                }
+            }));
+        }
+        runConcurrently(threads, startSignal);
+        
+        assertThat(calls.successes.size(), is(1));
+        assertThat(calls.failures.size(), is(numberOfThreads - 1));
+        assertThat(countNonVoidedRadiologyReports(RADIOLOGY_ORDER_WITH_COMPLETED_STUDY_AND_NO_RADIOLOGY_REPORT), is(1));
+    }
+    
+    @Test
+    public void shouldSaveOnlyOneOfConcurrentUpdatesOfTheSameRadiologyReport() throws Exception {
+        
+        final int numberOfThreads = 4;
+        final ConcurrentRadiologyReportCalls calls = new ConcurrentRadiologyReportCalls();
+        final CyclicBarrier loaded = new CyclicBarrier(numberOfThreads);
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < numberOfThreads; i++) {
+            final String body = "body of thread " + i;
+            threads.add(new Thread(new Runnable() {
+                
+                
+                @Override
+                public void run() {
+                    try {
+                        Context.openSession();
+                        Context.authenticate("admin", "test");
+                        startSignal.await();
+                        RadiologyReport radiologyReport =
+                                radiologyReportService.getRadiologyReport(EXISTING_RADIOLOGY_REPORT_ID);
+                        // every thread has to read the same version before any of them saves
+                        loaded.await();
+                        radiologyReport.setBody(body);
+                        calls.successes.add(radiologyReportService.saveRadiologyReportDraft(radiologyReport)
+                                .getReportId());
+                    }
+                    catch (Exception e) {
+                        calls.failures.add(e);
+                    }
+                    finally {
+                        Context.closeSession();
+                    }
+                }
+            }));
+        }
+        runConcurrently(threads, startSignal);
+        
+        assertThat(calls.successes.size(), is(1));
+        assertThat(calls.failures.size(), is(numberOfThreads - 1));
+        assertThat(radiologyReportService.getRadiologyReport(EXISTING_RADIOLOGY_REPORT_ID)
+                .getVersion(),
+            is(1));
+    }
+    
+    /**
+     * Starts given threads, releases them at once through given start signal and waits for all of them to finish.
+     */
+    private void runConcurrently(List<Thread> threads, CountDownLatch startSignal) throws Exception {
+        
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        startSignal.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+    
+    /**
+     * Counts the committed non voided radiology reports of the radiology order with given order id.
+     */
+    private int countNonVoidedRadiologyReports(int orderId) throws Exception {
+        
+        try (Statement statement = getConnection().createStatement();
+                ResultSet resultSet = statement.executeQuery(
+                    "SELECT COUNT(*) FROM radiology_report WHERE voided = false AND order_id = " + orderId)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+    
+    private static class ConcurrentRadiologyReportCalls {
+        
+        
+        private final List<Integer> successes = Collections.synchronizedList(new ArrayList<Integer>());
+        
+        private final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+    }
 }
@@ -11,6 +11,8 @@ package org.openmrs.module.radiology.report;
 
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -62,7 +64,7 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
     @Test
     public void shouldFailToCreateReportIfGivenOrderHasAClaimedReport() {
         
-        when(radiologyReportDAO.hasRadiologyOrderClaimedRadiologyReport(radiologyOrder)).thenReturn(true);
+        when(radiologyReportDAO.getActiveRadiologyReportStatus(radiologyOrder)).thenReturn(RadiologyReportStatus.DRAFT);
         
         expectedException.expect(APIException.class);
         expectedException.expectMessage("radiology.RadiologyReport.cannot.create.already.claimed");
@@ -72,7 +74,7 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
     @Test
     public void shouldFailToCreateReportIfGivenOrderHasACompletedReport() {
         
-        when(radiologyReportDAO.hasRadiologyOrderCompletedRadiologyReport(radiologyOrder)).thenReturn(true);
+        when(radiologyReportDAO.getActiveRadiologyReportStatus(radiologyOrder)).thenReturn(RadiologyReportStatus.COMPLETED);
         
         expectedException.expect(APIException.class);
         expectedException.expectMessage("radiology.RadiologyReport.cannot.create.already.completed");
@@ -121,7 +123,7 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
     public void shouldFailToSaveReportDraftIfGivenReportsOrderHasACompletedReport() {
         
         when(radiologyReport.getRadiologyOrder()).thenReturn(radiologyOrder);
-        when(radiologyReportDAO.hasRadiologyOrderCompletedRadiologyReport(radiologyOrder)).thenReturn(true);
+        when(radiologyReportDAO.getActiveRadiologyReportStatus(radiologyOrder)).thenReturn(RadiologyReportStatus.COMPLETED);
         
         expectedException.expect(APIException.class);
         expectedException.expectMessage("radiology.RadiologyReport.cannot.saveDraft.already.reported");
@@ -259,6 +261,22 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
         radiologyReportService.getActiveRadiologyReportByRadiologyOrder(null);
     }
     
+    @Test
+    public void shouldFailToGetActiveReportsByOrdersIfGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders cannot be null");
+        radiologyReportService.getActiveRadiologyReportsByRadiologyOrders(null);
+    }
+    
+    @Test
+    public void shouldFailToGetActiveReportsByOrdersIfGivenOrdersContainNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder cannot be null");
+        radiologyReportService.getActiveRadiologyReportsByRadiologyOrders(Arrays.asList(radiologyOrder, null));
+    }
+    
     @Test
     public void shouldFailToGetReportsIfGivenNull() {
         
@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.report;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
 import java.util.Calendar;
@@ -93,4 +94,45 @@ public class RadiologyReportTest {
         expectedException.expectMessage("radiologyOrder cannot be null");
         radiologyReport = new RadiologyReport(null);
     }
+    
+    @Test
+    public void shouldReturnNullIfBodyWasNeverSet() throws Exception {
+        
+        assertNull(radiologyReport.getBody());
+    }
+    
+    @Test
+    public void shouldReturnBodySetOnRadiologyReport() throws Exception {
+        
+        radiologyReport.setBody("Fracture of around 5mm visible in right tibia.");
+        
+        assertThat(radiologyReport.getBody(), is("Fracture of around 5mm visible in right tibia."));
+    }
+    
+    @Test
+    public void shouldReplaceTheBodyOfTheRadiologyReportBodyIfPresent() throws Exception {
+        
+        radiologyReport.setBody("Fracture of around 5mm visible in right tibia.");
+        radiologyReport.setBody("No fracture visible.");
+        
+        assertThat(radiologyReport.getBody(), is("No fracture visible."));
+        
+        radiologyReport.setBody(null);
+        
+        assertNull(radiologyReport.getBody());
+    }
+    
+    @Test
+    public void shouldReturnTheOrderIdOfTheRadiologyOrderIfRadiologyReportIsNotVoided() throws Exception {
+        
+        assertThat(radiologyReport.getActiveOrderId(), is(1));
+    }
+    
+    @Test
+    public void shouldReturnNullIfRadiologyReportIsVoided() throws Exception {
+        
+        radiologyReport.setVoided(true);
+        
+        assertNull(radiologyReport.getActiveOrderId());
+    }
 }
@@ -0,0 +1,92 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/**
+ * Tests {@link RadiologyReportTextAnalyzer}.
+ */
+public class RadiologyReportTextAnalyzerTest {
+    
+    
+    @Test
+    public void shouldReturnTheLowerCasedTermsOfGivenTextMappedToTheirFrequency() throws Exception {
+        
+        Map<String, Integer> termFrequencies =
+                RadiologyReportTextAnalyzer.getTermFrequencies("Pulmonary nodule, no nodule growth. NODULE 5mm");
+        
+        assertThat(termFrequencies.size(), is(5));
+        assertThat(termFrequencies.get("pulmonary"), is(1));
+        assertThat(termFrequencies.get("nodule"), is(3));
+        assertThat(termFrequencies.get("no"), is(1));
+        assertThat(termFrequencies.get("growth"), is(1));
+        assertThat(termFrequencies.get("5mm"), is(1));
+    }
+    
+    @Test
+    public void shouldSkipHtmlTagsAndCharacterReferences() throws Exception {
+        
+        Map<String, Integer> termFrequencies = RadiologyReportTextAnalyzer
+                .getTermFrequencies("<p class=\"finding\">Fracture&nbsp;of&#160;tibia</p><br/>healed");
+        
+        assertThat(termFrequencies.keySet(), containsInAnyOrder("fracture", "tibia", "healed"));
+    }
+    
+    @Test
+    public void shouldDropSingleCharacterTerms() throws Exception {
+        
+        Map<String, Integer> termFrequencies = RadiologyReportTextAnalyzer.getTermFrequencies("a lesion 3 x 4 cm");
+        
+        assertThat(termFrequencies.keySet(), containsInAnyOrder("lesion", "cm"));
+    }
+    
+    @Test
+    public void shouldDropStopWords() throws Exception {
+        
+        Map<String, Integer> termFrequencies =
+                RadiologyReportTextAnalyzer.getTermFrequencies("The lesion of the liver is stable, no fracture");
+        
+        assertThat(termFrequencies.keySet(), containsInAnyOrder("lesion", "liver", "stable", "no", "fracture"));
+    }
+    
+    @Test
+    public void shouldTruncateTermsLongerThanMaxTermLength() throws Exception {
+        
+        String longTerm = StringUtils.repeat("a", RadiologyReportTextAnalyzer.MAX_TERM_LENGTH + 10);
+        
+        Map<String, Integer> termFrequencies = RadiologyReportTextAnalyzer.getTermFrequencies(longTerm + " end");
+        
+        assertThat(termFrequencies.keySet(),
+            containsInAnyOrder(StringUtils.repeat("a", RadiologyReportTextAnalyzer.MAX_TERM_LENGTH), "end"));
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyMapIfGivenNull() throws Exception {
+        
+        assertTrue(RadiologyReportTextAnalyzer.getTermFrequencies(null)
+                .isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnTheDistinctTermsOfGivenText() throws Exception {
+        
+        assertThat(RadiologyReportTextAnalyzer.getTerms("nodule Nodule pulmonary"),
+            containsInAnyOrder("nodule", "pulmonary"));
+    }
+}
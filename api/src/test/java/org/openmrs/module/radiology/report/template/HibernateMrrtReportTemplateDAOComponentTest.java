@@ -0,0 +1,123 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
+import org.openmrs.api.ConceptService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests {@link HibernateMrrtReportTemplateDAO}.
+ */
+public class HibernateMrrtReportTemplateDAOComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/MrrtReportTemplateFileParserComponentTestDataset.xml";
+    
+    @Autowired
+    private SessionFactory sessionFactory;
+    
+    @Autowired
+    private ConceptService conceptService;
+    
+    private HibernateMrrtReportTemplateDAO hibernateMrrtReportTemplateDAO;
+    
+    private ConceptSource radlex;
+    
+    private ConceptSource snomed;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        hibernateMrrtReportTemplateDAO = new HibernateMrrtReportTemplateDAO();
+        hibernateMrrtReportTemplateDAO.setSessionFactory(sessionFactory);
+        
+        radlex = conceptService.getConceptSourceByName("RADLEX");
+        snomed = new ConceptSource();
+        snomed.setName("SNOMED");
+        snomed.setDescription("SNOMED");
+        conceptService.saveConceptSource(snomed);
+    }
+    
+    @Test
+    public void shouldReturnTheConceptReferenceTermsMatchingGivenCodesOfTheirConceptSource() throws Exception {
+        
+        ConceptReferenceTerm rid56 =
+                conceptService.saveConceptReferenceTerm(new ConceptReferenceTerm(radlex, "RID56", "abdomen"));
+        ConceptReferenceTerm snomedAbdomen =
+                conceptService.saveConceptReferenceTerm(new ConceptReferenceTerm(snomed, "818983003", "abdomen"));
+        conceptService.saveConceptReferenceTerm(new ConceptReferenceTerm(snomed, "RID1243", "thorax"));
+        ConceptReferenceTerm rid10321 = conceptService.getConceptReferenceTermByCode("RID10321", radlex);
+        
+        Map<ConceptSource, Set<String>> codesBySource = new HashMap<>();
+        codesBySource.put(radlex, new HashSet<>(Arrays.asList("RID10321", "RID56", "RID1243")));
+        codesBySource.put(snomed, new HashSet<>(Arrays.asList("818983003")));
+        
+        List<ConceptReferenceTerm> terms = hibernateMrrtReportTemplateDAO.getConceptReferenceTermsByCodes(codesBySource);
+        
+        assertThat(terms.size(), is(3));
+        assertThat(terms, hasItems(rid10321, rid56, snomedAbdomen));
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyListIfGivenNoCodes() throws Exception {
+        
+        assertTrue(hibernateMrrtReportTemplateDAO
+                .getConceptReferenceTermsByCodes(new HashMap<ConceptSource, Set<String>>())
+                .isEmpty());
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfMrrtReportTemplatesReferencingGivenPath() throws Exception {
+        
+        hibernateMrrtReportTemplateDAO.saveMrrtReportTemplate(newMrrtReportTemplate("identifier1", "/templates/a"));
+        hibernateMrrtReportTemplateDAO.saveMrrtReportTemplate(newMrrtReportTemplate("identifier2", "/templates/a"));
+        hibernateMrrtReportTemplateDAO.saveMrrtReportTemplate(newMrrtReportTemplate("identifier3", "/templates/b"));
+        
+        assertThat(hibernateMrrtReportTemplateDAO.getMrrtReportTemplateCountByPath("/templates/a"), is(2L));
+        assertThat(hibernateMrrtReportTemplateDAO.getMrrtReportTemplateCountByPath("/templates/b"), is(1L));
+    }
+    
+    @Test
+    public void shouldReturnZeroIfNoMrrtReportTemplateReferencesGivenPath() throws Exception {
+        
+        hibernateMrrtReportTemplateDAO.saveMrrtReportTemplate(newMrrtReportTemplate("identifier1", "/templates/a"));
+        
+        assertThat(hibernateMrrtReportTemplateDAO.getMrrtReportTemplateCountByPath("/templates/c"), is(0L));
+    }
+    
+    private MrrtReportTemplate newMrrtReportTemplate(String identifier, String path) {
+        
+        final MrrtReportTemplate template = new MrrtReportTemplate();
+        template.setDcTermsIdentifier(identifier);
+        template.setDcTermsTitle("title " + identifier);
+        template.setPath(path);
+        return template;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.api.APIException;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+/**
+ * Tests {@code MrrtReportTemplateArchiveInputStream}.
+ */
+public class MrrtReportTemplateArchiveInputStreamComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * Create a ZIP archive with given entries.
+     *
+     * @param namesAndContents the name of each entry followed by its content
+     * @return the ZIP archive
+     */
+    private InputStream newZipArchive(String... namesAndContents) throws IOException {
+        
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(archive.toByteArray());
+    }
+    
+    @Test
+    public void shouldReturnTheEntriesOfGivenArchive() throws Exception {
+        
+        MrrtReportTemplateArchiveInputStream archive =
+                new MrrtReportTemplateArchiveInputStream(newZipArchive("first.html", "abc", "second.html", "defg"), 2, 4, 7);
+        
+        assertThat(archive.getNextEntry()
+                .getName(),
+            is("first.html"));
+        assertThat(IOUtils.toString(archive, StandardCharsets.UTF_8.name()), is("abc"));
+        assertThat(archive.getNextEntry()
+                .getName(),
+            is("second.html"));
+        assertThat(IOUtils.toString(archive, StandardCharsets.UTF_8.name()), is("defg"));
+        assertNull(archive.getNextEntry());
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfGivenArchiveHasMoreEntriesThanTheMaximum() throws Exception {
+        
+        MrrtReportTemplateArchiveInputStream archive = new MrrtReportTemplateArchiveInputStream(
+                newZipArchive("first.html", "abc", "second.html", "abc"), 1, 100, 100);
+        archive.getNextEntry();
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.MrrtReportTemplate.import.archive.too.many.entries");
+        archive.getNextEntry();
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfAnEntryIsLargerThanTheMaximumEntrySize() throws Exception {
+        
+        MrrtReportTemplateArchiveInputStream archive =
+                new MrrtReportTemplateArchiveInputStream(newZipArchive("first.html", "abcd"), 1, 3, 100);
+        archive.getNextEntry();
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.MrrtReportTemplate.import.archive.entry.too.large");
+        IOUtils.toByteArray(archive);
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfAllEntriesTogetherAreLargerThanTheMaximumSize() throws Exception {
+        
+        MrrtReportTemplateArchiveInputStream archive = new MrrtReportTemplateArchiveInputStream(
+                newZipArchive("first.html", "abc", "second.html", "abc"), 2, 3, 5);
+        archive.getNextEntry();
+        IOUtils.toByteArray(archive);
+        archive.getNextEntry();
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.MrrtReportTemplate.import.archive.too.large");
+        IOUtils.toByteArray(archive);
+    }
+}
@@ -0,0 +1,293 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests {@link MrrtReportTemplateFileReferences}.
+ */
+public class MrrtReportTemplateFileReferencesTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    private final AtomicLong committedReferences = new AtomicLong();
+    
+    private MrrtReportTemplateFileReferences templateFileReferences =
+            new MrrtReportTemplateFileReferences(4, templateFile -> committedReferences.get());
+    
+    private Path templateFile;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        templateFile = temporaryFolder.newFile("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad")
+                .toPath();
+    }
+    
+    @After
+    public void tearDown() {
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#getLock(Path)
+     */
+    @Test
+    public void shouldReturnTheSameLockForTheSameTemplateFile() throws Exception {
+        
+        assertThat(templateFileReferences.getLock(Paths.get(templateFile.toString())),
+            is(sameInstance(templateFileReferences.getLock(templateFile))));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#getLock(Path)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("templateFile cannot be null");
+        templateFileReferences.getLock(null);
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#referenceUntilTransactionCompletes(Path)
+     */
+    @Test
+    public void shouldHoldTheLockOfGivenTemplateFileSharedUntilTheTransactionCompletes() throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        
+        templateFileReferences.referenceUntilTransactionCompletes(templateFile);
+        assertThat(isLockAvailableToOtherThread(templateFileReferences.getLock(templateFile)
+                .readLock()),
+            is(true));
+        assertThat(isLockAvailableToOtherThread(templateFileReferences.getLock(templateFile)
+                .writeLock()),
+            is(false));
+        
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(isLockAvailableToOtherThread(templateFileReferences.getLock(templateFile)
+                .writeLock()),
+            is(true));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#referenceUntilTransactionCompletes(Path)
+     */
+    @Test
+    public void shouldDeleteGivenTemplateFileIfTheTransactionRollsBackAndNoCommittedTemplateReferencesIt()
+            throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        
+        templateFileReferences.referenceUntilTransactionCompletes(templateFile);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertThat(Files.exists(templateFile), is(false));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#referenceUntilTransactionCompletes(Path)
+     */
+    @Test
+    public void shouldNotDeleteGivenTemplateFileIfTheTransactionRollsBackAndACommittedTemplateReferencesIt()
+            throws Exception {
+        
+        committedReferences.set(1);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        templateFileReferences.referenceUntilTransactionCompletes(templateFile);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertThat(Files.exists(templateFile), is(true));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#referenceUntilTransactionCompletes(Path)
+     */
+    @Test
+    public void shouldNotDeleteGivenTemplateFileIfTheTransactionCommits() throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        
+        templateFileReferences.referenceUntilTransactionCompletes(templateFile);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        
+        assertThat(Files.exists(templateFile), is(true));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#referenceUntilTransactionCompletes(Path)
+     */
+    @Test
+    public void shouldThrowIllegalStateExceptionIfThereIsNoActiveTransactionSynchronization() throws Exception {
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("template file can only be referenced within a transaction");
+        templateFileReferences.referenceUntilTransactionCompletes(templateFile);
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#deleteAfterCommitIfUnreferenced(Path)
+     */
+    @Test
+    public void shouldDeleteGivenTemplateFileAfterTheTransactionCommitsIfNoCommittedTemplateReferencesIt()
+            throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        
+        templateFileReferences.deleteAfterCommitIfUnreferenced(templateFile);
+        assertThat(Files.exists(templateFile), is(true));
+        
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(Files.exists(templateFile), is(false));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#deleteAfterCommitIfUnreferenced(Path)
+     */
+    @Test
+    public void shouldNotDeleteGivenTemplateFileAfterTheTransactionCommitsIfACommittedTemplateReferencesIt()
+            throws Exception {
+        
+        committedReferences.set(1);
+        TransactionSynchronizationManager.initSynchronization();
+        
+        templateFileReferences.deleteAfterCommitIfUnreferenced(templateFile);
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        
+        assertThat(Files.exists(templateFile), is(true));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#deleteAfterCommitIfUnreferenced(Path)
+     */
+    @Test
+    public void shouldNotDeleteGivenTemplateFileIfTheTransactionRollsBack() throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        
+        templateFileReferences.deleteAfterCommitIfUnreferenced(templateFile);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        
+        assertThat(Files.exists(templateFile), is(true));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#deleteIfUnreferenced(Path)
+     */
+    @Test
+    public void shouldWaitForATransactionReferencingGivenTemplateFileToCompleteBeforeCountingItsReferences()
+            throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        templateFileReferences.referenceUntilTransactionCompletes(templateFile);
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> deleted = executor.submit(() -> templateFileReferences.deleteIfUnreferenced(templateFile));
+            try {
+                deleted.get(200, TimeUnit.MILLISECONDS);
+            }
+            catch (TimeoutException e) {
+                // expected since the template file is referenced by the running transaction
+            }
+            assertThat(deleted.isDone(), is(false));
+            
+            committedReferences.set(1);
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+            
+            assertThat(deleted.get(), is(false));
+            assertThat(Files.exists(templateFile), is(true));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileReferences#deleteIfUnreferenced(Path)
+     */
+    @Test
+    public void shouldIgnoreAMissingTemplateFile() throws Exception {
+        
+        Files.delete(templateFile);
+        
+        assertThat(templateFileReferences.deleteIfUnreferenced(templateFile), is(false));
+    }
+    
+    /**
+     * Completes the transaction of the current thread with given status the way the transaction manager does.
+     */
+    private void completeTransaction(int status) {
+        
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            for (TransactionSynchronization synchronization : synchronizations) {
+                synchronization.afterCommit();
+            }
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(status);
+        }
+    }
+    
+    private boolean isLockAvailableToOtherThread(Lock lock) throws Exception {
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> {
+                if (lock.tryLock()) {
+                    lock.unlock();
+                    return true;
+                }
+                return false;
+            })
+                    .get();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
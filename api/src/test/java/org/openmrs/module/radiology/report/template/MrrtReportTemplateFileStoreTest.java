@@ -0,0 +1,98 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@code MrrtReportTemplateFileStore}.
+ */
+public class MrrtReportTemplateFileStoreTest {
+    
+    
+    private static final byte[] CONTENT = "abc".getBytes(StandardCharsets.UTF_8);
+    
+    private static final String CONTENT_HASH = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    private File home;
+    
+    private MrrtReportTemplateFileStore fileStore;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        home = temporaryFolder.newFolder("mrrt_templates");
+        fileStore = new MrrtReportTemplateFileStore(home);
+    }
+    
+    @Test
+    public void shouldReturnThePathInTheTwoLevelFanOutDirectoryOfGivenHash() throws Exception {
+        
+        assertThat(fileStore.getPath(CONTENT_HASH), is(home.toPath()
+                .resolve("ba")
+                .resolve("78")
+                .resolve(CONTENT_HASH)));
+    }
+    
+    @Test
+    public void shouldSpoolGivenStreamToATemporaryFileAndComputeTheHashOfItsContent() throws Exception {
+        
+        try (MrrtReportTemplateFileStore.SpooledFile spooledFile = fileStore.spool(new ByteArrayInputStream(CONTENT))) {
+            assertThat(spooledFile.getHash(), is(CONTENT_HASH));
+            assertThat(spooledFile.getPath()
+                    .getParent(),
+                is(home.toPath()));
+            assertThat(Files.readAllBytes(spooledFile.getPath()), is(CONTENT));
+        }
+        assertThat(home.list().length, is(0));
+    }
+    
+    @Test
+    public void shouldMoveGivenSpooledFileToThePathOfItsHash() throws Exception {
+        
+        try (MrrtReportTemplateFileStore.SpooledFile spooledFile = fileStore.spool(new ByteArrayInputStream(CONTENT))) {
+            Path stored = fileStore.store(spooledFile);
+            
+            assertThat(stored, is(fileStore.getPath(CONTENT_HASH)));
+            assertThat(Files.readAllBytes(stored), is(CONTENT));
+            assertThat(Files.exists(spooledFile.getPath()), is(false));
+        }
+    }
+    
+    @Test
+    public void shouldDeleteGivenSpooledFileIfItsContentIsAlreadyStored() throws Exception {
+        
+        Path stored;
+        try (MrrtReportTemplateFileStore.SpooledFile spooledFile = fileStore.spool(new ByteArrayInputStream(CONTENT))) {
+            stored = fileStore.store(spooledFile);
+        }
+        
+        try (MrrtReportTemplateFileStore.SpooledFile spooledFile = fileStore.spool(new ByteArrayInputStream(CONTENT))) {
+            assertThat(fileStore.store(spooledFile), is(stored));
+            assertThat(Files.exists(spooledFile.getPath()), is(false));
+        }
+        assertThat(home.list().length, is(1));
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests {@code MrrtReportTemplateHtmlBodyCache}.
+ */
+public class MrrtReportTemplateHtmlBodyCacheTest {
+    
+    
+    private static final String PATH = "/templates/a";
+    
+    private static final long LAST_MODIFIED = 1000L;
+    
+    private MrrtReportTemplateHtmlBodyCache htmlBodyCache = new MrrtReportTemplateHtmlBodyCache(10);
+    
+    @Test
+    public void shouldReturnTheBodyContentPutForGivenUuidPathAndModificationTime() throws Exception {
+        
+        htmlBodyCache.put("uuid1", PATH, LAST_MODIFIED, "<p>a</p>");
+        
+        assertThat(htmlBodyCache.get("uuid1", PATH, LAST_MODIFIED), is("<p>a</p>"));
+    }
+    
+    @Test
+    public void shouldReturnNullIfTheTemplateFileHasADifferentPathOrModificationTime() throws Exception {
+        
+        htmlBodyCache.put("uuid1", PATH, LAST_MODIFIED, "<p>a</p>");
+        htmlBodyCache.put("uuid2", PATH, LAST_MODIFIED, "b");
+        
+        assertNull(htmlBodyCache.get("uuid1", PATH, LAST_MODIFIED + 1));
+        assertNull(htmlBodyCache.get("uuid2", "/templates/b", LAST_MODIFIED));
+        assertThat(htmlBodyCache.getSize(), is(0L));
+    }
+    
+    @Test
+    public void shouldReturnNullIfNoBodyContentWasPutForGivenUuid() throws Exception {
+        
+        assertNull(htmlBodyCache.get("uuid1", PATH, LAST_MODIFIED));
+    }
+    
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedEntriesIfTheMaximumSizeIsExceeded() throws Exception {
+        
+        htmlBodyCache.put("uuid1", PATH, LAST_MODIFIED, "1111");
+        htmlBodyCache.put("uuid2", PATH, LAST_MODIFIED, "2222");
+        htmlBodyCache.get("uuid1", PATH, LAST_MODIFIED);
+        htmlBodyCache.put("uuid3", PATH, LAST_MODIFIED, "3333");
+        
+        assertThat(htmlBodyCache.get("uuid1", PATH, LAST_MODIFIED), is("1111"));
+        assertNull(htmlBodyCache.get("uuid2", PATH, LAST_MODIFIED));
+        assertThat(htmlBodyCache.get("uuid3", PATH, LAST_MODIFIED), is("3333"));
+        assertThat(htmlBodyCache.getSize(), is(8L));
+    }
+    
+    @Test
+    public void shouldNotCacheBodyContentLargerThanTheMaximumSize() throws Exception {
+        
+        htmlBodyCache.put("uuid1", PATH, LAST_MODIFIED, "01234567890");
+        
+        assertNull(htmlBodyCache.get("uuid1", PATH, LAST_MODIFIED));
+        assertThat(htmlBodyCache.getSize(), is(0L));
+    }
+}
@@ -17,18 +17,38 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.bind.DatatypeConverter;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.hibernate.cfg.Environment;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -36,9 +56,11 @@ import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.openmrs.api.APIException;
 import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.radiology.RadiologyConstants;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.aop.framework.Advised;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
@@ -64,6 +86,12 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     @Autowired
     private MrrtReportTemplateFileParser parser;
     
+    @Autowired
+    private MrrtReportTemplateHtmlBodyCache htmlBodyCache;
+    
+    @Autowired
+    private MrrtReportTemplateValidator validator;
+    
     private static final String TEST_DATASET =
             "org/openmrs/module/radiology/include/MrrtReportTemplateServiceComponentTestDataset.xml";
     
@@ -96,11 +124,128 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     @Autowired
     private MrrtReportTemplateService mrrtReportTemplateService;
     
+    private boolean committedTestData;
+    
+    /**
+     * Overriding following method is necessary to enable MVCC which is disabled by default in DB h2 used for the
+     * component tests. Otherwise the sessions importing and purging templates concurrently lock each other out of the
+     * template tables.
+     */
+    @Override
+    public Properties getRuntimeProperties() {
+        Properties result = super.getRuntimeProperties();
+        String url = result.getProperty(Environment.URL);
+        if (url.contains("jdbc:h2:") && !url.contains(";MVCC=TRUE")) {
+            result.setProperty(Environment.URL, url + ";MVCC=TRUE");
+        }
+        return result;
+    }
+    
     @Before
     public void setUp() throws Exception {
         executeDataSet(TEST_DATASET);
     }
     
+    @After
+    public void tearDown() throws Exception {
+        // We need to delete all data we committed otherwise this will influence other test classes and break isolation.
+        if (committedTestData) {
+            this.deleteAllData();
+        }
+    }
+    
+    /**
+     * Commits the test data so far, otherwise it is not visible to the sessions opened by {@link #runInNewSession}.
+     */
+    private void commitTestData() throws Exception {
+        
+        Context.flushSession();
+        getConnection().commit();
+        Context.clearSession();
+        committedTestData = true;
+    }
+    
+    /**
+     * Runs given call in a new thread with its own session, so that the transactions of the service methods it calls
+     * commit or roll back.
+     *
+     * @return the exception thrown by given call or null if it returned normally
+     */
+    private Exception runInNewSession(Callable<?> call) throws Exception {
+        
+        final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        runConcurrently(Arrays.asList(newSessionThread(startSignal, failures, call)), startSignal);
+        return failures.isEmpty() ? null : failures.get(0);
+    }
+    
+    /**
+     * Creates a thread which opens its own session, waits for given start signal and adds the exception thrown by given
+     * call to given failures.
+     */
+    private Thread newSessionThread(final CountDownLatch startSignal, final List<Exception> failures,
+            final Callable<?> call) {
+        
+        return new Thread(new Runnable() {
+            
+            
+            @Override
+            public void run() {
+                try {
+                    Context.openSession();
+                    Context.authenticate("admin", "test");
+                    startSignal.await();
+                    call.call();
+                }
+                catch (Exception e) {
+                    failures.add(e);
+                }
+                finally {
+                    Context.closeSession();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Starts given threads, releases them at once through given start signal and waits for all of them to finish.
+     */
+    private void runConcurrently(List<Thread> threads, CountDownLatch startSignal) throws Exception {
+        
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        startSignal.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+    
+    /**
+     * Purges the template with given uuid in a new session.
+     *
+     * @return the exception thrown by the purge or null if the purge committed
+     */
+    private Exception purgeInNewSession(final String uuid) throws Exception {
+        
+        return runInNewSession(() -> {
+            mrrtReportTemplateService
+                    .purgeMrrtReportTemplate(mrrtReportTemplateService.getMrrtReportTemplateByUuid(uuid));
+            return null;
+        });
+    }
+    
+    /**
+     * Counts the files in the report template directory.
+     */
+    private long countTemplateFiles() throws IOException {
+        
+        return Files.walk(radiologyProperties.getReportTemplateHome()
+                .toPath())
+                .filter(Files::isRegularFile)
+                .count();
+    }
+    
     /**
      * Get a files content as string.
      *
@@ -144,6 +289,27 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
      *
      * @throws IOException
      */
+    /**
+     * Create a ZIP archive with given entries.
+     *
+     * @param namesAndContents the name of each entry followed by its content or null for a directory entry
+     * @return the ZIP archive
+     */
+    private InputStream newZipArchive(String... namesAndContents) throws IOException {
+        
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                if (namesAndContents[i + 1] != null) {
+                    zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                }
+                zip.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(archive.toByteArray());
+    }
+    
     private void setUpTemporaryFolder() throws IOException {
         
         File tempFolder = temporaryFolder.newFolder("/mrrt_templates");
@@ -236,12 +402,85 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         assertNotNull(saved.getId());
         File savedFile = new File(saved.getPath());
         assertThat(savedFile.exists(), is(true));
+        commitTestData();
         
-        mrrtReportTemplateService.purgeMrrtReportTemplate(saved);
+        assertNull(purgeInNewSession(saved.getUuid()));
         assertNull(mrrtReportTemplateService.getMrrtReportTemplate(saved.getId()));
         assertThat(savedFile.exists(), is(false));
     }
     
+    @Test
+    public void shouldNotDeleteTheTemplateFileBeforeTheTransactionCommits() throws Exception {
+        
+        setUpTemporaryFolder();
+        MrrtReportTemplate saved = mrrtReportTemplateService
+                .importMrrtReportTemplate(getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html"));
+        
+        mrrtReportTemplateService.purgeMrrtReportTemplate(saved);
+        assertNull(mrrtReportTemplateService.getMrrtReportTemplate(saved.getId()));
+        assertThat(new File(saved.getPath()).exists(), is(true));
+    }
+    
+    @Test
+    public void shouldNotDeleteTheTemplateFileIfAnotherTemplateStillReferencesIt() throws Exception {
+        
+        setUpTemporaryFolder();
+        File templateFile = new File(radiologyProperties.getReportTemplateHome(), "shared");
+        templateFile.createNewFile();
+        MrrtReportTemplate template = new MrrtReportTemplate();
+        template.setDcTermsTitle("sample title");
+        template.setDcTermsIdentifier("identifier3");
+        template.setPath(templateFile.getAbsolutePath());
+        MrrtReportTemplate otherTemplate = new MrrtReportTemplate();
+        otherTemplate.setDcTermsTitle("other title");
+        otherTemplate.setDcTermsIdentifier("identifier4");
+        otherTemplate.setPath(templateFile.getAbsolutePath());
+        mrrtReportTemplateService.saveMrrtReportTemplate(template);
+        mrrtReportTemplateService.saveMrrtReportTemplate(otherTemplate);
+        commitTestData();
+        
+        assertNull(purgeInNewSession(template.getUuid()));
+        assertThat(templateFile.exists(), is(true));
+        
+        assertNull(purgeInNewSession(otherTemplate.getUuid()));
+        assertThat(templateFile.exists(), is(false));
+    }
+    
+    @Test
+    public void shouldNotDeleteTheTemplateFileWhileAnIdenticalTemplateIsImportedConcurrently() throws Exception {
+        
+        setUpTemporaryFolder();
+        commitTestData();
+        final String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        for (int i = 0; i < 10; i++) {
+            MrrtReportTemplate existing = mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER);
+            if (existing == null) {
+                assertNull(runInNewSession(() -> mrrtReportTemplateService.importMrrtReportTemplate(template)));
+                existing = mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER);
+            }
+            final String uuid = existing.getUuid();
+            final File templateFile = new File(existing.getPath());
+            final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+            final CountDownLatch startSignal = new CountDownLatch(1);
+            
+            runConcurrently(Arrays.asList(newSessionThread(startSignal, failures, () -> {
+                mrrtReportTemplateService
+                        .purgeMrrtReportTemplate(mrrtReportTemplateService.getMrrtReportTemplateByUuid(uuid));
+                return null;
+            }), newSessionThread(startSignal, failures, () -> mrrtReportTemplateService.importMrrtReportTemplate(template))),
+                startSignal);
+            
+            // the import fails if it checks for an existing template before the purge commits
+            for (Exception failure : failures) {
+                assertThat(failure.getMessage(), is("Template already exist in the system."));
+            }
+            Context.clearSession();
+            boolean referenced = mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER) != null;
+            assertThat(templateFile.exists(), is(referenced));
+        }
+    }
+    
     @Test
     public void shouldFailToPurgeTemplateIfGivenNull() throws Exception {
         
@@ -251,12 +490,15 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     }
     
     @Test
-    public void shouldCatchFileNotFoundExceptionWhenTheFileBeenDeletedIsMissing() {
+    public void shouldCatchFileNotFoundExceptionWhenTheFileBeenDeletedIsMissing() throws Exception {
         
         MrrtReportTemplate template = mrrtReportTemplateService.getMrrtReportTemplate(1);
         assertNotNull(template);
         assertThat(new File(template.getPath()).exists(), is(false));
-        mrrtReportTemplateService.purgeMrrtReportTemplate(template);
+        commitTestData();
+        
+        assertNull(purgeInNewSession(template.getUuid()));
+        assertNull(mrrtReportTemplateService.getMrrtReportTemplate(1));
     }
     
     @Test
@@ -311,8 +553,9 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         File templateHome = radiologyProperties.getReportTemplateHome();
         File templatePath = new File(saved.getPath());
         assertThat(templatePath.getParentFile()
-                .getName(),
-            is(templateHome.getName()));
+                .getParentFile()
+                .getParentFile(),
+            is(templateHome));
         assertTrue(FileUtils.contentEquals(getFile(sourcePath), templatePath.getAbsoluteFile()));
     }
     
@@ -329,6 +572,341 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         mrrtReportTemplateService.importMrrtReportTemplate(template);
     }
     
+    @Test
+    public void shouldStoreTheTemplateFileUnderTheHashOfItsContent() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        byte[] content = template.getBytes(StandardCharsets.UTF_8);
+        
+        MrrtReportTemplate saved = mrrtReportTemplateService.importMrrtReportTemplate(template);
+        
+        String hash = DatatypeConverter.printHexBinary(MessageDigest.getInstance("SHA-256")
+                .digest(content))
+                .toLowerCase();
+        File templateHome = radiologyProperties.getReportTemplateHome();
+        assertThat(saved.getPath(), is(templateHome.toPath()
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash)
+                .toString()));
+        assertTrue(Arrays.equals(FileUtils.readFileToByteArray(new File(saved.getPath())), content));
+    }
+    
+    @Test
+    public void shouldNotDeleteTheTemplateFileSharedWithAnExistingTemplateIfTheTemplateAlreadyExists() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        MrrtReportTemplate saved = mrrtReportTemplateService.importMrrtReportTemplate(template);
+        
+        try (InputStream in = new ByteArrayInputStream(template.getBytes(StandardCharsets.UTF_8))) {
+            mrrtReportTemplateService.importMrrtReportTemplate(in);
+            fail("Expected an APIException to be thrown");
+        }
+        catch (APIException e) {
+            assertThat(e.getMessage(), is("Template already exist in the system."));
+            assertTrue(new File(saved.getPath()).exists());
+            assertThat(radiologyProperties.getReportTemplateHome()
+                    .list().length,
+                is(1));
+        }
+    }
+    
+    @Test
+    public void shouldDeleteTheStoredTemplateFileIfTheImportRollsBackAndNoOtherTemplateReferencesIt() throws Exception {
+        
+        setUpTemporaryFolder();
+        commitTestData();
+        final String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html")
+                .replace(TEMPLATE_IDENTIFIER, "identifier1");
+        
+        Exception failure = runInNewSession(() -> mrrtReportTemplateService
+                .importMrrtReportTemplate(new ByteArrayInputStream(template.getBytes(StandardCharsets.UTF_8))));
+        
+        assertThat(failure.getMessage(), is("Template already exist in the system."));
+        assertThat(countTemplateFiles(), is(0L));
+    }
+    
+    @Test
+    public void shouldCreateMrrtReportTemplateInTheDatabaseAndOnTheFileSystemFromGivenStream() throws Exception {
+        
+        setUpTemporaryFolder();
+        
+        String sourcePath = "mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html";
+        MrrtReportTemplate saved;
+        try (InputStream in = new FileInputStream(getFile(sourcePath))) {
+            saved = mrrtReportTemplateService.importMrrtReportTemplate(in);
+        }
+        
+        assertNotNull(saved);
+        assertThat(saved.getDcTermsIdentifier(), is(TEMPLATE_IDENTIFIER));
+        assertThat(saved.getTerms()
+                .size(),
+            is(1));
+        File templateHome = radiologyProperties.getReportTemplateHome();
+        File templatePath = new File(saved.getPath());
+        assertThat(templatePath.getParentFile()
+                .getParentFile()
+                .getParentFile(),
+            is(templateHome));
+        assertTrue(FileUtils.contentEquals(getFile(sourcePath), templatePath.getAbsoluteFile()));
+        assertThat(templateHome.list().length, is(1));
+    }
+    
+    @Test
+    public void shouldNotLeaveAFileInTheReportTemplateDirectoryIfGivenTemplateIsInvalid() throws Exception {
+        
+        setUpTemporaryFolder();
+        
+        try (InputStream in = new FileInputStream(getFile(
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-noMetaElementWithCharsetAttribute.html"))) {
+            mrrtReportTemplateService.importMrrtReportTemplate(in);
+            fail("Expected an APIException to be thrown");
+        }
+        catch (APIException e) {
+            assertThat(radiologyProperties.getReportTemplateHome()
+                    .list().length,
+                is(0));
+        }
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenTemplateStreamIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("mrrtTemplate cannot be null");
+        mrrtReportTemplateService.importMrrtReportTemplate((InputStream) null);
+    }
+    
+    @Test
+    public void shouldImportAllValidTemplatesOfGivenArchiveAndReturnTheirImportResults() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        String otherTemplate = template.replace(TEMPLATE_IDENTIFIER, "1.3.6.1.4.1.21367.13.199.1016");
+        
+        List<MrrtReportTemplateImportResult> importResults = mrrtReportTemplateService
+                .importMrrtReportTemplates(newZipArchive("templates/", null, "templates/CTChestAbdomen.html", template,
+                    "templates/other.html", otherTemplate));
+        
+        assertThat(importResults.size(), is(2));
+        assertThat(importResults.get(0)
+                .getFileName(),
+            is("templates/CTChestAbdomen.html"));
+        assertTrue(importResults.get(0)
+                .isImported());
+        assertThat(importResults.get(1)
+                .getFileName(),
+            is("templates/other.html"));
+        assertTrue(importResults.get(1)
+                .isImported());
+        for (MrrtReportTemplateImportResult importResult : importResults) {
+            MrrtReportTemplate saved = mrrtReportTemplateService
+                    .getMrrtReportTemplateByUuid(importResult.getMrrtReportTemplate()
+                            .getUuid());
+            assertNotNull(saved);
+            assertTrue(new File(saved.getPath()).exists());
+        }
+        assertThat(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier("1.3.6.1.4.1.21367.13.199.1016")
+                .getDcTermsTitle(),
+            is("CT Chest-Abdomen"));
+    }
+    
+    @Test
+    public void shouldReportInvalidTemplatesWithTheirValidationErrorsWithoutImportingThem() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        String invalidTemplate = getFileContent(
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-missingCharsetTitleTemplateAttributesBodyElements.html");
+        
+        List<MrrtReportTemplateImportResult> importResults = mrrtReportTemplateService.importMrrtReportTemplates(
+            newZipArchive("invalid.html", invalidTemplate, "CTChestAbdomen.html", template));
+        
+        assertThat(importResults.size(), is(2));
+        MrrtReportTemplateImportResult invalid = importResults.get(0);
+        assertThat(invalid.isImported(), is(false));
+        assertNull(invalid.getMrrtReportTemplate());
+        assertThat(invalid.getErrorMessage(), is("radiology.MrrtReportTemplate.not.imported.invalid"));
+        assertThat(invalid.getValidationErrors()
+                .size(),
+            is(4));
+        assertTrue(importResults.get(1)
+                .isImported());
+        assertThat(temporaryFolder.getRoot()
+                .toPath()
+                .resolve("mrrt_templates")
+                .toFile()
+                .list().length,
+            is(1));
+    }
+    
+    @Test
+    public void shouldReportTemplatesWhoseIdentifierAlreadyExistsInTheSystemOrInTheArchive() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        String otherTemplate = template.replace(TEMPLATE_IDENTIFIER, "1.3.6.1.4.1.21367.13.199.1016");
+        mrrtReportTemplateService.importMrrtReportTemplate(otherTemplate);
+        
+        List<MrrtReportTemplateImportResult> importResults = mrrtReportTemplateService.importMrrtReportTemplates(
+            newZipArchive("first.html", template, "second.html", template, "other.html", otherTemplate));
+        
+        assertThat(importResults.size(), is(3));
+        assertTrue(importResults.get(0)
+                .isImported());
+        assertThat(importResults.get(1)
+                .getErrorMessage(),
+            is("radiology.MrrtReportTemplate.not.imported.duplicate"));
+        assertThat(importResults.get(2)
+                .getErrorMessage(),
+            is("radiology.MrrtReportTemplate.not.imported.duplicate"));
+    }
+    
+    @Test
+    public void shouldValidateTheTemplatesOfGivenArchiveConcurrently() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        String otherTemplate = template.replace(TEMPLATE_IDENTIFIER, "1.3.6.1.4.1.21367.13.199.1016");
+        final CountDownLatch validationsRunning = new CountDownLatch(2);
+        final List<Boolean> overlapped = Collections.synchronizedList(new ArrayList<Boolean>());
+        MrrtReportTemplateServiceImpl serviceImpl = (MrrtReportTemplateServiceImpl) ((Advised) mrrtReportTemplateService)
+                .getTargetSource()
+                .getTarget();
+        serviceImpl.setValidator(new MrrtReportTemplateValidator() {
+            
+            
+            @Override
+            public ParsedMrrtReportTemplate validate(String mrrtTemplate) throws IOException {
+                return validator.validate(mrrtTemplate);
+            }
+            
+            @Override
+            public ParsedMrrtReportTemplate validate(Path mrrtTemplateFile) throws IOException {
+                validationsRunning.countDown();
+                try {
+                    overlapped.add(validationsRunning.await(10, TimeUnit.SECONDS));
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread()
+                            .interrupt();
+                }
+                return validator.validate(mrrtTemplateFile);
+            }
+        });
+        
+        List<MrrtReportTemplateImportResult> importResults;
+        try {
+            importResults = mrrtReportTemplateService
+                    .importMrrtReportTemplates(newZipArchive("first.html", template, "other.html", otherTemplate));
+        }
+        finally {
+            serviceImpl.setValidator(validator);
+        }
+        
+        assertThat(overlapped, is(Arrays.asList(true, true)));
+        assertThat(importResults.size(), is(2));
+        assertThat(importResults.get(0)
+                .getFileName(),
+            is("first.html"));
+        assertTrue(importResults.get(0)
+                .isImported());
+        assertThat(importResults.get(1)
+                .getFileName(),
+            is("other.html"));
+        assertTrue(importResults.get(1)
+                .isImported());
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfGivenArchiveHasMoreEntriesThanTheMaximum() throws Exception {
+        
+        setUpTemporaryFolder();
+        administrationService.setGlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES, "1");
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        String otherTemplate = template.replace(TEMPLATE_IDENTIFIER, "1.3.6.1.4.1.21367.13.199.1016");
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.MrrtReportTemplate.import.archive.too.many.entries");
+        mrrtReportTemplateService
+                .importMrrtReportTemplates(newZipArchive("first.html", template, "other.html", otherTemplate));
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfATemplateOfGivenArchiveIsLargerThanTheMaximumTemplateSize() throws Exception {
+        
+        setUpTemporaryFolder();
+        administrationService.setGlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_SIZE, "100");
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.MrrtReportTemplate.import.archive.entry.too.large");
+        mrrtReportTemplateService.importMrrtReportTemplates(newZipArchive("CTChestAbdomen.html", template));
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfTheTemplatesOfGivenArchiveAreLargerThanTheMaximumArchiveSize() throws Exception {
+        
+        setUpTemporaryFolder();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        String otherTemplate = template.replace(TEMPLATE_IDENTIFIER, "1.3.6.1.4.1.21367.13.199.1016");
+        administrationService.setGlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_SIZE,
+            String.valueOf(template.getBytes(StandardCharsets.UTF_8).length + 1));
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("radiology.MrrtReportTemplate.import.archive.too.large");
+        mrrtReportTemplateService
+                .importMrrtReportTemplates(newZipArchive("first.html", template, "other.html", otherTemplate));
+    }
+    
+    @Test
+    public void shouldNotLeaveASpooledFileInTheReportTemplateDirectoryIfALimitIsExceeded() throws Exception {
+        
+        setUpTemporaryFolder();
+        administrationService.setGlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_SIZE, "100");
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        try {
+            mrrtReportTemplateService.importMrrtReportTemplates(newZipArchive("CTChestAbdomen.html", template));
+            fail("expected APIException");
+        }
+        catch (APIException e) {
+            // expected since the template is larger than the maximum template size
+        }
+        assertThat(temporaryFolder.getRoot()
+                .toPath()
+                .resolve("mrrt_templates")
+                .toFile()
+                .list().length,
+            is(0));
+    }
+    
+    @Test
+    public void shouldDeleteTheTemplateFilesStoredBeforeALimitIsExceededOnceTheTransactionRollsBack() throws Exception {
+        
+        setUpTemporaryFolder();
+        administrationService.setGlobalProperty(RadiologyConstants.GP_MAX_MRRT_REPORT_TEMPLATE_ARCHIVE_ENTRIES, "1");
+        commitTestData();
+        String template = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        String otherTemplate = template.replace(TEMPLATE_IDENTIFIER, "1.3.6.1.4.1.21367.13.199.1016");
+        final InputStream zipArchive = newZipArchive("first.html", template, "other.html", otherTemplate);
+        
+        Exception failure = runInNewSession(() -> mrrtReportTemplateService.importMrrtReportTemplates(zipArchive));
+        
+        assertThat(failure.getMessage(), containsString("radiology.MrrtReportTemplate.import.archive.too.many.entries"));
+        assertThat(countTemplateFiles(), is(0L));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenZipArchiveIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("zipArchive cannot be null");
+        mrrtReportTemplateService.importMrrtReportTemplates(null);
+    }
+    
     @Test
     public void shouldGetAllTemplatesThatMatchGivenTitleSearchQueryIfTitleIsSpecified() throws Exception {
         
@@ -510,6 +1088,56 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         assertThat(bodyContentReturned, is("<p>Sample Template</p>"));
     }
     
+    @Test
+    public void shouldReturnTheCachedBodyContentIfTheTemplateFileWasNotModified() throws Exception {
+        
+        File tmpTemplateFile = temporaryFolder.newFile();
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Cached Template</p></body></html>");
+        long lastModified = tmpTemplateFile.lastModified();
+        MrrtReportTemplate mockTemplate = mock(MrrtReportTemplate.class);
+        when(mockTemplate.getUuid()).thenReturn(UUID.randomUUID()
+                .toString());
+        when(mockTemplate.getPath()).thenReturn(tmpTemplateFile.getAbsolutePath());
+        mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(mockTemplate);
+        
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Changed Template</p></body></html>");
+        assertTrue(tmpTemplateFile.setLastModified(lastModified));
+        
+        assertThat(mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(mockTemplate), is("<p>Cached Template</p>"));
+    }
+    
+    @Test
+    public void shouldReadTheBodyContentAgainIfTheTemplateFileWasModified() throws Exception {
+        
+        File tmpTemplateFile = temporaryFolder.newFile();
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Cached Template</p></body></html>");
+        long lastModified = tmpTemplateFile.lastModified();
+        MrrtReportTemplate mockTemplate = mock(MrrtReportTemplate.class);
+        when(mockTemplate.getUuid()).thenReturn(UUID.randomUUID()
+                .toString());
+        when(mockTemplate.getPath()).thenReturn(tmpTemplateFile.getAbsolutePath());
+        mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(mockTemplate);
+        
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Changed Template</p></body></html>");
+        assertTrue(tmpTemplateFile.setLastModified(lastModified + 2000));
+        
+        assertThat(mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(mockTemplate), is("<p>Changed Template</p>"));
+    }
+    
+    @Test
+    public void shouldCacheTheBodyContentOfAllMrrtReportTemplates() throws Exception {
+        
+        setUpTemporaryFolder();
+        MrrtReportTemplate saved = mrrtReportTemplateService
+                .importMrrtReportTemplate(getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html"));
+        File templateFile = new File(saved.getPath());
+        htmlBodyCache.remove(saved.getUuid());
+        
+        mrrtReportTemplateService.cacheMrrtReportTemplateHtmlBodies();
+        
+        assertNotNull(htmlBodyCache.get(saved.getUuid(), templateFile.getAbsolutePath(), templateFile.lastModified()));
+    }
+    
     @Test
     public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
         
@@ -0,0 +1,103 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.xml.sax.SAXException;
+
+/**
+ * Benchmarks validating the templates of an import of {@value #NUMBER_OF_TEMPLATES} MRRT report templates with
+ * {@link XsdMrrtReportTemplateValidator} against compiling the schema for every template as it was done before.
+ * <p>
+ * Run {@link #main(String[])} with the test classpath of the api module.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(MrrtReportTemplateValidatorBenchmark.NUMBER_OF_TEMPLATES)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class MrrtReportTemplateValidatorBenchmark {
+    
+    
+    static final int NUMBER_OF_TEMPLATES = 1000;
+    
+    private static final String MRRT_REPORT_TEMPLATE = "mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html";
+    
+    private final XsdMrrtReportTemplateValidator validator = new XsdMrrtReportTemplateValidator();
+    
+    private String template;
+    
+    @Setup
+    public void setUp() throws IOException {
+        
+        validator.setMetaTagsValidationEngine(new MetaTagsValidationEngine());
+        try (InputStream in = getClass().getClassLoader()
+                .getResourceAsStream(MRRT_REPORT_TEMPLATE)) {
+            template = IOUtils.toString(in, StandardCharsets.UTF_8.name());
+        }
+    }
+    
+    @Benchmark
+    public void cachedSchema() throws IOException {
+        
+        for (int i = 0; i < NUMBER_OF_TEMPLATES; i++) {
+            validator.validate(template);
+        }
+    }
+    
+    @Benchmark
+    public void schemaCompiledPerTemplate() throws IOException, SAXException {
+        
+        final URL schemaUrl = getClass().getClassLoader()
+                .getResource("MrrtReportTemplateSchema.xsd");
+        for (int i = 0; i < NUMBER_OF_TEMPLATES; i++) {
+            final Validator schemaValidator = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                    .newSchema(schemaUrl)
+                    .newValidator();
+            try (InputStream in = IOUtils.toInputStream(template, StandardCharsets.UTF_8.name())) {
+                schemaValidator.validate(new StreamSource(in));
+            }
+        }
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        
+        new Runner(new OptionsBuilder().include(MrrtReportTemplateValidatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
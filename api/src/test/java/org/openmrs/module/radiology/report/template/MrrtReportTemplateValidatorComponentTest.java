@@ -17,11 +17,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.openmrs.api.APIException;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +41,9 @@ public class MrrtReportTemplateValidatorComponentTest extends BaseModuleContextS
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
     /**
      * Get a files content as string.
      *
@@ -84,6 +90,83 @@ public class MrrtReportTemplateValidatorComponentTest extends BaseModuleContextS
         validator.validate(templateContent);
     }
     
+    @Test
+    public void shouldReturnTheMetaElementsAndTermCodesOfGivenTemplate() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        ParsedMrrtReportTemplate parsedTemplate = validator.validate(templateContent);
+        
+        assertThat(parsedTemplate.getMetaTags()
+                .size(),
+            is(11));
+        assertThat(parsedTemplate.getMetaTags()
+                .attr("charset"),
+            is("UTF-8"));
+        assertThat(parsedTemplate.getMetaTags()
+                .get(1)
+                .attr("content"),
+            is("CT Chest-Abdomen"));
+        assertThat(parsedTemplate.getCodes()
+                .size(),
+            is(3));
+        assertThat(parsedTemplate.getCodes()
+                .get(0)
+                .getScheme(),
+            is("RADLEX"));
+        assertThat(parsedTemplate.getCodes()
+                .get(0)
+                .getValue(),
+            is("RID10321"));
+        assertThat(parsedTemplate.getCodes()
+                .get(2)
+                .getValue(),
+            is("RID1243"));
+    }
+    
+    @Test
+    public void shouldReturnTheMetaElementsAndTermCodesOfGivenTemplateFile() throws Exception {
+        
+        File templateFile = getFile("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        ParsedMrrtReportTemplate parsedTemplate = validator.validate(templateFile.toPath());
+        
+        assertThat(parsedTemplate.getMetaTags()
+                .size(),
+            is(11));
+        assertThat(parsedTemplate.getCodes()
+                .size(),
+            is(3));
+    }
+    
+    @Test
+    public void shouldDecodeGivenTemplateFileUsingTheCharsetDeclaredByItsMetaElement() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html")
+                .replace("<meta charset=\"UTF-8\"/>", "<meta charset=\"ISO-8859-1\"/>")
+                .replace("content=\"CT Chest-Abdomen\"", "content=\"CT Thorax-Abdomen f\u00fcr Erwachsene\"");
+        File templateFile = temporaryFolder.newFile();
+        Files.write(templateFile.toPath(), templateContent.getBytes(StandardCharsets.ISO_8859_1));
+        
+        ParsedMrrtReportTemplate parsedTemplate = validator.validate(templateFile.toPath());
+        
+        assertThat(parsedTemplate.getMetaTags()
+                .attr("charset"),
+            is("ISO-8859-1"));
+        assertThat(parsedTemplate.getMetaTags()
+                .get(1)
+                .attr("content"),
+            is("CT Thorax-Abdomen f\u00fcr Erwachsene"));
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfGivenTemplateFileIsInvalid() throws Exception {
+        
+        expectedException.expect(APIException.class);
+        validator.validate(getFile("mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-noBodyElement.html")
+                .toPath());
+    }
+    
     @Test
     public void shouldFailIfTemplateDoesNotHaveAnHtmlElement() throws Exception {
         
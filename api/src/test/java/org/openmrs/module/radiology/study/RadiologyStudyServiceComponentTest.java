@@ -14,6 +14,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
 import java.util.Properties;
 
 import org.hibernate.cfg.Environment;
@@ -22,8 +23,11 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.openmrs.api.APIException;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistItem;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistService;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -56,6 +60,9 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
     @Autowired
     private RadiologyStudyService radiologyStudyService;
     
+    @Autowired
+    private RadiologyWorklistService radiologyWorklistService;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -101,6 +108,46 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
         assertThat(createdStudy.getRadiologyOrder(), is(radiologyStudy.getRadiologyOrder()));
     }
     
+    /**
+     * @see RadiologyStudyService#saveRadiologyStudy(RadiologyStudy)
+     */
+    @Test
+    public void shouldCreateTheRadiologyWorklistItemOfTheRadiologyOrderOfGivenRadiologyStudy() throws Exception {
+        
+        RadiologyStudy radiologyStudy = getUnsavedStudy();
+        radiologyStudy.setPerformedStatus(PerformedProcedureStepStatus.IN_PROGRESS);
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_ID_WITHOUT_STUDY);
+        radiologyOrder.setStudy(radiologyStudy);
+        assertNull(radiologyWorklistService.getRadiologyWorklistItem(RADIOLOGY_ORDER_ID_WITHOUT_STUDY));
+        
+        radiologyStudyService.saveRadiologyStudy(radiologyStudy);
+        
+        RadiologyWorklistItem radiologyWorklistItem =
+                radiologyWorklistService.getRadiologyWorklistItem(RADIOLOGY_ORDER_ID_WITHOUT_STUDY);
+        assertNotNull(radiologyWorklistItem);
+        assertThat(radiologyWorklistItem.getAccessionNumber(), is(radiologyOrder.getAccessionNumber()));
+        assertThat(radiologyWorklistItem.getPerformedStatus(), is(PerformedProcedureStepStatus.IN_PROGRESS));
+    }
+    
+    /**
+     * @see RadiologyStudyService#saveRadiologyStudies(java.util.List)
+     */
+    @Test
+    public void shouldCreateTheRadiologyWorklistItemsOfTheRadiologyOrdersOfGivenRadiologyStudies() throws Exception {
+        
+        RadiologyStudy radiologyStudy = getUnsavedStudy();
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_ID_WITHOUT_STUDY);
+        radiologyOrder.setStudy(radiologyStudy);
+        assertNull(radiologyWorklistService.getRadiologyWorklistItem(RADIOLOGY_ORDER_ID_WITHOUT_STUDY));
+        
+        radiologyStudyService.saveRadiologyStudies(Arrays.asList(radiologyStudy));
+        
+        RadiologyWorklistItem radiologyWorklistItem =
+                radiologyWorklistService.getRadiologyWorklistItem(RADIOLOGY_ORDER_ID_WITHOUT_STUDY);
+        assertNotNull(radiologyWorklistItem);
+        assertThat(radiologyWorklistItem.getAccessionNumber(), is(radiologyOrder.getAccessionNumber()));
+    }
+    
     /**
      * Convenience method to get a RadiologyStudy object with all required values filled (except
      * radiologyOrder) in but which is not yet saved in the database
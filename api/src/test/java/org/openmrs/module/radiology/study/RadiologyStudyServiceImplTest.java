@@ -11,11 +11,18 @@ package org.openmrs.module.radiology.study;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.StringStartsWith.startsWith;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -23,6 +30,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.dicom.DicomUidGenerator;
+import org.openmrs.module.radiology.dicom.DicomUidGeneratorStrategy;
+import org.openmrs.module.radiology.worklist.RadiologyWorklistService;
 import org.openmrs.test.BaseContextMockTest;
 
 /**
@@ -43,6 +52,12 @@ public class RadiologyStudyServiceImplTest extends BaseContextMockTest {
     @Mock
     private RadiologyProperties radiologyProperties;
     
+    @Mock
+    private RadiologyStudyDAO radiologyStudyDAO;
+    
+    @Mock
+    private RadiologyWorklistService radiologyWorklistService;
+    
     @InjectMocks
     private RadiologyStudyServiceImpl radiologyStudyServiceImpl = new RadiologyStudyServiceImpl();
     
@@ -97,4 +112,40 @@ public class RadiologyStudyServiceImplTest extends BaseContextMockTest {
         assertNotNull(radiologyStudy.getStudyInstanceUid());
         assertThat(radiologyStudy.getStudyInstanceUid(), is(DICOM_UID_2));
     }
+    
+    @Test
+    public void saveRadiologyStudies_shouldReadTheDicomUidOrgRootOnceForAllGivenRadiologyStudies() throws Exception {
+        
+        List<RadiologyStudy> radiologyStudies =
+                Arrays.asList(new RadiologyStudy(), new RadiologyStudy(), new RadiologyStudy());
+        
+        radiologyStudyServiceImpl.saveRadiologyStudies(radiologyStudies);
+        
+        verify(radiologyProperties, times(1)).getDicomUIDOrgRoot();
+        for (RadiologyStudy radiologyStudy : radiologyStudies) {
+            assertThat(radiologyStudy.getStudyInstanceUid(), is(DICOM_UID_1));
+            verify(radiologyStudyDAO).saveRadiologyStudy(radiologyStudy);
+        }
+        verifyZeroInteractions(radiologyWorklistService);
+    }
+    
+    @Test
+    public void saveRadiologyStudies_shouldUseTheTimeBasedDicomUidGeneratorIfConfigured() throws Exception {
+        
+        when(radiologyProperties.getDicomUidGeneratorStrategy()).thenReturn(DicomUidGeneratorStrategy.TIME_BASED);
+        when(radiologyProperties.getAccessionNumberNodeId()).thenReturn(7);
+        List<RadiologyStudy> radiologyStudies = Arrays.asList(new RadiologyStudy(), new RadiologyStudy());
+        
+        radiologyStudyServiceImpl.saveRadiologyStudies(radiologyStudies);
+        
+        assertThat(radiologyStudies.get(0)
+                .getStudyInstanceUid(),
+            startsWith(ORG_ROOT_UID + ".7."));
+        assertThat(radiologyStudies.get(1)
+                .getStudyInstanceUid(),
+            is(not(radiologyStudies.get(0)
+                    .getStudyInstanceUid())));
+        verify(radiologyProperties, times(1)).getDicomUidGeneratorStrategy();
+        verifyZeroInteractions(dicomUidGenerator);
+    }
 }
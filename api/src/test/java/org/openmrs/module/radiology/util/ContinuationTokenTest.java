@@ -0,0 +1,89 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link ContinuationToken}.
+ */
+public class ContinuationTokenTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * @see ContinuationToken#ContinuationToken(String, Integer)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenIdIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("id cannot be null");
+        new ContinuationToken("1", null);
+    }
+    
+    /**
+     * @see ContinuationToken#encode()
+     */
+    @Test
+    public void shouldEncodeContinuationTokenWhichCanBeDecodedAgain() throws Exception {
+        
+        ContinuationToken continuationToken = new ContinuationToken("2016:10:1", 2001);
+        
+        ContinuationToken decoded = ContinuationToken.decode(continuationToken.encode());
+        
+        assertThat(decoded.getSortKey(), is("2016:10:1"));
+        assertThat(decoded.getId(), is(2001));
+    }
+    
+    /**
+     * @see ContinuationToken#encode()
+     */
+    @Test
+    public void shouldEncodeContinuationTokenWithoutSortKeyWhichCanBeDecodedAgain() throws Exception {
+        
+        ContinuationToken continuationToken = new ContinuationToken(null, 2001);
+        
+        ContinuationToken decoded = ContinuationToken.decode(continuationToken.encode());
+        
+        assertThat(decoded.getSortKey(), is(nullValue()));
+        assertThat(decoded.getId(), is(2001));
+    }
+    
+    /**
+     * @see ContinuationToken#decode(String)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenEncodedTokenIsBlank() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("encodedToken cannot be null or empty");
+        ContinuationToken.decode("  ");
+    }
+    
+    /**
+     * @see ContinuationToken#decode(String)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenEncodedTokenIsMalformed() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("encodedToken is not a valid continuation token");
+        ContinuationToken.decode("bm90LWFuLWlk");
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.util;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks translating a {@link UUID} into its decimal representation via {@link java.math.BigInteger} against
+ * {@link DecimalUuid#getChars(long, long, int, char[])}.
+ * <p>
+ * The UUIDs are created up front so that only the translation is measured. {@link #main(String[])} runs with the GC
+ * profiler, its {@code gc.alloc.rate.norm} column shows the bytes allocated per translation. Run it with the test
+ * classpath of the api module.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class DecimalUuidBenchmark {
+    
+    
+    private static final int NUMBER_OF_UUIDS = 1024;
+    
+    private final UUID[] uuids = new UUID[NUMBER_OF_UUIDS];
+    
+    private final char[] buffer = new char[DecimalUuid.MAX_DECIMAL_LENGTH];
+    
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        
+        for (int i = 0; i < NUMBER_OF_UUIDS; i++) {
+            uuids[i] = UUID.randomUUID();
+        }
+    }
+    
+    private UUID nextUuid() {
+        
+        next = (next + 1) & (NUMBER_OF_UUIDS - 1);
+        return uuids[next];
+    }
+    
+    @Benchmark
+    public String bigInteger() {
+        return new DecimalUuid(nextUuid()).toString();
+    }
+    
+    @Benchmark
+    public String toDecimalString() {
+        return DecimalUuid.toDecimalString(nextUuid());
+    }
+    
+    @Benchmark
+    public void getCharsIntoReusedBuffer(Blackhole blackhole) {
+        
+        final UUID uuid = nextUuid();
+        blackhole.consume(DecimalUuid.getChars(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(),
+            DecimalUuid.MAX_DECIMAL_LENGTH, buffer));
+        blackhole.consume(buffer);
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        
+        new Runner(new OptionsBuilder().include(DecimalUuidBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
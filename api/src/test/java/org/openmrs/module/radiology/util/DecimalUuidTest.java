@@ -14,6 +14,8 @@ import static org.hamcrest.Matchers.is;
 
 import java.lang.reflect.Method;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.UUID;
 
 import org.junit.Before;
@@ -64,4 +66,79 @@ public class DecimalUuidTest {
         assertThat(expectedBigIntegerTestUuid3,
             is(getBigIntegerFromUuuidMethod.invoke(decimalUuid, new Object[] { testUuid3 })));
     }
+    
+    /**
+     * @see DecimalUuid#getChars(long, long, int, char[])
+     */
+    @Test
+    public void shouldWriteTheSameDigitsAsTheBigIntegerTranslationOfTheUnsignedValue() throws Exception {
+        
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            // shifting by a random amount also covers values with fewer digits
+            UUID uuid = new UUID(random.nextLong() >>> random.nextInt(64), random.nextLong() >>> random.nextInt(64));
+            assertThat(getChars(uuid), is(new DecimalUuid(uuid).toString()));
+        }
+        
+        BigInteger powerOfTen = BigInteger.ONE;
+        for (int exponent = 0; exponent < DecimalUuid.MAX_DECIMAL_LENGTH; exponent++) {
+            for (BigInteger value : new BigInteger[] { powerOfTen.subtract(BigInteger.ONE), powerOfTen,
+                    powerOfTen.add(BigInteger.ONE) }) {
+                if (value.bitLength() <= 128) {
+                    UUID uuid = new UUID(value.shiftRight(64)
+                            .longValue(),
+                            value.longValue());
+                    assertThat(getChars(uuid), is(value.toString()));
+                }
+            }
+            powerOfTen = powerOfTen.multiply(BigInteger.TEN);
+        }
+    }
+    
+    /**
+     * @see DecimalUuid#getChars(long, long, int, char[])
+     */
+    @Test
+    public void shouldWriteASingleZeroIfGivenValueIsZero() throws Exception {
+        
+        assertThat(getChars(new UUID(0, 0)), is("0"));
+    }
+    
+    /**
+     * @see DecimalUuid#getChars(long, long, int, char[])
+     */
+    @Test
+    public void shouldWriteTheDigitsOfTheMaximumUnsigned128BitValue() throws Exception {
+        
+        assertThat(getChars(new UUID(-1, -1)), is("340282366920938463463374607431768211455"));
+    }
+    
+    /**
+     * @see DecimalUuid#toDecimalString(UUID)
+     */
+    @Test
+    public void shouldReturnTheSameDecimalRepresentationAsTheBigIntegerTranslation() throws Exception {
+        
+        UUID uuid = java.util.UUID.fromString("d1e08f60-0246-11e6-973b-0002a5d5c51b");
+        
+        assertThat(DecimalUuid.toDecimalString(uuid), is("278974633606539821744827903865060181275"));
+        for (int i = 0; i < 1000; i++) {
+            uuid = java.util.UUID.randomUUID();
+            assertThat(DecimalUuid.toDecimalString(uuid), is(new DecimalUuid(uuid).toString()));
+        }
+    }
+    
+    /**
+     * Write the digits of given uuid into the middle of a larger buffer to check nothing outside the digits is touched.
+     */
+    private String getChars(UUID uuid) {
+        
+        char[] buffer = new char[DecimalUuid.MAX_DECIMAL_LENGTH + 10];
+        Arrays.fill(buffer, 'x');
+        int end = DecimalUuid.MAX_DECIMAL_LENGTH + 5;
+        int start = DecimalUuid.getChars(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), end, buffer);
+        assertThat(buffer[start - 1], is('x'));
+        assertThat(buffer[end], is('x'));
+        return new String(buffer, start, end - start);
+    }
 }
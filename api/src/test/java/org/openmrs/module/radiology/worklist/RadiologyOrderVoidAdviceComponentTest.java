@@ -0,0 +1,113 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Method;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.Order;
+import org.openmrs.api.OrderService;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests {@link RadiologyOrderVoidAdvice}.
+ */
+public class RadiologyOrderVoidAdviceComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/RadiologyOrderServiceComponentTestDataset.xml";
+    
+    private static final int EXISTING_RADIOLOGY_ORDER_ID = 2001;
+    
+    private static final int NON_EXISTING_ORDER_ID = 99999;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private RadiologyOrderService radiologyOrderService;
+    
+    @Autowired
+    private RadiologyWorklistService radiologyWorklistService;
+    
+    private RadiologyOrderVoidAdvice radiologyOrderVoidAdvice = new RadiologyOrderVoidAdvice();
+    
+    private Method voidOrder;
+    
+    private Method unvoidOrder;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        voidOrder = OrderService.class.getMethod("voidOrder", Order.class, String.class);
+        unvoidOrder = OrderService.class.getMethod("unvoidOrder", Order.class);
+    }
+    
+    @Test
+    public void shouldUpdateTheRadiologyWorklistItemOfAVoidedRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        radiologyWorklistService.updateRadiologyWorklistItem(radiologyOrder);
+        
+        Order voidedOrder = orderService.voidOrder(radiologyOrder, "wrong patient");
+        radiologyOrderVoidAdvice.afterReturning(voidedOrder, voidOrder, new Object[] { radiologyOrder, "wrong patient" },
+            orderService);
+        
+        assertThat(radiologyWorklistService.getRadiologyWorklistItem(EXISTING_RADIOLOGY_ORDER_ID)
+                .getVoided(),
+            is(true));
+    }
+    
+    @Test
+    public void shouldUpdateTheRadiologyWorklistItemOfAnUnvoidedRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        orderService.voidOrder(radiologyOrder, "wrong patient");
+        radiologyWorklistService.updateRadiologyWorklistItem(radiologyOrder);
+        
+        Order unvoidedOrder = orderService.unvoidOrder(radiologyOrder);
+        radiologyOrderVoidAdvice.afterReturning(unvoidedOrder, unvoidOrder, new Object[] { radiologyOrder }, orderService);
+        
+        assertThat(radiologyWorklistService.getRadiologyWorklistItem(EXISTING_RADIOLOGY_ORDER_ID)
+                .getVoided(),
+            is(false));
+    }
+    
+    @Test
+    public void shouldNotCreateARadiologyWorklistItemForAnOrderWhichIsNotARadiologyOrder() throws Exception {
+        
+        Order order = new Order(NON_EXISTING_ORDER_ID);
+        
+        radiologyOrderVoidAdvice.afterReturning(order, voidOrder, new Object[] { order, "wrong patient" }, orderService);
+        
+        assertThat(radiologyWorklistService.getRadiologyWorklistItem(NON_EXISTING_ORDER_ID), is(nullValue()));
+    }
+    
+    @Test
+    public void shouldIgnoreOtherOrderServiceMethods() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID);
+        
+        radiologyOrderVoidAdvice.afterReturning(radiologyOrder, OrderService.class.getMethod("getOrder", Integer.class),
+            new Object[] { EXISTING_RADIOLOGY_ORDER_ID }, orderService);
+        
+        assertThat(radiologyWorklistService.getRadiologyWorklistItem(EXISTING_RADIOLOGY_ORDER_ID), is(nullValue()));
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.Order;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+
+/**
+ * Tests {@link RadiologyWorklistItem}.
+ */
+public class RadiologyWorklistItemTest {
+    
+    
+    private RadiologyOrder radiologyOrder;
+    
+    private RadiologyWorklistItem radiologyWorklistItem;
+    
+    @Before
+    public void setUp() {
+        
+        radiologyOrder = new RadiologyOrder();
+        radiologyOrder.setOrderId(1);
+        radiologyOrder.setAccessionNumber("1");
+        radiologyOrder.setPatient(new Patient(1));
+        radiologyOrder.setConcept(new Concept(1));
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2015, Calendar.FEBRUARY, 4, 14, 35, 0);
+        radiologyOrder.setScheduledDate(calendar.getTime());
+        radiologyOrder.setUrgency(Order.Urgency.ON_SCHEDULED_DATE);
+        radiologyOrder.setVoided(false);
+        final RadiologyStudy radiologyStudy = new RadiologyStudy();
+        radiologyStudy.setPerformedStatus(PerformedProcedureStepStatus.COMPLETED);
+        radiologyOrder.setStudy(radiologyStudy);
+        
+        radiologyWorklistItem = new RadiologyWorklistItem(radiologyOrder.getOrderId());
+    }
+    
+    @Test
+    public void shouldCopyOrderPropertiesAndPerformedStatusOfTheStudyOfGivenRadiologyOrder() throws Exception {
+        
+        radiologyWorklistItem.update(radiologyOrder, null);
+        
+        assertThat(radiologyWorklistItem.getOrderId(), is(1));
+        assertThat(radiologyWorklistItem.getAccessionNumber(), is("1"));
+        assertThat(radiologyWorklistItem.getPatient(), is(radiologyOrder.getPatient()));
+        assertThat(radiologyWorklistItem.getConcept(), is(radiologyOrder.getConcept()));
+        assertThat(radiologyWorklistItem.getUrgency(), is(Order.Urgency.ON_SCHEDULED_DATE));
+        assertThat(radiologyWorklistItem.getEffectiveStartDate(), is(radiologyOrder.getScheduledDate()));
+        assertThat(radiologyWorklistItem.getVoided(), is(false));
+        assertThat(radiologyWorklistItem.getPerformedStatus(), is(PerformedProcedureStepStatus.COMPLETED));
+    }
+    
+    @Test
+    public void shouldSetPerformedStatusToNullIfGivenRadiologyOrderHasNoStudy() throws Exception {
+        
+        radiologyOrder.setStudy(null);
+        
+        radiologyWorklistItem.update(radiologyOrder, null);
+        
+        assertThat(radiologyWorklistItem.getPerformedStatus(), is(nullValue()));
+    }
+    
+    @Test
+    public void shouldCopyReportStatusAndPrincipalResultsInterpreterOfGivenRadiologyReport() throws Exception {
+        
+        final RadiologyReport radiologyReport = new RadiologyReport(radiologyOrder);
+        final Provider principalResultsInterpreter = new Provider(1);
+        radiologyReport.setPrincipalResultsInterpreter(principalResultsInterpreter);
+        
+        radiologyWorklistItem.update(radiologyOrder, radiologyReport);
+        
+        assertThat(radiologyWorklistItem.getReportStatus(), is(radiologyReport.getStatus()));
+        assertThat(radiologyWorklistItem.getPrincipalResultsInterpreter(), is(principalResultsInterpreter));
+    }
+    
+    @Test
+    public void shouldSetReportStatusAndPrincipalResultsInterpreterToNullIfGivenRadiologyReportIsNull()
+            throws Exception {
+        
+        final RadiologyReport radiologyReport = new RadiologyReport(radiologyOrder);
+        radiologyReport.setStatus(RadiologyReportStatus.DRAFT);
+        radiologyReport.setPrincipalResultsInterpreter(new Provider(1));
+        radiologyWorklistItem.update(radiologyOrder, radiologyReport);
+        
+        radiologyWorklistItem.update(radiologyOrder, null);
+        
+        assertThat(radiologyWorklistItem.getReportStatus(), is(nullValue()));
+        assertThat(radiologyWorklistItem.getPrincipalResultsInterpreter(), is(nullValue()));
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.Order.Urgency;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+
+/**
+ * Tests {@link RadiologyWorklistSearchCriteria}.
+ */
+public class RadiologyWorklistSearchCriteriaTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Test
+    public void shouldCreateANewRadiologyWorklistSearchCriteriaInstanceWithAllPropertiesSetOnTheBuilder()
+            throws Exception {
+        
+        final Patient patient = new Patient(1);
+        final Provider principalResultsInterpreter = new Provider(1);
+        final Date fromDate = new Date(0);
+        final Date toDate = new Date();
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder().withPatient(patient)
+                        .includeVoided()
+                        .withUrgency(Urgency.STAT)
+                        .fromEffectiveStartDate(fromDate)
+                        .toEffectiveStartDate(toDate)
+                        .withAccessionNumber("1")
+                        .withPerformedStatus(PerformedProcedureStepStatus.IN_PROGRESS)
+                        .withReportStatus(RadiologyReportStatus.DRAFT)
+                        .withPrincipalResultsInterpreter(principalResultsInterpreter)
+                        .withOffset(10)
+                        .withLimit(20)
+                        .build();
+        
+        assertThat(radiologyWorklistSearchCriteria.getPatient(), is(patient));
+        assertTrue(radiologyWorklistSearchCriteria.getIncludeVoided());
+        assertThat(radiologyWorklistSearchCriteria.getUrgency(), is(Urgency.STAT));
+        assertThat(radiologyWorklistSearchCriteria.getFromEffectiveStartDate(), is(fromDate));
+        assertThat(radiologyWorklistSearchCriteria.getToEffectiveStartDate(), is(toDate));
+        assertThat(radiologyWorklistSearchCriteria.getAccessionNumber(), is("1"));
+        assertThat(radiologyWorklistSearchCriteria.getPerformedStatus(), is(PerformedProcedureStepStatus.IN_PROGRESS));
+        assertThat(radiologyWorklistSearchCriteria.getReportStatus(), is(RadiologyReportStatus.DRAFT));
+        assertThat(radiologyWorklistSearchCriteria.getPrincipalResultsInterpreter(), is(principalResultsInterpreter));
+        assertThat(radiologyWorklistSearchCriteria.getOffset(), is(10));
+        assertThat(radiologyWorklistSearchCriteria.getLimit(), is(20));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfOffsetIsNegative() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("offset cannot be negative");
+        new RadiologyWorklistSearchCriteria.Builder().withOffset(-1);
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfLimitIsNotPositive() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("limit must be greater than zero");
+        new RadiologyWorklistSearchCriteria.Builder().withLimit(0);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.api.PatientService;
+import org.openmrs.api.ProviderService;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests {@link RadiologyWorklistService}.
+ */
+public class RadiologyWorklistServiceComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/RadiologyWorklistServiceComponentTestDataset.xml";
+    
+    private static final int PATIENT_ID_WITH_TWO_WORKLIST_ITEMS = 2;
+    
+    private static final int PROVIDER_ID_WITH_TWO_REPORTS = 1;
+    
+    private static final int EXISTING_ORDER_ID = 3001;
+    
+    private static final int NON_EXISTING_ORDER_ID = 99999;
+    
+    @Autowired
+    private RadiologyWorklistService radiologyWorklistService;
+    
+    @Autowired
+    private PatientService patientService;
+    
+    @Autowired
+    private ProviderService providerService;
+    
+    private DateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Before
+    public void setUp() throws Exception {
+        executeDataSet(TEST_DATASET);
+    }
+    
+    @Test
+    public void shouldReturnRadiologyWorklistItemMatchingGivenOrderId() throws Exception {
+        
+        RadiologyWorklistItem radiologyWorklistItem = radiologyWorklistService.getRadiologyWorklistItem(EXISTING_ORDER_ID);
+        
+        assertThat(radiologyWorklistItem.getOrderId(), is(EXISTING_ORDER_ID));
+        assertThat(radiologyWorklistItem.getAccessionNumber(), is("3001"));
+        assertThat(radiologyWorklistItem.getReportStatus(), is(RadiologyReportStatus.COMPLETED));
+    }
+    
+    @Test
+    public void shouldReturnNullIfNoMatchWasFound() throws Exception {
+        
+        assertThat(radiologyWorklistService.getRadiologyWorklistItem(NON_EXISTING_ORDER_ID), is(nullValue()));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyWorklistItemsForGivenPatient() throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder()
+                        .withPatient(patientService.getPatient(PATIENT_ID_WITH_TWO_WORKLIST_ITEMS))
+                        .build();
+        
+        List<RadiologyWorklistItem> radiologyWorklistItems =
+                radiologyWorklistService.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+        
+        assertThat(getOrderIds(radiologyWorklistItems), contains(3001, 3002));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyWorklistItemsIncludingVoidedIfIncludeVoidedIsSet() throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder().includeVoided()
+                        .build();
+        
+        List<RadiologyWorklistItem> radiologyWorklistItems =
+                radiologyWorklistService.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+        
+        assertThat(getOrderIds(radiologyWorklistItems), contains(3001, 3002, 3003, 3004));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyWorklistItemsWithEffectiveStartDateInGivenDateRange() throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder().fromEffectiveStartDate(format.parse("2016-06-02"))
+                        .toEffectiveStartDate(format.parse("2016-06-05"))
+                        .build();
+        
+        List<RadiologyWorklistItem> radiologyWorklistItems =
+                radiologyWorklistService.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+        
+        assertThat(getOrderIds(radiologyWorklistItems), contains(3002, 3003));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyWorklistItemsWithGivenPerformedStatus() throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder().withPerformedStatus(PerformedProcedureStepStatus.COMPLETED)
+                        .build();
+        
+        List<RadiologyWorklistItem> radiologyWorklistItems =
+                radiologyWorklistService.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+        
+        assertThat(getOrderIds(radiologyWorklistItems), contains(3001, 3003));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyWorklistItemsWithGivenReportStatus() throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder().withReportStatus(RadiologyReportStatus.DRAFT)
+                        .build();
+        
+        List<RadiologyWorklistItem> radiologyWorklistItems =
+                radiologyWorklistService.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+        
+        assertThat(getOrderIds(radiologyWorklistItems), contains(3003));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyWorklistItemsForGivenPrincipalResultsInterpreter() throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder()
+                        .withPrincipalResultsInterpreter(providerService.getProvider(PROVIDER_ID_WITH_TWO_REPORTS))
+                        .build();
+        
+        List<RadiologyWorklistItem> radiologyWorklistItems =
+                radiologyWorklistService.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+        
+        assertThat(getOrderIds(radiologyWorklistItems), containsInAnyOrder(3001, 3003));
+    }
+    
+    @Test
+    public void shouldReturnAPageOfRadiologyWorklistItemsIfOffsetAndLimitAreSpecified() throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder().includeVoided()
+                        .withOffset(1)
+                        .withLimit(2)
+                        .build();
+        
+        List<RadiologyWorklistItem> radiologyWorklistItems =
+                radiologyWorklistService.getRadiologyWorklistItems(radiologyWorklistSearchCriteria);
+        
+        assertThat(getOrderIds(radiologyWorklistItems), contains(3002, 3003));
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfRadiologyWorklistItemsMatchingGivenCriteriaIgnoringOffsetAndLimit()
+            throws Exception {
+        
+        RadiologyWorklistSearchCriteria radiologyWorklistSearchCriteria =
+                new RadiologyWorklistSearchCriteria.Builder().withOffset(1)
+                        .withLimit(1)
+                        .build();
+        
+        assertThat(radiologyWorklistService.getRadiologyWorklistItemCount(radiologyWorklistSearchCriteria), is(3L));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNullToGetRadiologyWorklistItems() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyWorklistSearchCriteria cannot be null");
+        radiologyWorklistService.getRadiologyWorklistItems(null);
+    }
+    
+    private List<Integer> getOrderIds(List<RadiologyWorklistItem> radiologyWorklistItems) {
+        
+        final List<Integer> result = new ArrayList<Integer>();
+        for (RadiologyWorklistItem radiologyWorklistItem : radiologyWorklistItems) {
+            result.add(radiologyWorklistItem.getOrderId());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.worklist;
+
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests {@link RadiologyWorklistService}.
+ */
+public class RadiologyWorklistServiceTest extends BaseContextMockTest {
+    
+    
+    @InjectMocks
+    private RadiologyWorklistService radiologyWorklistService = new RadiologyWorklistServiceImpl();
+    
+    @Mock
+    private RadiologyWorklistDAO radiologyWorklistDAO;
+    
+    @Mock
+    private RadiologyOrder radiologyOrder;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder cannot be null");
+        radiologyWorklistService.updateRadiologyWorklistItem(null);
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenRadiologyOrderWithOrderIdNull() throws Exception {
+        
+        when(radiologyOrder.getOrderId()).thenReturn(null);
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder.orderId cannot be null");
+        radiologyWorklistService.updateRadiologyWorklistItem(radiologyOrder);
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenRadiologyOrdersAreNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders cannot be null");
+        radiologyWorklistService.updateRadiologyWorklistItems(null);
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenRadiologyOrdersContainRadiologyOrderWithOrderIdNull()
+            throws Exception {
+        
+        when(radiologyOrder.getOrderId()).thenReturn(null);
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrder.orderId cannot be null");
+        radiologyWorklistService.updateRadiologyWorklistItems(Arrays.asList(radiologyOrder));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenOrderIdIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("orderId cannot be null");
+        radiologyWorklistService.getRadiologyWorklistItem(null);
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenSearchCriteriaToCountIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyWorklistSearchCriteria cannot be null");
+        radiologyWorklistService.getRadiologyWorklistItemCount(null);
+    }
+}
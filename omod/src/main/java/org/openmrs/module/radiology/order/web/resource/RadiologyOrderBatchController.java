@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.web.RadiologyRestController;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.api.RestService;
+import org.openmrs.module.webservices.rest.web.representation.Representation;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+import org.openmrs.module.webservices.rest.web.response.ResponseException;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Controller placing many {@code RadiologyOrder's} with one request and one transaction.
+ * <p>
+ * The request body is a JSON array of radiology orders with the creatable properties of
+ * {@link RadiologyOrderResource}, the response contains the placed radiology orders in their default representation
+ * in the order given. Requests with more radiology orders than configured by
+ * {@link RadiologyProperties#getMaxRadiologyOrderBatchSize()} are rejected since all orders are placed in one
+ * transaction.
+ * </p>
+ *
+ * @see RadiologyOrderService#placeRadiologyOrders(List)
+ */
+@Controller
+@RequestMapping("/rest/" + RestConstants.VERSION_1 + RadiologyRestController.RADIOLOGY_REST_NAMESPACE
+        + RadiologyOrderBatchController.RADIOLOGY_ORDER_BATCH_REQUEST_MAPPING)
+public class RadiologyOrderBatchController extends BaseRestController {
+    
+    
+    protected static final String RADIOLOGY_ORDER_BATCH_REQUEST_MAPPING = "/radiologyorderbatch";
+    
+    @Autowired
+    private RadiologyProperties radiologyProperties;
+    
+    /**
+     * Place given radiology orders.
+     *
+     * @param radiologyOrders the properties of the radiology orders to place
+     * @param response the http servlet response
+     * @return the placed radiology orders
+     * @throws IllegalRequestException if given more radiology orders than the maximum radiology order batch size
+     * @throws ResponseException if a radiology order cannot be converted or placed
+     * @should place all given radiology orders and return them
+     * @should not place any radiology order if one of the given radiology orders is invalid
+     * @should throw illegal request exception if given more radiology orders than the maximum batch size
+     */
+    @RequestMapping(method = RequestMethod.POST)
+    @ResponseBody
+    public SimpleObject placeRadiologyOrders(@RequestBody List<Map<String, Object>> radiologyOrders,
+            HttpServletResponse response) throws ResponseException {
+        
+        final int maxRadiologyOrderBatchSize = radiologyProperties.getMaxRadiologyOrderBatchSize();
+        if (radiologyOrders.size() > maxRadiologyOrderBatchSize) {
+            throw new IllegalRequestException(
+                    "Cannot place more than " + maxRadiologyOrderBatchSize + " radiology orders with one request");
+        }
+        
+        final RadiologyOrderResource radiologyOrderResource = (RadiologyOrderResource) Context
+                .getService(RestService.class)
+                .getResourceBySupportedClass(RadiologyOrder.class);
+        
+        final List<RadiologyOrder> newRadiologyOrders = new ArrayList<RadiologyOrder>(radiologyOrders.size());
+        for (Map<String, Object> properties : radiologyOrders) {
+            final RadiologyOrder radiologyOrder = new RadiologyOrder();
+            radiologyOrder.setStudy(new RadiologyStudy());
+            radiologyOrderResource.setConvertedProperties(radiologyOrder, properties,
+                radiologyOrderResource.getCreatableProperties(), true);
+            newRadiologyOrders.add(radiologyOrder);
+        }
+        
+        final List<SimpleObject> results = new ArrayList<SimpleObject>(newRadiologyOrders.size());
+        for (RadiologyOrder radiologyOrder : Context.getService(RadiologyOrderService.class)
+                .placeRadiologyOrders(newRadiologyOrders)) {
+            results.add(radiologyOrderResource.asRepresentation(radiologyOrder, Representation.DEFAULT));
+        }
+        response.setStatus(HttpServletResponse.SC_CREATED);
+        return new SimpleObject().add("results", results);
+    }
+}
@@ -95,6 +95,29 @@ public class RadiologyOrderResource extends DataDelegatingCrudResource<Radiology
         }
     }
     
+    /**
+     * Radiology orders cannot be created one at a time through this resource, these are the properties accepted per
+     * radiology order by {@link RadiologyOrderBatchController}.
+     *
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#getCreatableProperties()
+     * @should return properties of a new radiology order
+     */
+    @Override
+    public DelegatingResourceDescription getCreatableProperties() {
+        
+        final DelegatingResourceDescription description = new DelegatingResourceDescription();
+        description.addRequiredProperty("patient");
+        description.addRequiredProperty("concept");
+        description.addRequiredProperty("orderer");
+        description.addProperty("urgency");
+        description.addProperty("scheduledDate");
+        description.addProperty("orderReason");
+        description.addProperty("orderReasonNonCoded");
+        description.addProperty("instructions");
+        description.addProperty("commentToFulfiller");
+        return description;
+    }
+    
     /**
      * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#getResourceVersion()
      * @should return supported resource version
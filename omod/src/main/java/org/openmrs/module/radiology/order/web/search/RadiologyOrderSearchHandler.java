@@ -20,6 +20,8 @@ import org.openmrs.api.context.Context;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.util.ContinuationToken;
+import org.openmrs.module.radiology.web.search.KeysetPagedResult;
 import org.openmrs.module.webservices.rest.web.ConversionUtil;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
@@ -29,7 +31,6 @@ import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.PatientResource1_9;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,13 +55,15 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
     
     public static final String REQUEST_PARAM_TOTAL_COUNT = "totalCount";
     
+    public static final String REQUEST_PARAM_CONTINUATION_TOKEN = "continuationToken";
+    
     @Autowired
     RadiologyOrderService radiologyOrderService;
     
     SearchQuery searchQuery = new SearchQuery.Builder("Allows you to search for RadiologyOrder's by patient and urgency")
             .withOptionalParameters(REQUEST_PARAM_ACCESSION_NUMBER, REQUEST_PARAM_PATIENT,
                 REQUEST_PARAM_EFFECTIVE_START_DATE_FROM, REQUEST_PARAM_EFFECTIVE_START_DATE_TO, REQUEST_PARAM_URGENCY,
-                REQUEST_PARAM_TOTAL_COUNT)
+                REQUEST_PARAM_TOTAL_COUNT, REQUEST_PARAM_CONTINUATION_TOKEN)
             .build();
     
     private final SearchConfig searchConfig =
@@ -91,6 +94,9 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
      * @should throw illegal argument exception if urgency doesn't exist
      * @should return all radiology orders matching the search query and totalCount if
      *         requested
+     * @should return the requested page of radiology orders given start index and limit
+     * @should return the next page of radiology orders and a continuation token given a continuation token
+     * @should throw illegal argument exception if continuation token is malformed
      */
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
@@ -130,12 +136,23 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
         final String accessionNumber = context.getRequest()
                 .getParameter(REQUEST_PARAM_ACCESSION_NUMBER);
         
+        final String continuationTokenString = context.getRequest()
+                .getParameter(REQUEST_PARAM_CONTINUATION_TOKEN);
+        ContinuationToken continuationToken = null;
+        if (StringUtils.isNotBlank(continuationTokenString)) {
+            continuationToken = ContinuationToken.decode(continuationTokenString);
+        }
+        
+        final Integer limitIncludingNextPageProbe = getLimitIncludingNextPageProbe(context);
         final RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
                 new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(accessionNumber)
                         .withPatient(patient)
                         .fromEffectiveStartDate(fromEffectiveStartDate)
                         .toEffectiveStartDate(toEffectiveStartDate)
                         .withUrgency(urgency)
+                        .withContinuationToken(continuationToken)
+                        .withOffset(continuationToken == null ? context.getStartIndex() : null)
+                        .withLimit(limitIncludingNextPageProbe)
                         .build();
         
         final List<RadiologyOrder> result = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
@@ -143,6 +160,40 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
         if (result.isEmpty()) {
             return new EmptySearchResult();
         }
-        return new NeedsPaging<RadiologyOrder>(result, context);
+        
+        final boolean hasMoreResults =
+                limitIncludingNextPageProbe != null && result.size() == limitIncludingNextPageProbe;
+        if (hasMoreResults) {
+            result.remove(result.size() - 1);
+        }
+        
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyOrderService.getRadiologyOrderCount(radiologyOrderSearchCriteria);
+        }
+        
+        ContinuationToken nextContinuationToken = null;
+        if (hasMoreResults) {
+            final RadiologyOrder lastRadiologyOrder = result.get(result.size() - 1);
+            nextContinuationToken =
+                    new ContinuationToken(lastRadiologyOrder.getAccessionNumber(), lastRadiologyOrder.getOrderId());
+        }
+        return new KeysetPagedResult<RadiologyOrder>(context, result, hasMoreResults, totalCount, nextContinuationToken);
+    }
+    
+    /**
+     * Get the number of radiology orders to fetch for the current page, which is one more than the requested limit so
+     * that the existence of a next page can be determined without counting all matches.
+     * 
+     * @param context the request context holding the requested limit
+     * @return the requested limit plus one or null if no limit was requested
+     */
+    private Integer getLimitIncludingNextPageProbe(RequestContext context) {
+        
+        if (context.getLimit() == null || context.getLimit() < 1) {
+            return null;
+        }
+        return context.getLimit() + 1;
     }
 }
@@ -0,0 +1,107 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template.web.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
+import org.openmrs.module.radiology.report.template.ValidationError;
+import org.openmrs.module.radiology.web.RadiologyRestController;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.api.RestService;
+import org.openmrs.module.webservices.rest.web.representation.Representation;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Controller importing all {@code MrrtReportTemplate's} of a ZIP archive with one request.
+ * <p>
+ * The request is a multipart request with the archive as part {@code file}, the response contains the import result of
+ * each file of the archive in the order of the archive with the imported template in its default representation or
+ * the reason why the file was not imported.
+ * </p>
+ *
+ * @see MrrtReportTemplateService#importMrrtReportTemplates(InputStream)
+ */
+@Controller
+@RequestMapping("/rest/" + RestConstants.VERSION_1 + RadiologyRestController.RADIOLOGY_REST_NAMESPACE
+        + MrrtReportTemplateImportController.MRRT_REPORT_TEMPLATE_IMPORT_REQUEST_MAPPING)
+public class MrrtReportTemplateImportController extends BaseRestController {
+    
+    
+    protected static final String MRRT_REPORT_TEMPLATE_IMPORT_REQUEST_MAPPING = "/mrrtreporttemplateimport";
+    
+    /**
+     * Import the mrrt report templates of given ZIP archive.
+     *
+     * @param file the ZIP archive of mrrt report templates
+     * @param response the http servlet response
+     * @return the import result of each file of the archive
+     * @throws IOException if the archive cannot be read or a template cannot be stored
+     * @should return the import result of each file of given archive
+     */
+    @RequestMapping(method = RequestMethod.POST)
+    @ResponseBody
+    public SimpleObject importMrrtReportTemplates(@RequestParam("file") MultipartFile file, HttpServletResponse response)
+            throws IOException {
+        
+        final List<MrrtReportTemplateImportResult> importResults;
+        try (InputStream in = file.getInputStream()) {
+            importResults = Context.getService(MrrtReportTemplateService.class)
+                    .importMrrtReportTemplates(in);
+        }
+        
+        final MrrtReportTemplateResource mrrtReportTemplateResource = (MrrtReportTemplateResource) Context
+                .getService(RestService.class)
+                .getResourceBySupportedClass(MrrtReportTemplate.class);
+        final List<SimpleObject> results = new ArrayList<SimpleObject>(importResults.size());
+        for (MrrtReportTemplateImportResult importResult : importResults) {
+            final SimpleObject result = new SimpleObject().add("fileName", importResult.getFileName())
+                    .add("imported", importResult.isImported());
+            if (importResult.isImported()) {
+                result.add("mrrtReportTemplate",
+                    mrrtReportTemplateResource.asRepresentation(importResult.getMrrtReportTemplate(),
+                        Representation.DEFAULT));
+            } else {
+                result.add("error", getMessage(importResult.getErrorMessage()));
+                final List<String> validationErrors = new ArrayList<String>();
+                for (ValidationError validationError : importResult.getValidationErrors()) {
+                    validationErrors.add(validationError.getDescription());
+                }
+                result.add("validationErrors", validationErrors);
+            }
+            results.add(result);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        return new SimpleObject().add("results", results);
+    }
+    
+    private String getMessage(String code) {
+        if (code == null) {
+            return null;
+        }
+        return Context.getMessageSourceService()
+                .getMessage(code, null, code, Context.getLocale());
+    }
+}
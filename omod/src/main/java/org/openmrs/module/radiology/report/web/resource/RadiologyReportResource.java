@@ -50,6 +50,7 @@ public class RadiologyReportResource extends DataDelegatingCrudResource<Radiolog
         } else if (rep instanceof FullRepresentation) {
             final DelegatingResourceDescription description = new DelegatingResourceDescription();
             addDefaultProperties(description);
+            description.addProperty("body");
             description.addProperty("auditInfo");
             description.addSelfLink();
             return description;
@@ -65,7 +66,6 @@ public class RadiologyReportResource extends DataDelegatingCrudResource<Radiolog
         description.addProperty("date");
         description.addProperty("principalResultsInterpreter", Representation.REF);
         description.addProperty("status");
-        description.addProperty("body");
         description.addProperty("display");
         description.addProperty("voided");
     }
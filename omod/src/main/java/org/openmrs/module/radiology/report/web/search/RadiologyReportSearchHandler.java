@@ -20,6 +20,8 @@ import org.openmrs.module.radiology.report.RadiologyReport;
 import org.openmrs.module.radiology.report.RadiologyReportSearchCriteria;
 import org.openmrs.module.radiology.report.RadiologyReportService;
 import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.module.radiology.util.ContinuationToken;
+import org.openmrs.module.radiology.web.search.KeysetPagedResult;
 import org.openmrs.module.webservices.rest.web.ConversionUtil;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
@@ -29,7 +31,6 @@ import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.ProviderResource1_9;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,16 +53,20 @@ public class RadiologyReportSearchHandler implements SearchHandler {
     
     public static final String REQUEST_PARAM_STATUS = "status";
     
+    public static final String REQUEST_PARAM_TEXT = "text";
+    
     public static final String REQUEST_PARAM_TOTAL_COUNT = "totalCount";
     
+    public static final String REQUEST_PARAM_CONTINUATION_TOKEN = "continuationToken";
+    
     @Autowired
     RadiologyReportService radiologyReportService;
     
     SearchQuery searchQuery = new SearchQuery.Builder(
-            "Allows you to search for RadiologyReport's by from date, to date and principal results interpreter")
+            "Allows you to search for RadiologyReport's by from date, to date, principal results interpreter and text")
                     .withOptionalParameters(RestConstants.REQUEST_PROPERTY_FOR_INCLUDE_ALL, REQUEST_PARAM_DATE_FROM,
                         REQUEST_PARAM_DATE_TO, REQUEST_PARAM_PRINCIPAL_RESULT_INTERPRETER, REQUEST_PARAM_STATUS,
-                        REQUEST_PARAM_TOTAL_COUNT)
+                        REQUEST_PARAM_TEXT, REQUEST_PARAM_TOTAL_COUNT, REQUEST_PARAM_CONTINUATION_TOKEN)
                     .build();
     
     private final SearchConfig searchConfig =
@@ -91,6 +96,12 @@ public class RadiologyReportSearchHandler implements SearchHandler {
      * @should return empty search result if no report exists for given status
      * @should throw illegal argument exception if report status doesn't exist
      * @should return all radiology reports matching the search query and totalCount if requested
+     * @should return the requested page of radiology reports given start index and limit
+     * @should return the first page of radiology reports and a continuation token if more reports exist
+     * @should return the next page of radiology reports given a continuation token
+     * @should throw illegal argument exception if continuation token is malformed
+     * @should return radiology reports whose body contains given text ranked by relevance
+     * @should return the next page of radiology reports matching given text given start index and limit
      */
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
@@ -127,6 +138,18 @@ public class RadiologyReportSearchHandler implements SearchHandler {
             status = RadiologyReportStatus.valueOf(statusString);
         }
         
+        final String text = StringUtils.trimToNull(context.getRequest()
+                .getParameter(REQUEST_PARAM_TEXT));
+        
+        final String continuationTokenString = context.getRequest()
+                .getParameter(REQUEST_PARAM_CONTINUATION_TOKEN);
+        ContinuationToken continuationToken = null;
+        if (StringUtils.isNotBlank(continuationTokenString)) {
+            continuationToken = ContinuationToken.decode(continuationTokenString);
+        }
+        
+        final Integer limitIncludingNextPageProbe = getLimitIncludingNextPageProbe(context);
+        
         RadiologyReportSearchCriteria.Builder radiologyReportSearchCriteriaBuilder =
                 new RadiologyReportSearchCriteria.Builder();
         if (context.getIncludeAll()) {
@@ -136,6 +159,10 @@ public class RadiologyReportSearchHandler implements SearchHandler {
                 .toDate(toDate)
                 .withPrincipalResultsInterpreter(principalResultsInterpreter)
                 .withStatus(status)
+                .withText(text)
+                .withContinuationToken(continuationToken)
+                .withOffset(continuationToken == null ? context.getStartIndex() : null)
+                .withLimit(limitIncludingNextPageProbe)
                 .build();
         
         final List<RadiologyReport> result = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
@@ -143,6 +170,46 @@ public class RadiologyReportSearchHandler implements SearchHandler {
         if (result.isEmpty()) {
             return new EmptySearchResult();
         }
-        return new NeedsPaging<RadiologyReport>(result, context);
+        
+        final boolean hasMoreResults =
+                limitIncludingNextPageProbe != null && result.size() == limitIncludingNextPageProbe;
+        if (hasMoreResults) {
+            result.remove(result.size() - 1);
+        }
+        
+        Long totalCount = null;
+        boolean totalCountCapped = false;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyReportService.getRadiologyReportCount(radiologyReportSearchCriteria);
+            // a text search counts only the radiology reports it ranks
+            totalCountCapped = text != null && totalCount >= RadiologyReportSearchCriteria.MAX_TEXT_MATCHES;
+        }
+        
+        // text search results are ranked by relevance and paged by start index rather than continuation token
+        ContinuationToken nextContinuationToken = null;
+        if (hasMoreResults && text == null) {
+            final RadiologyReport lastRadiologyReport = result.get(result.size() - 1);
+            final String sortKey = lastRadiologyReport.getDate() == null ? null : String.valueOf(lastRadiologyReport.getDate()
+                    .getTime());
+            nextContinuationToken = new ContinuationToken(sortKey, lastRadiologyReport.getId());
+        }
+        return new KeysetPagedResult<RadiologyReport>(context, result, hasMoreResults, totalCount, totalCountCapped,
+                nextContinuationToken);
+    }
+    
+    /**
+     * Get the number of radiology reports to fetch for the current page, which is one more than the requested limit so
+     * that the existence of a next page can be determined without counting all matches.
+     * 
+     * @param context the request context holding the requested limit
+     * @return the requested limit plus one or null if no limit was requested
+     */
+    private Integer getLimitIncludingNextPageProbe(RequestContext context) {
+        
+        if (context.getLimit() == null || context.getLimit() < 1) {
+            return null;
+        }
+        return context.getLimit() + 1;
     }
 }
@@ -0,0 +1,102 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web.search;
+
+import java.util.List;
+
+import org.openmrs.module.radiology.util.ContinuationToken;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.resource.api.Converter;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
+import org.openmrs.module.webservices.rest.web.response.ResponseException;
+
+/**
+ * A page of search results which were already paged in the database and which carries the continuation token
+ * clients pass back to fetch the next page via keyset pagination.
+ *
+ * @see org.openmrs.module.radiology.util.ContinuationToken
+ */
+public class KeysetPagedResult<T> extends AlreadyPaged<T> {
+    
+    
+    public static final String PROPERTY_CONTINUATION_TOKEN = "continuationToken";
+    
+    public static final String PROPERTY_TOTAL_COUNT_CAPPED = "totalCountCapped";
+    
+    private final ContinuationToken continuationToken;
+    
+    private final boolean totalCountCapped;
+    
+    /**
+     * Create a {@code KeysetPagedResult} for given page of results.
+     *
+     * @param context the request context
+     * @param results the page of results
+     * @param hasMoreResults whether there are results after this page
+     * @param totalCount the total number of matches or null if not requested
+     * @param continuationToken the position of the last result of this page or null if there are no more results
+     */
+    public KeysetPagedResult(RequestContext context, List<T> results, boolean hasMoreResults, Long totalCount,
+        ContinuationToken continuationToken) {
+        this(context, results, hasMoreResults, totalCount, false, continuationToken);
+    }
+    
+    /**
+     * Create a {@code KeysetPagedResult} for given page of results whose total count may stop at a maximum.
+     *
+     * @param context the request context
+     * @param results the page of results
+     * @param hasMoreResults whether there are results after this page
+     * @param totalCount the total number of matches or null if not requested
+     * @param totalCountCapped whether the total count reached the maximum so that more results may match
+     * @param continuationToken the position of the last result of this page or null if there are no more results
+     */
+    public KeysetPagedResult(RequestContext context, List<T> results, boolean hasMoreResults, Long totalCount,
+        boolean totalCountCapped, ContinuationToken continuationToken) {
+        super(context, results, hasMoreResults, totalCount);
+        this.totalCountCapped = totalCountCapped;
+        this.continuationToken = continuationToken;
+    }
+    
+    /**
+     * Get the position of the last result of this page.
+     *
+     * @return the continuation token or null if there are no more results
+     */
+    public ContinuationToken getContinuationToken() {
+        return continuationToken;
+    }
+    
+    /**
+     * Get whether the total count reached its maximum.
+     *
+     * @return true if more results may match than the total count
+     */
+    public boolean isTotalCountCapped() {
+        return totalCountCapped;
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BasePageableResult#toSimpleObject(Converter)
+     */
+    @Override
+    public SimpleObject toSimpleObject(Converter<?> preferredConverter) throws ResponseException {
+        
+        final SimpleObject result = super.toSimpleObject(preferredConverter);
+        if (continuationToken != null) {
+            result.add(PROPERTY_CONTINUATION_TOKEN, continuationToken.encode());
+        }
+        if (totalCountCapped) {
+            result.add(PROPERTY_TOTAL_COUNT_CAPPED, true);
+        }
+        return result;
+    }
+}
@@ -197,6 +197,39 @@
         </ul>
     </div>
 </c:if>
+<c:if test="${not empty mrrtReportTemplateImportResults}" >
+    </br>
+    <b class="boxHeader"><spring:message code="radiology.reportTemplates.import.results.header" /></b>
+    <div class="box">
+        <table cellspacing="5">
+            <tr>
+                <th><spring:message code="radiology.reportTemplates.import.results.file" /></th>
+                <th><spring:message code="radiology.reportTemplates.import.results.result" /></th>
+            </tr>
+            <c:forEach items="${mrrtReportTemplateImportResults}" var="importResult">
+                <tr>
+                    <td><c:out value="${importResult.fileName}" /></td>
+                    <td>
+                        <c:choose>
+                            <c:when test="${importResult.imported}">
+                                <spring:message code="radiology.MrrtReportTemplate.imported" />
+                            </c:when>
+                            <c:otherwise>
+                                <span class="error"><spring:message code="${importResult.errorMessage}"
+                                    text="${importResult.errorMessage}" htmlEscape="true" /></span>
+                                <ul>
+                                <c:forEach items="${importResult.validationErrors}" var="validationError">
+                                    <li><spring:message code="${validationError.messageCode}" text="${validationError.description}" /></li>
+                                </c:forEach>
+                                </ul>
+                            </c:otherwise>
+                        </c:choose>
+                    </td>
+                </tr>
+            </c:forEach>
+        </table>
+    </div>
+</c:if>
 
 <openmrs:hasPrivilege privilege="View Radiology Report Templates">
   <div id="radiologyReportTemplates">
@@ -213,6 +246,14 @@
               <input type="file" name="templateFile" size="40" /> <input type="submit" name="uploadReportTemplate"
                 value='<openmrs:message code="radiology.reportTemplates.import.popup.upload"/>' />
             </form>
+            <br />
+            <openmrs:message code="radiology.reportTemplates.import.popup.archive" />
+            <form id="templateArchiveAddForm" action="radiologyDashboardReportTemplatesTab.htm" method="post"
+              enctype="multipart/form-data">
+              <input type="file" name="templateArchive" size="40" accept=".zip" /> <input type="submit"
+                name="uploadReportTemplateArchive"
+                value='<openmrs:message code="radiology.reportTemplates.import.popup.upload"/>' />
+            </form>
           </div>
           <br />
         </div>
@@ -0,0 +1,167 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.resource;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.order.AccessionNumberGeneratorStrategy;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.response.ConversionException;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+import org.openmrs.web.test.BaseModuleWebContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Tests {@link RadiologyOrderBatchController}.
+ */
+public class RadiologyOrderBatchControllerComponentTest extends BaseModuleWebContextSensitiveTest {
+    
+    
+    protected static final String TEST_DATASET = "RadiologyOrderResourceComponentTestDataset.xml";
+    
+    private static final String PATIENT_UUID = "d2c1adbf-d9fa-11e5-90c3-08002719a237";
+    
+    private static final String CONCEPT_UUID = "1565b6e6-df81-11e4-98ec-08002798a7ad";
+    
+    private static final String PROVIDER_UUID = "c2299800-cca9-11e0-9572-0800200c9a66";
+    
+    @Autowired
+    @Qualifier("adminService")
+    private AdministrationService administrationService;
+    
+    @Autowired
+    private RadiologyOrderService radiologyOrderService;
+    
+    private RadiologyOrderBatchController radiologyOrderBatchController = new RadiologyOrderBatchController();
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        applicationContext.getAutowireCapableBeanFactory()
+                .autowireBean(radiologyOrderBatchController);
+        // the time based generator does not reserve accession numbers in a separate transaction which could not see
+        // the uncommitted test data
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_NODE_ID, "1"));
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR,
+                AccessionNumberGeneratorStrategy.TIME_BASED.name()));
+    }
+    
+    /**
+     * @see RadiologyOrderBatchController#placeRadiologyOrders(List, javax.servlet.http.HttpServletResponse)
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldPlaceAllGivenRadiologyOrdersAndReturnThem() throws Exception {
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        SimpleObject result = radiologyOrderBatchController
+                .placeRadiologyOrders(Arrays.asList(newRadiologyOrder("CT HEAD"), newRadiologyOrder("CT CHEST")), response);
+        
+        assertThat(response.getStatus(), is(201));
+        List<SimpleObject> results = (List<SimpleObject>) result.get("results");
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .get("instructions"),
+            is("CT HEAD"));
+        assertThat(results.get(1)
+                .get("instructions"),
+            is("CT CHEST"));
+        for (SimpleObject placedRadiologyOrder : results) {
+            RadiologyOrder radiologyOrder =
+                    radiologyOrderService.getRadiologyOrderByUuid((String) placedRadiologyOrder.get("uuid"));
+            assertThat(radiologyOrder.getAccessionNumber(), is(placedRadiologyOrder.get("accessionNumber")));
+        }
+    }
+    
+    /**
+     * @see RadiologyOrderBatchController#placeRadiologyOrders(List, javax.servlet.http.HttpServletResponse)
+     */
+    @Test
+    public void shouldNotPlaceAnyRadiologyOrderIfOneOfTheGivenRadiologyOrdersIsInvalid() throws Exception {
+        
+        long radiologyOrderCount = getRadiologyOrderCount();
+        Map<String, Object> withoutPatient = newRadiologyOrder("CT CHEST");
+        withoutPatient.remove("patient");
+        
+        try {
+            radiologyOrderBatchController.placeRadiologyOrders(
+                Arrays.asList(newRadiologyOrder("CT HEAD"), withoutPatient), new MockHttpServletResponse());
+            fail("expected ConversionException");
+        }
+        catch (ConversionException e) {
+            // expected since patient is a required property
+        }
+        assertThat(getRadiologyOrderCount(), is(radiologyOrderCount));
+    }
+    
+    /**
+     * @see RadiologyOrderBatchController#placeRadiologyOrders(List, javax.servlet.http.HttpServletResponse)
+     */
+    @Test
+    public void shouldThrowIllegalRequestExceptionIfGivenMoreRadiologyOrdersThanTheMaximumBatchSize() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MAX_RADIOLOGY_ORDER_BATCH_SIZE, "2"));
+        long radiologyOrderCount = getRadiologyOrderCount();
+        List<Map<String, Object>> radiologyOrders = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 3; i++) {
+            radiologyOrders.add(newRadiologyOrder("CT HEAD"));
+        }
+        
+        try {
+            radiologyOrderBatchController.placeRadiologyOrders(radiologyOrders, new MockHttpServletResponse());
+            fail("expected IllegalRequestException");
+        }
+        catch (IllegalRequestException e) {
+            assertThat(e.getMessage(), is("Cannot place more than 2 radiology orders with one request"));
+        }
+        // the rest controllers answer an exception with the status of its ResponseStatus annotation
+        assertThat(IllegalRequestException.class.getAnnotation(ResponseStatus.class)
+                .value(),
+            is(HttpStatus.BAD_REQUEST));
+        assertThat(getRadiologyOrderCount(), is(radiologyOrderCount));
+    }
+    
+    private Map<String, Object> newRadiologyOrder(String instructions) {
+        
+        return new SimpleObject().add("patient", PATIENT_UUID)
+                .add("concept", CONCEPT_UUID)
+                .add("orderer", PROVIDER_UUID)
+                .add("urgency", "ROUTINE")
+                .add("instructions", instructions);
+    }
+    
+    private long getRadiologyOrderCount() {
+        
+        return radiologyOrderService.getRadiologyOrderCount(new RadiologyOrderSearchCriteria.Builder().build());
+    }
+}
@@ -193,6 +193,28 @@ public class RadiologyOrderResourceTest {
         assertThat(radiologyOrderResource.getResourceVersion(), is(RestConstants2_0.RESOURCE_VERSION));
     }
     
+    /**
+     * @see RadiologyOrderResource#getCreatableProperties()
+     */
+    @Test
+    public void shouldReturnPropertiesOfANewRadiologyOrder() throws Exception {
+        
+        DelegatingResourceDescription description = radiologyOrderResource.getCreatableProperties();
+        
+        assertThat(description.getProperties()
+                .keySet(),
+            contains("patient", "concept", "orderer", "urgency", "scheduledDate", "orderReason", "orderReasonNonCoded",
+                "instructions", "commentToFulfiller"));
+        assertThat(description.getProperties()
+                .get("patient")
+                .isRequired(),
+            is(true));
+        assertThat(description.getProperties()
+                .get("scheduledDate")
+                .isRequired(),
+            is(false));
+    }
+    
     @Test
     public void shouldReturnRadiologyOrderGivenItsUuid() throws Exception {
         
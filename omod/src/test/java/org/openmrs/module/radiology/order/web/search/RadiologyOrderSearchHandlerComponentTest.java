@@ -28,6 +28,7 @@ import org.openmrs.api.PatientService;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.web.search.KeysetPagedResult;
 import org.openmrs.module.webservices.rest.SimpleObject;
 import org.openmrs.module.webservices.rest.test.Util;
 import org.openmrs.module.webservices.rest.web.RequestContext;
@@ -465,4 +466,88 @@ public class RadiologyOrderSearchHandlerComponentTest extends MainResourceContro
         assertNotNull(resultPatientAndUrgencyWithTwoOrders);
         assertThat(PropertyUtils.getProperty(resultPatientAndUrgencyWithTwoOrders, "totalCount"), is(2));
     }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnTheRequestedPageOfRadiologyOrdersGivenStartIndexAndLimit() throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestFirstPage.setParameter("limit", "1");
+        requestFirstPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        
+        assertNotNull(resultFirstPage);
+        List<Object> firstPageHits = (List<Object>) resultFirstPage.get("results");
+        assertThat(firstPageHits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(resultFirstPage, "totalCount"), is(2));
+        
+        MockHttpServletRequest requestSecondPage = request(RequestMethod.GET, getURI());
+        requestSecondPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestSecondPage.setParameter("startIndex", "1");
+        requestSecondPage.setParameter("limit", "1");
+        requestSecondPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        
+        SimpleObject resultSecondPage = deserialize(handle(requestSecondPage));
+        
+        assertNotNull(resultSecondPage);
+        List<Object> secondPageHits = (List<Object>) resultSecondPage.get("results");
+        assertThat(secondPageHits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(resultSecondPage, "totalCount"), is(2));
+        assertThat(PropertyUtils.getProperty(secondPageHits.get(0), "uuid")
+                .equals(PropertyUtils.getProperty(firstPageHits.get(0), "uuid")),
+            is(false));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnTheNextPageOfRadiologyOrdersAndAContinuationTokenGivenAContinuationToken() throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestFirstPage.setParameter("limit", "1");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        
+        assertNotNull(resultFirstPage);
+        List<Object> firstPageHits = (List<Object>) resultFirstPage.get("results");
+        assertThat(firstPageHits.size(), is(1));
+        String continuationToken = (String) resultFirstPage.get(KeysetPagedResult.PROPERTY_CONTINUATION_TOKEN);
+        assertNotNull(continuationToken);
+        
+        MockHttpServletRequest requestSecondPage = request(RequestMethod.GET, getURI());
+        requestSecondPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestSecondPage.setParameter("limit", "1");
+        requestSecondPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_CONTINUATION_TOKEN, continuationToken);
+        
+        SimpleObject resultSecondPage = deserialize(handle(requestSecondPage));
+        
+        assertNotNull(resultSecondPage);
+        List<Object> secondPageHits = (List<Object>) resultSecondPage.get("results");
+        assertThat(secondPageHits.size(), is(1));
+        assertNull(resultSecondPage.get(KeysetPagedResult.PROPERTY_CONTINUATION_TOKEN));
+        assertThat(PropertyUtils.getProperty(secondPageHits.get(0), "uuid")
+                .equals(PropertyUtils.getProperty(firstPageHits.get(0), "uuid")),
+            is(false));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfContinuationTokenIsMalformed() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_CONTINUATION_TOKEN, "bm90LWFuLWlk");
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("encodedToken is not a valid continuation token");
+        deserialize(handle(request));
+    }
 }
@@ -12,6 +12,7 @@ package org.openmrs.module.radiology.report.template.web;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -21,6 +22,8 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -31,6 +34,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateValidationException;
 import org.openmrs.module.radiology.report.template.ValidationError;
@@ -98,7 +102,7 @@ public class RadiologyDashboardReportTemplatesTabControllerTest extends BaseCont
         ModelAndView modelAndView =
                 radiologyDashboardReportTemplatesTabController.uploadReportTemplate(request, multipartFile);
         
-        verify(mrrtReportTemplateService).importMrrtReportTemplate(MOCK_TEMPLATE_CONTENT);
+        verify(mrrtReportTemplateService).importMrrtReportTemplate(any(InputStream.class));
         verifyNoMoreInteractions(mrrtReportTemplateService);
         
         assertNotNull(modelAndView);
@@ -139,12 +143,12 @@ public class RadiologyDashboardReportTemplatesTabControllerTest extends BaseCont
         MrrtReportTemplateValidationException mrrtReportTemplateValidationException =
                 new MrrtReportTemplateValidationException(validationResult);
         doThrow(mrrtReportTemplateValidationException).when(mrrtReportTemplateService)
-                .importMrrtReportTemplate(MOCK_TEMPLATE_CONTENT);
+                .importMrrtReportTemplate(any(InputStream.class));
         
         ModelAndView modelAndView =
                 radiologyDashboardReportTemplatesTabController.uploadReportTemplate(request, multipartFile);
         
-        verify(mrrtReportTemplateService).importMrrtReportTemplate(MOCK_TEMPLATE_CONTENT);
+        verify(mrrtReportTemplateService).importMrrtReportTemplate(any(InputStream.class));
         verifyNoMoreInteractions(mrrtReportTemplateService);
         
         assertNotNull(modelAndView);
@@ -163,12 +167,12 @@ public class RadiologyDashboardReportTemplatesTabControllerTest extends BaseCont
     public void shouldSetErrorMessageInSessionWhenApiExceptionIsThrown() throws Exception {
         
         doThrow(new APIException("Cannot import the same template twice.")).when(mrrtReportTemplateService)
-                .importMrrtReportTemplate(MOCK_TEMPLATE_CONTENT);
+                .importMrrtReportTemplate(any(InputStream.class));
         
         ModelAndView modelAndView =
                 radiologyDashboardReportTemplatesTabController.uploadReportTemplate(request, multipartFile);
         
-        verify(mrrtReportTemplateService).importMrrtReportTemplate(MOCK_TEMPLATE_CONTENT);
+        verify(mrrtReportTemplateService).importMrrtReportTemplate(any(InputStream.class));
         verifyNoMoreInteractions(mrrtReportTemplateService);
         
         assertNotNull(modelAndView);
@@ -184,12 +188,12 @@ public class RadiologyDashboardReportTemplatesTabControllerTest extends BaseCont
     public void shouldSetErrorMessageInSessionWhenIoExceptionIsThrown() throws Exception {
         
         doThrow(new IOException("File could not be read.")).when(mrrtReportTemplateService)
-                .importMrrtReportTemplate(MOCK_TEMPLATE_CONTENT);
+                .importMrrtReportTemplate(any(InputStream.class));
         
         ModelAndView modelAndView =
                 radiologyDashboardReportTemplatesTabController.uploadReportTemplate(request, multipartFile);
         
-        verify(mrrtReportTemplateService).importMrrtReportTemplate(MOCK_TEMPLATE_CONTENT);
+        verify(mrrtReportTemplateService).importMrrtReportTemplate(any(InputStream.class));
         verifyNoMoreInteractions(mrrtReportTemplateService);
         
         assertNotNull(modelAndView);
@@ -201,6 +205,78 @@ public class RadiologyDashboardReportTemplatesTabControllerTest extends BaseCont
         assertThat(errorMessage, is("Failed to import mrrtReportTemplate.html => File could not be read."));
     }
     
+    @Test
+    public void shouldGiveErrorMessageWhenTemplateArchiveIsEmpty() throws Exception {
+        
+        MultipartFile emptyFile = mock(MultipartFile.class);
+        when(emptyFile.isEmpty()).thenReturn(true);
+        
+        ModelAndView modelAndView =
+                radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, emptyFile);
+        
+        verifyZeroInteractions(mrrtReportTemplateService);
+        
+        assertThat(modelAndView.getViewName(),
+            is(RadiologyDashboardReportTemplatesTabController.RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is("radiology.MrrtReportTemplate.not.imported.empty"));
+    }
+    
+    @Test
+    public void shouldAddImportResultsToModelAndSetMessageWithNumberOfImportedTemplatesInSession() throws Exception {
+        
+        MrrtReportTemplateImportResult imported = mock(MrrtReportTemplateImportResult.class);
+        when(imported.isImported()).thenReturn(true);
+        MrrtReportTemplateImportResult failed = mock(MrrtReportTemplateImportResult.class);
+        List<MrrtReportTemplateImportResult> importResults = Arrays.asList(imported, failed);
+        when(mrrtReportTemplateService.importMrrtReportTemplates(any(InputStream.class))).thenReturn(importResults);
+        
+        ModelAndView modelAndView =
+                radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, multipartFile);
+        
+        verify(mrrtReportTemplateService).importMrrtReportTemplates(any(InputStream.class));
+        verifyNoMoreInteractions(mrrtReportTemplateService);
+        
+        assertThat(modelAndView.getViewName(),
+            is(RadiologyDashboardReportTemplatesTabController.RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW));
+        assertThat(modelAndView.getModelMap()
+                .get("mrrtReportTemplateImportResults"),
+            is(importResults));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_MSG_ATTR),
+            is("radiology.MrrtReportTemplate.archive.imported"));
+        assertThat((Object[]) request.getSession()
+                .getAttribute(WebConstants.OPENMRS_MSG_ARGS),
+            is(new Object[] { 1, 2 }));
+    }
+    
+    @Test
+    public void shouldSetErrorMessageInSessionWhenApiExceptionIsThrownImportingAnArchive() throws Exception {
+        
+        doThrow(new APIException("Import was interrupted.")).when(mrrtReportTemplateService)
+                .importMrrtReportTemplates(any(InputStream.class));
+        
+        radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, multipartFile);
+        
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is("Failed to import mrrtReportTemplate.html => Import was interrupted."));
+    }
+    
+    @Test
+    public void shouldSetErrorMessageInSessionWhenIoExceptionIsThrownImportingAnArchive() throws Exception {
+        
+        doThrow(new IOException("Archive could not be read.")).when(mrrtReportTemplateService)
+                .importMrrtReportTemplates(any(InputStream.class));
+        
+        radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, multipartFile);
+        
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is("Failed to import mrrtReportTemplate.html => Archive could not be read."));
+    }
+    
     @Test
     public void
             deleteMrrtReportTemplate_shouldReturnAModelAndViewOfTheRadiologyDashboardReportTemplatesPageWithAStatusMessage() {
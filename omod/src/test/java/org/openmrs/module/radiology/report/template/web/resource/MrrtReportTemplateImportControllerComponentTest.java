@@ -0,0 +1,71 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template.web.resource;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.web.test.BaseModuleWebContextSensitiveTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Tests {@link MrrtReportTemplateImportController}.
+ */
+public class MrrtReportTemplateImportControllerComponentTest extends BaseModuleWebContextSensitiveTest {
+    
+    
+    private MrrtReportTemplateImportController mrrtReportTemplateImportController =
+            new MrrtReportTemplateImportController();
+    
+    /**
+     * @see MrrtReportTemplateImportController#importMrrtReportTemplates(org.springframework.web.multipart.MultipartFile,
+     *      javax.servlet.http.HttpServletResponse)
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldReturnTheImportResultOfEachFileOfGivenArchive() throws Exception {
+        
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive, StandardCharsets.UTF_8)) {
+            zip.putNextEntry(new ZipEntry("invalid.html"));
+            zip.write("<html>my template</html>".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "templates.zip", "application/zip", archive.toByteArray());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        SimpleObject result = mrrtReportTemplateImportController.importMrrtReportTemplates(file, response);
+        
+        assertThat(response.getStatus(), is(200));
+        List<SimpleObject> results = (List<SimpleObject>) result.get("results");
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0)
+                .get("fileName"),
+            is("invalid.html"));
+        assertThat(results.get(0)
+                .get("imported"),
+            is(false));
+        assertNotNull(results.get(0)
+                .get("error"));
+        assertTrue(((List<String>) results.get(0)
+                .get("validationErrors")).size() > 0);
+    }
+}
@@ -96,8 +96,7 @@ public class RadiologyReportResourceTest {
                 radiologyReportResource.getRepresentationDescription(defaultRepresentation);
         assertThat(resourceDescription.getProperties()
                 .keySet(),
-            contains("uuid", "radiologyOrder", "date", "principalResultsInterpreter", "status", "body", "display",
-                "voided"));
+            contains("uuid", "radiologyOrder", "date", "principalResultsInterpreter", "status", "display", "voided"));
         assertThat(resourceDescription.getProperties()
                 .get("radiologyOrder")
                 .getRep(),
@@ -113,7 +112,7 @@ public class RadiologyReportResourceTest {
                 radiologyReportResource.getRepresentationDescription(fullRepresentation);
         assertThat(resourceDescription.getProperties()
                 .keySet(),
-            contains("uuid", "radiologyOrder", "date", "principalResultsInterpreter", "status", "body", "display", "voided",
+            contains("uuid", "radiologyOrder", "date", "principalResultsInterpreter", "status", "display", "voided", "body",
                 "auditInfo"));
         assertThat(resourceDescription.getProperties()
                 .get("radiologyOrder")
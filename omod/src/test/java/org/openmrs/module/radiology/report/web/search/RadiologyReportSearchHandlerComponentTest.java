@@ -29,6 +29,7 @@ import org.openmrs.module.radiology.report.RadiologyReport;
 import org.openmrs.module.radiology.report.RadiologyReportSearchCriteria;
 import org.openmrs.module.radiology.report.RadiologyReportService;
 import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.module.radiology.web.search.KeysetPagedResult;
 import org.openmrs.module.webservices.rest.SimpleObject;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
@@ -61,6 +62,8 @@ public class RadiologyReportSearchHandlerComponentTest extends MainResourceContr
     
     private static final String RADIOLOGY_REPORT_UUID = "82d3fb80-e403-4b9b-982c-22161ec29811";
     
+    private static final String RADIOLOGY_REPORT_UUID_MATCHING_ALL_TERMS = "82d3fb80-e403-4b9b-982c-22161ec29810";
+    
     @Autowired
     RadiologyReportService radiologyReportService;
     
@@ -344,4 +347,134 @@ public class RadiologyReportSearchHandlerComponentTest extends MainResourceContr
         assertNotNull(resultDateRangeWithTwoReport);
         assertThat(PropertyUtils.getProperty(resultDateRangeWithTwoReport, "totalCount"), is(2));
     }
+    
+    @Test
+    public void shouldReturnTheRequestedPageOfRadiologyReportsGivenStartIndexAndLimit() throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_DATE_FROM, DATE_BEFORE_REPORT_DATES);
+        requestFirstPage.setParameter("limit", "1");
+        requestFirstPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        
+        assertNotNull(resultFirstPage);
+        List<Object> firstPageHits = (List<Object>) resultFirstPage.get("results");
+        assertThat(firstPageHits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(resultFirstPage, "totalCount"), is(2));
+        
+        MockHttpServletRequest requestSecondPage = request(RequestMethod.GET, getURI());
+        requestSecondPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_DATE_FROM, DATE_BEFORE_REPORT_DATES);
+        requestSecondPage.setParameter("startIndex", "1");
+        requestSecondPage.setParameter("limit", "1");
+        requestSecondPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        
+        SimpleObject resultSecondPage = deserialize(handle(requestSecondPage));
+        
+        assertNotNull(resultSecondPage);
+        List<Object> secondPageHits = (List<Object>) resultSecondPage.get("results");
+        assertThat(secondPageHits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(resultSecondPage, "totalCount"), is(2));
+        assertThat(PropertyUtils.getProperty(secondPageHits.get(0), "uuid")
+                .equals(PropertyUtils.getProperty(firstPageHits.get(0), "uuid")),
+            is(false));
+    }
+    
+    @Test
+    public void shouldReturnTheFirstPageOfRadiologyReportsAndAContinuationTokenIfMoreReportsExist() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_DATE_FROM, DATE_BEFORE_REPORT_DATES);
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(1));
+        assertNotNull(result.get(KeysetPagedResult.PROPERTY_CONTINUATION_TOKEN));
+    }
+    
+    @Test
+    public void shouldReturnTheNextPageOfRadiologyReportsGivenAContinuationToken() throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_DATE_FROM, DATE_BEFORE_REPORT_DATES);
+        requestFirstPage.setParameter("limit", "1");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        List<Object> firstPageHits = (List<Object>) resultFirstPage.get("results");
+        String continuationToken = (String) resultFirstPage.get(KeysetPagedResult.PROPERTY_CONTINUATION_TOKEN);
+        
+        MockHttpServletRequest requestSecondPage = request(RequestMethod.GET, getURI());
+        requestSecondPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_DATE_FROM, DATE_BEFORE_REPORT_DATES);
+        requestSecondPage.setParameter("limit", "1");
+        requestSecondPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_CONTINUATION_TOKEN, continuationToken);
+        
+        SimpleObject resultSecondPage = deserialize(handle(requestSecondPage));
+        
+        assertNotNull(resultSecondPage);
+        List<Object> secondPageHits = (List<Object>) resultSecondPage.get("results");
+        assertThat(secondPageHits.size(), is(1));
+        assertNull(resultSecondPage.get(KeysetPagedResult.PROPERTY_CONTINUATION_TOKEN));
+        assertThat(PropertyUtils.getProperty(secondPageHits.get(0), "uuid")
+                .equals(PropertyUtils.getProperty(firstPageHits.get(0), "uuid")),
+            is(false));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfContinuationTokenIsMalformed() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("encodedToken is not a valid continuation token");
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_CONTINUATION_TOKEN, "bm90LWFuLWlk");
+        
+        deserialize(handle(request));
+    }
+    
+    @Test
+    public void shouldReturnRadiologyReportsWhoseBodyContainsGivenTextRankedByRelevance() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TEXT, "Pulmonary nodule");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID_MATCHING_ALL_TERMS));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "uuid"), is(RADIOLOGY_REPORT_UUID));
+    }
+    
+    @Test
+    public void shouldReturnTheNextPageOfRadiologyReportsMatchingGivenTextGivenStartIndexAndLimit() throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TEXT, "nodule");
+        requestFirstPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        requestFirstPage.setParameter("limit", "1");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        
+        List<Object> firstPageHits = (List<Object>) resultFirstPage.get("results");
+        assertThat(firstPageHits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(firstPageHits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID));
+        assertThat(PropertyUtils.getProperty(resultFirstPage, "totalCount"), is(2));
+        assertNull(resultFirstPage.get(KeysetPagedResult.PROPERTY_TOTAL_COUNT_CAPPED));
+        assertNull(resultFirstPage.get(KeysetPagedResult.PROPERTY_CONTINUATION_TOKEN));
+        
+        MockHttpServletRequest requestSecondPage = request(RequestMethod.GET, getURI());
+        requestSecondPage.setParameter(RadiologyReportSearchHandler.REQUEST_PARAM_TEXT, "nodule");
+        requestSecondPage.setParameter("limit", "1");
+        requestSecondPage.setParameter("startIndex", "1");
+        
+        SimpleObject resultSecondPage = deserialize(handle(requestSecondPage));
+        
+        List<Object> secondPageHits = (List<Object>) resultSecondPage.get("results");
+        assertThat(secondPageHits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(secondPageHits.get(0), "uuid"), is(RADIOLOGY_REPORT_UUID_MATCHING_ALL_TERMS));
+    }
 }